@@ -109,6 +109,8 @@ export type StopReason =
   | 'kCallStackHalt'
   | 'kMaxCycles'
   | 'kTimeOut'
+  | 'kCancelled'
+  | 'kStopCondition'
   | 'kBadConfig';
 
 export interface InstructionMix {
@@ -34,7 +34,9 @@ import type { MemoryLocationApi } from '@/lib/forms/Isa';
 import type { OptimizeOption } from '@/lib/redux/compilerSlice';
 import type {
   CpuState,
+  DebugLog,
   InstructionFunctionModel,
+  SimulationStatistics,
   StopReason,
 } from '@/lib/types/cpuApi';
 
@@ -210,16 +212,71 @@ export interface SimulateEndpoint {
 
 /**
  * Specify tick to get the simulation state at this time (tick 0 is the initial state). Tick is optional. If not provided, the simulation will run until the end.
+ * Tick and cycle budget are 64-bit on the server, a number is exact up to Number.MAX_SAFE_INTEGER.
  */
 export interface SimulateRequest {
   tick: number | null;
   config: SimulationConfig;
+  /**
+   * Cycle budget of the simulation, a positive number. The default budget is used if not provided.
+   */
+  maxCycles?: number | null;
+  /**
+   * Conditions that stop the simulation before the tick. The response says which one fired.
+   */
+  stopConditions?: StopCondition[];
+  /**
+   * The conditions fire only after this tick, to continue from a state where one fired.
+   */
+  stopConditionsFromTick?: number;
+}
+
+/**
+ * Only the fields of the type are used.
+ */
+export interface StopCondition {
+  type:
+    | 'kPc'
+    | 'kLabel'
+    | 'kRegister'
+    | 'kMemoryWrite'
+    | 'kCommits'
+    | 'kFlush'
+    | 'kCacheMiss';
+  address?: number;
+  label?: string;
+  count?: number;
+  size?: number;
+  register?: string;
+  operator?: '==' | '!=' | '<' | '<=' | '>' | '>=';
+  value?: number;
 }
 
 export interface SimulateResponse {
   executedSteps: number;
   state: CpuState;
   stopReason: StopReason;
+  /**
+   * Index of the stop condition that stopped the simulation, -1 if none did
+   */
+  firedCondition: number;
+}
+
+/**
+ * Statistics, registers and log of a simulation, without the full state (shortResponse).
+ */
+export interface SimulateShortResponse {
+  debugLog: DebugLog;
+  statistics: SimulationStatistics;
+  stopReason: StopReason;
+  /**
+   * Index of the stop condition that stopped the simulation, -1 if none did
+   */
+  firedCondition: number;
+  /**
+   * Architectural register values by name, aliased registers are included under both names
+   */
+  registerValues: Record<string, number>;
 }
 
 //
@@ -159,6 +159,10 @@ export function stopReasonToShortString(stopReason: StopReason): string {
       return 'Timeout';
     case 'kTimeOut':
       return 'Timeout';
+    case 'kCancelled':
+      return 'Cancelled';
+    case 'kStopCondition':
+      return 'Stopped';
     case 'kNotStopped':
       return 'Running';
     default:
@@ -15,6 +15,7 @@ let
       "java.base"
       "java.logging"
       "java.security.sasl"
+      "jdk.jfr"
       "jdk.unsupported"
     ];
   };
@@ -38,7 +39,7 @@ maven.buildMavenPackage {
 
   src = gitignoreSource ./.;
 
-  mvnHash = "sha256-gipvSuxQXJzqwQ8to1FEOitID1RbGpVD1qgAKgEy5QY=";
+  mvnHash = "sha256-0RPTabGit+mEduDht7rfX5gc3czA0Zyh/tqDgfEQamc=";
   nativeBuildInputs = [ makeWrapper ];
   buildInputs = [ riscv-gcc ];
   mvnParameters = "-Dmaven.test.skip";
@@ -0,0 +1,54 @@
+/**
+ * @file BenchmarkSuite.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Runner of the benchmarks with JSON output and the GC profiler
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler (allocation rate and GC count next to each time) and writes the results
+ * as JSON, to {@code jmh-result.json} unless {@code -rff} says otherwise.
+ * Takes the usual JMH arguments, e.g. a regex to select benchmarks or {@code -p robSize=64} to narrow parameters.
+ */
+public class BenchmarkSuite
+{
+  public static void main(String[] args) throws Exception
+  {
+    CommandLineOptions commandLine = new CommandLineOptions(args);
+    Options options = new OptionsBuilder().parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+            .result(commandLine.getResult().orElse("jmh-result.json"))
+            .build();
+    new Runner(options).run();
+  }
+}
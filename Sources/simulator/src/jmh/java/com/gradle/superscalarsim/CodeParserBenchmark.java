@@ -0,0 +1,104 @@
+/**
+ * @file CodeParserBenchmark.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Benchmark of the parsing of the example programs
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.code.CodeParser;
+import com.gradle.superscalarsim.code.MachineCodeEncoder;
+import com.gradle.superscalarsim.code.MachineCodeLoader;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.loader.IDataProvider;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the example programs, done by every /simulate and /parseAsm request, against loading the same programs
+ * assembled to machine code. The machine code is encoded from the parsed program, there is no RISC-V toolchain in
+ * the build.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CodeParserBenchmark
+{
+  @Param({"basicFloatArithmetic.r5", "basicLoop.r5", "callStack.r5", "writeToArray.r5", "cMatrixMultiplication.c",
+          "wholeLotOfC.c"})
+  String program;
+  
+  IDataProvider dataProvider;
+  
+  String code;
+  
+  List<MemoryLocation> memoryLocations;
+  
+  byte[] binary;
+  
+  public static void main(String[] args) throws Exception
+  {
+    org.openjdk.jmh.Main.main(args);
+  }
+  
+  @Setup(Level.Trial)
+  public void setup() throws Exception
+  {
+    SimulationConfig config = ExamplePrograms.load(program, "default");
+    dataProvider    = new StaticDataProvider();
+    code            = config.code;
+    memoryLocations = config.memoryLocations;
+    binary          = MachineCodeEncoder.assemble(code, ExamplePrograms.memoryLocations(program),
+                                                  config.cpuConfig.callStackSize);
+  }
+  
+  @Benchmark
+  public List<InputCodeModel> parseCode()
+  {
+    CodeParser parser = new CodeParser(dataProvider.getInstructionFunctionModels(),
+                                       dataProvider.getRegisterFile().getRegisterMap(true),
+                                       new InputCodeModelFactory(), memoryLocations);
+    parser.parseCode(code);
+    return parser.getInstructions();
+  }
+  
+  @Benchmark
+  public List<InputCodeModel> loadMachineCode()
+  {
+    MachineCodeLoader loader = new MachineCodeLoader(dataProvider.getInstructionFunctionModels(),
+                                                     dataProvider.getRegisterFile().getRegisterMap(true),
+                                                     new InputCodeModelFactory());
+    loader.load(binary);
+    return loader.getInstructions();
+  }
+}
@@ -0,0 +1,140 @@
+/**
+ * @file ExamplePrograms.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Example programs and CPU configurations for the benchmarks
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gradle.superscalarsim.compiler.AsmParser;
+import com.gradle.superscalarsim.compiler.CompiledProgram;
+import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Programs and CPU configurations of the {@code examples} directory, shared by the benchmarks.
+ * The paths are relative, run the benchmarks from the simulator directory.
+ */
+public class ExamplePrograms
+{
+  static final Path examples = Path.of("examples");
+  
+  /**
+   * ASM programs that need memory locations defined outside the code
+   */
+  static final Map<String, String> memoryFiles = Map.of("externMemory.r5", "constant.json", "writeToArray.r5",
+                                                        "ptr.json");
+  
+  /**
+   * @param program File name in {@code examples/asmPrograms} or {@code examples/cPrograms}.
+   *                C programs are compiled with -O2 and start at {@code main}.
+   * @param cpu     Name of the CPU configuration, see {@link #cpuConfig}
+   *
+   * @return Configuration of the simulation
+   */
+  public static SimulationConfig load(String program, String cpu) throws IOException
+  {
+    if (program.endsWith(".c"))
+    {
+      return new SimulationConfig(compile(program), List.of(), cpuConfig(cpu), "main");
+    }
+    String code = Files.readString(examples.resolve("asmPrograms").resolve(program));
+    return new SimulationConfig(code, memoryLocations(program), cpuConfig(cpu), 0);
+  }
+  
+  /**
+   * Throws if GCC is missing or the program does not compile, the benchmark then fails on setup.
+   *
+   * @param program File name in {@code examples/cPrograms}
+   *
+   * @return ASM of the program
+   */
+  public static String compile(String program) throws IOException
+  {
+    String                  code   = Files.readString(examples.resolve("cPrograms").resolve(program));
+    GccCaller.CompileResult result = GccCaller.compile(code, List.of("O2"));
+    if (!result.success)
+    {
+      throw new IllegalStateException("Cannot compile " + program + ": " + result.error);
+    }
+    CompiledProgram compiled = AsmParser.parse(result.code);
+    return String.join("\n", compiled.program);
+  }
+  
+  /**
+   * @param program File name in {@code examples/asmPrograms}
+   *
+   * @return Memory locations the program needs
+   */
+  public static List<MemoryLocation> memoryLocations(String program) throws IOException
+  {
+    if (!memoryFiles.containsKey(program))
+    {
+      return List.of();
+    }
+    return Serialization.getDeserializer()
+            .readValue(examples.resolve("memory").resolve(memoryFiles.get(program)).toFile(), new TypeReference<>()
+            {
+            });
+  }
+  
+  /**
+   * @param name {@code default} (examples/cpuConfigurations/default.json), {@code narrow} (scalar core with a small
+   *             ROB) or {@code wide} (8-wide core with a large ROB). Both derive from the default.
+   *
+   * @return CPU configuration
+   */
+  public static CpuConfig cpuConfig(String name) throws IOException
+  {
+    CpuConfig config = Serialization.getDeserializer()
+            .readValue(examples.resolve("cpuConfigurations/default.json").toFile(), CpuConfig.class);
+    if (name.equals("narrow"))
+    {
+      config.robSize     = 16;
+      config.fetchWidth  = 1;
+      config.commitWidth = 1;
+    }
+    else if (name.equals("wide"))
+    {
+      config.robSize     = 512;
+      config.fetchWidth  = 8;
+      config.commitWidth = 8;
+    }
+    else if (!name.equals("default"))
+    {
+      throw new IllegalArgumentException("Unknown CPU configuration: " + name);
+    }
+    return config;
+  }
+}
@@ -0,0 +1,78 @@
+/**
+ * @file ExampleProgramsBenchmark.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Benchmark of whole simulations of the example programs
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole simulations (CPU state initialization and the run to the end) of every example program on several CPU
+ * configurations, see {@link ExamplePrograms#cpuConfig}.
+ * The C programs are compiled with GCC once per trial, without GCC their trials fail and the rest goes on.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExampleProgramsBenchmark
+{
+  @Param({"basicFloatArithmetic.r5", "basicLoadStore.r5", "basicLoop.r5", "basicRawAdd.r5", "callStack.r5",
+          "externMemory.r5", "failedLoadForward.r5", "ifElseWithIfTaken.r5", "loadBypassing.r5", "writeToArray.r5",
+          "cBubbleSort.c", "cFibonacci.c", "cMatrixMultiplication.c", "cMatrixMultiplicationMisaligned.c",
+          "wholeLotOfC.c"})
+  String program;
+  
+  @Param({"default", "narrow", "wide"})
+  String cpuConfig;
+  
+  SimulationConfig config;
+  
+  public static void main(String[] args) throws Exception
+  {
+    org.openjdk.jmh.Main.main(args);
+  }
+  
+  @Setup(Level.Trial)
+  public void setup() throws Exception
+  {
+    config = ExamplePrograms.load(program, cpuConfig);
+  }
+  
+  @Benchmark
+  public Cpu simulate()
+  {
+    Cpu cpu = new Cpu(config);
+    cpu.execute(false);
+    return cpu;
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * @file ExpressionBenchmark.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Benchmark of the interpretation of instruction expressions
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.code.Expression;
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.register.RegisterDataContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interpretation of the expressions of instructions ({@code interpretableAs} of supportedInstructions.json),
+ * the work of a function unit per executed instruction.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExpressionBenchmark
+{
+  /**
+   * Expressions of the benchmarked instructions
+   */
+  static final Map<String, String> expressions = Map.of("add", "\\rs1 \\rs2 + \\rd =", "mul", "\\rs1 \\rs2 * \\rd =",
+                                                        "slt", "\\rs1 \\rs2 < \\rd =", "fdiv.s",
+                                                        "\\rs1 \\rs2 / \\rd =", "fmadd.s",
+                                                        "\\rs1 \\rs2 * \\rs3 + \\rd =");
+  
+  @Param({"add", "mul", "slt", "fdiv.s", "fmadd.s"})
+  String instruction;
+  
+  String expression;
+  
+  List<Expression.Variable> variables;
+  
+  public static void main(String[] args) throws Exception
+  {
+    org.openjdk.jmh.Main.main(args);
+  }
+  
+  @Setup(Level.Trial)
+  public void setup()
+  {
+    expression = expressions.get(instruction);
+    if (instruction.startsWith("f"))
+    {
+      variables = List.of(new Expression.Variable("rd", DataTypeEnum.kFloat, RegisterDataContainer.fromValue(0f),
+                                                  false),
+                          new Expression.Variable("rs1", DataTypeEnum.kFloat, RegisterDataContainer.fromValue(3.5f),
+                                                  false),
+                          new Expression.Variable("rs2", DataTypeEnum.kFloat, RegisterDataContainer.fromValue(-1.25f),
+                                                  false),
+                          new Expression.Variable("rs3", DataTypeEnum.kFloat, RegisterDataContainer.fromValue(2f),
+                                                  false));
+    }
+    else
+    {
+      variables = List.of(new Expression.Variable("rd", DataTypeEnum.kInt, RegisterDataContainer.fromValue(0), false),
+                          new Expression.Variable("rs1", DataTypeEnum.kInt, RegisterDataContainer.fromValue(1234),
+                                                  false),
+                          new Expression.Variable("rs2", DataTypeEnum.kInt, RegisterDataContainer.fromValue(-77),
+                                                  false));
+    }
+  }
+  
+  @Benchmark
+  public Object interpret()
+  {
+    return Expression.interpret(expression, variables);
+  }
+}
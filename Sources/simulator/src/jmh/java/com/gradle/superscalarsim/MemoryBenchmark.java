@@ -0,0 +1,162 @@
+/**
+ * @file MemoryBenchmark.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Benchmark of the cache and main memory accesses
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.blocks.loadstore.Cache;
+import com.gradle.superscalarsim.blocks.loadstore.SimulatedMemory;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import com.gradle.superscalarsim.enums.cache.ReplacementPoliciesEnum;
+import com.gradle.superscalarsim.models.memory.MemoryTransaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One access through the cache (hit and miss) and direct accesses to the main memory.
+ * An access is scheduled, the blocks are simulated until it finishes and it is collected, as the load/store
+ * units do it.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemoryBenchmark
+{
+  /**
+   * Lines of 16 bytes, so 64 lines take 1 KiB
+   */
+  @Param({"64", "1024"})
+  int cacheLines;
+  
+  @Param({"LRU", "FIFO", "RANDOM"})
+  ReplacementPoliciesEnum replacementPolicy;
+  
+  SimulatedMemory memory;
+  
+  Cache cache;
+  
+  /**
+   * Clock of the simulated blocks
+   */
+  int cycle;
+  
+  /**
+   * Index of the next address of an access pattern
+   */
+  int next;
+  
+  public static void main(String[] args) throws Exception
+  {
+    org.openjdk.jmh.Main.main(args);
+  }
+  
+  @Setup(Level.Iteration)
+  public void setup()
+  {
+    SimulationStatistics statistics = new SimulationStatistics(0, 1);
+    memory = new SimulatedMemory(1, 1, statistics);
+    memory.insertIntoMemory(0, new byte[1 << 20]);
+    cache = new Cache(memory, cacheLines, 2, 16, 1, 1, replacementPolicy, true, statistics);
+    cycle = 0;
+    next  = 0;
+    // Bring the first 256 bytes into the cache, they stay there for the hits
+    for (int address = 0; address < 256; address += 4)
+    {
+      access(MemoryTransaction.load(address, 4, cycle));
+    }
+  }
+  
+  /**
+   * Loads of the first 256 bytes, always in the cache
+   */
+  @Benchmark
+  public long cacheHit()
+  {
+    next = (next + 4) & 255;
+    return access(MemoryTransaction.load(next, 4, cycle));
+  }
+  
+  /**
+   * Loads with a stride of the cache size, every access replaces a line
+   */
+  @Benchmark
+  public long cacheMiss()
+  {
+    next = (next + 1) & 255;
+    return access(MemoryTransaction.load(1024L + (long) next * cacheLines * 16 % (1 << 19), 4, cycle));
+  }
+  
+  /**
+   * Stores to lines in the cache, marking them dirty
+   */
+  @Benchmark
+  public long cacheStoreHit()
+  {
+    next = (next + 4) & 255;
+    return access(MemoryTransaction.store(next, new byte[]{1, 2, 3, 4}, cycle));
+  }
+  
+  /**
+   * Load of a word from the main memory, as done by the memory access unit without a cache
+   */
+  @Benchmark
+  public byte[] memoryRead()
+  {
+    next = (next + 4) & 0xFFFF;
+    return memory.getFromMemory(next, 4);
+  }
+  
+  /**
+   * Store of a word to the main memory
+   */
+  @Benchmark
+  public int memoryWrite()
+  {
+    next = (next + 4) & 0xFFFF;
+    memory.insertIntoMemory(next, new byte[]{1, 2, 3, 4});
+    return next;
+  }
+  
+  /**
+   * @return Data of the access
+   */
+  private long access(MemoryTransaction transaction)
+  {
+    int latency = cache.scheduleTransaction(transaction);
+    for (int i = 0; i < latency; i++)
+    {
+      cycle++;
+      memory.simulate(cycle);
+      cache.simulate(cycle);
+    }
+    cache.finishTransaction(transaction.id());
+    return transaction.isStore() ? latency : transaction.dataAsLong();
+  }
+}
@@ -0,0 +1,173 @@
+/**
+ * @file PipelineBlockBenchmark.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Benchmark of the pipeline blocks per simulated cycle
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.cpu.BlockProfiler;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of the pipeline blocks per simulated cycle, for several sizes of the ROB (which bounds the occupancy of the
+ * issue windows) and fetch widths.
+ * The blocks depend on each other's state, so instead of calling one block in isolation, whole simulations run with
+ * a {@link BlockProfiler} attached and its per-block times are reported as secondary results (ns per cycle).
+ * The {@code loop} program is predicted well, {@code alternating} mispredicts every other branch and flushes the ROB.
+ */
+@State(Scope.Thread)
+@Fork(value = 1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PipelineBlockBenchmark
+{
+  static final String loop = """
+          addi x1, x0, 0
+          addi x2, x0, 200
+          loop:
+            lw x3, 0(x0)
+            add x4, x4, x3
+            addi x1, x1, 1
+            blt x1, x2, loop
+          """;
+  
+  static final String alternating = """
+          addi x1, x0, 0
+          addi x2, x0, 200
+          loop:
+            andi x3, x1, 1
+            beq x3, x0, skip
+            addi x4, x4, 1
+          skip:
+            addi x1, x1, 1
+            blt x1, x2, loop
+          """;
+  
+  @Param({"loop", "alternating"})
+  String program;
+  
+  @Param({"16", "64", "256"})
+  int robSize;
+  
+  @Param({"1", "4"})
+  int fetchWidth;
+  
+  SimulationConfig config;
+  
+  public static void main(String[] args) throws Exception
+  {
+    org.openjdk.jmh.Main.main(args);
+  }
+  
+  @Setup(Level.Trial)
+  public void setup() throws Exception
+  {
+    config                      = SimulationConfig.getDefaultConfiguration();
+    config.code                 = program.equals("loop") ? loop : alternating;
+    config.cpuConfig            = ExamplePrograms.cpuConfig("default");
+    config.cpuConfig.robSize    = robSize;
+    config.cpuConfig.fetchWidth = fetchWidth;
+  }
+  
+  @Benchmark
+  public Cpu simulate(BlockTimes times)
+  {
+    Cpu cpu = new Cpu(config);
+    cpu.profiler = times.profiler;
+    cpu.execute(false);
+    times.cycles += cpu.cpuState.statistics.clockCycles;
+    return cpu;
+  }
+  
+  /**
+   * Per-block times of the iteration, in nanoseconds per simulated cycle
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class BlockTimes
+  {
+    BlockProfiler profiler;
+    
+    long cycles;
+    
+    @Setup(Level.Iteration)
+    public void reset()
+    {
+      profiler = new BlockProfiler();
+      cycles   = 0;
+    }
+    
+    public double reorderBuffer()
+    {
+      return perCycle(BlockProfiler.Stage.kReorderBuffer);
+    }
+    
+    public double issueWindows()
+    {
+      return perCycle(BlockProfiler.Stage.kAluIssueWindow, BlockProfiler.Stage.kFpIssueWindow,
+                      BlockProfiler.Stage.kBranchIssueWindow, BlockProfiler.Stage.kLoadStoreIssueWindow);
+    }
+    
+    public double issueWindowSuperBlock()
+    {
+      return perCycle(BlockProfiler.Stage.kIssueWindowSuperBlock);
+    }
+    
+    /**
+     * Decode, rename and dispatch
+     */
+    public double decodeAndDispatch()
+    {
+      return perCycle(BlockProfiler.Stage.kDecodeAndDispatch);
+    }
+    
+    public double instructionFetch()
+    {
+      return perCycle(BlockProfiler.Stage.kInstructionFetch);
+    }
+    
+    public double memory()
+    {
+      return perCycle(BlockProfiler.Stage.kMemory, BlockProfiler.Stage.kCache, BlockProfiler.Stage.kStoreBuffer,
+                      BlockProfiler.Stage.kLoadBuffer);
+    }
+    
+    private double perCycle(BlockProfiler.Stage... stages)
+    {
+      long nanos = 0;
+      for (BlockProfiler.Stage stage : stages)
+      {
+        nanos += profiler.getNanos(stage);
+      }
+      return cycles == 0 ? 0 : (double) nanos / cycles;
+    }
+  }
+}
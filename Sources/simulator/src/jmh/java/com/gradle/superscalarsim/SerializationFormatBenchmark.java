@@ -0,0 +1,119 @@
+/**
+ * @file SerializationFormatBenchmark.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Benchmark of the wire formats on the /simulate response
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import com.gradle.superscalarsim.server.simulate.SimulateRequest;
+import com.gradle.superscalarsim.server.simulate.SimulateResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode time of the final /simulate response for every example program, per wire format.
+ * The payload size is reported as the secondary result {@code payloadBytes}.
+ * Run from the simulator directory, the examples are loaded from {@code examples/}.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationFormatBenchmark
+{
+  @Param({"basicFloatArithmetic.r5", "basicLoadStore.r5", "basicLoop.r5", "basicRawAdd.r5", "callStack.r5",
+          "externMemory.r5", "failedLoadForward.r5", "ifElseWithIfTaken.r5", "loadBypassing.r5", "writeToArray.r5"})
+  String program;
+  
+  @Param({"JSON", "CBOR", "SMILE"})
+  WireFormat format;
+  
+  SimulateResponse response;
+  ObjectWriter writer;
+  ObjectReader reader;
+  byte[] encoded;
+  
+  public static void main(String[] args) throws Exception
+  {
+    org.openjdk.jmh.Main.main(args);
+  }
+  
+  @Setup(Level.Trial)
+  public void setup() throws Exception
+  {
+    SimulationConfig config = ExamplePrograms.load(program, "default");
+    response = new SimulateHandler().resolve(new SimulateRequest(config, Optional.empty()));
+    
+    writer  = Serialization.getSerializer().writerFor(SimulateResponse.class).with(format.getFactory());
+    reader  = Serialization.getDeserializer().readerFor(Object.class).with(format.getFactory());
+    encoded = writer.writeValueAsBytes(response);
+  }
+  
+  /**
+   * Serialization of the response, as done by the server
+   */
+  @Benchmark
+  public byte[] encode(Payload payload) throws Exception
+  {
+    byte[] bytes = writer.writeValueAsBytes(response);
+    payload.bytes = bytes.length;
+    return bytes;
+  }
+  
+  /**
+   * Parsing of the response into a generic tree, as a client would do
+   */
+  @Benchmark
+  public Object decode(Payload payload) throws Exception
+  {
+    payload.bytes = encoded.length;
+    return reader.readValue(encoded);
+  }
+  
+  /**
+   * Size of the encoded response, reported next to the time
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Payload
+  {
+    long bytes;
+    
+    public double payloadBytes()
+    {
+      return bytes;
+    }
+  }
+}
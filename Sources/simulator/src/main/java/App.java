@@ -39,7 +39,7 @@ import java.util.logging.Logger;
  * @details See documentation of the Picocli library: <a href="https://picocli.info/quick-guide.html">Docs</a>
  */
 @Command(name = "RiscvSimulator", // name of the executable, shows in help
-         subcommands = {CommandLine.HelpCommand.class, ServerApp.class, CliApp.class}, // subcommands
+         subcommands = {CommandLine.HelpCommand.class, ServerApp.class, CliApp.class, BenchApp.class, BatchApp.class, CacheTraceApp.class, BranchTraceApp.class, SweepApp.class, PipeTraceApp.class}, // subcommands
          version = "0.1", // version of the app
          description = "RISC-V superscalar simulator") // description of the app, shows in help
 class App
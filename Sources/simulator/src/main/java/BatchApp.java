@@ -0,0 +1,223 @@
+/**
+ * @file BatchApp.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Batch entry point
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.batch.BatchOutput;
+import com.gradle.superscalarsim.batch.BatchRunner;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import com.gradle.superscalarsim.serialization.Serialization;
+import picocli.CommandLine.*;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+@Command(name = "batch", description = "Run every program on every CPU configuration and write a line of statistics per run")
+class BatchApp implements Callable<Integer>
+{
+  /**
+   * Logger for this class.
+   */
+  Logger logger = MyLogger.initializeLogger("Batch", Level.INFO);
+  
+  /**
+   * Number of failed runs. Exposed for testing purposes.
+   */
+  public int failedRuns;
+  @Spec
+  CommandSpec spec; // injected by picocli
+  @Option(names = "--programs", required = true, paramLabel = "GLOB", description = "RISC-V assembly programs, a path or a glob (e.g. 'examples/asmPrograms/*.r5'). Repeatable.")
+  List<String> programPatterns;
+  @Option(names = "--cpu", required = true, paramLabel = "GLOB", description = "Cpu configuration files, a path or a glob. Repeatable.")
+  List<String> cpuConfigPatterns;
+  @Option(names = "--memory", paramLabel = "GLOB", description = "Memory configuration files, a path or a glob. Repeatable, every program runs with every memory configuration. (default: none)")
+  List<String> memoryConfigPatterns = new ArrayList<>();
+  @Option(names = "--entry", paramLabel = "LABEL|ADDRESS", description = "Entry point of the programs. (default: 0)")
+  String entryPoint = "0";
+  @Option(names = "--threads", paramLabel = "NUMBER", description = "Number of runs in parallel. (default: number of processors)")
+  int threads = Runtime.getRuntime().availableProcessors();
+  @Option(names = "--format", paramLabel = "csv|ndjson", defaultValue = "csv", description = "Format of the output (default: ${DEFAULT-VALUE})")
+  String format;
+  @Option(names = "--columns", split = ",", paramLabel = "NAME", defaultValue = "clockCycles,committedInstructions,ipc,predictionAccuracy,robFlushes,cache.hits,cache.misses", description = "Statistics to write, nested values separated by dots (default: ${DEFAULT-VALUE})")
+  List<String> columns;
+  @Option(names = "--max-cycles", paramLabel = "NUMBER", defaultValue = "" + SimulationBudget.DEFAULT_MAX_CYCLES, description = "Cycle budget of one run (default: ${DEFAULT-VALUE})")
+  long maxCycles;
+  @Option(names = "--output", paramLabel = "FILE", description = "File to write the lines to. (default: stdout)")
+  Path outputPath;
+  @ParentCommand
+  private App parent;
+  
+  /**
+   * @return 0 when the batch finished, even if some runs failed (they are reported in their lines)
+   */
+  @Override
+  public Integer call() throws IOException, InterruptedException
+  {
+    if (threads < 1)
+    {
+      throw new ParameterException(spec.commandLine(), "At least one thread is needed");
+    }
+    BatchOutput.Format outputFormat;
+    try
+    {
+      outputFormat = BatchOutput.Format.valueOf(format.toUpperCase());
+    }
+    catch (IllegalArgumentException e)
+    {
+      throw new ParameterException(spec.commandLine(), "Unknown format: " + format);
+    }
+    checkColumns();
+    
+    List<Path> programs = expand(spec, programPatterns);
+    List<Path> cpus     = expand(spec, cpuConfigPatterns);
+    List<Path> memories = expand(spec, memoryConfigPatterns);
+    
+    // Parse entry point
+    Object entryPointObject = entryPoint;
+    try
+    {
+      entryPointObject = Integer.parseInt(entryPoint);
+    }
+    catch (NumberFormatException ignored)
+    {
+      // Not an integer, use as a label
+    }
+    
+    PrintWriter out = outputPath == null ? spec.commandLine().getOut() : new PrintWriter(
+            Files.newBufferedWriter(outputPath));
+    try
+    {
+      BatchRunner runner = new BatchRunner(threads, entryPointObject, maxCycles,
+                                           new BatchOutput(out, outputFormat, columns));
+      failedRuns = runner.run(programs, cpus, memories);
+    }
+    finally
+    {
+      if (outputPath != null)
+      {
+        out.close();
+      }
+    }
+    logger.info("Finished " + programs.size() * cpus.size() * Math.max(1, memories.size()) + " runs, " + failedRuns
+                        + " failed");
+    return 0;
+  }
+  
+  /**
+   * @brief Fail on a statistics column that does not exist, before anything runs
+   */
+  private void checkColumns()
+  {
+    JsonNode statistics = Serialization.getSerializer().valueToTree(new SimulationStatistics(0, 1));
+    for (String column : columns)
+    {
+      String top = column.split("\\.")[0];
+      if (!statistics.has(top))
+      {
+        throw new ParameterException(spec.commandLine(), "Unknown statistics column: " + column);
+      }
+    }
+  }
+  
+  /**
+   * @param spec     Command the patterns come from, for the error messages
+   * @param patterns Paths and globs
+   *
+   * @return The files matching the patterns, in the order of the patterns, each pattern sorted
+   */
+  static List<Path> expand(CommandSpec spec, List<String> patterns) throws IOException
+  {
+    List<Path> paths = new ArrayList<>();
+    for (String pattern : patterns)
+    {
+      if (!isGlob(pattern))
+      {
+        Path path = Path.of(pattern);
+        if (!Files.isRegularFile(path))
+        {
+          throw new ParameterException(spec.commandLine(), "File does not exist: " + pattern);
+        }
+        paths.add(path);
+        continue;
+      }
+      
+      Path        root    = globRoot(pattern);
+      PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+      List<Path>  matches = new ArrayList<>();
+      if (Files.isDirectory(root))
+      {
+        try (Stream<Path> files = Files.walk(root))
+        {
+          // Walked paths start with "./" for a relative pattern without a directory, the pattern does not
+          files.map(file -> root.equals(Path.of(".")) ? root.relativize(file) : file)
+                  .filter(file -> Files.isRegularFile(file) && matcher.matches(file)).sorted().forEach(matches::add);
+        }
+      }
+      if (matches.isEmpty())
+      {
+        throw new ParameterException(spec.commandLine(), "No files match: " + pattern);
+      }
+      paths.addAll(matches);
+    }
+    return paths;
+  }
+  
+  /**
+   * @return The longest directory prefix of the pattern without glob characters, "." if there is none
+   */
+  private static Path globRoot(String pattern)
+  {
+    Path full = Path.of(pattern);
+    Path root = full.getRoot();
+    for (Path part : full)
+    {
+      if (isGlob(part.toString()))
+      {
+        break;
+      }
+      root = root == null ? part : root.resolve(part);
+    }
+    return root == null ? Path.of(".") : root;
+  }
+  
+  private static boolean isGlob(String pattern)
+  {
+    return pattern.contains("*") || pattern.contains("?") || pattern.contains("[") || pattern.contains("{");
+  }
+}
@@ -0,0 +1,231 @@
+/**
+ * @file BenchApp.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Benchmark entry point
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.bench.BenchmarkReport;
+import com.gradle.superscalarsim.bench.BenchmarkResult;
+import com.gradle.superscalarsim.bench.BenchmarkRunner;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import picocli.CommandLine.*;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+@Command(name = "bench", description = "Measure the simulation speed on a set of programs and compare it with a baseline")
+class BenchApp implements Callable<Integer>
+{
+  /**
+   * Exit code of a run that regressed against the baseline
+   */
+  static final int REGRESSION_EXIT_CODE = 3;
+  
+  /**
+   * Logger for this class.
+   */
+  Logger logger = MyLogger.initializeLogger("Bench", Level.INFO);
+  
+  /**
+   * Exposed for testing purposes.
+   */
+  public BenchmarkReport report;
+  @Spec
+  CommandSpec spec; // injected by picocli
+  @Option(names = "--programs", required = true, paramLabel = "DIR|FILE", description = "RISC-V assembly program, or a directory of them (*.r5). Repeatable.")
+  List<Path> programPaths;
+  @Option(names = "--cpu", required = true, paramLabel = "FILE", description = "Cpu configuration file. Repeatable, every program runs on every configuration.")
+  List<Path> cpuConfigPaths;
+  @Option(names = "--memory", paramLabel = "FILE", description = "Memory configuration file, loaded for every program. Repeatable.")
+  List<Path> memoryConfigPaths = new ArrayList<>();
+  @Option(names = "--entry", paramLabel = "LABEL|ADDRESS", description = "Entry point of the programs. (default: 0)")
+  String entryPoint = "0";
+  @Option(names = "--warmup-ms", paramLabel = "NUMBER", defaultValue = "2000", description = "Time to run each workload before measuring it, in milliseconds (default: ${DEFAULT-VALUE})")
+  long warmupMs;
+  @Option(names = "--runs", paramLabel = "NUMBER", defaultValue = "5", description = "Measured runs of each workload (default: ${DEFAULT-VALUE})")
+  int measuredRuns;
+  @Option(names = "--max-cycles", paramLabel = "NUMBER", defaultValue = "" + SimulationBudget.DEFAULT_MAX_CYCLES, description = "Cycle budget of one run (default: ${DEFAULT-VALUE})")
+  long maxCycles;
+  @Option(names = "--output", paramLabel = "FILE", description = "File to write the JSON report to. (default: stdout)")
+  Path outputPath;
+  @Option(names = "--baseline", paramLabel = "FILE", description = "Report of an earlier run to compare with.")
+  Path baselinePath;
+  @Option(names = "--threshold", paramLabel = "PERCENT", defaultValue = "10", description = "Slowdown or allocation growth against the baseline that counts as a regression (default: ${DEFAULT-VALUE})")
+  double thresholdPercent;
+  @ParentCommand
+  private App parent;
+  
+  /**
+   * @return 0 on success, 1 if a workload is invalid, {@link #REGRESSION_EXIT_CODE} on a regression
+   */
+  @Override
+  public Integer call() throws IOException
+  {
+    if (warmupMs < 0 || measuredRuns < 1)
+    {
+      throw new ParameterException(spec.commandLine(), "Warm-up must not be negative and at least one run is needed");
+    }
+    
+    List<Path>           programs     = findPrograms();
+    List<MemoryLocation> memoryConfig = new ArrayList<>();
+    for (Path path : memoryConfigPaths)
+    {
+      memoryConfig.addAll(Serialization.getDeserializer().readValue(path.toFile(), new TypeReference<>()
+      {
+      }));
+    }
+    
+    // Parse entry point
+    Object entryPointObject = entryPoint;
+    try
+    {
+      entryPointObject = Integer.parseInt(entryPoint);
+    }
+    catch (NumberFormatException ignored)
+    {
+      // Not an integer, use as a label
+    }
+    
+    report = new BenchmarkReport(warmupMs, measuredRuns);
+    BenchmarkRunner runner = new BenchmarkRunner(warmupMs, measuredRuns, maxCycles);
+    for (Path cpuPath : cpuConfigPaths)
+    {
+      CpuConfig cpuConfig = Serialization.getDeserializer().readValue(cpuPath.toFile(), CpuConfig.class);
+      String    cpuName   = cpuPath.getFileName().toString().replaceFirst("\\.json$", "");
+      for (Path program : programs)
+      {
+        SimulationConfig config = new SimulationConfig(Files.readString(program), memoryConfig, cpuConfig,
+                                                       entryPointObject);
+        BenchmarkResult result = runner.run(program.toString(), cpuName, config);
+        if (result.error != null)
+        {
+          logger.severe("Invalid workload " + result.getKey() + ": " + result.error);
+        }
+        report.results.add(result);
+      }
+    }
+    
+    boolean regressed = false;
+    if (baselinePath != null)
+    {
+      BenchmarkReport baseline = Serialization.getDeserializer()
+              .readValue(baselinePath.toFile(), BenchmarkReport.class);
+      regressed = report.compare(baseline, thresholdPercent);
+    }
+    
+    printSummary(spec.commandLine().getErr());
+    String output = Serialization.getSerializer().writerWithDefaultPrettyPrinter().writeValueAsString(report);
+    if (outputPath != null)
+    {
+      Files.writeString(outputPath, output);
+    }
+    else
+    {
+      spec.commandLine().getOut().println(output);
+      spec.commandLine().getOut().flush();
+    }
+    
+    if (regressed)
+    {
+      return REGRESSION_EXIT_CODE;
+    }
+    return report.hasErrors() ? 1 : 0;
+  }
+  
+  /**
+   * @return The programs, directories replaced by the *.r5 files in them, sorted
+   */
+  private List<Path> findPrograms() throws IOException
+  {
+    List<Path> programs = new ArrayList<>();
+    for (Path path : programPaths)
+    {
+      if (Files.isDirectory(path))
+      {
+        try (Stream<Path> files = Files.list(path))
+        {
+          files.filter(file -> file.toString().endsWith(".r5")).sorted().forEach(programs::add);
+        }
+      }
+      else if (Files.isRegularFile(path))
+      {
+        programs.add(path);
+      }
+      else
+      {
+        throw new ParameterException(spec.commandLine(), "File does not exist: " + path);
+      }
+    }
+    if (programs.isEmpty())
+    {
+      throw new ParameterException(spec.commandLine(), "No programs found");
+    }
+    return programs;
+  }
+  
+  /**
+   * @brief Print a human-readable table of the results and the comparison
+   */
+  private void printSummary(PrintWriter out)
+  {
+    out.printf("%-60s %12s %14s %14s %12s%n", "Workload", "Cycles", "Cycles/s", "Instr/s", "B/cycle");
+    for (BenchmarkResult result : report.results)
+    {
+      if (result.error != null)
+      {
+        out.printf("%-60s %s%n", result.getKey(), "invalid");
+        continue;
+      }
+      out.printf("%-60s %12d %14.0f %14.0f %12.1f%n", result.getKey(), result.cycles, result.cyclesPerSecond,
+                 result.instructionsPerSecond, result.allocatedBytesPerCycle);
+    }
+    if (!report.comparisons.isEmpty())
+    {
+      out.printf("%nAgainst the baseline (threshold %.1f %%):%n", thresholdPercent);
+      for (BenchmarkReport.Comparison comparison : report.comparisons)
+      {
+        out.printf("%-60s %+8.1f %% cycles/s %+8.1f %% B/cycle%s%s%n", comparison.program + " @ " + comparison.cpu,
+                   comparison.cyclesPerSecondChange, comparison.allocationChange,
+                   comparison.cyclesDiffer ? "  (cycle count differs)" : "",
+                   comparison.regression ? "  REGRESSION" : "");
+      }
+    }
+    out.flush();
+  }
+}
@@ -0,0 +1,214 @@
+/**
+ * @file BranchTraceApp.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Branch trace entry point
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.blocks.branch.BitPredictor;
+import com.gradle.superscalarsim.branchtrace.BranchTrace;
+import com.gradle.superscalarsim.branchtrace.BranchTraceConfig;
+import com.gradle.superscalarsim.branchtrace.BranchTraceReplayer;
+import com.gradle.superscalarsim.branchtrace.BranchTraceResult;
+import com.gradle.superscalarsim.branchtrace.BranchTraceWriter;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import picocli.CommandLine;
+import picocli.CommandLine.*;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "branchtrace", description = "Record the branch outcomes of a program once, replay them through many predictor configurations", subcommands = {CommandLine.HelpCommand.class, BranchTraceApp.Record.class, BranchTraceApp.Replay.class})
+class BranchTraceApp
+{
+  /**
+   * Logger for the subcommands.
+   */
+  static Logger logger = MyLogger.initializeLogger("BranchTrace", Level.INFO);
+  
+  @Command(name = "record", description = "Simulate a program and write the committed branches to a trace file")
+  static class Record implements Callable<Integer>
+  {
+    /**
+     * Number of recorded branches. Exposed for testing purposes.
+     */
+    public long recordedBranches;
+    @Spec
+    CommandSpec spec; // injected by picocli
+    @Option(names = "--program", required = true, paramLabel = "FILE", description = "RISC-V assembly program to record.")
+    Path programPath;
+    @Option(names = "--cpu", required = true, paramLabel = "FILE", description = "Cpu configuration file of the recording simulation.")
+    Path cpuConfigPath;
+    @Option(names = "--memory", paramLabel = "FILE", description = "Memory configuration file. (default: empty memory)")
+    Path memoryConfigPath;
+    @Option(names = "--entry", paramLabel = "LABEL|ADDRESS", description = "Entry point of the program. (default: 0)")
+    String entryPoint = "0";
+    @Option(names = "--max-cycles", paramLabel = "NUMBER", defaultValue = "" + SimulationBudget.DEFAULT_MAX_CYCLES, description = "Cycle budget of the simulation (default: ${DEFAULT-VALUE})")
+    long maxCycles;
+    @Option(names = "--output", required = true, paramLabel = "FILE", description = "Trace file to write.")
+    Path outputPath;
+    
+    /**
+     * @return 0 if the trace was written, 1 if the program or the configuration is invalid
+     */
+    @Override
+    public Integer call() throws IOException
+    {
+      if (maxCycles <= 0)
+      {
+        throw new ParameterException(spec.commandLine(), "The cycle budget must be positive");
+      }
+      SimulationConfig config = CacheTraceApp.loadSimulationConfig(programPath, cpuConfigPath, memoryConfigPath,
+                                                                   entryPoint);
+      if (config == null)
+      {
+        return 1;
+      }
+      
+      Cpu cpu = new Cpu(config);
+      try (BranchTraceWriter writer = new BranchTraceWriter(outputPath))
+      {
+        cpu.cpuState.reorderBufferBlock.setBranchOutcomeListener(writer);
+        cpu.execute(false, new SimulationBudget(maxCycles, 0, null));
+        recordedBranches = writer.getCount();
+      }
+      logger.info("Recorded " + recordedBranches + " branches in " + cpu.cpuState.tick + " cycles (" + cpu.stopReason
+                          + ") to " + outputPath);
+      return 0;
+    }
+  }
+  
+  @Command(name = "replay", description = "Replay a trace through predictor configurations in parallel and print their accuracy as JSON")
+  static class Replay implements Callable<Integer>
+  {
+    /**
+     * Results of the replay. Exposed for testing purposes.
+     */
+    public List<BranchTraceResult> results;
+    @Spec
+    CommandSpec spec; // injected by picocli
+    @Option(names = "--trace", required = true, paramLabel = "FILE", description = "Trace file written by the record command.")
+    Path tracePath;
+    @Option(names = "--cpu", paramLabel = "GLOB", description = "Cpu configuration files (their predictor settings), a path or a glob. Repeatable.")
+    List<String> cpuConfigPatterns = new ArrayList<>();
+    @Option(names = "--pht-size", split = ",", paramLabel = "NUMBER", description = "Grid of PHT sizes. The grid is the cross product of the grid options, a missing one takes the value of the default configuration.")
+    List<Integer> phtSizes = new ArrayList<>();
+    @Option(names = "--btb-size", split = ",", paramLabel = "NUMBER", description = "Grid of BTB sizes.")
+    List<Integer> btbSizes = new ArrayList<>();
+    @Option(names = "--predictor", split = ",", paramLabel = "TYPE", description = "Grid of predictor types (${COMPLETION-CANDIDATES}).")
+    List<BitPredictor.PredictorType> predictorTypes = new ArrayList<>();
+    @Option(names = "--default-state", split = ",", paramLabel = "NUMBER", description = "Grid of initial predictor states. States not valid for a predictor type are skipped.")
+    List<Integer> defaultStates = new ArrayList<>();
+    @Option(names = "--global-history", arity = "1", split = ",", paramLabel = "true|false", description = "Grid of global history use.")
+    List<Boolean> globalHistories = new ArrayList<>();
+    @Option(names = "--threads", paramLabel = "NUMBER", description = "Number of configurations replayed in parallel. (default: number of processors)")
+    int threads = Runtime.getRuntime().availableProcessors();
+    @Option(names = "--pretty", description = "Pretty print the JSON output.")
+    boolean prettyPrint;
+    @Option(names = "--output", paramLabel = "FILE", description = "File to write the results to. (default: stdout)")
+    Path outputPath;
+    
+    /**
+     * @return 0 when every configuration was replayed, 1 if some were invalid (their error is in the results)
+     */
+    @Override
+    public Integer call() throws IOException, InterruptedException
+    {
+      if (threads < 1)
+      {
+        throw new ParameterException(spec.commandLine(), "At least one thread is needed");
+      }
+      List<BranchTraceConfig> configs = new ArrayList<>();
+      for (Path cpu : BatchApp.expand(spec, cpuConfigPatterns))
+      {
+        CpuConfig cpuConfig = Serialization.getDeserializer().readValue(cpu.toFile(), CpuConfig.class);
+        configs.add(BranchTraceConfig.fromCpuConfig(cpu.toString(), cpuConfig));
+      }
+      configs.addAll(grid());
+      if (configs.isEmpty())
+      {
+        throw new ParameterException(spec.commandLine(), "No predictor configuration, use --cpu or the grid options");
+      }
+      
+      BranchTrace trace = BranchTrace.read(tracePath);
+      long        start = System.nanoTime();
+      results = new BranchTraceReplayer(threads).replayAll(trace, configs);
+      long nanos = System.nanoTime() - start;
+      logger.info("Replayed " + trace.size() + " branches through " + configs.size() + " configurations in "
+                          + nanos / 1_000_000 + " ms");
+      
+      CacheTraceApp.writeJson(spec, outputPath, prettyPrint, results);
+      return results.stream().anyMatch(result -> result.error != null) ? 1 : 0;
+    }
+    
+    /**
+     * @return Cross product of the grid options, empty if none is set
+     */
+    private List<BranchTraceConfig> grid()
+    {
+      List<BranchTraceConfig> configs = new ArrayList<>();
+      if (phtSizes.isEmpty() && btbSizes.isEmpty() && predictorTypes.isEmpty() && defaultStates.isEmpty()
+              && globalHistories.isEmpty())
+      {
+        return configs;
+      }
+      CpuConfig defaults = CpuConfig.getDefaultConfiguration();
+      for (int phtSize : CacheTraceApp.orDefault(phtSizes, defaults.phtSize))
+      {
+        for (int btbSize : CacheTraceApp.orDefault(btbSizes, defaults.btbSize))
+        {
+          for (BitPredictor.PredictorType type : CacheTraceApp.orDefault(predictorTypes, defaults.predictorType))
+          {
+            // Without the option, a type that cannot start in the default state starts in the taken state
+            int defaultState = type.isValidState(
+                    defaults.predictorDefaultState) ? defaults.predictorDefaultState : BitPredictor.TAKEN;
+            for (int state : CacheTraceApp.orDefault(defaultStates, defaultState))
+            {
+              if (!type.isValidState(state))
+              {
+                continue;
+              }
+              for (boolean globalHistory : CacheTraceApp.orDefault(globalHistories, defaults.useGlobalHistory))
+              {
+                String name = "pht" + phtSize + "/btb" + btbSize + "/" + type + "/" + state + (globalHistory ? "/gshare" : "");
+                configs.add(new BranchTraceConfig(name, phtSize, btbSize, type, state, globalHistory));
+              }
+            }
+          }
+        }
+      }
+      return configs;
+    }
+  }
+}
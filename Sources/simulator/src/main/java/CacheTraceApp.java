@@ -0,0 +1,277 @@
+/**
+ * @file CacheTraceApp.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cache trace entry point
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cachetrace.CacheTraceConfig;
+import com.gradle.superscalarsim.cachetrace.CacheTraceReplayer;
+import com.gradle.superscalarsim.cachetrace.CacheTraceResult;
+import com.gradle.superscalarsim.cachetrace.MemoryTrace;
+import com.gradle.superscalarsim.cachetrace.MemoryTraceWriter;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import picocli.CommandLine;
+import picocli.CommandLine.*;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "cachetrace", description = "Record the memory accesses of a program once, replay them through many cache configurations", subcommands = {CommandLine.HelpCommand.class, CacheTraceApp.Record.class, CacheTraceApp.Replay.class})
+class CacheTraceApp
+{
+  /**
+   * Logger for the subcommands.
+   */
+  static Logger logger = MyLogger.initializeLogger("CacheTrace", Level.INFO);
+  
+  /**
+   * @param programPath      RISC-V assembly program
+   * @param cpuConfigPath    Cpu configuration file
+   * @param memoryConfigPath Memory configuration file, can be null
+   * @param entryPoint       Label or address
+   *
+   * @return Configuration of a recording simulation, null if it is invalid (the error is logged)
+   */
+  static SimulationConfig loadSimulationConfig(Path programPath,
+                                               Path cpuConfigPath,
+                                               Path memoryConfigPath,
+                                               String entryPoint) throws IOException
+  {
+    String    program   = Files.readString(programPath);
+    CpuConfig cpuConfig = Serialization.getDeserializer().readValue(cpuConfigPath.toFile(), CpuConfig.class);
+    List<MemoryLocation> memoryConfig = memoryConfigPath == null ? List.of() : Serialization.getDeserializer()
+            .readValue(memoryConfigPath.toFile(), new TypeReference<>()
+            {
+            });
+    Object entryPointObject = entryPoint;
+    try
+    {
+      entryPointObject = Integer.parseInt(entryPoint);
+    }
+    catch (NumberFormatException ignored)
+    {
+      // Not an integer, use as a label
+    }
+    
+    SimulationConfig                  config     = new SimulationConfig(program, memoryConfig, cpuConfig,
+                                                                        entryPointObject);
+    SimulationConfig.ValidationResult validation = config.validate();
+    if (!validation.valid)
+    {
+      logger.severe("Error: " + validation);
+      return null;
+    }
+    return config;
+  }
+  
+  @Command(name = "record", description = "Simulate a program and write the committed loads and stores to a trace file")
+  static class Record implements Callable<Integer>
+  {
+    /**
+     * Number of recorded accesses. Exposed for testing purposes.
+     */
+    public long recordedAccesses;
+    @Spec
+    CommandSpec spec; // injected by picocli
+    @Option(names = "--program", required = true, paramLabel = "FILE", description = "RISC-V assembly program to record.")
+    Path programPath;
+    @Option(names = "--cpu", required = true, paramLabel = "FILE", description = "Cpu configuration file of the recording simulation.")
+    Path cpuConfigPath;
+    @Option(names = "--memory", paramLabel = "FILE", description = "Memory configuration file. (default: empty memory)")
+    Path memoryConfigPath;
+    @Option(names = "--entry", paramLabel = "LABEL|ADDRESS", description = "Entry point of the program. (default: 0)")
+    String entryPoint = "0";
+    @Option(names = "--max-cycles", paramLabel = "NUMBER", defaultValue = "" + SimulationBudget.DEFAULT_MAX_CYCLES, description = "Cycle budget of the simulation (default: ${DEFAULT-VALUE})")
+    long maxCycles;
+    @Option(names = "--output", required = true, paramLabel = "FILE", description = "Trace file to write.")
+    Path outputPath;
+    
+    /**
+     * @return 0 if the trace was written, 1 if the program or the configuration is invalid
+     */
+    @Override
+    public Integer call() throws IOException
+    {
+      if (maxCycles <= 0)
+      {
+        throw new ParameterException(spec.commandLine(), "The cycle budget must be positive");
+      }
+      SimulationConfig config = loadSimulationConfig(programPath, cpuConfigPath, memoryConfigPath, entryPoint);
+      if (config == null)
+      {
+        return 1;
+      }
+      
+      Cpu cpu = new Cpu(config);
+      try (MemoryTraceWriter writer = new MemoryTraceWriter(outputPath))
+      {
+        cpu.cpuState.reorderBufferBlock.setMemoryAccessListener(writer);
+        cpu.execute(false, new SimulationBudget(maxCycles, 0, null));
+        recordedAccesses = writer.getCount();
+      }
+      logger.info("Recorded " + recordedAccesses + " accesses in " + cpu.cpuState.tick + " cycles (" + cpu.stopReason
+                          + ") to " + outputPath);
+      return 0;
+    }
+  }
+  
+  @Command(name = "replay", description = "Replay a trace through cache configurations in parallel and print their statistics as JSON")
+  static class Replay implements Callable<Integer>
+  {
+    /**
+     * Results of the replay. Exposed for testing purposes.
+     */
+    public List<CacheTraceResult> results;
+    @Spec
+    CommandSpec spec; // injected by picocli
+    @Option(names = "--trace", required = true, paramLabel = "FILE", description = "Trace file written by the record command.")
+    Path tracePath;
+    @Option(names = "--cpu", paramLabel = "GLOB", description = "Cpu configuration files (their cache settings), a path or a glob. Repeatable.")
+    List<String> cpuConfigPatterns = new ArrayList<>();
+    @Option(names = "--lines", split = ",", paramLabel = "NUMBER", description = "Grid of numbers of cache lines. The grid is the cross product of the grid options, a missing one takes the value of the default configuration.")
+    List<Integer> lines = new ArrayList<>();
+    @Option(names = "--line-size", split = ",", paramLabel = "BYTES", description = "Grid of line sizes.")
+    List<Integer> lineSizes = new ArrayList<>();
+    @Option(names = "--assoc", split = ",", paramLabel = "NUMBER", description = "Grid of associativities.")
+    List<Integer> associativities = new ArrayList<>();
+    @Option(names = "--replacement", split = ",", paramLabel = "LRU|FIFO|Random", description = "Grid of replacement policies.")
+    List<String> replacements = new ArrayList<>();
+    @Option(names = "--store-behavior", split = ",", paramLabel = "write-back|write-through", description = "Grid of store behaviors.")
+    List<String> storeBehaviors = new ArrayList<>();
+    @Option(names = "--threads", paramLabel = "NUMBER", description = "Number of configurations replayed in parallel. (default: number of processors)")
+    int threads = Runtime.getRuntime().availableProcessors();
+    @Option(names = "--pretty", description = "Pretty print the JSON output.")
+    boolean prettyPrint;
+    @Option(names = "--output", paramLabel = "FILE", description = "File to write the results to. (default: stdout)")
+    Path outputPath;
+    
+    /**
+     * @return 0 when every configuration was replayed, 1 if some were invalid (their error is in the results)
+     */
+    @Override
+    public Integer call() throws IOException, InterruptedException
+    {
+      if (threads < 1)
+      {
+        throw new ParameterException(spec.commandLine(), "At least one thread is needed");
+      }
+      List<CacheTraceConfig> configs = new ArrayList<>();
+      for (Path cpu : BatchApp.expand(spec, cpuConfigPatterns))
+      {
+        CpuConfig cpuConfig = Serialization.getDeserializer().readValue(cpu.toFile(), CpuConfig.class);
+        configs.add(CacheTraceConfig.fromCpuConfig(cpu.toString(), cpuConfig));
+      }
+      configs.addAll(grid());
+      if (configs.isEmpty())
+      {
+        throw new ParameterException(spec.commandLine(), "No cache configuration, use --cpu or the grid options");
+      }
+      
+      MemoryTrace trace = MemoryTrace.read(tracePath);
+      long        start = System.nanoTime();
+      results = new CacheTraceReplayer(threads).replayAll(trace, configs);
+      long nanos = System.nanoTime() - start;
+      logger.info("Replayed " + trace.size() + " accesses through " + configs.size() + " configurations in "
+                          + nanos / 1_000_000 + " ms");
+      
+      writeJson(spec, outputPath, prettyPrint, results);
+      return results.stream().anyMatch(result -> result.error != null) ? 1 : 0;
+    }
+    
+    /**
+     * @return Cross product of the grid options, empty if none is set
+     */
+    private List<CacheTraceConfig> grid()
+    {
+      List<CacheTraceConfig> configs = new ArrayList<>();
+      if (lines.isEmpty() && lineSizes.isEmpty() && associativities.isEmpty() && replacements.isEmpty()
+              && storeBehaviors.isEmpty())
+      {
+        return configs;
+      }
+      CpuConfig defaults = CpuConfig.getDefaultConfiguration();
+      for (int lineCount : orDefault(lines, defaults.cacheLines))
+      {
+        for (int lineSize : orDefault(lineSizes, defaults.cacheLineSize))
+        {
+          for (int assoc : orDefault(associativities, defaults.cacheAssoc))
+          {
+            for (String replacement : orDefault(replacements, defaults.cacheReplacement))
+            {
+              for (String storeBehavior : orDefault(storeBehaviors, defaults.storeBehavior))
+              {
+                String name = lineCount + "x" + lineSize + "B/" + assoc + "-way/" + replacement + "/" + storeBehavior;
+                configs.add(new CacheTraceConfig(name, lineCount, lineSize, assoc, replacement, storeBehavior));
+              }
+            }
+          }
+        }
+      }
+      return configs;
+    }
+  }
+  
+  /**
+   * @param spec        Command, its output is used without an output file
+   * @param outputPath  File to write to, null for the output of the command
+   * @param prettyPrint Pretty print the JSON
+   * @param value       Value to serialize
+   */
+  static void writeJson(CommandSpec spec, Path outputPath, boolean prettyPrint, Object value) throws IOException
+  {
+    String output = prettyPrint ? Serialization.getSerializer().writerWithDefaultPrettyPrinter()
+            .writeValueAsString(value) : Serialization.getSerializer().writeValueAsString(value);
+    if (outputPath == null)
+    {
+      spec.commandLine().getOut().println(output);
+      spec.commandLine().getOut().flush();
+    }
+    else
+    {
+      Files.writeString(outputPath, output);
+    }
+  }
+  
+  /**
+   * @return The values of a grid option, or the default value if the option is not set
+   */
+  static <T> List<T> orDefault(List<T> values, T defaultValue)
+  {
+    return values.isEmpty() ? List.of(defaultValue) : values;
+  }
+}
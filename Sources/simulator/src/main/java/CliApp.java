@@ -29,8 +29,10 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cpu.BlockProfiler;
 import com.gradle.superscalarsim.cpu.CpuConfig;
 import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
 import com.gradle.superscalarsim.serialization.Serialization;
 import com.gradle.superscalarsim.server.ServerException;
@@ -42,6 +44,7 @@ import picocli.CommandLine.Model.CommandSpec;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -74,8 +77,20 @@ class CliApp implements Callable<Integer>
   Path cpuConfigPath;
   @Option(names = "--program", required = true, paramLabel = "FILE", description = "RISC-V assembly program for the CPU to execute.")
   Path programPath;
+  @Option(names = "--binary", description = "The program is RV32 machine code (a flat binary or an ELF32 file) instead of assembly.")
+  boolean binary = false;
   @Option(names = "--memory", paramLabel = "FILE", description = "Memory configuration file. 1 or more global arrays to load into memory. Optional (default: empty memory)")
   Path memoryConfigPath;
+  @Option(names = "--profile-sim", description = "Measure the time spent in each block of the CPU and print it to stderr.")
+  boolean profileSimulation = false;
+  @Option(names = "--max-cycles", paramLabel = "NUMBER", defaultValue = "" + SimulationBudget.DEFAULT_MAX_CYCLES, description = "Cycle budget of the simulation, up to 64-bit values for long runs (default: ${DEFAULT-VALUE})")
+  long maxCycles;
+  @Option(names = "--debug-log-limit", paramLabel = "NUMBER", description = "Keep only the newest debug log messages, so that the memory of a long run stays flat. (default: keep all)")
+  int debugLogLimit = 0;
+  @Option(names = "--debug-log-spill", paramLabel = "FILE", description = "Write the debug log messages dropped by --debug-log-limit to a file, one per line.")
+  Path debugLogSpillPath;
+  @Option(names = "--extrapolate-loops", description = "Detect loops in a steady state, fast-forward them functionally and extrapolate their cycles. Faster long runs, approximate statistics.")
+  boolean extrapolateLoops;
   @ParentCommand
   private App parent;
   
@@ -86,13 +101,20 @@ class CliApp implements Callable<Integer>
     validate();
     
     String               program;
+    byte[]               machineCode;
     CpuConfig            cpuConfig;
     List<MemoryLocation> memoryConfig;
+    PrintWriter          debugLogSpill = null;
     try
     {
-      program      = loadProgram();
+      program      = binary ? "" : loadProgram();
+      machineCode  = binary ? Files.readAllBytes(programPath) : null;
       cpuConfig    = loadCpuConfig();
       memoryConfig = loadMemoryConfig();
+      if (debugLogSpillPath != null)
+      {
+        debugLogSpill = new PrintWriter(Files.newBufferedWriter(debugLogSpillPath));
+      }
     }
     catch (IOException e)
     {
@@ -113,8 +135,13 @@ class CliApp implements Callable<Integer>
     
     // Reuse the same logic as in the server, to avoid code duplication
     SimulationConfig simulationConfig = new SimulationConfig(program, memoryConfig, cpuConfig, entryPointObject);
-    SimulateRequest  request          = new SimulateRequest(simulationConfig, Optional.empty());
-    SimulateHandler  handler          = new SimulateHandler();
+    simulationConfig.debugLogLimit    = debugLogLimit;
+    simulationConfig.extrapolateLoops = extrapolateLoops;
+    simulationConfig.binary           = machineCode;
+    SimulateRequest request  = new SimulateRequest(simulationConfig, Optional.empty());
+    BlockProfiler   profiler = profileSimulation ? new BlockProfiler() : null;
+    SimulateHandler handler  = new SimulateHandler(0, profiler, maxCycles,
+                                                   debugLogSpill == null ? null : debugLogSpill::println);
     try
     {
       response = handler.resolve(request);
@@ -125,6 +152,19 @@ class CliApp implements Callable<Integer>
       // The only error that can occur here is a configuration error
       logger.severe("Error: " + e.getError().message());
     }
+    finally
+    {
+      if (debugLogSpill != null)
+      {
+        debugLogSpill.close();
+      }
+    }
+    
+    if (profiler != null)
+    {
+      spec.commandLine().getErr().print(profiler.report());
+      spec.commandLine().getErr().flush();
+    }
     
     Object resultObject = response;
     if (!fullState)
@@ -173,6 +213,12 @@ class CliApp implements Callable<Integer>
     {
       isValidPath(memoryConfigPath);
     }
+    
+    if (maxCycles <= 0 || debugLogLimit < 0)
+    {
+      throw new ParameterException(spec.commandLine(),
+                                   "The cycle budget must be positive and the debug log limit must not be negative");
+    }
   }
   
   /**
@@ -0,0 +1,127 @@
+/**
+ * @file PipeTraceApp.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Pipeline trace entry point
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.pipetrace.KonataExporter;
+import com.gradle.superscalarsim.pipetrace.PipelineTrace;
+import com.gradle.superscalarsim.pipetrace.PipelineTraceWriter;
+import picocli.CommandLine;
+import picocli.CommandLine.*;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "pipetrace", description = "Record the pipeline events of every instruction, convert them for the Konata viewer", subcommands = {CommandLine.HelpCommand.class, PipeTraceApp.Record.class, PipeTraceApp.Konata.class})
+class PipeTraceApp
+{
+  /**
+   * Logger for the subcommands.
+   */
+  static Logger logger = MyLogger.initializeLogger("PipeTrace", Level.INFO);
+  
+  @Command(name = "record", description = "Simulate a program and write its pipeline events to a binary trace file")
+  static class Record implements Callable<Integer>
+  {
+    /**
+     * Number of recorded events. Exposed for testing purposes.
+     */
+    public long recordedEvents;
+    @Spec
+    CommandSpec spec; // injected by picocli
+    @Option(names = "--program", required = true, paramLabel = "FILE", description = "RISC-V assembly program to record.")
+    Path programPath;
+    @Option(names = "--cpu", required = true, paramLabel = "FILE", description = "Cpu configuration file of the recording simulation.")
+    Path cpuConfigPath;
+    @Option(names = "--memory", paramLabel = "FILE", description = "Memory configuration file. (default: empty memory)")
+    Path memoryConfigPath;
+    @Option(names = "--entry", paramLabel = "LABEL|ADDRESS", description = "Entry point of the program. (default: 0)")
+    String entryPoint = "0";
+    @Option(names = "--max-cycles", paramLabel = "NUMBER", defaultValue = "" + SimulationBudget.DEFAULT_MAX_CYCLES, description = "Cycle budget of the simulation (default: ${DEFAULT-VALUE})")
+    long maxCycles;
+    @Option(names = "--output", required = true, paramLabel = "FILE", description = "Trace file to write.")
+    Path outputPath;
+    
+    /**
+     * @return 0 if the trace was written, 1 if the program or the configuration is invalid
+     */
+    @Override
+    public Integer call() throws IOException
+    {
+      if (maxCycles <= 0)
+      {
+        throw new ParameterException(spec.commandLine(), "The cycle budget must be positive");
+      }
+      SimulationConfig config = CacheTraceApp.loadSimulationConfig(programPath, cpuConfigPath, memoryConfigPath,
+                                                                   entryPoint);
+      if (config == null)
+      {
+        return 1;
+      }
+      
+      Cpu          cpu     = new Cpu(config);
+      List<String> listing = cpu.cpuState.instructionMemoryBlock.getCode().stream().map(InputCodeModel::toString)
+              .toList();
+      try (PipelineTraceWriter writer = new PipelineTraceWriter(outputPath, listing))
+      {
+        cpu.cpuState.setPipelineTracer(writer);
+        cpu.execute(false, new SimulationBudget(maxCycles, 0, null));
+        cpu.cpuState.setPipelineTracer(null);
+        recordedEvents = writer.getCount();
+      }
+      logger.info("Recorded " + recordedEvents + " events in " + cpu.cpuState.tick + " cycles (" + cpu.stopReason
+                          + ") to " + outputPath);
+      return 0;
+    }
+  }
+  
+  @Command(name = "konata", description = "Convert a trace to a Kanata log for the Konata pipeline viewer")
+  static class Konata implements Callable<Integer>
+  {
+    @Option(names = "--trace", required = true, paramLabel = "FILE", description = "Trace file written by the record command.")
+    Path tracePath;
+    @Option(names = "--output", required = true, paramLabel = "FILE", description = "Log file to write.")
+    Path outputPath;
+    
+    @Override
+    public Integer call() throws IOException
+    {
+      PipelineTrace trace = PipelineTrace.read(tracePath);
+      KonataExporter.export(trace, outputPath);
+      logger.info("Converted " + trace.size() + " events to " + outputPath);
+      return 0;
+    }
+  }
+}
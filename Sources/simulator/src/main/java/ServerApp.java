@@ -28,11 +28,14 @@
 import com.gradle.superscalarsim.compiler.GccCaller;
 import com.gradle.superscalarsim.loader.ConfigLoader;
 import com.gradle.superscalarsim.server.Server;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
+import com.gradle.superscalarsim.server.compile.CompileCache;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.ParentCommand;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.concurrent.Callable;
 
 @Command(name = "server", description = "Launch HTTP simulation server")
@@ -46,6 +49,16 @@ class ServerApp implements Callable<Integer>
   int timeout_ms;
   @Option(names = "--gcc-path", paramLabel = "PATH", description = "Path to the GCC compiler")
   String gccPath;
+  @Option(names = "--cache-memory-mb", paramLabel = "NUMBER", defaultValue = "64", description = "Size of the in-memory response cache in MiB (default: ${DEFAULT-VALUE})")
+  long cacheMemoryMb;
+  @Option(names = "--cache-dir", paramLabel = "PATH", description = "Directory for the on-disk response and compilation caches. Disabled if not set.")
+  Path cacheDir;
+  @Option(names = "--cache-disk-mb", paramLabel = "NUMBER", defaultValue = "1024", description = "Size of the on-disk response cache in MiB (default: ${DEFAULT-VALUE})")
+  long cacheDiskMb;
+  @Option(names = "--compile-cache-memory-mb", paramLabel = "NUMBER", defaultValue = "16", description = "Size of the in-memory compilation cache in MiB (default: ${DEFAULT-VALUE})")
+  long compileCacheMemoryMb;
+  @Option(names = "--compile-cache-disk-mb", paramLabel = "NUMBER", defaultValue = "256", description = "Size of the on-disk compilation cache in MiB (default: ${DEFAULT-VALUE})")
+  long compileCacheDiskMb;
   @ParentCommand
   private App parent;
   
@@ -65,9 +78,14 @@ class ServerApp implements Callable<Integer>
       timeout_ms = this.timeout_ms;
     }
     
-    Server server = new Server(host, port, timeout_ms);
     try
     {
+      ResponseCache cache = new ResponseCache(cacheMemoryMb * 1024 * 1024, cacheDir, cacheDiskMb * 1024 * 1024);
+      // The compilations have their own directory and limits, so big simulations do not evict them
+      Path         compileDir   = cacheDir == null ? null : cacheDir.resolve("compile");
+      CompileCache compileCache = new CompileCache(
+              new ResponseCache(compileCacheMemoryMb * 1024 * 1024, compileDir, compileCacheDiskMb * 1024 * 1024));
+      Server       server       = new Server(host, port, timeout_ms, cache, compileCache);
       server.start();
     }
     catch (IOException e)
@@ -0,0 +1,216 @@
+/**
+ * @file SweepApp.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Design-space sweep entry point
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.dse.SweepEngine;
+import com.gradle.superscalarsim.dse.SweepPoint;
+import com.gradle.superscalarsim.dse.SweepResult;
+import com.gradle.superscalarsim.dse.SweepSpec;
+import com.gradle.superscalarsim.serialization.Serialization;
+import picocli.CommandLine.*;
+import picocli.CommandLine.Model.CommandSpec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Command(name = "sweep", description = "Explore a design space of CPU configurations on a program and print the IPC and cost of every point as JSON")
+class SweepApp implements Callable<Integer>
+{
+  /**
+   * Logger for this class.
+   */
+  Logger logger = MyLogger.initializeLogger("Sweep", Level.INFO);
+  
+  /**
+   * Results of the sweep. Exposed for testing purposes.
+   */
+  public List<SweepResult> results;
+  @Spec
+  CommandSpec spec; // injected by picocli
+  @Option(names = "--program", required = true, paramLabel = "FILE", description = "RISC-V assembly program.")
+  Path programPath;
+  @Option(names = "--memory", paramLabel = "FILE", description = "Memory configuration file. (default: empty memory)")
+  Path memoryConfigPath;
+  @Option(names = "--entry", paramLabel = "LABEL|ADDRESS", description = "Entry point of the program. (default: 0)")
+  String entryPoint = "0";
+  @Option(names = "--spec", paramLabel = "FILE", description = "Design space: {\"base\": <cpu config>, \"parameters\": {\"robSize\": [32, 64], \"fUnits.FX\": [1, 2]}}.")
+  Path specPath;
+  @Option(names = "--base", paramLabel = "FILE", description = "Cpu configuration the parameters are applied to. Overrides the base of the spec. (default: the default configuration)")
+  Path basePath;
+  @Option(names = "--param", paramLabel = "NAME=VALUE[,VALUE...]", description = "Parameter of the design space, a Cpu configuration field or fUnits.<type> for the number of units of a type. Repeatable, added to the parameters of the spec.")
+  List<String> parameters = new ArrayList<>();
+  @Option(names = "--max-cycles", paramLabel = "NUMBER", defaultValue = "" + SimulationBudget.DEFAULT_MAX_CYCLES, description = "Cycle budget of one point (default: ${DEFAULT-VALUE})")
+  long maxCycles;
+  @Option(names = "--warmup-cycles", paramLabel = "NUMBER", defaultValue = "0", description = "Cycles simulated before pruning dominated points, 0 to not prune (default: ${DEFAULT-VALUE})")
+  long warmupCycles;
+  @Option(names = "--prune-margin", paramLabel = "RATIO", defaultValue = "0.1", description = "Relative IPC advantage a point needs after the warm-up to prune a point that is not cheaper (default: ${DEFAULT-VALUE})")
+  double pruneMargin;
+  @Option(names = "--memo", paramLabel = "FILE", description = "File of memoized results, read if it exists and written with the new results.")
+  Path memoPath;
+  @Option(names = "--threads", paramLabel = "NUMBER", description = "Number of points simulated in parallel. (default: number of processors)")
+  int threads = Runtime.getRuntime().availableProcessors();
+  @Option(names = "--pareto-only", description = "Print only the Pareto front, by increasing cost.")
+  boolean paretoOnly;
+  @Option(names = "--pretty", description = "Pretty print the JSON output.")
+  boolean prettyPrint;
+  @Option(names = "--output", paramLabel = "FILE", description = "File to write the results to. (default: stdout)")
+  Path outputPath;
+  
+  /**
+   * @return 0 when the sweep finished, even if some points were invalid (they have an error in the results)
+   */
+  @Override
+  public Integer call() throws IOException, InterruptedException
+  {
+    if (threads < 1)
+    {
+      throw new ParameterException(spec.commandLine(), "At least one thread is needed");
+    }
+    if (maxCycles <= 0 || warmupCycles < 0 || pruneMargin < 0)
+    {
+      throw new ParameterException(spec.commandLine(), "The cycle budgets and the prune margin cannot be negative");
+    }
+    SweepSpec sweepSpec = specPath == null ? new SweepSpec() : Serialization.getDeserializer()
+            .readValue(specPath.toFile(), SweepSpec.class);
+    if (basePath != null)
+    {
+      sweepSpec.base = Serialization.getDeserializer().readValue(basePath.toFile(), CpuConfig.class);
+    }
+    for (String parameter : parameters)
+    {
+      addParameter(sweepSpec, parameter);
+    }
+    List<SweepPoint> points;
+    try
+    {
+      points = sweepSpec.expand();
+    }
+    catch (IllegalArgumentException e)
+    {
+      throw new ParameterException(spec.commandLine(), e.getMessage());
+    }
+    
+    String code = Files.readString(programPath);
+    List<MemoryLocation> memory = memoryConfigPath == null ? List.of() : Serialization.getDeserializer()
+            .readValue(memoryConfigPath.toFile(), new TypeReference<>()
+            {
+            });
+    Object entryPointObject = entryPoint;
+    try
+    {
+      entryPointObject = Integer.parseInt(entryPoint);
+    }
+    catch (NumberFormatException ignored)
+    {
+      // Not an integer, use as a label
+    }
+    Map<String, SweepResult> memo = new LinkedHashMap<>();
+    if (memoPath != null && Files.exists(memoPath))
+    {
+      memo = Serialization.getDeserializer()
+              .readValue(memoPath.toFile(), new TypeReference<LinkedHashMap<String, SweepResult>>()
+              {
+              });
+    }
+    
+    long start = System.nanoTime();
+    try
+    {
+      results = new SweepEngine(threads, maxCycles, warmupCycles, pruneMargin, memo).run(code, memory,
+                                                                                          entryPointObject, points);
+    }
+    catch (IllegalArgumentException e)
+    {
+      logger.severe("Error: " + e.getMessage());
+      return 1;
+    }
+    long nanos = System.nanoTime() - start;
+    logger.info("Swept " + points.size() + " points in " + nanos / 1_000_000 + " ms: " + count(
+            SweepResult.Status.kSimulated) + " simulated, " + count(SweepResult.Status.kMemoized) + " memoized, "
+                        + count(SweepResult.Status.kPruned) + " pruned, " + count(SweepResult.Status.kError)
+                        + " invalid");
+    if (memoPath != null)
+    {
+      Serialization.getSerializer().writeValue(memoPath.toFile(), memo);
+    }
+    
+    List<SweepResult> output = results;
+    if (paretoOnly)
+    {
+      output = results.stream().filter(result -> result.paretoOptimal)
+              .sorted(Comparator.comparingDouble(result -> result.cost)).toList();
+    }
+    CacheTraceApp.writeJson(spec, outputPath, prettyPrint, output);
+    return 0;
+  }
+  
+  /**
+   * @param parameter {@code NAME=VALUE[,VALUE...]}, a value is JSON or a plain string
+   */
+  private void addParameter(SweepSpec sweepSpec, String parameter)
+  {
+    int equals = parameter.indexOf('=');
+    if (equals <= 0 || equals == parameter.length() - 1)
+    {
+      throw new ParameterException(spec.commandLine(), "Expected NAME=VALUE[,VALUE...], got " + parameter);
+    }
+    List<JsonNode> values = new ArrayList<>();
+    for (String value : parameter.substring(equals + 1).split(","))
+    {
+      try
+      {
+        values.add(Serialization.getDeserializer().readTree(value));
+      }
+      catch (JsonProcessingException e)
+      {
+        values.add(TextNode.valueOf(value));
+      }
+    }
+    sweepSpec.parameters.put(parameter.substring(0, equals), values);
+  }
+  
+  private long count(SweepResult.Status status)
+  {
+    return results.stream().filter(result -> result.status == status).count();
+  }
+}
@@ -0,0 +1,176 @@
+/**
+ * @file BatchOutput.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Writes the lines of a batch
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @brief Writes one line per finished run, as CSV or NDJSON
+ * @details The lines are written as the runs finish, so their order is not the order of the runs.
+ * Every line is flushed, a consumer can follow the output while the batch runs.
+ * Statistics columns are paths into the JSON of {@link com.gradle.superscalarsim.cpu.SimulationStatistics},
+ * nested values are separated by dots (e.g. {@code cache.hits}).
+ */
+public class BatchOutput
+{
+  /**
+   * Columns of every line, before the statistics
+   */
+  public static final List<String> runColumns = List.of("program", "cpu", "memory", "stopReason", "timeMs", "error");
+  
+  private final PrintWriter out;
+  
+  private final Format format;
+  
+  /**
+   * Selected statistics
+   */
+  private final List<String> statisticsColumns;
+  
+  private final ObjectWriter lineWriter = Serialization.getSerializer().writer()
+          .without(SerializationFeature.INDENT_OUTPUT);
+  
+  /**
+   * @param out               Where to write the lines
+   * @param format            Format of the lines
+   * @param statisticsColumns Selected statistics
+   */
+  public BatchOutput(PrintWriter out, Format format, List<String> statisticsColumns)
+  {
+    this.out               = out;
+    this.format            = format;
+    this.statisticsColumns = statisticsColumns;
+  }
+  
+  /**
+   * @brief Write the header line, if the format has one
+   */
+  public synchronized void writeHeader()
+  {
+    if (format == Format.CSV)
+    {
+      List<String> header = new ArrayList<>(runColumns);
+      header.addAll(statisticsColumns);
+      out.println(String.join(",", header.stream().map(BatchOutput::escapeCsv).toList()));
+      out.flush();
+    }
+  }
+  
+  /**
+   * @param result     Result of the run
+   * @param statistics Statistics of the simulation as JSON, null if the run failed
+   */
+  public synchronized void write(BatchResult result, JsonNode statistics)
+  {
+    List<JsonNode> values = new ArrayList<>();
+    ObjectNode     run    = Serialization.getSerializer().valueToTree(result);
+    for (String column : runColumns)
+    {
+      values.add(run.get(column));
+    }
+    for (String column : statisticsColumns)
+    {
+      values.add(statistics == null ? null : statistics.at("/" + column.replace('.', '/')));
+    }
+    
+    if (format == Format.CSV)
+    {
+      List<String> cells = new ArrayList<>();
+      for (JsonNode value : values)
+      {
+        cells.add(escapeCsv(toCell(value)));
+      }
+      out.println(String.join(",", cells));
+    }
+    else
+    {
+      ObjectNode line = Serialization.getSerializer().createObjectNode();
+      for (int i = 0; i < values.size(); i++)
+      {
+        String column = i < runColumns.size() ? runColumns.get(i) : statisticsColumns.get(i - runColumns.size());
+        line.set(column, values.get(i) == null || values.get(i).isMissingNode() ? null : values.get(i));
+      }
+      try
+      {
+        out.println(lineWriter.writeValueAsString(line));
+      }
+      catch (JsonProcessingException e)
+      {
+        throw new UncheckedIOException(e);
+      }
+    }
+    out.flush();
+  }
+  
+  /**
+   * @return Text of a value, nested objects as JSON, empty for a missing value
+   */
+  static String toCell(JsonNode value)
+  {
+    if (value == null || value.isMissingNode() || value.isNull())
+    {
+      return "";
+    }
+    if (value.isContainerNode())
+    {
+      return value.toString();
+    }
+    return value.asText();
+  }
+  
+  /**
+   * @return The value, quoted if it contains a separator, a quote or a line break
+   */
+  static String escapeCsv(String value)
+  {
+    if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r"))
+    {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+  
+  /**
+   * @brief Format of the lines
+   */
+  public enum Format
+  {
+    CSV,
+    NDJSON
+  }
+}
@@ -0,0 +1,73 @@
+/**
+ * @file BatchResult.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Outcome of one run of a batch
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.batch;
+
+import com.gradle.superscalarsim.cpu.StopReason;
+
+/**
+ * @brief Outcome of one run of a batch, the fixed columns of its output line
+ */
+public class BatchResult
+{
+  /**
+   * Path of the program
+   */
+  public String program;
+  
+  /**
+   * Path of the CPU configuration
+   */
+  public String cpu;
+  
+  /**
+   * Path of the memory configuration, null if the program runs without one
+   */
+  public String memory;
+  
+  /**
+   * Why the simulation stopped, null if it did not run
+   */
+  public StopReason stopReason;
+  
+  /**
+   * Wall-clock time of the CPU state initialization and the simulation
+   */
+  public long timeMs;
+  
+  /**
+   * Why the run failed (invalid program or configuration, exception), null if it ran
+   */
+  public String error;
+  
+  public BatchResult(String program, String cpu, String memory)
+  {
+    this.program = program;
+    this.cpu     = cpu;
+    this.memory  = memory;
+  }
+}
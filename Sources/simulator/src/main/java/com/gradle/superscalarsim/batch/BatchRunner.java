@@ -0,0 +1,269 @@
+/**
+ * @file BatchRunner.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Runs the cross product of programs and configurations
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.batch;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gradle.superscalarsim.code.CodeParser;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.ParsedProgram;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.loader.IDataProvider;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @brief Runs the cross product of programs, CPU configurations and memory configurations in one JVM
+ * @details The runs are spread over a work-stealing pool, each writes its line to the output when it finishes.
+ * <p>
+ * Work is shared between the runs where the result does not depend on the CPU: the files are read and deserialized
+ * once, and each program is parsed and checked once per memory configuration. The parse is used to validate every
+ * configuration of the program. The memory layout (and so the values of the labels) depends on the call stack size,
+ * so the program is laid out once per call stack size and the layout is shared by the CPUs with that size.
+ * The instruction set and register definitions come from one {@link StaticDataProvider}.
+ */
+public class BatchRunner
+{
+  private final IDataProvider dataProvider = new StaticDataProvider();
+  
+  private final int threads;
+  
+  private final Object entryPoint;
+  
+  /**
+   * Cycle budget of one run
+   */
+  private final long maxCycles;
+  
+  private final BatchOutput output;
+  
+  /**
+   * @param threads    Number of runs in parallel
+   * @param entryPoint Entry point of the programs (label or address)
+   * @param maxCycles  Cycle budget of one run
+   * @param output     Receives a line per run
+   */
+  public BatchRunner(int threads, Object entryPoint, long maxCycles, BatchOutput output)
+  {
+    this.threads    = threads;
+    this.entryPoint = entryPoint;
+    this.maxCycles  = maxCycles;
+    this.output     = output;
+  }
+  
+  /**
+   * Runs every program on every CPU configuration with every memory configuration.
+   * Fails without running anything if a CPU or memory configuration cannot be read.
+   *
+   * @param programs ASM programs
+   * @param cpus     CPU configurations
+   * @param memories Memory configurations. If empty, the programs run without one.
+   *
+   * @return Number of failed runs
+   */
+  public int run(List<Path> programs, List<Path> cpus, List<Path> memories) throws IOException, InterruptedException
+  {
+    Map<Path, CpuConfig> cpuConfigs = new LinkedHashMap<>();
+    for (Path cpu : cpus)
+    {
+      cpuConfigs.put(cpu, Serialization.getDeserializer().readValue(cpu.toFile(), CpuConfig.class));
+    }
+    Map<Path, List<MemoryLocation>> memoryConfigs = new LinkedHashMap<>();
+    for (Path memory : memories)
+    {
+      memoryConfigs.put(memory, Serialization.getDeserializer().readValue(memory.toFile(), new TypeReference<>()
+      {
+      }));
+    }
+    if (memoryConfigs.isEmpty())
+    {
+      memoryConfigs.put(null, List.of());
+    }
+    
+    output.writeHeader();
+    AtomicInteger failed = new AtomicInteger();
+    ForkJoinPool  pool   = new ForkJoinPool(threads);
+    try
+    {
+      // Parse each program once per memory, then run it on every CPU
+      List<ForkJoinTask<?>> parseTasks = new ArrayList<>();
+      for (Path program : programs)
+      {
+        for (Map.Entry<Path, List<MemoryLocation>> memory : memoryConfigs.entrySet())
+        {
+          parseTasks.add(pool.submit(() -> {
+            ProgramInput parsed = new ProgramInput(program, memory.getKey(), memory.getValue());
+            List<ForkJoinTask<?>> runTasks = new ArrayList<>();
+            for (Map.Entry<Path, CpuConfig> cpu : cpuConfigs.entrySet())
+            {
+              runTasks.add(ForkJoinTask.adapt(() -> {
+                if (!runOne(parsed, cpu.getKey(), cpu.getValue()))
+                {
+                  failed.incrementAndGet();
+                }
+              }));
+            }
+            ForkJoinTask.invokeAll(runTasks);
+          }));
+        }
+      }
+      for (ForkJoinTask<?> task : parseTasks)
+      {
+        task.get();
+      }
+    }
+    catch (ExecutionException e)
+    {
+      throw new IllegalStateException(e.getCause());
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+    return failed.get();
+  }
+  
+  /**
+   * @return True if the simulation ran
+   */
+  private boolean runOne(ProgramInput parsed, Path cpuPath, CpuConfig cpuConfig)
+  {
+    BatchResult result = new BatchResult(parsed.program.toString(), cpuPath.toString(),
+                                         parsed.memory == null ? null : parsed.memory.toString());
+    JsonNode statistics = null;
+    long     start      = System.nanoTime();
+    try
+    {
+      if (parsed.error != null)
+      {
+        result.error = parsed.error;
+      }
+      else
+      {
+        SimulationConfig config = new SimulationConfig(parsed.code, parsed.memoryLocations, cpuConfig, entryPoint);
+        SimulationConfig.ValidationResult validation = config.validate(parsed.parser);
+        if (!validation.valid)
+        {
+          result.error = validation.toString();
+        }
+        else
+        {
+          Cpu cpu = new Cpu(config, dataProvider, parsed.layout(config));
+          cpu.execute(false, new SimulationBudget(maxCycles, 0, null));
+          result.stopReason = cpu.stopReason;
+          statistics        = Serialization.getSerializer().valueToTree(cpu.cpuState.statistics);
+        }
+      }
+    }
+    catch (RuntimeException e)
+    {
+      // A bug in the simulator should not stop the rest of the batch
+      result.error = e.toString();
+    }
+    result.timeMs = (System.nanoTime() - start) / 1_000_000;
+    output.write(result, statistics);
+    return result.error == null;
+  }
+  
+  /**
+   * @brief Program read and parsed with a memory configuration, shared by the runs on all CPU configurations
+   */
+  private class ProgramInput
+  {
+    final Path program;
+    
+    final Path memory;
+    
+    final List<MemoryLocation> memoryLocations;
+    
+    String code;
+    
+    CodeParser parser;
+    
+    /**
+     * Why the program cannot run (unreadable, does not parse), null if it is fine
+     */
+    String error;
+    
+    /**
+     * Program laid out for a call stack size, by the size
+     */
+    final Map<Integer, ParsedProgram> layouts = new ConcurrentHashMap<>();
+    
+    ProgramInput(Path program, Path memory, List<MemoryLocation> memoryLocations)
+    {
+      this.program         = program;
+      this.memory          = memory;
+      this.memoryLocations = memoryLocations;
+      try
+      {
+        this.code   = Files.readString(program);
+        this.parser = new CodeParser(dataProvider.getInstructionFunctionModels(),
+                                     dataProvider.getRegisterFile().getRegisterMap(true), new InputCodeModelFactory(),
+                                     memoryLocations);
+        parser.parseCode(code);
+        if (parser.hasErrors())
+        {
+          this.error = "Code parsing failed: " + parser.getErrorMessages();
+        }
+      }
+      catch (IOException e)
+      {
+        this.error = "Cannot read the program: " + e.getMessage();
+      }
+    }
+    
+    /**
+     * @param config Configuration of a run of this program
+     *
+     * @return The program laid out for the call stack size of the configuration, parsed on the first use
+     */
+    ParsedProgram layout(SimulationConfig config)
+    {
+      return layouts.computeIfAbsent(config.cpuConfig.callStackSize,
+                                     size -> ParsedProgram.parse(config, dataProvider));
+    }
+  }
+}
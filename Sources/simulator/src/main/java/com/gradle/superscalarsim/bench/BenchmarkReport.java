@@ -0,0 +1,179 @@
+/**
+ * @file BenchmarkReport.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Report of a benchmark run and comparison with a baseline
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @brief Report of a benchmark run, also the format of the baseline
+ * @details A workload regresses against the baseline if its simulated cycles per second drop, or its allocation per
+ * cycle grows, by more than the threshold. Workloads missing in the baseline are not compared.
+ */
+public class BenchmarkReport
+{
+  /**
+   * Version of the JVM that ran the benchmark
+   */
+  public String javaVersion;
+  
+  /**
+   * Warm-up time of each workload in milliseconds
+   */
+  public long warmupMs;
+  
+  /**
+   * Number of measured runs of each workload
+   */
+  public int measuredRuns;
+  
+  public List<BenchmarkResult> results;
+  
+  /**
+   * Comparison with the baseline, empty without a baseline
+   */
+  public List<Comparison> comparisons;
+  
+  /**
+   * @brief Default constructor for deserialization
+   */
+  BenchmarkReport()
+  {
+    this.results     = new ArrayList<>();
+    this.comparisons = new ArrayList<>();
+  }
+  
+  public BenchmarkReport(long warmupMs, int measuredRuns)
+  {
+    this();
+    this.javaVersion  = System.getProperty("java.version");
+    this.warmupMs     = warmupMs;
+    this.measuredRuns = measuredRuns;
+  }
+  
+  /**
+   * Fills {@link #comparisons}.
+   *
+   * @param baseline         Report to compare with
+   * @param thresholdPercent Allowed slowdown and allocation growth in percent
+   *
+   * @return True if any workload regressed
+   */
+  public boolean compare(BenchmarkReport baseline, double thresholdPercent)
+  {
+    Map<String, BenchmarkResult> baselineResults = new HashMap<>();
+    for (BenchmarkResult result : baseline.results)
+    {
+      baselineResults.put(result.getKey(), result);
+    }
+    
+    comparisons = new ArrayList<>();
+    boolean regressed = false;
+    for (BenchmarkResult result : results)
+    {
+      BenchmarkResult base = baselineResults.get(result.getKey());
+      if (base == null || base.error != null || result.error != null)
+      {
+        continue;
+      }
+      Comparison comparison = new Comparison(result, base, thresholdPercent);
+      comparisons.add(comparison);
+      regressed |= comparison.regression;
+    }
+    return regressed;
+  }
+  
+  /**
+   * @return True if any workload failed to run
+   */
+  public boolean hasErrors()
+  {
+    return results.stream().anyMatch(result -> result.error != null);
+  }
+  
+  /**
+   * @brief Change of one workload against the baseline
+   */
+  public static class Comparison
+  {
+    public String program;
+    
+    public String cpu;
+    
+    /**
+     * Change of simulated cycles per second in percent, negative is slower
+     */
+    public double cyclesPerSecondChange;
+    
+    /**
+     * Change of allocated bytes per cycle in percent, positive is more allocation
+     */
+    public double allocationChange;
+    
+    /**
+     * The simulation itself changed, it takes a different number of cycles
+     */
+    public boolean cyclesDiffer;
+    
+    /**
+     * Slowdown or allocation growth over the threshold
+     */
+    public boolean regression;
+    
+    /**
+     * @brief Default constructor for deserialization
+     */
+    Comparison()
+    {
+    }
+    
+    Comparison(BenchmarkResult result, BenchmarkResult baseline, double thresholdPercent)
+    {
+      this.program               = result.program;
+      this.cpu                   = result.cpu;
+      this.cyclesPerSecondChange = percentChange(baseline.cyclesPerSecond, result.cyclesPerSecond);
+      this.allocationChange      = percentChange(baseline.allocatedBytesPerCycle, result.allocatedBytesPerCycle);
+      this.cyclesDiffer          = result.cycles != baseline.cycles;
+      this.regression            = cyclesPerSecondChange < -thresholdPercent || allocationChange > thresholdPercent;
+    }
+    
+    /**
+     * @return Change from the baseline in percent, 0 if the baseline is 0
+     */
+    static double percentChange(double baseline, double current)
+    {
+      if (baseline == 0)
+      {
+        return 0;
+      }
+      return (current - baseline) / baseline * 100;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * @file BenchmarkResult.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Measurements of one benchmark workload
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.bench;
+
+import com.gradle.superscalarsim.cpu.StopReason;
+
+/**
+ * @brief Measurements of one workload (a program on a CPU configuration)
+ * @details Rates are medians over the measured runs, so a single slow run (GC, JIT) does not move them.
+ */
+public class BenchmarkResult
+{
+  /**
+   * Path of the program
+   */
+  public String program;
+  
+  /**
+   * Name of the CPU configuration (file name without the extension)
+   */
+  public String cpu;
+  
+  /**
+   * Simulated cycles of one run
+   */
+  public long cycles;
+  
+  /**
+   * Committed instructions of one run
+   */
+  public long committedInstructions;
+  
+  /**
+   * Why the runs stopped
+   */
+  public StopReason stopReason;
+  
+  /**
+   * Number of measured runs
+   */
+  public int runs;
+  
+  /**
+   * Median of simulated cycles per second
+   */
+  public double cyclesPerSecond;
+  
+  /**
+   * Median of committed instructions per second
+   */
+  public double instructionsPerSecond;
+  
+  /**
+   * Bytes allocated by the simulation per simulated cycle, averaged over the runs
+   */
+  public double allocatedBytesPerCycle;
+  
+  /**
+   * Peak heap usage during the measured runs (sum of the peaks of the heap pools)
+   */
+  public long peakHeapBytes;
+  
+  /**
+   * Error of an invalid workload, the measurements are empty. Null if the workload ran.
+   */
+  public String error;
+  
+  /**
+   * @brief Default constructor for deserialization
+   */
+  BenchmarkResult()
+  {
+  }
+  
+  public BenchmarkResult(String program, String cpu)
+  {
+    this.program = program;
+    this.cpu     = cpu;
+  }
+  
+  /**
+   * @return Identifier of the workload, matches results of two reports
+   */
+  public String getKey()
+  {
+    return program + " @ " + cpu;
+  }
+}
@@ -0,0 +1,148 @@
+/**
+ * @file BenchmarkRunner.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Runs and measures benchmark workloads
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.bench;
+
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @brief Runs workloads and measures them
+ * @details Each workload is simulated repeatedly for the warm-up time, so the JIT compiles the hot code, then it is
+ * measured. Only the run of the simulation is timed, the initialization of the CPU state is not. Allocation is
+ * measured on the running thread, so the runs must not be spread over threads.
+ */
+public class BenchmarkRunner
+{
+  /**
+   * Time to simulate a workload before its measurement
+   */
+  private final long warmupMs;
+  
+  private final int measuredRuns;
+  
+  /**
+   * Cycle budget of one run
+   */
+  private final long maxCycles;
+  
+  private final com.sun.management.ThreadMXBean threads =
+          (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  
+  private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+          .filter(pool -> pool.getType() == MemoryType.HEAP).toList();
+  
+  /**
+   * @param warmupMs     Time of unmeasured runs before the measurement, at least one run is done
+   * @param measuredRuns Number of measured runs, at least 1
+   * @param maxCycles    Cycle budget of one run
+   */
+  public BenchmarkRunner(long warmupMs, int measuredRuns, long maxCycles)
+  {
+    this.warmupMs     = warmupMs;
+    this.measuredRuns = measuredRuns;
+    this.maxCycles    = maxCycles;
+  }
+  
+  /**
+   * @param program Path of the program, for the report
+   * @param cpuName Name of the CPU configuration, for the report
+   * @param config  Simulation to run
+   *
+   * @return Measurements, or the validation errors of an invalid configuration
+   */
+  public BenchmarkResult run(String program, String cpuName, SimulationConfig config)
+  {
+    BenchmarkResult                   result     = new BenchmarkResult(program, cpuName);
+    SimulationConfig.ValidationResult validation = config.validate();
+    if (!validation.valid)
+    {
+      result.error = validation.toString();
+      return result;
+    }
+    
+    long warmupEnd = System.nanoTime() + warmupMs * 1_000_000;
+    do
+    {
+      simulate(config);
+    }
+    while (System.nanoTime() < warmupEnd);
+    
+    double[] cyclesPerSecond       = new double[measuredRuns];
+    double[] instructionsPerSecond = new double[measuredRuns];
+    long     allocatedBytes        = 0;
+    long     totalCycles           = 0;
+    heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    for (int i = 0; i < measuredRuns; i++)
+    {
+      Cpu  cpu             = new Cpu(config);
+      long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+      long start           = System.nanoTime();
+      cpu.execute(false, new SimulationBudget(maxCycles, 0, null));
+      long nanos = Math.max(1, System.nanoTime() - start);
+      allocatedBytes += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+      
+      result.cycles                = cpu.cpuState.statistics.clockCycles;
+      result.committedInstructions = cpu.cpuState.statistics.committedInstructions;
+      result.stopReason            = cpu.stopReason;
+      totalCycles += result.cycles;
+      cyclesPerSecond[i]       = result.cycles * 1e9 / nanos;
+      instructionsPerSecond[i] = result.committedInstructions * 1e9 / nanos;
+    }
+    result.runs                   = measuredRuns;
+    result.cyclesPerSecond        = median(cyclesPerSecond);
+    result.instructionsPerSecond  = median(instructionsPerSecond);
+    result.allocatedBytesPerCycle = totalCycles == 0 ? 0 : (double) allocatedBytes / totalCycles;
+    result.peakHeapBytes          = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    return result;
+  }
+  
+  private void simulate(SimulationConfig config)
+  {
+    Cpu cpu = new Cpu(config);
+    cpu.execute(false, new SimulationBudget(maxCycles, 0, null));
+  }
+  
+  static double median(double[] values)
+  {
+    double[] sorted = values.clone();
+    Arrays.sort(sorted);
+    int middle = sorted.length / 2;
+    if (sorted.length % 2 == 0)
+    {
+      return (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+    return sorted[middle];
+  }
+}
@@ -43,5 +43,5 @@ public interface AbstractBlock extends Serializable
   /**
    * @brief Simulates in right direction from InstructionFetch to ROB
    */
-  void simulate(int cycle);
+  void simulate(long cycle);
 }
@@ -85,7 +85,7 @@ public class ArithmeticFunctionUnitBlock extends AbstractFunctionUnitBlock
    * @brief Simulates execution of an instruction
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     if (!isFunctionUnitEmpty())
     {
@@ -147,7 +147,7 @@ public class ArithmeticFunctionUnitBlock extends AbstractFunctionUnitBlock
    * Calculate the delay, start memory transaction.
    */
   @Override
-  protected void handleStartExecution(int cycle)
+  protected void handleStartExecution(long cycle)
   {
     this.simCodeModel.setFunctionUnitId(this.functionUnitId);
   }
@@ -34,11 +34,14 @@ package com.gradle.superscalarsim.blocks.base;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
+import com.gradle.superscalarsim.pipetrace.PipelineTracer;
 
 /**
  * @class AbstractFunctionUnitBlock
@@ -95,6 +98,16 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
    * Latency, capabilities, etc.
    */
   private FunctionalUnitDescription description;
+  /**
+   * Receives the pipeline events, null if nobody traces them
+   */
+  @JsonIgnore
+  private PipelineTracer pipelineTracer;
+  /**
+   * Index of this unit in the pipeline events
+   */
+  @JsonIgnore
+  private int traceUnit;
   
   public AbstractFunctionUnitBlock()
   {
@@ -166,8 +179,10 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
   /**
    * If the instruction is done executing, empty the function unit.
    * Ticks the counter.
+   *
+   * @param cycle Current cycle
    */
-  public void emptyIfDone()
+  public void emptyIfDone(long cycle)
   {
     if (simCodeModel == null)
     {
@@ -181,6 +196,10 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
     tickCounter();
     if (hasDelayPassed())
     {
+      if (pipelineTracer != null)
+      {
+        pipelineTracer.onStage(simCodeModel, getFinishStage(), traceUnit, cycle);
+      }
       finishExecution();
     }
   }
@@ -245,7 +264,7 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
    *
    * @param cycle Current cycle
    */
-  protected void handleInstruction(int cycle)
+  protected void handleInstruction(long cycle)
   {
     if (this.simCodeModel.hasFailed())
     {
@@ -256,11 +275,41 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
     if (hasTimerStartedThisTick())
     {
       handleStartExecution(cycle);
+      traceStart(cycle);
     }
     
     incrementBusyCycles();
   }
   
+  /**
+   * @param cycle Current cycle
+   *
+   * @brief Reports the start of the execution to the tracer
+   */
+  protected void traceStart(long cycle)
+  {
+    if (pipelineTracer != null)
+    {
+      pipelineTracer.onStage(simCodeModel, getStartStage(), traceUnit, cycle);
+    }
+  }
+  
+  /**
+   * @return Stage traced when an instruction starts executing in this unit
+   */
+  protected PipelineStage getStartStage()
+  {
+    return PipelineStage.kExecute;
+  }
+  
+  /**
+   * @return Stage traced when an instruction leaves this unit
+   */
+  protected PipelineStage getFinishStage()
+  {
+    return PipelineStage.kComplete;
+  }
+  
   /**
    * @brief Finishes execution of the instruction
    */
@@ -276,7 +325,7 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
    * @brief Action that should take place when an instruction starts executing.
    * Calculate the delay, start memory transaction.
    */
-  protected abstract void handleStartExecution(int cycle);
+  protected abstract void handleStartExecution(long cycle);
   
   /**
    * @return True if function unit is idle, false if busy
@@ -368,4 +417,14 @@ public abstract class AbstractFunctionUnitBlock implements AbstractBlock
    * @return True if the function unit can execute the instruction, false otherwise.
    */
   public abstract boolean canExecuteInstruction(SimCodeModel simCodeModel);
+  
+  /**
+   * @param pipelineTracer Receives the pipeline events, null to stop tracing
+   * @param traceUnit      Index of this unit in the pipeline events
+   */
+  public void setPipelineTracer(PipelineTracer pipelineTracer, int traceUnit)
+  {
+    this.pipelineTracer = pipelineTracer;
+    this.traceUnit      = traceUnit;
+  }
 }
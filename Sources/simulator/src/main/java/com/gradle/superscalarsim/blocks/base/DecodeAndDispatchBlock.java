@@ -34,6 +34,7 @@ package com.gradle.superscalarsim.blocks.base;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.blocks.branch.BranchTargetBuffer;
@@ -46,6 +47,8 @@ import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 import com.gradle.superscalarsim.models.util.Result;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
+import com.gradle.superscalarsim.pipetrace.PipelineTracer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -98,6 +101,12 @@ public class DecodeAndDispatchBlock implements AbstractBlock
    */
   private int decodeBufferSize;
   
+  /**
+   * Receives the pipeline events, null if nobody traces them
+   */
+  @JsonIgnore
+  private PipelineTracer pipelineTracer;
+  
   /**
    * @param instructionFetchBlock Block fetching N instructions each clock event
    * @param renameMapTableBlock   Class holding mappings from architectural registers to speculative
@@ -150,9 +159,9 @@ public class DecodeAndDispatchBlock implements AbstractBlock
   //----------------------------------------------------------------------
   
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
-    decode();
+    decode(cycle);
     
     // Report map table to statistics
     statistics.reportAllocatedRegisters(renameMapTableBlock.getAllocatedSpeculativeRegistersCount());
@@ -160,10 +169,12 @@ public class DecodeAndDispatchBlock implements AbstractBlock
   }
   
   /**
+   * @param cycle Current cycle
+   *
    * @brief Simulates decoding and renaming of instructions before dispatching.
    * In normal operation, the buffer should be empty at the beginning of the cycle.
    */
-  public void decode()
+  public void decode(long cycle)
   {
     // If ROB did not pull all instructions, stall decode block
     if (stallFlag)
@@ -199,6 +210,10 @@ public class DecodeAndDispatchBlock implements AbstractBlock
       assert renameSuccessful;
       
       statistics.reportDecodedInstruction(simCodeModel);
+      if (pipelineTracer != null)
+      {
+        pipelineTracer.onStage(simCodeModel, PipelineStage.kDecode, PipelineTracer.NO_UNIT, cycle);
+      }
       
       // Calculate branch after rename, the computation may change registers (CALL instruction)
       // TODO: maybe, a condition should disallow this in Decode
@@ -381,4 +396,12 @@ public class DecodeAndDispatchBlock implements AbstractBlock
   }// end of removePulledInstructions
   
   //----------------------------------------------------------------------
+  
+  /**
+   * @param pipelineTracer Receives the pipeline events, null to stop tracing
+   */
+  public void setPipelineTracer(PipelineTracer pipelineTracer)
+  {
+    this.pipelineTracer = pipelineTracer;
+  }
 }
@@ -34,6 +34,7 @@ package com.gradle.superscalarsim.blocks.base;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.blocks.branch.BranchTargetBuffer;
@@ -41,6 +42,8 @@ import com.gradle.superscalarsim.blocks.branch.GShareUnit;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
 import com.gradle.superscalarsim.factories.SimCodeModelFactory;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
+import com.gradle.superscalarsim.pipetrace.PipelineTracer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -102,6 +105,12 @@ public class InstructionFetchBlock implements AbstractBlock
    */
   private boolean stallFlag;
   
+  /**
+   * Receives the pipeline events, null if nobody traces them
+   */
+  @JsonIgnore
+  private PipelineTracer pipelineTracer;
+  
   /**
    * @param parser             Class containing parsed code
    * @param blockScheduleTask  Task class, where blocks are periodically triggered by the GlobalTimer
@@ -155,7 +164,7 @@ public class InstructionFetchBlock implements AbstractBlock
    * @brief Simulates fetching instructions. The only point of creating SimCodeModel(s).
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     if (stallFlag)
     {
@@ -178,7 +187,7 @@ public class InstructionFetchBlock implements AbstractBlock
    *
    * @brief Fetching logic
    */
-  private void fetchInstructions(int cycle)
+  private void fetchInstructions(long cycle)
   {
     int followedBranches = 0;
     int encounteredJumps = 0;
@@ -186,7 +195,7 @@ public class InstructionFetchBlock implements AbstractBlock
     for (int i = 0; i < numberOfWays; i++)
     {
       // Unique ID of the instruction
-      int simCodeId = cycle * numberOfWays + i;
+      long simCodeId = cycle * numberOfWays + i;
       SimCodeModel codeModel = this.simCodeModelFactory.createInstance(instructionMemoryBlock.getInstructionAt(pc),
                                                                        simCodeId, cycle);
       
@@ -209,10 +218,10 @@ public class InstructionFetchBlock implements AbstractBlock
         }
         
         int predictorIndex = gShareUnit.getPredictorIndex(pc);
-        int predictorState = gShareUnit.getPredictor(pc).getState();
+        int predictorState = gShareUnit.getPredictorState(pc);
         
         boolean unconditional = this.branchTargetBuffer.isEntryUnconditional(pc);
-        boolean prediction    = this.gShareUnit.getPredictor(pc).getCurrentPrediction();
+        boolean prediction    = this.gShareUnit.getPrediction(pc);
         boolean shouldJump    = prediction || unconditional;
         int     newPc         = this.branchTargetBuffer.getEntryTarget(pc);
         boolean areWeJumping  = shouldJump && newPc >= 0;
@@ -239,6 +248,11 @@ public class InstructionFetchBlock implements AbstractBlock
       }
       
       fetchedCode.add(codeModel);
+      // Decode drops the nops, they are not traced
+      if (pipelineTracer != null && !codeModel.getInstructionName().equals("nop"))
+      {
+        pipelineTracer.onStage(codeModel, PipelineStage.kFetch, PipelineTracer.NO_UNIT, cycle);
+      }
     }
   }// end of fetchInstructions
   //----------------------------------------------------------------------
@@ -300,4 +314,13 @@ public class InstructionFetchBlock implements AbstractBlock
     assert pc >= 0;
     this.pc = pc;
   }// end of setPcCounter
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param pipelineTracer Receives the pipeline events, null to stop tracing
+   */
+  public void setPipelineTracer(PipelineTracer pipelineTracer)
+  {
+    this.pipelineTracer = pipelineTracer;
+  }
 }
@@ -93,7 +93,7 @@ public class IssueWindowBlock implements AbstractBlock
    * Shared behavior for all issue windows.
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     removeFailedInstructions();
     
@@ -170,7 +170,7 @@ public class IssueWindowBlock implements AbstractBlock
    *
    * @brief Adds new instruction to window list
    */
-  public void dispatchInstruction(SimCodeModel codeModel, int cycle)
+  public void dispatchInstruction(SimCodeModel codeModel, long cycle)
   {
     this.issuedInstructions.add(codeModel);
     codeModel.setIssueWindowId(cycle);
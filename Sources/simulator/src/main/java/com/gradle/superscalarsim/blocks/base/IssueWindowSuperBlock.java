@@ -34,9 +34,12 @@ package com.gradle.superscalarsim.blocks.base;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
+import com.gradle.superscalarsim.pipetrace.PipelineTracer;
 
 /**
  * @class IssueWindowSuperBlock
@@ -67,6 +70,12 @@ public class IssueWindowSuperBlock implements AbstractBlock
   @JsonIdentityReference(alwaysAsId = true)
   private final ReorderBufferBlock reorderBufferBlock;
   
+  /**
+   * Receives the pipeline events, null if nobody traces them
+   */
+  @JsonIgnore
+  private PipelineTracer pipelineTracer;
+  
   /**
    * @param reorderBufferBlock        ROB
    * @param aluIssueWindowBlock       ALU issue window
@@ -95,7 +104,7 @@ public class IssueWindowSuperBlock implements AbstractBlock
    * @brief Simulates dispatching instructions to Issue windows
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     // Issue instruction without a IssueWindowId
     this.reorderBufferBlock    // formatter trick
@@ -111,7 +120,7 @@ public class IssueWindowSuperBlock implements AbstractBlock
    *
    * @brief Selects issue window based on instruction type and dispatches the instruction
    */
-  public void selectCorrectIssueWindow(SimCodeModel codeModel, int cycle)
+  public void selectCorrectIssueWindow(SimCodeModel codeModel, long cycle)
   {
     IssueWindowBlock selectedIssue = switch (codeModel.instructionFunctionModel().instructionType())
     {
@@ -121,6 +130,21 @@ public class IssueWindowSuperBlock implements AbstractBlock
       case kJumpbranch -> branchIssueWindowBlock;
     };
     selectedIssue.dispatchInstruction(codeModel, cycle);
+    if (pipelineTracer != null)
+    {
+      // The unit of a dispatch is the issue window, by the instruction type
+      pipelineTracer.onStage(codeModel, PipelineStage.kDispatch,
+                             codeModel.instructionFunctionModel().instructionType().ordinal(), cycle);
+    }
   }// end of selectCorrectIssueWindow
   //----------------------------------------------------------------------
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param pipelineTracer Receives the pipeline events, null to stop tracing
+   */
+  public void setPipelineTracer(PipelineTracer pipelineTracer)
+  {
+    this.pipelineTracer = pipelineTracer;
+  }
 }
@@ -34,16 +34,21 @@ package com.gradle.superscalarsim.blocks.base;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.blocks.branch.BranchTargetBuffer;
 import com.gradle.superscalarsim.blocks.branch.GShareUnit;
 import com.gradle.superscalarsim.blocks.loadstore.LoadBufferBlock;
 import com.gradle.superscalarsim.blocks.loadstore.StoreBufferBlock;
+import com.gradle.superscalarsim.branchtrace.BranchOutcomeListener;
+import com.gradle.superscalarsim.cachetrace.MemoryAccessListener;
+import com.gradle.superscalarsim.code.CodeLoadStoreInterpreter;
 import com.gradle.superscalarsim.cpu.DebugLog;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.cpu.StopReason;
 import com.gradle.superscalarsim.enums.InstructionTypeEnum;
+import com.gradle.superscalarsim.jfr.PipelineFlushEvent;
 import com.gradle.superscalarsim.models.instruction.DebugInfo;
 import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
 import com.gradle.superscalarsim.models.instruction.InstructionArgument;
@@ -51,6 +56,9 @@ import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.memory.LoadBufferItem;
 import com.gradle.superscalarsim.models.memory.StoreBufferItem;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
+import com.gradle.superscalarsim.pipetrace.PipelineTracer;
+import com.gradle.superscalarsim.steadystate.LoopAccelerator;
 
 import java.util.ArrayDeque;
 import java.util.Iterator;
@@ -134,6 +142,26 @@ public class ReorderBufferBlock implements AbstractBlock
    */
   @JsonIdentityReference(alwaysAsId = true)
   private StoreBufferBlock storeBufferBlock;
+  /**
+   * Receives the address of every committed load and store, null if nobody records them
+   */
+  @JsonIgnore
+  private MemoryAccessListener memoryAccessListener;
+  /**
+   * Receives the outcome of every committed branch, null if nobody records them
+   */
+  @JsonIgnore
+  private BranchOutcomeListener branchOutcomeListener;
+  /**
+   * Detects loops in a steady state and fast-forwards them, null if the extrapolation is off
+   */
+  @JsonIgnore
+  private LoopAccelerator loopAccelerator;
+  /**
+   * Receives the pipeline events, null if nobody traces them
+   */
+  @JsonIgnore
+  private PipelineTracer pipelineTracer;
   
   public ReorderBufferBlock()
   {
@@ -198,7 +226,7 @@ public class ReorderBufferBlock implements AbstractBlock
    * @brief Simulates committing of instructions
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     // Go through queue and commit all instructions you can
     // until you reach un-committable instruction, or you reach limit
@@ -247,18 +275,27 @@ public class ReorderBufferBlock implements AbstractBlock
    *
    * @brief Process instruction that is ready to be committed
    */
-  private void commitInstruction(SimCodeModel codeModel, int cycle)
+  private void commitInstruction(SimCodeModel codeModel, long cycle)
   {
     codeModel.setCommitId(cycle);
     simulationStatistics.reportCommittedInstruction(codeModel);
+    if (pipelineTracer != null)
+    {
+      pipelineTracer.onStage(codeModel, PipelineStage.kCommit, PipelineTracer.NO_UNIT, cycle);
+    }
     if (codeModel.getInstructionTypeEnum() == InstructionTypeEnum.kJumpbranch)
     {
       boolean branchActuallyTaken = codeModel.isBranchLogicResult();
       int     pc                  = codeModel.getSavedPc();
+      if (branchOutcomeListener != null)
+      {
+        branchOutcomeListener.onCommittedBranch(pc, branchActuallyTaken, codeModel.getBranchTarget(),
+                                                codeModel.isConditionalBranch());
+      }
       
       // Feedback to predictor
       // TODO look into gshareunit
-      this.gShareUnit.getPredictor(pc).sendFeedback(branchActuallyTaken);
+      this.gShareUnit.sendFeedback(pc, branchActuallyTaken);
       this.branchTargetBuffer.setEntry(pc, codeModel, codeModel.getBranchTarget());
       
       // Update GHT
@@ -305,6 +342,16 @@ public class ReorderBufferBlock implements AbstractBlock
           this.gShareUnit.getGlobalHistoryRegister().fixPrediction(branchActuallyTaken, codeModel.getIntegerId());
         }
       }
+      
+      boolean predicted = correctAddressPrediction || codeModel.isBranchComputedInDecode();
+      if (loopAccelerator != null && loopAccelerator.onBranchCommit(codeModel, predicted))
+      {
+        // Steady state found, drain the CPU at the start of the next iteration
+        flush(this.reorderQueue.stream().skip(1).findFirst().orElse(null));
+        this.gShareUnit.getGlobalHistoryRegister().flush(codeModel.getIntegerId());
+        this.instructionFetchBlock.setPc(nextPc);
+        this.instructionFetchBlock.setStallFlag(true);
+      }
     }
     else if (codeModel.getInstructionTypeEnum() == InstructionTypeEnum.kLoadstore)
     {
@@ -313,6 +360,7 @@ public class ReorderBufferBlock implements AbstractBlock
         assert storeBufferBlock.getStoreQueueFirst() == codeModel; // store should be at the front of the queue
         // Store checks later loads that are already executed
         StoreBufferItem storeBufferItem = storeBufferBlock.getStoreBufferItem(codeModel.getIntegerId());
+        reportMemoryAccess(codeModel, storeBufferItem.getAddress());
         LoadBufferItem badLoad = loadBufferBlock.findConflictingLoad(storeBufferItem.getAddress(),
                                                                      codeModel.getIntegerId());
         if (badLoad != null)
@@ -332,6 +380,7 @@ public class ReorderBufferBlock implements AbstractBlock
         // todo assert it?
         if (loadBufferBlock.getQueueSize() > 0 && loadBufferBlock.getLoadQueueFirst() == codeModel)
         {
+          reportMemoryAccess(codeModel, loadBufferBlock.getLoadBufferItem(codeModel.getIntegerId()).getAddress());
           loadBufferBlock.releaseLoadFirst();
         }
       }
@@ -366,6 +415,26 @@ public class ReorderBufferBlock implements AbstractBlock
     }
   }// end of processCommittableInstruction
   
+  /**
+   * @param codeModel Committed load or store
+   * @param address   Address the instruction accessed
+   *
+   * @brief Passes the access to the listener, if there is one
+   */
+  private void reportMemoryAccess(SimCodeModel codeModel, long address)
+  {
+    if (loopAccelerator != null)
+    {
+      loopAccelerator.onMemoryAccess(address);
+    }
+    if (memoryAccessListener == null)
+    {
+      return;
+    }
+    int size = CodeLoadStoreInterpreter.getAccessSize(codeModel.instructionFunctionModel());
+    memoryAccessListener.onCommittedAccess(address, size, codeModel.isStore());
+  }
+  
   /**
    * Sets finished flag, reduces references to speculative registers
    *
@@ -399,7 +468,7 @@ public class ReorderBufferBlock implements AbstractBlock
    *
    * @brief Removes all invalid (ready to removed) instructions from ROB
    */
-  public void flushInvalidInstructions(int cycle)
+  public void flushInvalidInstructions(long cycle)
   {
     // Iterate the queue from the end, remove until first valid instruction
     Iterator<SimCodeModel> it = this.reorderQueue.descendingIterator();
@@ -414,6 +483,10 @@ public class ReorderBufferBlock implements AbstractBlock
       // Notify all that instruction is invalid
       simulationStatistics.incrementFailedInstructions();
       robItem.setCommitId(cycle); // todo: is this correct?
+      if (pipelineTracer != null)
+      {
+        pipelineTracer.onStage(robItem, PipelineStage.kSquash, PipelineTracer.NO_UNIT, cycle);
+      }
       removeInstruction(robItem);
       this.reorderQueue.removeLast();
     }
@@ -495,12 +568,14 @@ public class ReorderBufferBlock implements AbstractBlock
   public void flush(SimCodeModel firstInvalidInstruction)
   {
     boolean flush           = false;
-    int     lowestFlushedId = Integer.MAX_VALUE;
+    long    lowestFlushedId = Long.MAX_VALUE;
+    int     flushed         = 0;
     for (SimCodeModel robItem : this.reorderQueue)
     {
       flush = flush || robItem == firstInvalidInstruction;
       if (flush)
       {
+        flushed++;
         robItem.setSpeculative(false);
         robItem.setValid(false);
         robItem.setHasFailed(true);
@@ -524,9 +599,10 @@ public class ReorderBufferBlock implements AbstractBlock
     this.instructionFetchBlock.flush();
     
     simulationStatistics.incrementRobFlushes();
+    PipelineFlushEvent.emit(flushed);
     
     // Update global history register
-    if (lowestFlushedId != Integer.MAX_VALUE)
+    if (lowestFlushedId != Long.MAX_VALUE)
     {
       gShareUnit.getGlobalHistoryRegister().flush(lowestFlushedId);
     }
@@ -557,4 +633,45 @@ public class ReorderBufferBlock implements AbstractBlock
   {
     return this.reorderQueue.stream();
   }// end of getReorderQueue
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param memoryAccessListener Receives the address of every committed load and store, null to stop reporting
+   */
+  public void setMemoryAccessListener(MemoryAccessListener memoryAccessListener)
+  {
+    this.memoryAccessListener = memoryAccessListener;
+  }
+  
+  /**
+   * @return Receiver of the committed loads and stores, null if nobody records them
+   */
+  public MemoryAccessListener getMemoryAccessListener()
+  {
+    return memoryAccessListener;
+  }
+  
+  /**
+   * @param branchOutcomeListener Receives the outcome of every committed branch, null to stop reporting
+   */
+  public void setBranchOutcomeListener(BranchOutcomeListener branchOutcomeListener)
+  {
+    this.branchOutcomeListener = branchOutcomeListener;
+  }
+  
+  /**
+   * @param loopAccelerator Detects loops in a steady state and fast-forwards them, null to turn it off
+   */
+  public void setLoopAccelerator(LoopAccelerator loopAccelerator)
+  {
+    this.loopAccelerator = loopAccelerator;
+  }
+  
+  /**
+   * @param pipelineTracer Receives the pipeline events, null to stop tracing
+   */
+  public void setPipelineTracer(PipelineTracer pipelineTracer)
+  {
+    this.pipelineTracer = pipelineTracer;
+  }
 }
@@ -78,10 +78,24 @@ public class BitPredictor
   }
   
   /**
+   * @param bitWidth Size of the state in bits
+   * @param state    State of the predictor
+   *
+   * @brief Constructor of a view of a packed predictor
+   */
+  BitPredictor(int bitWidth, int state)
+  {
+    this.bitWidth = bitWidth;
+    this.state    = state;
+  }
+  
+  /**
+   * @param state    State of a predictor
+   * @param bitWidth Size of the state in bits
+   *
    * @return True if branch should be taken, false otherwise
-   * @brief Get prediction based on the current state
    */
-  public boolean getCurrentPrediction()
+  public static boolean predict(int state, int bitWidth)
   {
     // The decision is the highest order bit
     int decisionBit = bitWidth == 0 ? 0 : bitWidth - 1;
@@ -89,6 +103,32 @@ public class BitPredictor
     return (state & mask) != 0;
   }
   
+  /**
+   * @param state    State of a predictor
+   * @param bitWidth Size of the state in bits
+   * @param outcome  Actual outcome of the branch
+   *
+   * @return State saturated towards the outcome. A zero-bit predictor keeps its state.
+   */
+  public static int nextState(int state, int bitWidth, boolean outcome)
+  {
+    if (outcome)
+    {
+      int maxState = (1 << bitWidth) - 1;
+      return state < maxState ? state + 1 : state;
+    }
+    return bitWidth != 0 && state > 0 ? state - 1 : state;
+  }
+  
+  /**
+   * @return True if branch should be taken, false otherwise
+   * @brief Get prediction based on the current state
+   */
+  public boolean getCurrentPrediction()
+  {
+    return predict(state, bitWidth);
+  }
+  
   /**
    * @brief Adjusts the state of the predictor based on the actual outcome
    */
@@ -109,11 +149,7 @@ public class BitPredictor
    */
   void upTheProbability()
   {
-    int maxState = (1 << bitWidth) - 1;
-    if (state < maxState)
-    {
-      state++;
-    }
+    state = nextState(state, bitWidth, true);
   }
   
   /**
@@ -121,14 +157,7 @@ public class BitPredictor
    */
   void downTheProbability()
   {
-    if (bitWidth == 0)
-    {
-      return;
-    }
-    if (state > 0)
-    {
-      state--;
-    }
+    state = nextState(state, bitWidth, false);
   }
   
   /**
@@ -139,6 +168,14 @@ public class BitPredictor
     return state;
   }
   
+  /**
+   * @return Size of the state in bits
+   */
+  public int getBitWidth()
+  {
+    return bitWidth;
+  }
+  
   /**
    * Enum for predictor types with values
    * Gets serialized as
@@ -154,7 +191,7 @@ public class BitPredictor
   {
     ZERO_BIT_PREDICTOR, ONE_BIT_PREDICTOR, TWO_BIT_PREDICTOR;
     
-    int getWidth()
+    public int getWidth()
     {
       return switch (this)
       {
@@ -127,7 +127,7 @@ public class BranchFunctionUnitBlock extends AbstractFunctionUnitBlock
    * Calculate the delay, start memory transaction.
    */
   @Override
-  protected void handleStartExecution(int cycle)
+  protected void handleStartExecution(long cycle)
   {
     this.simCodeModel.setFunctionUnitId(this.functionUnitId);
     this.setDelay(this.delay);
@@ -149,7 +149,7 @@ public class BranchFunctionUnitBlock extends AbstractFunctionUnitBlock
    * @brief Simulates execution of an instruction
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     if (!isFunctionUnitEmpty())
     {
@@ -165,7 +165,7 @@ public class BranchFunctionUnitBlock extends AbstractFunctionUnitBlock
   /**
    * @brief Processes instruction
    */
-  public void handleInstruction(int cycle)
+  public void handleInstruction(long cycle)
   {
     if (this.simCodeModel.hasFailed())
     {
@@ -176,6 +176,7 @@ public class BranchFunctionUnitBlock extends AbstractFunctionUnitBlock
     if (hasTimerStartedThisTick())
     {
       handleStartExecution(cycle);
+      traceStart(cycle);
     }
     //
     //    tickCounter();
@@ -33,10 +33,13 @@
 package com.gradle.superscalarsim.blocks.branch;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.models.BranchTargetEntryModel;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -45,19 +48,33 @@ import java.util.TreeMap;
  * @brief Table where each entry holds the target of a branch instruction.
  * The target can be unknown (-1). The table is indexed by the PC of the branch instruction
  * and the tag is compared to determine if the entry is valid or shared.
+ * @details The entries are stored in parallel arrays, the entry models are created only for the GUI.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
 public class BranchTargetBuffer
 {
   /**
-   * Buffer for branch instruction targets
+   * PC tags of the entries, -1 for an empty entry
    */
-  private final Map<Integer, BranchTargetEntryModel> buffer;
+  @JsonIgnore
+  private final int[] tags;
+  
+  /**
+   * Targets of the entries
+   */
+  @JsonIgnore
+  private final int[] targets;
+  
+  /**
+   * True if the entry holds a conditional branch
+   */
+  @JsonIgnore
+  private final boolean[] conditional;
   
   /**
    * Size of the buffer
    */
-  private int size;
+  private final int size;
   
   /**
    * @param size Size of the BTB
@@ -66,10 +83,11 @@ public class BranchTargetBuffer
    */
   public BranchTargetBuffer(int size)
   {
-    // TreeMap is used to have sorted keys - display in GUI
-    // TODO: change, measure if SparseArray is faster
-    this.buffer = new TreeMap<>();
-    this.size   = size;
+    this.tags        = new int[size];
+    this.targets     = new int[size];
+    this.conditional = new boolean[size];
+    this.size        = size;
+    Arrays.fill(this.tags, -1);
   }// end of Constructor
   //----------------------------------------------------------------------
   
@@ -83,17 +101,24 @@ public class BranchTargetBuffer
   public void setEntry(int programCounter, SimCodeModel codeModel, int target)
   {
     assert codeModel != null;
-    BranchTargetEntryModel entryModel = new BranchTargetEntryModel(programCounter, codeModel.isConditionalBranch(),
-                                                                   target);
-    
-    this.buffer.put(programCounter % this.size, entryModel);
+    setEntry(programCounter, codeModel.isConditionalBranch(), target);
   }// end of setEntry
   //----------------------------------------------------------------------
   
-  BranchTargetEntryModel getBranchEntry(int programCounter)
+  /**
+   * @param programCounter Position of the instruction in program
+   * @param isConditional  True if the branch is conditional
+   * @param target         Target of the branch
+   *
+   * @brief Sets entry to BTB
+   */
+  public void setEntry(int programCounter, boolean isConditional, int target)
   {
-    return this.buffer.getOrDefault(programCounter % this.size, new BranchTargetEntryModel(-1, false, -1));
-  }
+    int index = programCounter % this.size;
+    this.tags[index]        = programCounter;
+    this.targets[index]     = target;
+    this.conditional[index] = isConditional;
+  }// end of setEntry
   //----------------------------------------------------------------------
   
   /**
@@ -104,8 +129,8 @@ public class BranchTargetBuffer
    */
   public int getEntryTarget(int programCounter)
   {
-    BranchTargetEntryModel entryModel = getBranchEntry(programCounter);
-    return entryModel.getPcTag() == programCounter ? entryModel.getTarget() : -1;
+    int index = programCounter % this.size;
+    return this.tags[index] == programCounter ? this.targets[index] : -1;
   }// end of getEntryTarget
   //----------------------------------------------------------------------
   
@@ -117,8 +142,28 @@ public class BranchTargetBuffer
    */
   public boolean isEntryUnconditional(int programCounter)
   {
-    BranchTargetEntryModel entryModel = getBranchEntry(programCounter);
-    return entryModel.getPcTag() == programCounter && !entryModel.isConditional();
+    int index = programCounter % this.size;
+    return this.tags[index] == programCounter && !this.conditional[index];
   }// end of isEntryUnconditional
   //----------------------------------------------------------------------
+  
+  /**
+   * Tree map keeps the keys sorted for displaying in GUI
+   *
+   * @return Filled entries by their index
+   */
+  @JsonProperty("buffer")
+  Map<Integer, BranchTargetEntryModel> getBuffer()
+  {
+    Map<Integer, BranchTargetEntryModel> buffer = new TreeMap<>();
+    for (int i = 0; i < size; i++)
+    {
+      if (tags[i] != -1)
+      {
+        buffer.put(i, new BranchTargetEntryModel(tags[i], conditional[i], targets[i]));
+      }
+    }
+    return buffer;
+  }// end of getBuffer
+  //----------------------------------------------------------------------
 }
@@ -90,14 +90,46 @@ public class GShareUnit
   /**
    * @param programCounter Position of the branch instruction
    *
-   * @return Predictor on the specified index
-   * @brief Get predictor from PHT
+   * @return State of the predictor of the branch
    */
-  public BitPredictor getPredictor(int programCounter)
+  public int getPredictorState(int programCounter)
   {
-    int index = getPredictorIndex(programCounter);
-    return this.patternHistoryTable.getPredictor(index);
-  }// end of getPredictor
+    return this.patternHistoryTable.getState(getPredictorIndex(programCounter));
+  }// end of getPredictorState
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param programCounter Position of the branch instruction
+   *
+   * @return State of the predictor of the branch, without showing the predictor in the GUI
+   */
+  public int peekPredictorState(int programCounter)
+  {
+    return this.patternHistoryTable.peekState(getPredictorIndex(programCounter));
+  }// end of peekPredictorState
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param programCounter Position of the branch instruction
+   *
+   * @return True if the branch is predicted taken
+   */
+  public boolean getPrediction(int programCounter)
+  {
+    return this.patternHistoryTable.getPrediction(getPredictorIndex(programCounter));
+  }// end of getPrediction
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param programCounter Position of the branch instruction
+   * @param outcome        Actual outcome of the branch
+   *
+   * @brief Adjusts the predictor of the branch
+   */
+  public void sendFeedback(int programCounter, boolean outcome)
+  {
+    this.patternHistoryTable.sendFeedback(getPredictorIndex(programCounter), outcome);
+  }// end of sendFeedback
   //----------------------------------------------------------------------
   
   /**
@@ -112,7 +144,8 @@ public class GShareUnit
     int index = (programCounter >> 2) % size;
     if (useGlobalHistory)
     {
-      index ^= globalHistoryRegister.getRegisterValue();
+      // The low bits of the history, kept non-negative for histories of 32 and more bits
+      index ^= (int) (globalHistoryRegister.getRegisterValue() & Integer.MAX_VALUE);
     }
     return index;
   }// end of getPredictorIndex
@@ -33,6 +33,8 @@
 package com.gradle.superscalarsim.blocks.branch;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
 import java.util.ArrayList;
@@ -40,48 +42,109 @@ import java.util.List;
 
 /**
  * @brief Global History Register (also known as Branch History Shift Register). Used for dynamic, global branch prediction.
- * The maximum length of the register is artificially limited to 8 bits.
+ * The length of the register is 1-64 bits.
  * @details A bit array holding history of last n branches (true if the branch was taken, false if the branch was not taken).
  * The value of the register is used to index the table of predictors.
  * The history is updated only by conditional branches in the _fetch_ stage.
  * The GHR is updated speculatively, therefore it must be restore-able to a previous state.
+ * The states are kept in a circular buffer, oldest first. The buffer grows only if more branches are in flight
+ * than its capacity.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
 public class GlobalHistoryRegister
 {
+  /**
+   * Default capacity of the buffer
+   */
+  private static final int DEFAULT_CAPACITY = 16;
+  
   /**
    * Size of the GHR in bits
    */
   private final int size;
+  
+  /**
+   * Mask of the valid bits of the register
+   */
+  @JsonIgnore
+  private final long mask;
+  
   /**
-   * @brief History of the shift register. The first element is the architectural state of the register.
+   * @brief Values of the shift register. The oldest element is the architectural state of the register.
    * The rest of the elements are the changes of the register. The changes are used for restoration after a flush.
    */
-  private List<Register> shiftRegisters;
+  @JsonIgnore
+  private long[] values;
+  
+  /**
+   * Code ids of the conditional branches that caused the shifts, ascending
+   */
+  @JsonIgnore
+  private long[] codeIds;
+  
+  /**
+   * Index of the architectural state in the buffer
+   */
+  @JsonIgnore
+  private int head;
+  
+  /**
+   * Number of states in the buffer, at least one
+   */
+  @JsonIgnore
+  private int count;
   
   /**
-   * @param size Size of the bit vector. Values 1-8 are allowed.
+   * @param size Size of the bit vector. Values 1-64 are allowed.
    *
    * @brief Constructor
    */
   public GlobalHistoryRegister(int size)
   {
-    assert size >= 1 && size <= 8;
+    this(size, DEFAULT_CAPACITY);
+  }// end of Constructor
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param size     Size of the bit vector. Values 1-64 are allowed.
+   * @param inFlight Expected number of conditional branches in flight
+   *
+   * @brief Constructor
+   */
+  public GlobalHistoryRegister(int size, int inFlight)
+  {
+    assert size >= 1 && size <= 64;
     this.size = size;
+    this.mask = size == 64 ? -1L : (1L << size) - 1;
+    
+    // Power of two for wrapping by a mask, one more slot for the architectural state
+    int capacity = Integer.highestOneBit(Math.max(inFlight, 1)) << 1;
+    this.values  = new long[capacity];
+    this.codeIds = new long[capacity];
     
     // The initial state of the shift register is all zeros
-    this.shiftRegisters = new ArrayList<>();
-    this.shiftRegisters.add(new Register(0, -1));
+    this.codeIds[0] = -1;
+    this.head       = 0;
+    this.count      = 1;
   }// end of Constructor
   //----------------------------------------------------------------------
   
+  /**
+   * @param offset Position from the architectural state
+   *
+   * @return Index in the buffer
+   */
+  private int slot(int offset)
+  {
+    return (head + offset) & (values.length - 1);
+  }
+  
   /**
    * Get the architectural state of the shift register
    */
-  public int getArchitecturalState()
+  public long getArchitecturalState()
   {
-    assert !this.shiftRegisters.isEmpty();
-    return this.shiftRegisters.get(0).shiftRegister;
+    return values[head];
   }
   
   /**
@@ -89,71 +152,97 @@ public class GlobalHistoryRegister
    *
    * @brief Shifts new bit value into the vector
    */
-  public void shiftValue(boolean isJump, int codeId)
+  public void shiftValue(boolean isJump, long codeId)
   {
-    int lastRegisterValue = getRegisterValue();
-    int newRegisterValue  = (lastRegisterValue << 1) | (isJump ? 1 : 0);
-    int mask              = (1 << size) - 1;
-    newRegisterValue &= mask;
-    shiftRegisters.add(new Register(newRegisterValue, codeId));
+    if (count == values.length)
+    {
+      grow();
+    }
+    long newRegisterValue = ((getRegisterValue() << 1) | (isJump ? 1 : 0)) & mask;
+    int  last             = slot(count);
+    values[last]  = newRegisterValue;
+    codeIds[last] = codeId;
+    count++;
+  }
+  
+  /**
+   * @brief Doubles the capacity, the states are moved to the start of the buffer
+   */
+  private void grow()
+  {
+    long[] newValues  = new long[values.length * 2];
+    long[] newCodeIds = new long[values.length * 2];
+    for (int i = 0; i < count; i++)
+    {
+      newValues[i]  = values[slot(i)];
+      newCodeIds[i] = codeIds[slot(i)];
+    }
+    values  = newValues;
+    codeIds = newCodeIds;
+    head    = 0;
   }
   
   /**
    * @return Current integer value of the bit vector.
    * @brief Returns the bit array as integer.
    */
-  public int getRegisterValue()
+  public long getRegisterValue()
   {
-    return shiftRegisters.get(shiftRegisters.size() - 1).shiftRegister;
+    return values[slot(count - 1)];
   }// end of getRegisterValueAsInt
   //----------------------------------------------------------------------
   
   /**
    * @brief Called when part of the history is to be restored. This happens after a flush.
+   * @details The states are sorted, the cut is found from the newest one. Flushed states are rarely many.
    */
-  public void flush(int lastValidCodeId)
+  public void flush(long lastValidCodeId)
   {
-    // They are sorted, so find the point where to cut and remove the rest
-    int i = shiftRegisters.size() - 1;
-    while (i > 0 && shiftRegisters.get(i).codeId > lastValidCodeId)
+    while (count > 1 && codeIds[slot(count - 1)] > lastValidCodeId)
     {
-      i--;
+      count--;
     }
-    shiftRegisters = shiftRegisters.subList(0, i + 1);
-    assert !shiftRegisters.isEmpty();
   }
   
   /**
    * Fix a bad prediction. Called when committing a conditional branch and the prediction was wrong.
    * Flush must have been called, so this change will be at the top of the list.
    */
-  public void fixPrediction(boolean isJump, int codeId)
+  public void fixPrediction(boolean isJump, long codeId)
   {
-    Register register = shiftRegisters.get(shiftRegisters.size() - 1);
-    assert register.codeId == codeId;
+    int last = slot(count - 1);
+    assert codeIds[last] == codeId;
     
-    int lastRegisterValue = register.shiftRegister;
     // set or clear the last bit
-    int newRegisterValue = isJump ? lastRegisterValue | 1 : lastRegisterValue & ~1;
-    shiftRegisters.remove(shiftRegisters.size() - 1);
-    shiftRegisters.add(new Register(newRegisterValue, codeId));
+    values[last] = isJump ? values[last] | 1 : values[last] & ~1L;
   }
   
   /**
    * @brief Called when a conditional branch is committed. The speculative history is confirmed.
-   * @details This keeps the list short.
+   * @details The branches commit in order, so the committed state is usually the second oldest.
    */
-  public void commit(int codeId)
+  public void commit(long codeId)
   {
     // Set new base, new architectural state
-    // So find an index, take the sublist
-    int i = 0;
-    while (i < shiftRegisters.size() - 1 && shiftRegisters.get(i).codeId < codeId)
+    while (count > 1 && codeIds[head] < codeId)
+    {
+      head = slot(1);
+      count--;
+    }
+  }
+  
+  /**
+   * @return States of the register for the GUI, the architectural state first
+   */
+  @JsonProperty("shiftRegisters")
+  List<Register> getShiftRegisters()
+  {
+    List<Register> shiftRegisters = new ArrayList<>(count);
+    for (int i = 0; i < count; i++)
     {
-      i++;
+      shiftRegisters.add(new Register(values[slot(i)], codeIds[slot(i)]));
     }
-    shiftRegisters = shiftRegisters.subList(i, shiftRegisters.size());
-    assert !shiftRegisters.isEmpty();
+    return shiftRegisters;
   }
   
   /**
@@ -162,7 +251,7 @@ public class GlobalHistoryRegister
   @Override
   public String toString()
   {
-    return Integer.toBinaryString(getRegisterValue());
+    return Long.toBinaryString(getRegisterValue());
   }// end of toString
   
   /**
@@ -172,7 +261,7 @@ public class GlobalHistoryRegister
    * @brief An entry for state of the shift register
    * @details Index 0 is the newest bit. New value is written for every committed conditional branch. The initial state is all zeros.
    */
-  record Register(int shiftRegister, int codeId)
+  record Register(long shiftRegister, long codeId)
   {
   }
 }
@@ -34,23 +34,33 @@ package com.gradle.superscalarsim.blocks.branch;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.TreeMap;
 
 /**
  * @class PatternHistoryTable
  * @brief Class contains Pattern history table, which holds separate bit predictors
+ * @details The states of the predictors are packed in an array, the predictors are created only for the GUI.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
 public class PatternHistoryTable
 {
   /**
-   * Collection of predictors
-   * This collection is sparse, new predictors are added only when needed
+   * States of the predictors
    */
-  private final Map<Integer, BitPredictor> predictorMap;
+  @JsonIgnore
+  private final byte[] states;
+  
+  /**
+   * Predictors accessed so far, only these are shown in the GUI
+   */
+  @JsonIgnore
+  private final BitSet accessed;
   
   /**
    * Size of the PHT
@@ -63,40 +73,86 @@ public class PatternHistoryTable
   BitPredictor defaultPredictor;
   
   /**
-   * @param size                  Size of the PHT
-   * @param defaultState          Default state of the predictors, used for creating new predictors
-   * @param defaultPredictorClass Default type of the predictor, used for creating new predictors
+   * @param size             Size of the PHT
+   * @param defaultPredictor Type and initial state of all predictors
    *
    * @brief Constructor
    */
   public PatternHistoryTable(int size, BitPredictor defaultPredictor)
   {
-    // Use tree map to keep the order of the predictors for displaying in GUI
-    // todo: type?
-    this.predictorMap     = new TreeMap<>();
+    this.states           = new byte[size];
+    this.accessed         = new BitSet(size);
     this.size             = size;
     this.defaultPredictor = defaultPredictor;
+    Arrays.fill(this.states, (byte) defaultPredictor.getState());
   }// end of Constructor
+  //----------------------------------------------------------------------
   
   /**
    * @param index Index of the predictor
    *
-   * @return Bit predictor
-   * @brief Get predictor on specified index
+   * @return State of the predictor on specified index
    */
-  @JsonIgnore
-  public BitPredictor getPredictor(int index)
+  public int getState(int index)
+  {
+    int slot = index % size;
+    accessed.set(slot);
+    return states[slot];
+  }// end of getState
+  //----------------------------------------------------------------------
+  
+  /**
+   * Unlike getState, the predictor is not marked as accessed. Used by internal queries.
+   *
+   * @param index Index of the predictor
+   *
+   * @return State of the predictor on specified index
+   */
+  public int peekState(int index)
   {
-    BitPredictor predictor    = this.predictorMap.get(index % size);
-    boolean      hasPredictor = predictor != null;
-    if (!hasPredictor)
+    return states[index % size];
+  }// end of peekState
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param index Index of the predictor
+   *
+   * @return True if the predictor on specified index predicts taken
+   */
+  public boolean getPrediction(int index)
+  {
+    return BitPredictor.predict(getState(index), defaultPredictor.getBitWidth());
+  }// end of getPrediction
+  //----------------------------------------------------------------------
+  
+  /**
+   * @param index   Index of the predictor
+   * @param outcome Actual outcome of the branch
+   *
+   * @brief Adjusts the state of the predictor on specified index
+   */
+  public void sendFeedback(int index, boolean outcome)
+  {
+    int slot = index % size;
+    accessed.set(slot);
+    states[slot] = (byte) BitPredictor.nextState(states[slot], defaultPredictor.getBitWidth(), outcome);
+  }// end of sendFeedback
+  //----------------------------------------------------------------------
+  
+  /**
+   * Tree map keeps the order of the predictors for displaying in GUI
+   *
+   * @return Accessed predictors by their index
+   */
+  @JsonProperty("predictorMap")
+  Map<Integer, BitPredictor> getPredictorMap()
+  {
+    Map<Integer, BitPredictor> predictorMap = new TreeMap<>();
+    for (int i = accessed.nextSetBit(0); i >= 0; i = accessed.nextSetBit(i + 1))
     {
-      // Insert default predictor
-      predictor = new BitPredictor(this.defaultPredictor);
-      this.predictorMap.put(index % size, predictor);
+      predictorMap.put(i, new BitPredictor(defaultPredictor.getBitWidth(), states[i]));
     }
-    return predictor;
-  }// end of getPredictor
+    return predictorMap;
+  }// end of getPredictorMap
   //----------------------------------------------------------------------
 }
-
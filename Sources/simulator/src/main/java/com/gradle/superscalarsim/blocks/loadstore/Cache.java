@@ -33,17 +33,20 @@ package com.gradle.superscalarsim.blocks.loadstore;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.cpu.SimulationStatistics;
 import com.gradle.superscalarsim.enums.cache.ReplacementPoliciesEnum;
+import com.gradle.superscalarsim.jfr.CacheMissEvent;
 import com.gradle.superscalarsim.models.cache.CacheLineModel;
 import com.gradle.superscalarsim.models.cache.ReplacementPolicyModel;
 import com.gradle.superscalarsim.models.memory.MemoryTransaction;
 import com.gradle.superscalarsim.models.util.Triplet;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -143,7 +146,7 @@ public class Cache implements AbstractBlock, MemoryBlock
   /**
    * ID generator for cache accesses
    */
-  private int cacheAccessId;
+  private long cacheAccessId;
   
   /**
    * @brief Constructor for (de)serialization
@@ -334,14 +337,14 @@ public class Cache implements AbstractBlock, MemoryBlock
   }
   
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     List<MemoryTransaction> toRemove = new ArrayList<>();
     for (int i = memoryTransactions.size() - 1; i >= 0; i--)
     {
       MemoryTransaction transaction = memoryTransactions.get(i);
       // Check if the operation is finished this cycle
-      int finishCycle = transaction.timestamp() + transaction.latency();
+      long finishCycle = transaction.timestamp() + transaction.latency();
       assert finishCycle >= cycle;
       if (transaction.isCancelled())
       {
@@ -385,7 +388,7 @@ public class Cache implements AbstractBlock, MemoryBlock
     {
       assert !transaction.isFinished(); // All finished transactions should be removed from the list by the requester
       // Check if the operation is finished this cycle
-      int finishCycle = transaction.timestamp() + transaction.latency();
+      long finishCycle = transaction.timestamp() + transaction.latency();
       assert finishCycle >= cycle;
       if (finishCycle == cycle)
       {
@@ -455,19 +458,14 @@ public class Cache implements AbstractBlock, MemoryBlock
    *
    * @return Cache line to use for the new data. Either an empty line is found or a line is replaced.
    */
-  public CacheLineModel pickLineToUse(long address, int timestamp, int codeModelId)
+  public CacheLineModel pickLineToUse(long address, long timestamp, int codeModelId)
   {
     Triplet<Long, Integer, Integer> addressSplit = splitAddress(address);
     int                             index        = addressSplit.getSecond();
-    // Find a free line in the right group
-    for (int i = 0; i < associativity; i++)
+    int                             freeIndex    = findFreeLine(index);
+    if (freeIndex != -1)
     {
-      CacheLineModel lineCandidate = cache[index][i];
-      if (!lineCandidate.isValid())
-      {
-        replacementPolicy.updatePolicy(index, i);
-        return lineCandidate;
-      }
+      return cache[index][freeIndex];
     }
     
     // All lines in group used. Pick victim line, store it into memory
@@ -484,6 +482,261 @@ public class Cache implements AbstractBlock, MemoryBlock
     return line;
   }
   
+  /**
+   * @param index Index of the group of lines
+   *
+   * @return Position of an invalid line in the group, -1 if all lines are used. Updates the replacement policy.
+   */
+  private int findFreeLine(int index)
+  {
+    for (int i = 0; i < associativity; i++)
+    {
+      if (!cache[index][i].isValid())
+      {
+        replacementPolicy.updatePolicy(index, i);
+        return i;
+      }
+    }
+    return -1;
+  }
+  
+  /**
+   * Untimed access for trace replay. The tags, dirty bits, replacement policy and statistics change like in
+   * {@link #scheduleTransaction} followed by the execution of the transaction, but no data is moved and no memory
+   * transaction is created: line loads, write-backs and write-through stores only count as main memory traffic.
+   *
+   * @param address starting byte of the access (can be misaligned)
+   * @param size    Size of the access in bytes (1-8)
+   * @param isStore True for a store
+   *
+   * @return True if the access hit (both lines, for an access spanning two lines)
+   */
+  public boolean replayAccess(long address, int size, boolean isStore)
+  {
+    return untimedAccess(address, size, isStore, null, null);
+  }
+  
+  /**
+   * Untimed access with data, used to fast-forward loops functionally. Changes the cache like {@link #replayAccess},
+   * and also moves the data: the loaded lines are read from the memory and the victims are written to it at once.
+   * The cache must be idle (see {@link #isIdle()}).
+   *
+   * @param address starting byte of the access (can be misaligned)
+   * @param data    Bytes to store, or the buffer the loaded bytes are written to. Its length is the size of the access.
+   * @param isStore True for a store
+   * @param undoLog Receives the actions that revert the changes of the cache and the memory, to be run in reverse order
+   *
+   * @return True if the access hit (both lines, for an access spanning two lines)
+   */
+  public boolean functionalAccess(long address, byte[] data, boolean isStore, List<Runnable> undoLog)
+  {
+    return untimedAccess(address, data.length, isStore, data, undoLog);
+  }
+  
+  /**
+   * @param data    Data of the access, null to only replay it
+   * @param undoLog Journal of the changes, null to only replay the access
+   *
+   * @return True if the access hit
+   */
+  private boolean untimedAccess(long address, int size, boolean isStore, byte[] data, List<Runnable> undoLog)
+  {
+    boolean isHit         = replayLine(address, undoLog);
+    boolean spansTwoLines = (address & (lineSize - 1)) + size > lineSize;
+    long    nextAddress   = ((address >>> getOffsetBits()) + 1) << getOffsetBits();
+    if (spansTwoLines && !replayLine(nextAddress, undoLog))
+    {
+      isHit = false;
+    }
+    if (data != null)
+    {
+      moveData(address, data, isStore, undoLog);
+    }
+    
+    if (isStore)
+    {
+      if (writeBack)
+      {
+        findLane(address, false).setDirty(true);
+        if (spansTwoLines)
+        {
+          findLane(nextAddress, false).setDirty(true);
+        }
+      }
+      else
+      {
+        statistics.incrementMemoryTraffic(true, size);
+      }
+      statistics.cache.incrementWriteAccesses(size);
+    }
+    else
+    {
+      statistics.cache.incrementReadAccesses(size);
+    }
+    
+    if (isHit)
+    {
+      statistics.cache.incrementHits();
+    }
+    else
+    {
+      statistics.cache.incrementMisses();
+    }
+    return isHit;
+  }
+  
+  /**
+   * @param address Address in the line to access
+   * @param undoLog Journal of the changes, null if the data is not moved
+   *
+   * @return True if the line was present, otherwise it is loaded (evicting a line) before returning false
+   */
+  private boolean replayLine(long address, List<Runnable> undoLog)
+  {
+    Triplet<Long, Integer, Integer> addressSplit = splitAddress(address);
+    int                             index        = addressSplit.getSecond();
+    if (undoLog != null)
+    {
+      journalGroup(index, undoLog);
+    }
+    if (findLane(address, true) != null)
+    {
+      return true;
+    }
+    
+    int lineIndex = findFreeLine(index);
+    if (lineIndex == -1)
+    {
+      lineIndex = replacementPolicy.getLineToReplace(index);
+      CacheLineModel victim = cache[index][lineIndex];
+      if (victim.isDirty())
+      {
+        statistics.cache.incrementWritebacks();
+        statistics.incrementMemoryTraffic(true, lineSize);
+        if (undoLog != null)
+        {
+          writeMemory(victim.getBaseAddress(), victim.getLineData(), undoLog);
+        }
+      }
+    }
+    CacheLineModel line        = cache[index][lineIndex];
+    long           baseAddress = address & -(1L << getOffsetBits());
+    line.setValid(true);
+    line.setDirty(false);
+    line.setTag(addressSplit.getFirst());
+    line.setBaseAddress(baseAddress);
+    if (undoLog != null)
+    {
+      line.setLineData(memory.getFromMemory(baseAddress, lineSize));
+    }
+    statistics.incrementMemoryTraffic(false, lineSize);
+    // The access itself
+    replacementPolicy.updatePolicy(index, lineIndex);
+    return false;
+  }
+  
+  /**
+   * @param address Address of the access, its lines are in the cache
+   * @param data    Bytes to store, or the buffer for the loaded bytes
+   * @param isStore True for a store
+   * @param undoLog Journal of the changes
+   */
+  private void moveData(long address, byte[] data, boolean isStore, List<Runnable> undoLog)
+  {
+    int            offset = (int) (address & (lineSize - 1));
+    int            size1  = Math.min(data.length, lineSize - offset);
+    CacheLineModel line   = findLane(address, false);
+    CacheLineModel line2  = size1 < data.length ? findLane(address + size1, false) : null;
+    if (isStore)
+    {
+      line.setData(offset, Arrays.copyOfRange(data, 0, size1));
+      if (line2 != null)
+      {
+        line2.setData(0, Arrays.copyOfRange(data, size1, data.length));
+      }
+      if (!writeBack)
+      {
+        writeMemory(address, data, undoLog);
+      }
+    }
+    else
+    {
+      System.arraycopy(line.getDataBytes(offset, size1), 0, data, 0, size1);
+      if (line2 != null)
+      {
+        System.arraycopy(line2.getDataBytes(0, data.length - size1), 0, data, size1, data.length - size1);
+      }
+    }
+  }
+  
+  /**
+   * @brief Saves the lines of a group and its replacement state to the journal
+   */
+  private void journalGroup(int index, List<Runnable> undoLog)
+  {
+    int[] policy = replacementPolicy.saveGroup(index);
+    undoLog.add(() -> replacementPolicy.restoreGroup(index, policy));
+    for (CacheLineModel line : cache[index])
+    {
+      boolean valid       = line.isValid();
+      boolean dirty       = line.isDirty();
+      long    tag         = line.getTag();
+      long    baseAddress = line.getBaseAddress();
+      byte[]  data        = line.getLineData().clone();
+      undoLog.add(() ->
+                  {
+                    line.setValid(valid);
+                    line.setDirty(dirty);
+                    line.setTag(tag);
+                    line.setBaseAddress(baseAddress);
+                    line.setLineData(data);
+                  });
+    }
+  }
+  
+  /**
+   * @brief Writes to the main memory at once, the previous content goes to the journal
+   */
+  private void writeMemory(long address, byte[] data, List<Runnable> undoLog)
+  {
+    byte[] previous = memory.getFromMemory(address, data.length);
+    undoLog.add(() -> memory.insertIntoMemory(address, previous));
+    memory.insertIntoMemory(address, data);
+  }
+  
+  /**
+   * @return True if no transaction is in flight
+   */
+  @JsonIgnore
+  public boolean isIdle()
+  {
+    return cacheTransactions.isEmpty() && memoryTransactions.isEmpty();
+  }
+  
+  /**
+   * @param index Index of the group of lines
+   *
+   * @return Hash of the valid and dirty bits and of the replacement state of the group. The tags are left out, so a
+   * loop streaming through memory leaves the same signature in every pass.
+   */
+  public long getGroupSignature(int index)
+  {
+    long signature = Arrays.hashCode(replacementPolicy.saveGroup(index));
+    for (CacheLineModel line : cache[index])
+    {
+      signature = signature * 31 + (line.isValid() ? 2 : 0) + (line.isDirty() ? 1 : 0);
+    }
+    return signature;
+  }
+  
+  /**
+   * @return The replacement policy
+   */
+  public ReplacementPoliciesEnum getReplacementPolicyType()
+  {
+    return replacementPolicyType;
+  }
+  
   /**
    * @param transaction The transaction to execute
    *
@@ -598,6 +851,7 @@ public class Cache implements AbstractBlock, MemoryBlock
     else
     {
       statistics.cache.incrementMisses();
+      CacheMissEvent.emit(transaction.address(), transaction.isStore(), transaction.timestamp());
     }
     if (transaction.isStore())
     {
@@ -618,7 +872,7 @@ public class Cache implements AbstractBlock, MemoryBlock
    *
    * @return Number of cycles until the transaction is finished (adds transaction to the list)
    */
-  private int requestCacheLineLoad(long address, int timestamp, int codeModelId)
+  private int requestCacheLineLoad(long address, long timestamp, int codeModelId)
   {
     // Create a memory transaction for the whole cache line
     long baseAddress = address & -(1L << getOffsetBits());
@@ -628,7 +882,7 @@ public class Cache implements AbstractBlock, MemoryBlock
     if (existingTransaction != null)
     {
       // The line is already being loaded, just wait for it
-      int timeLeft = existingTransaction.latency() - (timestamp - existingTransaction.timestamp());
+      int timeLeft = existingTransaction.latency() - (int) (timestamp - existingTransaction.timestamp());
       return timeLeft;
     }
     memoryTransactions.add(lineTransaction);
@@ -655,7 +909,7 @@ public class Cache implements AbstractBlock, MemoryBlock
    * @brief Remove the operation from the list.
    */
   @Override
-  public MemoryTransaction finishTransaction(int id)
+  public MemoryTransaction finishTransaction(long id)
   {
     MemoryTransaction transaction = findTransaction(id);
     if (transaction == null)
@@ -670,7 +924,7 @@ public class Cache implements AbstractBlock, MemoryBlock
     return transaction;
   }
   
-  private MemoryTransaction findTransaction(int id)
+  private MemoryTransaction findTransaction(long id)
   {
     for (MemoryTransaction transaction : cacheTransactions)
     {
@@ -688,7 +942,7 @@ public class Cache implements AbstractBlock, MemoryBlock
    * @brief Cancel the transaction. It must be present and not finished.
    */
   @Override
-  public void cancelTransaction(int id)
+  public void cancelTransaction(long id)
   {
     MemoryTransaction transaction = findTransaction(id);
     if (transaction == null)
@@ -706,7 +960,7 @@ public class Cache implements AbstractBlock, MemoryBlock
    * @brief starts the transaction to store data from cache to memory
    * After this call, cache line will be free to use
    */
-  private int requestCacheLineStore(CacheLineModel line, int timestamp, int codeModelId)
+  private int requestCacheLineStore(CacheLineModel line, long timestamp, int codeModelId)
   {
     // Create a memory transaction for the whole cache line
     MemoryTransaction lineTransaction = new MemoryTransaction(-1, CACHE_ID, codeModelId, timestamp,
@@ -716,10 +970,11 @@ public class Cache implements AbstractBlock, MemoryBlock
     if (existingTransaction != null)
     {
       // The line is already being loaded, just wait for it
-      int timeLeft = existingTransaction.latency() - (timestamp - existingTransaction.timestamp());
+      int timeLeft = existingTransaction.latency() - (int) (timestamp - existingTransaction.timestamp());
       return timeLeft;
     }
     memoryTransactions.add(lineTransaction);
+    statistics.cache.incrementWritebacks();
     return memory.scheduleTransaction(lineTransaction);
   }
 }
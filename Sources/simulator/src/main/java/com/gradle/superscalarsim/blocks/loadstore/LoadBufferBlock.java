@@ -34,6 +34,7 @@ package com.gradle.superscalarsim.blocks.loadstore;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
 import com.gradle.superscalarsim.enums.RegisterReadinessEnum;
@@ -41,6 +42,8 @@ import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.memory.LoadBufferItem;
 import com.gradle.superscalarsim.models.memory.StoreBufferItem;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
+import com.gradle.superscalarsim.pipetrace.PipelineTracer;
 
 import java.util.*;
 
@@ -78,6 +81,12 @@ public class LoadBufferBlock implements AbstractBlock
    */
   private int bufferSize;
   
+  /**
+   * Receives the pipeline events, null if nobody traces them
+   */
+  @JsonIgnore
+  private PipelineTracer pipelineTracer;
+  
   public LoadBufferBlock()
   {
     loadQueue = new ArrayDeque<>();
@@ -128,7 +137,7 @@ public class LoadBufferBlock implements AbstractBlock
    * @brief Simulates Load buffer
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     removeInvalidInstructions();
     selectLoadForDataAccess(cycle);
@@ -169,7 +178,7 @@ public class LoadBufferBlock implements AbstractBlock
    *
    * @brief Selects load instructions for MA block
    */
-  private void selectLoadForDataAccess(int cycle)
+  private void selectLoadForDataAccess(long cycle)
   {
     LoadBufferItem workForMa = null;
     for (LoadBufferItem item : this.loadQueue)
@@ -223,7 +232,7 @@ public class LoadBufferBlock implements AbstractBlock
    *
    * @brief Forwards value from store to the load
    */
-  private void forwardLoad(LoadBufferItem loadItem, StoreBufferItem storeItem, int cycle)
+  private void forwardLoad(LoadBufferItem loadItem, StoreBufferItem storeItem, long cycle)
   {
     assert loadItem != null;
     assert storeItem != null;
@@ -244,6 +253,10 @@ public class LoadBufferBlock implements AbstractBlock
     loadItem.setMemoryAccessId(cycle);
     // The load is done, ready for commit
     loadItem.getSimCodeModel().setBusy(false);
+    if (pipelineTracer != null)
+    {
+      pipelineTracer.onStage(loadItem.getSimCodeModel(), PipelineStage.kComplete, PipelineTracer.NO_UNIT, cycle);
+    }
   }// end of processLoadInstruction
   //-------------------------------------------------------------------------------------------
   
@@ -254,7 +267,7 @@ public class LoadBufferBlock implements AbstractBlock
    * @brief Checks if there is a badly speculated load instruction in the load buffer.
    * If there are multiple, the oldest one is chosen.
    */
-  public LoadBufferItem findConflictingLoad(long address, int cycle)
+  public LoadBufferItem findConflictingLoad(long address, long cycle)
   {
     // The queue is ordered, so we search from the oldest to the newest
     for (LoadBufferItem bufferItem : this.loadQueue)
@@ -313,7 +326,7 @@ public class LoadBufferBlock implements AbstractBlock
    *
    * @brief Set load address
    */
-  public void setAddress(int codeModelId, long address)
+  public void setAddress(long codeModelId, long address)
   {
     Objects.requireNonNull(getLoadBufferItem(codeModelId)).setAddress(address);
   }// end of setAddress
@@ -325,7 +338,7 @@ public class LoadBufferBlock implements AbstractBlock
    * @return Load buffer entry
    * @brief Finds the corresponding load buffer entry for given load instruction
    */
-  public LoadBufferItem getLoadBufferItem(int codeModelId)
+  public LoadBufferItem getLoadBufferItem(long codeModelId)
   {
     for (LoadBufferItem loadItem : this.loadQueue)
     {
@@ -343,7 +356,7 @@ public class LoadBufferBlock implements AbstractBlock
    *
    * @brief Set flag if the destination register of the load instruction is ready to be loaded into
    */
-  public void setDestinationAvailable(int codeModelId)
+  public void setDestinationAvailable(long codeModelId)
   {
     Objects.requireNonNull(getLoadBufferItem(codeModelId)).setDestinationReady(true);
   }// end of setCodeRegisterAvailable
@@ -354,7 +367,7 @@ public class LoadBufferBlock implements AbstractBlock
    *
    * @brief Set flag marking if the instruction is in the MA block
    */
-  public void setMemoryAccessFinished(int codeModelId)
+  public void setMemoryAccessFinished(long codeModelId)
   {
     Objects.requireNonNull(getLoadBufferItem(codeModelId)).setAccessingMemory(false);
   }// end of setMemoryAccessFinished
@@ -392,4 +405,13 @@ public class LoadBufferBlock implements AbstractBlock
     return this.loadQueue.size();
   }// end of getQueueSize
   //-------------------------------------------------------------------------------------------
+  
+  /**
+   * @param pipelineTracer Receives the pipeline events, null to stop tracing
+   */
+  public void setPipelineTracer(PipelineTracer pipelineTracer)
+  {
+    this.pipelineTracer = pipelineTracer;
+  }
+  //-------------------------------------------------------------------------------------------
 }
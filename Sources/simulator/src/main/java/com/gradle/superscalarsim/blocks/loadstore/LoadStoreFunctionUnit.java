@@ -41,6 +41,7 @@ import com.gradle.superscalarsim.enums.InstructionTypeEnum;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
 import com.gradle.superscalarsim.models.instruction.SimCodeModel;
 import com.gradle.superscalarsim.models.util.Result;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
 
 /**
  * @class LoadStoreFunctionUnit
@@ -101,7 +102,7 @@ public class LoadStoreFunctionUnit extends AbstractFunctionUnitBlock
    * @brief Simulates execution of an instruction
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     if (!isFunctionUnitEmpty())
     {
@@ -114,6 +115,15 @@ public class LoadStoreFunctionUnit extends AbstractFunctionUnitBlock
     }
   }// end of simulate
   
+  /**
+   * @return The address stage, the memory access unit or a forward from the store buffer completes the instruction
+   */
+  @Override
+  protected PipelineStage getFinishStage()
+  {
+    return PipelineStage.kAddress;
+  }
+  
   /**
    * @brief Finishes execution of the instruction
    */
@@ -169,7 +179,7 @@ public class LoadStoreFunctionUnit extends AbstractFunctionUnitBlock
    * Calculate the delay, start memory transaction.
    */
   @Override
-  protected void handleStartExecution(int cycle)
+  protected void handleStartExecution(long cycle)
   {
     this.simCodeModel.setFunctionUnitId(this.functionUnitId);
     this.setDelay(this.delay);
@@ -48,6 +48,7 @@ import com.gradle.superscalarsim.models.memory.MemoryAccess;
 import com.gradle.superscalarsim.models.memory.MemoryTransaction;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 import com.gradle.superscalarsim.models.util.Result;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -128,7 +129,7 @@ public class MemoryAccessUnit extends AbstractFunctionUnitBlock
    * @brief Simulates memory access
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     if (isFunctionUnitEmpty())
     {
@@ -145,7 +146,7 @@ public class MemoryAccessUnit extends AbstractFunctionUnitBlock
    * @return Delay of this access
    * @brief starts execution of instruction
    */
-  private int startExecution(int cycle)
+  private int startExecution(long cycle)
   {
     // This contacts memoryModel, pulls data and delay
     Result<MemoryAccess> accessRes = loadStoreInterpreter.interpretInstruction(this.simCodeModel);
@@ -173,6 +174,15 @@ public class MemoryAccessUnit extends AbstractFunctionUnitBlock
     return memoryModel.execute(transaction);
   }
   
+  /**
+   * @return The memory stage, the address was computed in a load/store unit
+   */
+  @Override
+  protected PipelineStage getStartStage()
+  {
+    return PipelineStage.kMemory;
+  }
+  
   /**
    * @brief Finishes execution of the instruction
    */
@@ -182,7 +192,7 @@ public class MemoryAccessUnit extends AbstractFunctionUnitBlock
     assert simCodeModel != null;
     assert transaction != null;
     // Wait for memory is over, instruction is finished
-    int simCodeId = simCodeModel.getIntegerId();
+    long simCodeId = simCodeModel.getIntegerId();
     simCodeModel.setBusy(false);
     // Take result
     memoryModel.finishTransaction(transaction.id());
@@ -247,7 +257,7 @@ public class MemoryAccessUnit extends AbstractFunctionUnitBlock
    * Calculate the delay, start memory transaction.
    */
   @Override
-  protected void handleStartExecution(int cycle)
+  protected void handleStartExecution(long cycle)
   {
     // First tick of work, leave your ID in store and load buffers
     if (simCodeModel.isLoad())
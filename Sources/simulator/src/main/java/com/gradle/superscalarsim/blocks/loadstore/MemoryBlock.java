@@ -51,12 +51,12 @@ public interface MemoryBlock
    *
    * @brief Remove the operation from the list.
    */
-  MemoryTransaction finishTransaction(int id);
+  MemoryTransaction finishTransaction(long id);
   
   /**
    * @param id ID of the transaction
    *
    * @brief Cancel the transaction. It must be present and not finished.
    */
-  void cancelTransaction(int id);
+  void cancelTransaction(long id);
 }
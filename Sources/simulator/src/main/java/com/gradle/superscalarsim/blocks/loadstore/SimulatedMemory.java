@@ -33,6 +33,7 @@
 package com.gradle.superscalarsim.blocks.loadstore;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.AbstractBlock;
@@ -81,7 +82,7 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
   /**
    * ID generator for memory transactions
    */
-  private int transactionId;
+  private long transactionId;
   
   /**
    * Statistics for memory traffic
@@ -176,7 +177,7 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
    * @brief Simulate finished memory accesses
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     // Remove cancelled
     for (int i = 0; i < this.operations.size(); i++)
@@ -191,7 +192,7 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
     {
       assert !transaction.isFinished() || transaction.isCancelled(); // All finished transactions should be removed from the list by the requester
       // Check if the operation is finished this cycle
-      int finishCycle = transaction.timestamp() + transaction.latency();
+      long finishCycle = transaction.timestamp() + transaction.latency();
       assert finishCycle >= cycle;
       if (finishCycle == cycle)
       {
@@ -235,7 +236,7 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
    * @brief Remove the operation from the list.
    */
   @Override
-  public MemoryTransaction finishTransaction(int id)
+  public MemoryTransaction finishTransaction(long id)
   {
     MemoryTransaction tr = findTransaction(id);
     if (tr == null)
@@ -251,7 +252,7 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
     return tr;
   }
   
-  private MemoryTransaction findTransaction(int id)
+  private MemoryTransaction findTransaction(long id)
   {
     for (MemoryTransaction tr : this.operations)
     {
@@ -269,7 +270,7 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
    * @brief Cancel the transaction. It must be present and not finished.
    */
   @Override
-  public void cancelTransaction(int id)
+  public void cancelTransaction(long id)
   {
     MemoryTransaction tr = findTransaction(id);
     if (tr == null)
@@ -284,6 +285,15 @@ public class SimulatedMemory implements AbstractBlock, MemoryBlock
   }
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * @return True if no transaction is in flight
+   */
+  @JsonIgnore
+  public boolean isIdle()
+  {
+    return this.operations.isEmpty();
+  }
+  
   /**
    * @return Size of the memory in bytes
    */
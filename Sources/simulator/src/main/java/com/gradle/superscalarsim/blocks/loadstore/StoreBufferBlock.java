@@ -114,7 +114,7 @@ public class StoreBufferBlock implements AbstractBlock
    * @brief Simulates store buffer
    */
   @Override
-  public void simulate(int cycle)
+  public void simulate(long cycle)
   {
     removeInvalidInstructions();
     updateMapValues();
@@ -166,7 +166,7 @@ public class StoreBufferBlock implements AbstractBlock
    * In case of multiple non-speculative stores to the same address, the older is written, the newer is written later.
    * TODO: Could the old store be simply removed?
    */
-  private void selectStoreForDataAccess(int cycle)
+  private void selectStoreForDataAccess(long cycle)
   {
     StoreBufferItem storeItem = null;
     for (StoreBufferItem item : this.storeQueue)
@@ -245,13 +245,13 @@ public class StoreBufferBlock implements AbstractBlock
    *
    * @brief Set Store address
    */
-  public void setAddress(int codeModelId, long address)
+  public void setAddress(long codeModelId, long address)
   {
     getStoreBufferItem(codeModelId).setAddress(address);
   }// end of setAddress
   //-------------------------------------------------------------------------------------------
   
-  public StoreBufferItem getStoreBufferItem(int id)
+  public StoreBufferItem getStoreBufferItem(long id)
   {
     for (StoreBufferItem item : this.storeQueue)
     {
@@ -277,10 +277,10 @@ public class StoreBufferBlock implements AbstractBlock
     long            loadAddress     = loadItem.getAddress();
     SimCodeModel    simCodeModel    = loadItem.getSimCodeModel();
     StoreBufferItem bestCandidate   = null;
-    int             bestCandidateId = -1;
+    long            bestCandidateId = -1;
     for (StoreBufferItem storeItem : this.storeQueue)
     {
-      int     candidateId             = storeItem.getSourceResultId();
+      long    candidateId             = storeItem.getSourceResultId();
       boolean moreRecentButStillOlder = bestCandidateId < candidateId && simCodeModel.getIntegerId() > candidateId;
       boolean isSourceReady           = storeItem.isSourceReady();
       if (loadAddress == storeItem.getAddress() && moreRecentButStillOlder && isSourceReady)
@@ -298,7 +298,7 @@ public class StoreBufferBlock implements AbstractBlock
    *
    * @brief Set flag marking if the instruction is in the MA block
    */
-  public void setMemoryAccessFinished(int codeModelId)
+  public void setMemoryAccessFinished(long codeModelId)
   {
     getStoreBufferItem(codeModelId).setAccessingMemory(false);
   }// end of setMemoryAccessFinished
@@ -0,0 +1,43 @@
+/**
+ * @file BranchOutcomeListener.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Listener of committed branch outcomes
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.branchtrace;
+
+/**
+ * @brief Receives the outcomes of committed branches and jumps, in commit order
+ * @see com.gradle.superscalarsim.blocks.base.ReorderBufferBlock#setBranchOutcomeListener
+ */
+public interface BranchOutcomeListener
+{
+  /**
+   * @param pc            Address of the branch instruction
+   * @param taken         True if the branch was taken
+   * @param target        Computed target of the branch, also for a branch that was not taken
+   * @param isConditional True for a conditional branch, false for a jump
+   */
+  void onCommittedBranch(int pc, boolean taken, int target, boolean isConditional);
+}
@@ -0,0 +1,188 @@
+/**
+ * @file BranchTrace.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Branch outcome trace loaded in memory
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.branchtrace;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @brief Branch outcome trace held in memory, in primitive arrays
+ * @details Read from a file written by {@link BranchTraceWriter}, or recorded directly as a listener.
+ * Read-only after loading, so one trace can be replayed by many threads.
+ */
+public class BranchTrace implements BranchOutcomeListener
+{
+  private int[] pcs = new int[1024];
+  
+  private int[] targets = new int[1024];
+  
+  /**
+   * Per branch: bit 0 is set for a conditional branch, bit 1 for a taken one
+   */
+  private byte[] flags = new byte[1024];
+  
+  private int size;
+  
+  /**
+   * @param path File written by {@link BranchTraceWriter}
+   *
+   * @return The trace
+   */
+  public static BranchTrace read(Path path) throws IOException
+  {
+    try (InputStream stream = Files.newInputStream(path))
+    {
+      return read(stream);
+    }
+  }
+  
+  /**
+   * @param stream Stream in the format of {@link BranchTraceWriter}, read to the end
+   *
+   * @return The trace
+   */
+  public static BranchTrace read(InputStream stream) throws IOException
+  {
+    InputStream in     = new BufferedInputStream(stream, 1 << 16);
+    int         length = BranchTraceWriter.MAGIC.length;
+    byte[]      header = in.readNBytes(length + 1);
+    if (header.length != length + 1 || !Arrays.equals(header, 0, length, BranchTraceWriter.MAGIC, 0, length))
+    {
+      throw new IOException("Not a branch trace file");
+    }
+    if (header[length] != BranchTraceWriter.VERSION)
+    {
+      throw new IOException("Unsupported branch trace version: " + header[length]);
+    }
+    
+    BranchTrace trace = new BranchTrace();
+    int         pc    = 0;
+    int         first;
+    while ((first = in.read()) != -1)
+    {
+      long code   = readVarint(in, first);
+      long offset = readVarint(in, in.read());
+      pc += (int) unzigzag(code >>> 2);
+      trace.add(pc, (int) (pc + unzigzag(offset)), (byte) (code & 0x3));
+    }
+    return trace;
+  }
+  
+  private static long readVarint(InputStream in, int first) throws IOException
+  {
+    int  b     = first;
+    long value = 0;
+    int  shift = 0;
+    while (true)
+    {
+      if (b == -1)
+      {
+        throw new EOFException("Branch trace ends in the middle of a record");
+      }
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0)
+      {
+        return value;
+      }
+      shift += 7;
+      b = in.read();
+    }
+  }
+  
+  private static long unzigzag(long value)
+  {
+    return (value >>> 1) ^ -(value & 1);
+  }
+  
+  @Override
+  public void onCommittedBranch(int pc, boolean taken, int target, boolean isConditional)
+  {
+    add(pc, target, (byte) ((taken ? 2 : 0) | (isConditional ? 1 : 0)));
+  }
+  
+  private void add(int pc, int target, byte flag)
+  {
+    if (size == pcs.length)
+    {
+      pcs     = Arrays.copyOf(pcs, size * 2);
+      targets = Arrays.copyOf(targets, size * 2);
+      flags   = Arrays.copyOf(flags, size * 2);
+    }
+    pcs[size]     = pc;
+    targets[size] = target;
+    flags[size]   = flag;
+    size++;
+  }
+  
+  /**
+   * @param path File to write the trace to, in the format of {@link BranchTraceWriter}
+   */
+  public void write(Path path) throws IOException
+  {
+    try (BranchTraceWriter writer = new BranchTraceWriter(path))
+    {
+      for (int i = 0; i < size; i++)
+      {
+        writer.write(pcs[i], isTaken(i), targets[i], isConditional(i));
+      }
+    }
+  }
+  
+  /**
+   * @return Number of branches
+   */
+  public int size()
+  {
+    return size;
+  }
+  
+  public int getPc(int i)
+  {
+    return pcs[i];
+  }
+  
+  public int getTarget(int i)
+  {
+    return targets[i];
+  }
+  
+  public boolean isTaken(int i)
+  {
+    return (flags[i] & 2) != 0;
+  }
+  
+  public boolean isConditional(int i)
+  {
+    return (flags[i] & 1) != 0;
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * @file BranchTraceConfig.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Predictor settings of a trace replay
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.branchtrace;
+
+import com.gradle.superscalarsim.blocks.branch.BitPredictor;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+
+/**
+ * @brief The part of a CPU configuration that decides the branch predictions
+ */
+public class BranchTraceConfig
+{
+  /**
+   * Label of the configuration in the results (e.g. the configuration file)
+   */
+  public String name;
+  
+  public int phtSize;
+  
+  public int btbSize;
+  
+  public BitPredictor.PredictorType predictorType;
+  
+  public int predictorDefaultState;
+  
+  public boolean useGlobalHistory;
+  
+  public BranchTraceConfig()
+  {
+  }
+  
+  public BranchTraceConfig(String name,
+                           int phtSize,
+                           int btbSize,
+                           BitPredictor.PredictorType predictorType,
+                           int predictorDefaultState,
+                           boolean useGlobalHistory)
+  {
+    this.name                  = name;
+    this.phtSize               = phtSize;
+    this.btbSize               = btbSize;
+    this.predictorType         = predictorType;
+    this.predictorDefaultState = predictorDefaultState;
+    this.useGlobalHistory      = useGlobalHistory;
+  }
+  
+  /**
+   * @param name      Label of the configuration
+   * @param cpuConfig CPU configuration, only its predictor settings are used
+   */
+  public static BranchTraceConfig fromCpuConfig(String name, CpuConfig cpuConfig)
+  {
+    return new BranchTraceConfig(name, cpuConfig.phtSize, cpuConfig.btbSize, cpuConfig.predictorType,
+                                 cpuConfig.predictorDefaultState, cpuConfig.useGlobalHistory);
+  }
+  
+  /**
+   * @return Why the configuration cannot be replayed, null if it can
+   */
+  public String validate()
+  {
+    if (phtSize <= 0 || btbSize <= 0)
+    {
+      return "PHT and BTB sizes must be positive";
+    }
+    if (predictorType == null || !predictorType.isValidState(predictorDefaultState))
+    {
+      return "Invalid default state " + predictorDefaultState + " for predictor " + predictorType;
+    }
+    return null;
+  }
+}
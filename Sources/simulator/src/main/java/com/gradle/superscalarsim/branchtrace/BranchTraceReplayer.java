@@ -0,0 +1,168 @@
+/**
+ * @file BranchTraceReplayer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Replays branch traces through predictors in parallel
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.branchtrace;
+
+import com.gradle.superscalarsim.blocks.branch.BitPredictor;
+import com.gradle.superscalarsim.blocks.branch.BranchTargetBuffer;
+import com.gradle.superscalarsim.blocks.branch.GShareUnit;
+import com.gradle.superscalarsim.blocks.branch.GlobalHistoryRegister;
+import com.gradle.superscalarsim.blocks.branch.PatternHistoryTable;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @brief Replays a recorded branch trace through predictors, without the pipeline
+ * @details Each configuration gets its own {@link GShareUnit}, {@link PatternHistoryTable},
+ * {@link GlobalHistoryRegister} and {@link BranchTargetBuffer}, wired like in the CPU state. A branch is predicted the
+ * way the fetch does it, then the predictor and the BTB are updated the way the commit does it.
+ * <p>
+ * Branches are seen one at a time in commit order, so there are no branches in flight: the history holds the outcomes
+ * of all older branches, and the predictor is trained before the next branch is predicted. In the pipeline, younger
+ * branches are predicted before the older ones commit, so with the global history or tight loops the accuracy of the
+ * replay can differ slightly from the simulation.
+ */
+public class BranchTraceReplayer
+{
+  /**
+   * Bits of the global history, as in the CPU state
+   */
+  private static final int HISTORY_BITS = 8;
+  
+  /**
+   * Modulo applied to the PC by the GShare unit, as in the CPU state
+   */
+  private static final int GSHARE_SIZE = 1024;
+  
+  private final int threads;
+  
+  /**
+   * @param threads Number of configurations replayed in parallel
+   */
+  public BranchTraceReplayer(int threads)
+  {
+    this.threads = threads;
+  }
+  
+  /**
+   * @param trace   Trace to replay
+   * @param configs Predictor configurations
+   *
+   * @return A result per configuration, in the order of the configurations
+   */
+  public List<BranchTraceResult> replayAll(BranchTrace trace, List<BranchTraceConfig> configs) throws InterruptedException
+  {
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try
+    {
+      return pool.submit(() -> configs.parallelStream().map(config -> replay(trace, config)).toList()).get();
+    }
+    catch (ExecutionException e)
+    {
+      throw new IllegalStateException(e.getCause());
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+  }
+  
+  /**
+   * @param trace  Trace to replay
+   * @param config Predictor configuration
+   *
+   * @return Counters after the whole trace, or the error of an invalid configuration
+   */
+  public static BranchTraceResult replay(BranchTrace trace, BranchTraceConfig config)
+  {
+    BranchTraceResult result = new BranchTraceResult(config);
+    result.error = config.validate();
+    if (result.error != null)
+    {
+      return result;
+    }
+    
+    GlobalHistoryRegister history = new GlobalHistoryRegister(HISTORY_BITS);
+    PatternHistoryTable patternHistoryTable = new PatternHistoryTable(config.phtSize, new BitPredictor(
+            config.predictorType, config.predictorDefaultState));
+    GShareUnit         gShareUnit         = new GShareUnit(GSHARE_SIZE, config.useGlobalHistory, history,
+                                                           patternHistoryTable);
+    BranchTargetBuffer branchTargetBuffer = new BranchTargetBuffer(config.btbSize);
+    
+    long start = System.nanoTime();
+    int  size  = trace.size();
+    for (int i = 0; i < size; i++)
+    {
+      int     pc            = trace.getPc(i);
+      int     target        = trace.getTarget(i);
+      boolean taken         = trace.isTaken(i);
+      boolean isConditional = trace.isConditional(i);
+      
+      // Predict like the fetch
+      boolean unconditional = branchTargetBuffer.isEntryUnconditional(pc);
+      int     btbTarget     = branchTargetBuffer.getEntryTarget(pc);
+      boolean predictJump   = (gShareUnit.getPrediction(pc) || unconditional) && btbTarget >= 0;
+      
+      if (btbTarget >= 0)
+      {
+        result.btbHits++;
+      }
+      if (predictJump == taken)
+      {
+        result.correctlyPredictedBranches++;
+      }
+      if (taken)
+      {
+        result.takenBranches++;
+        if (predictJump && btbTarget != target)
+        {
+          result.targetMispredictions++;
+        }
+      }
+      
+      // Update like the commit
+      gShareUnit.sendFeedback(pc, taken);
+      branchTargetBuffer.setEntry(pc, isConditional, target);
+      if (isConditional)
+      {
+        result.conditionalBranches++;
+        history.shiftValue(taken, i);
+        history.commit(i);
+      }
+    }
+    long nanos = System.nanoTime() - start;
+    
+    result.branches           = size;
+    result.predictionAccuracy = size > 0 ? (double) result.correctlyPredictedBranches / size : 0;
+    result.btbHitRate         = size > 0 ? (double) result.btbHits / size : 0;
+    result.timeMs             = nanos / 1_000_000;
+    result.branchesPerSecond  = nanos > 0 ? size * 1e9 / nanos : 0;
+    return result;
+  }
+}
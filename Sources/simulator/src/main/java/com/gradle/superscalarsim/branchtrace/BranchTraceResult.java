@@ -0,0 +1,82 @@
+/**
+ * @file BranchTraceResult.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Outcome of a branch trace replay
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.branchtrace;
+
+/**
+ * @brief Outcome of replaying a trace through one predictor configuration
+ * @details The branch counters have the meaning of those in {@link com.gradle.superscalarsim.cpu.SimulationStatistics}.
+ */
+public class BranchTraceResult
+{
+  public BranchTraceConfig config;
+  
+  public long branches;
+  
+  public long conditionalBranches;
+  
+  public long takenBranches;
+  
+  /**
+   * Branches whose direction (jump or not) was predicted correctly
+   */
+  public long correctlyPredictedBranches;
+  
+  /**
+   * Correctly predicted branches out of all branches
+   */
+  public double predictionAccuracy;
+  
+  /**
+   * Lookups that found the branch in the BTB
+   */
+  public long btbHits;
+  
+  public double btbHitRate;
+  
+  /**
+   * Taken branches predicted as taken, but to a different target (e.g. a return to another caller)
+   */
+  public long targetMispredictions;
+  
+  public long timeMs;
+  
+  /**
+   * Replay speed
+   */
+  public double branchesPerSecond;
+  
+  /**
+   * Why the configuration could not be replayed, null if it was
+   */
+  public String error;
+  
+  public BranchTraceResult(BranchTraceConfig config)
+  {
+    this.config = config;
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * @file BranchTraceWriter.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming writer of the binary branch trace format
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.branchtrace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @brief Writes a branch outcome trace to a stream as the branches come
+ * @details Format: the 4 bytes {@link #MAGIC}, the version byte, then two unsigned LEB128 varints per branch:
+ * {@code zigzag(pc - previousPc) << 2 | taken << 1 | isConditional} and {@code zigzag(target - pc)}.
+ * A loop branch takes two or three bytes.
+ */
+public class BranchTraceWriter implements BranchOutcomeListener, Closeable
+{
+  /**
+   * First bytes of a trace file
+   */
+  public static final byte[] MAGIC = {'S', 'S', 'B', 'T'};
+  
+  public static final int VERSION = 1;
+  
+  private final OutputStream stream;
+  
+  private int previousPc;
+  
+  private long count;
+  
+  /**
+   * @param stream Stream to write the trace to, it is closed with the writer
+   */
+  public BranchTraceWriter(OutputStream stream) throws IOException
+  {
+    this.stream = new BufferedOutputStream(stream, 1 << 16);
+    this.stream.write(MAGIC);
+    this.stream.write(VERSION);
+  }
+  
+  /**
+   * @param path File to create (or overwrite)
+   */
+  public BranchTraceWriter(Path path) throws IOException
+  {
+    this(Files.newOutputStream(path));
+  }
+  
+  /**
+   * @throws UncheckedIOException If the trace cannot be written, the listener interface does not allow IOException
+   */
+  @Override
+  public void onCommittedBranch(int pc, boolean taken, int target, boolean isConditional)
+  {
+    try
+    {
+      write(pc, taken, target, isConditional);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+  
+  /**
+   * @param pc            Address of the branch instruction
+   * @param taken         True if the branch was taken
+   * @param target        Computed target of the branch
+   * @param isConditional True for a conditional branch
+   */
+  public void write(int pc, boolean taken, int target, boolean isConditional) throws IOException
+  {
+    writeVarint(zigzag((long) pc - previousPc) << 2 | (taken ? 2 : 0) | (isConditional ? 1 : 0));
+    writeVarint(zigzag((long) target - pc));
+    previousPc = pc;
+    count++;
+  }
+  
+  private static long zigzag(long value)
+  {
+    return (value << 1) ^ (value >> 63);
+  }
+  
+  private void writeVarint(long value) throws IOException
+  {
+    while ((value & ~0x7FL) != 0)
+    {
+      stream.write((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    stream.write((int) value);
+  }
+  
+  /**
+   * @return Number of branches written so far
+   */
+  public long getCount()
+  {
+    return count;
+  }
+  
+  @Override
+  public void close() throws IOException
+  {
+    stream.close();
+  }
+}
@@ -0,0 +1,118 @@
+/**
+ * @file CacheTraceConfig.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cache settings of a trace replay
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cachetrace;
+
+import com.gradle.superscalarsim.blocks.loadstore.Cache;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import com.gradle.superscalarsim.enums.cache.ReplacementPoliciesEnum;
+
+/**
+ * @brief The part of a CPU configuration that decides the hits and misses of a cache, nothing about timing
+ */
+public class CacheTraceConfig
+{
+  /**
+   * Label of the configuration in the results (e.g. the configuration file)
+   */
+  public String name;
+  
+  public int cacheLines;
+  
+  public int cacheLineSize;
+  
+  public int cacheAssoc;
+  
+  /**
+   * One of LRU, FIFO, Random
+   */
+  public String cacheReplacement;
+  
+  /**
+   * One of write-back, write-through
+   */
+  public String storeBehavior;
+  
+  public CacheTraceConfig()
+  {
+  }
+  
+  public CacheTraceConfig(String name,
+                          int cacheLines,
+                          int cacheLineSize,
+                          int cacheAssoc,
+                          String cacheReplacement,
+                          String storeBehavior)
+  {
+    this.name             = name;
+    this.cacheLines       = cacheLines;
+    this.cacheLineSize    = cacheLineSize;
+    this.cacheAssoc       = cacheAssoc;
+    this.cacheReplacement = cacheReplacement;
+    this.storeBehavior    = storeBehavior;
+  }
+  
+  /**
+   * @param name      Label of the configuration
+   * @param cpuConfig CPU configuration, only its cache settings are used
+   */
+  public static CacheTraceConfig fromCpuConfig(String name, CpuConfig cpuConfig)
+  {
+    return new CacheTraceConfig(name, cpuConfig.cacheLines, cpuConfig.cacheLineSize, cpuConfig.cacheAssoc,
+                                cpuConfig.cacheReplacement, cpuConfig.storeBehavior);
+  }
+  
+  /**
+   * @param statistics Statistics the cache counts into
+   *
+   * @return Empty cache without a memory behind it, only for {@link Cache#replayAccess}
+   * @throws IllegalArgumentException If the settings are not valid
+   */
+  public Cache createCache(SimulationStatistics statistics)
+  {
+    if (Integer.bitCount(cacheLines / Math.max(cacheAssoc, 1)) != 1)
+    {
+      throw new IllegalArgumentException("Number of line groups (lines / associativity) must be a power of 2");
+    }
+    if (!storeBehavior.equals("write-back") && !storeBehavior.equals("write-through"))
+    {
+      throw new IllegalArgumentException("Unexpected value for store behavior: " + storeBehavior);
+    }
+    ReplacementPoliciesEnum replacementPolicy;
+    try
+    {
+      replacementPolicy = ReplacementPoliciesEnum.fromConfigName(cacheReplacement);
+    }
+    catch (IllegalStateException e)
+    {
+      throw new IllegalArgumentException(e.getMessage());
+    }
+    return new Cache(null, cacheLines, cacheAssoc, cacheLineSize, 0, 0, replacementPolicy,
+                     storeBehavior.equals("write-back"), statistics);
+  }
+}
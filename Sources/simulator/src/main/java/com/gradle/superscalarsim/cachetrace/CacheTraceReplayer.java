@@ -0,0 +1,115 @@
+/**
+ * @file CacheTraceReplayer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Replays memory traces through caches in parallel
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cachetrace;
+
+import com.gradle.superscalarsim.blocks.loadstore.Cache;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @brief Replays a recorded memory trace through caches, without the rest of the CPU
+ * @details Each configuration gets its own {@link Cache} (with its {@link com.gradle.superscalarsim.models.cache.ReplacementPolicyModel})
+ * and sees the accesses in commit order through {@link Cache#replayAccess}. Timing is not modelled, so the hits,
+ * misses and traffic are those of the committed access stream: wrong-path loads of the full simulation are not in it,
+ * loads served from the store buffer are, and the order is the commit order, not the execution order.
+ */
+public class CacheTraceReplayer
+{
+  private final int threads;
+  
+  /**
+   * @param threads Number of configurations replayed in parallel
+   */
+  public CacheTraceReplayer(int threads)
+  {
+    this.threads = threads;
+  }
+  
+  /**
+   * @param trace   Trace to replay
+   * @param configs Cache configurations
+   *
+   * @return A result per configuration, in the order of the configurations
+   */
+  public List<CacheTraceResult> replayAll(MemoryTrace trace, List<CacheTraceConfig> configs) throws InterruptedException
+  {
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try
+    {
+      return pool.submit(() -> configs.parallelStream().map(config -> replay(trace, config)).toList()).get();
+    }
+    catch (ExecutionException e)
+    {
+      throw new IllegalStateException(e.getCause());
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+  }
+  
+  /**
+   * @param trace  Trace to replay
+   * @param config Cache configuration
+   *
+   * @return Counters of the cache after the whole trace, or the error of an invalid configuration
+   */
+  public static CacheTraceResult replay(MemoryTrace trace, CacheTraceConfig config)
+  {
+    CacheTraceResult     result     = new CacheTraceResult(config);
+    SimulationStatistics statistics = new SimulationStatistics(0, 1);
+    Cache                cache;
+    try
+    {
+      cache = config.createCache(statistics);
+    }
+    catch (IllegalArgumentException e)
+    {
+      result.error = e.getMessage();
+      return result;
+    }
+    
+    long start = System.nanoTime();
+    int  size  = trace.size();
+    for (int i = 0; i < size; i++)
+    {
+      cache.replayAccess(trace.getAddress(i), trace.getSize(i), trace.isStore(i));
+    }
+    long nanos = System.nanoTime() - start;
+    
+    result.cache                 = statistics.cache;
+    result.mainMemoryLoadedBytes = statistics.mainMemoryLoadedBytes;
+    result.mainMemoryStoredBytes = statistics.mainMemoryStoredBytes;
+    result.timeMs                = nanos / 1_000_000;
+    result.accessesPerSecond     = nanos > 0 ? size * 1e9 / nanos : 0;
+    return result;
+  }
+}
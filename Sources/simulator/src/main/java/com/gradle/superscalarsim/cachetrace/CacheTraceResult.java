@@ -0,0 +1,70 @@
+/**
+ * @file CacheTraceResult.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Outcome of a trace replay
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cachetrace;
+
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+
+/**
+ * @brief Outcome of replaying a trace through one cache configuration
+ */
+public class CacheTraceResult
+{
+  public CacheTraceConfig config;
+  
+  /**
+   * Same counters as {@link SimulationStatistics#cache} of a simulation, null if the configuration is invalid
+   */
+  public SimulationStatistics.CacheStatistics cache;
+  
+  /**
+   * Bytes loaded from main memory (line fills)
+   */
+  public long mainMemoryLoadedBytes;
+  
+  /**
+   * Bytes stored to main memory (write-backs of dirty lines, write-through stores)
+   */
+  public long mainMemoryStoredBytes;
+  
+  public long timeMs;
+  
+  /**
+   * Replay speed
+   */
+  public double accessesPerSecond;
+  
+  /**
+   * Why the configuration could not be replayed, null if it was
+   */
+  public String error;
+  
+  public CacheTraceResult(CacheTraceConfig config)
+  {
+    this.config = config;
+  }
+}
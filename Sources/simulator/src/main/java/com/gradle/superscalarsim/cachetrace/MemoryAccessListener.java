@@ -0,0 +1,42 @@
+/**
+ * @file MemoryAccessListener.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Listener of committed memory accesses
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cachetrace;
+
+/**
+ * @brief Receives the memory accesses of committed loads and stores, in commit order
+ * @see com.gradle.superscalarsim.blocks.base.ReorderBufferBlock#setMemoryAccessListener
+ */
+public interface MemoryAccessListener
+{
+  /**
+   * @param address Address of the access
+   * @param size    Size of the access in bytes (1, 2, 4 or 8)
+   * @param isStore True for a store, false for a load
+   */
+  void onCommittedAccess(long address, int size, boolean isStore);
+}
@@ -0,0 +1,182 @@
+/**
+ * @file MemoryTrace.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Memory access trace loaded in memory
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cachetrace;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * @brief Memory access trace held in memory, in two primitive arrays
+ * @details Read from a file written by {@link MemoryTraceWriter}, or recorded directly as a listener.
+ * Read-only after loading, so one trace can be replayed by many threads.
+ */
+public class MemoryTrace implements MemoryAccessListener
+{
+  private long[] addresses = new long[1024];
+  
+  /**
+   * Per access: bit 0 is set for a store, bits 1-2 hold log2 of the size
+   */
+  private byte[] kinds = new byte[1024];
+  
+  private int size;
+  
+  /**
+   * @param path File written by {@link MemoryTraceWriter}
+   *
+   * @return The trace
+   */
+  public static MemoryTrace read(Path path) throws IOException
+  {
+    try (InputStream stream = Files.newInputStream(path))
+    {
+      return read(stream);
+    }
+  }
+  
+  /**
+   * @param stream Stream in the format of {@link MemoryTraceWriter}, read to the end
+   *
+   * @return The trace
+   */
+  public static MemoryTrace read(InputStream stream) throws IOException
+  {
+    InputStream in     = new BufferedInputStream(stream, 1 << 16);
+    byte[]      header = in.readNBytes(MemoryTraceWriter.MAGIC.length + 1);
+    if (header.length != MemoryTraceWriter.MAGIC.length + 1 || !Arrays.equals(header, 0,
+                                                                              MemoryTraceWriter.MAGIC.length,
+                                                                              MemoryTraceWriter.MAGIC, 0,
+                                                                              MemoryTraceWriter.MAGIC.length))
+    {
+      throw new IOException("Not a memory trace file");
+    }
+    if (header[MemoryTraceWriter.MAGIC.length] != MemoryTraceWriter.VERSION)
+    {
+      throw new IOException("Unsupported memory trace version: " + header[MemoryTraceWriter.MAGIC.length]);
+    }
+    
+    MemoryTrace trace   = new MemoryTrace();
+    long        address = 0;
+    int         b;
+    while ((b = in.read()) != -1)
+    {
+      long code  = b & 0x7F;
+      int  shift = 7;
+      while ((b & 0x80) != 0)
+      {
+        b = in.read();
+        if (b == -1)
+        {
+          throw new EOFException("Memory trace ends in the middle of a record");
+        }
+        code |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      }
+      long zigzag = code >>> 3;
+      address += (zigzag >>> 1) ^ -(zigzag & 1);
+      trace.add(address, (byte) (code & 0x7));
+    }
+    return trace;
+  }
+  
+  @Override
+  public void onCommittedAccess(long address, int size, boolean isStore)
+  {
+    add(address, (byte) (Integer.numberOfTrailingZeros(size) << 1 | (isStore ? 1 : 0)));
+  }
+  
+  private void add(long address, byte kind)
+  {
+    if (size == addresses.length)
+    {
+      addresses = Arrays.copyOf(addresses, size * 2);
+      kinds     = Arrays.copyOf(kinds, size * 2);
+    }
+    addresses[size] = address;
+    kinds[size]     = kind;
+    size++;
+  }
+  
+  /**
+   * @param path File to write the trace to, in the format of {@link MemoryTraceWriter}
+   */
+  public void write(Path path) throws IOException
+  {
+    try (MemoryTraceWriter writer = new MemoryTraceWriter(path))
+    {
+      for (int i = 0; i < size; i++)
+      {
+        writer.write(addresses[i], getSize(i), isStore(i));
+      }
+    }
+  }
+  
+  /**
+   * @return Number of accesses
+   */
+  public int size()
+  {
+    return size;
+  }
+  
+  public long getAddress(int i)
+  {
+    return addresses[i];
+  }
+  
+  /**
+   * @return Size of the access in bytes
+   */
+  public int getSize(int i)
+  {
+    return 1 << (kinds[i] >> 1);
+  }
+  
+  public boolean isStore(int i)
+  {
+    return (kinds[i] & 1) != 0;
+  }
+  
+  /**
+   * @return Number of stores in the trace
+   */
+  public int getStoreCount()
+  {
+    int stores = 0;
+    for (int i = 0; i < size; i++)
+    {
+      stores += kinds[i] & 1;
+    }
+    return stores;
+  }
+}
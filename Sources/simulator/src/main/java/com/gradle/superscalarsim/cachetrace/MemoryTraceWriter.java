@@ -0,0 +1,134 @@
+/**
+ * @file MemoryTraceWriter.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Streaming writer of the binary memory trace format
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cachetrace;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * @brief Writes a memory access trace to a stream as the accesses come
+ * @details Format: the 4 bytes {@link #MAGIC}, the version byte, then one record per access.
+ * A record is a single unsigned LEB128 varint of {@code zigzag(address - previousAddress) << 3 | log2(size) << 1 | isStore}.
+ * Sequential accesses (small deltas) take one or two bytes.
+ */
+public class MemoryTraceWriter implements MemoryAccessListener, Closeable
+{
+  /**
+   * First bytes of a trace file
+   */
+  public static final byte[] MAGIC = {'S', 'S', 'M', 'T'};
+  
+  public static final int VERSION = 1;
+  
+  private final OutputStream stream;
+  
+  private long previousAddress;
+  
+  private long count;
+  
+  /**
+   * @param stream Stream to write the trace to, it is closed with the writer
+   */
+  public MemoryTraceWriter(OutputStream stream) throws IOException
+  {
+    this.stream = new BufferedOutputStream(stream, 1 << 16);
+    this.stream.write(MAGIC);
+    this.stream.write(VERSION);
+  }
+  
+  /**
+   * @param path File to create (or overwrite)
+   */
+  public MemoryTraceWriter(Path path) throws IOException
+  {
+    this(Files.newOutputStream(path));
+  }
+  
+  /**
+   * @throws UncheckedIOException If the trace cannot be written, the listener interface does not allow IOException
+   */
+  @Override
+  public void onCommittedAccess(long address, int size, boolean isStore)
+  {
+    try
+    {
+      write(address, size, isStore);
+    }
+    catch (IOException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+  }
+  
+  /**
+   * @param address Address of the access
+   * @param size    Size of the access in bytes (1, 2, 4 or 8)
+   * @param isStore True for a store
+   */
+  public void write(long address, int size, boolean isStore) throws IOException
+  {
+    if (Integer.bitCount(size) != 1 || size > 8)
+    {
+      throw new IllegalArgumentException("Unsupported access size: " + size);
+    }
+    long delta  = address - previousAddress;
+    long zigzag = (delta << 1) ^ (delta >> 63);
+    if (zigzag >>> 61 != 0)
+    {
+      throw new IllegalArgumentException("Address delta too large: " + delta);
+    }
+    long code = zigzag << 3 | (long) Integer.numberOfTrailingZeros(size) << 1 | (isStore ? 1 : 0);
+    while ((code & ~0x7FL) != 0)
+    {
+      stream.write((int) (code & 0x7F) | 0x80);
+      code >>>= 7;
+    }
+    stream.write((int) code);
+    previousAddress = address;
+    count++;
+  }
+  
+  /**
+   * @return Number of accesses written so far
+   */
+  public long getCount()
+  {
+    return count;
+  }
+  
+  @Override
+  public void close() throws IOException
+  {
+    stream.close();
+  }
+}
@@ -88,9 +88,7 @@ public class CodeLoadStoreInterpreter
     String  loadStore = interpretableAsParams[0];
     boolean isStore   = loadStore.equals("store");
     
-    String sizeBitsStr = interpretableAsParams[1];
-    int    sizeBits    = Integer.parseInt(sizeBitsStr);
-    int    sizeBytes   = sizeBits / 8;
+    int sizeBytes = getAccessSize(instruction);
     
     Result<Long> address = interpretAddress(codeModel);
     
@@ -120,6 +118,18 @@ public class CodeLoadStoreInterpreter
   }// end of interpretInstruction
   //-------------------------------------------------------------------------------------------
   
+  /**
+   * @param instruction Load or store instruction
+   *
+   * @return Number of bytes the instruction accesses
+   */
+  public static int getAccessSize(InstructionFunctionModel instruction)
+  {
+    String[] interpretableAsParams = instruction.interpretableAs().split(":");
+    return Integer.parseInt(interpretableAsParams[1]) / 8;
+  }// end of getAccessSize
+  //-------------------------------------------------------------------------------------------
+  
   /**
    * @param codeModel instruction to be interpreted
    *
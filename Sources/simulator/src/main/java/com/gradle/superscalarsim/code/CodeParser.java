@@ -92,6 +92,10 @@ public class CodeParser
    * @brief List of error messages. Contains warnings and errors. Warnings do not fail the compilation.
    */
   List<ParseError> errorMessages;
+  /**
+   * Immediate arguments computed from symbols. Filled again by every {@link #fillImmediateValues()}.
+   */
+  Set<InputCodeArgument> symbolicArguments;
   
   /**
    * Last defined symbol. Used for assigning data to labels.
@@ -144,8 +148,9 @@ public class CodeParser
     }
     
     this.lexer           = null;
-    this.errorMessages   = new ArrayList<>();
-    this.lastSymbol      = null;
+    this.errorMessages     = new ArrayList<>();
+    this.symbolicArguments = new HashSet<>();
+    this.lastSymbol        = null;
     this.nextAlignment   = 0;
     this.lastSymbolBound = true; // Starts as true, because the first label is created to be bound to nothing
   }
@@ -175,8 +180,9 @@ public class CodeParser
     this.errorMessages = new ArrayList<>();
     // memoryLocations now has ALL memory locations, including those defined in the code and config
     
-    this.lexer        = new Lexer(code);
-    this.instructions = new ArrayList<>();
+    this.lexer             = new Lexer(code);
+    this.instructions      = new ArrayList<>();
+    this.symbolicArguments = new HashSet<>();
     
     parse();
     
@@ -257,6 +263,7 @@ public class CodeParser
   /**
    * @brief Fills the missing constantValue field of immediate arguments based on the string representation of the value.
    * Missing should be only arithmetic expressions like "ptr+4".
+   * Arguments with symbols are filled on every call, so the values follow data moved by a memory layout.
    */
   public void fillImmediateValues()
   {
@@ -266,7 +273,8 @@ public class CodeParser
       for (InputCodeArgument argument : instruction.arguments())
       {
         InstructionArgument argModel = instruction.instructionFunctionModel().getArgumentByName(argument.getName());
-        if (!argModel.isImmediate() || argument.getConstantValue() != null)
+        if (!argModel.isImmediate() || (argument.getConstantValue() != null && !symbolicArguments.contains(
+                argument)))
         {
           // Not constant or already filled
           continue;
@@ -290,6 +298,7 @@ public class CodeParser
           }
           // Replace label with its address
           assert symbol.getValue() != null; // code addresses must be known
+          symbolicArguments.add(argument);
           long address;
           if (argModel.isOffset())
           {
@@ -387,7 +396,7 @@ public class CodeParser
     // Consume label token
     nextToken();
   }
-
+  
   /**
    * @brief Names of all double instructions
    * Used for detecting double instructions
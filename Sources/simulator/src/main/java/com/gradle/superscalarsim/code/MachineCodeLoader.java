@@ -0,0 +1,548 @@
+/**
+ * @file MachineCodeLoader.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Decoder of RISC-V machine code
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.code;
+
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.loader.IDataProvider;
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.InstructionArgument;
+import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
+import com.gradle.superscalarsim.models.register.RegisterDataContainer;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accepts a flat binary (instructions from address 0) or a little-endian ELF32 RISC-V file. In an ELF file the
+ * executable sections are the code, the other allocated sections are the initial memory image at their link
+ * addresses, and the symbols of the code become labels.
+ * <p>
+ * The simulator fetches code from a separate memory starting at 0, so the code is moved to start at 0. Branches,
+ * jumps and calls are relative and do not change. Code addresses stored in data (jump tables, function pointers) and
+ * data addressed relative to the PC (auipc) are only right if the program was linked with the code at 0
+ * ({@code -Wl,-Ttext=0}). The default medlow code model addresses data absolutely with lui.
+ * <p>
+ * Decodes the instructions of {@code supportedInstructions.json} that have an encoding: RV32IM, the single precision
+ * F instructions, fld/fsd and the RV64 ld/sd/lwu/fcvt.l.s/fcvt.s.l. Compressed instructions are not supported.
+ *
+ * @brief Loads RISC-V machine code into instructions and a memory image, without parsing assembly
+ */
+public class MachineCodeLoader
+{
+  /**
+   * Data must end below this address, the simulated memory is a flat array
+   */
+  public static final long MAX_DATA_ADDRESS = 1L << 26;
+  
+  static final int ELF_MAGIC     = 0x464C457F;
+  static final int EM_RISCV      = 243;
+  static final int SHT_SYMTAB    = 2;
+  static final int SHT_NOBITS    = 8;
+  static final int SHF_ALLOC     = 2;
+  static final int SHF_EXECINSTR = 4;
+  static final int STT_SECTION   = 3;
+  static final int STT_FILE      = 4;
+  
+  /**
+   * Initial content of the data memory
+   *
+   * @param address Address of the first byte
+   * @param data    Bytes
+   */
+  public record Segment(long address, byte[] data)
+  {
+  }
+  
+  /**
+   * Section of an ELF file
+   */
+  private record Section(String name, int type, int flags, long address, int offset, int size, int link)
+  {
+    boolean isCode()
+    {
+      return (flags & SHF_ALLOC) != 0 && (flags & SHF_EXECINSTR) != 0;
+    }
+    
+    boolean isData()
+    {
+      return (flags & SHF_ALLOC) != 0 && (flags & SHF_EXECINSTR) == 0 && type != SHT_NOBITS && size > 0;
+    }
+  }
+  
+  /**
+   * Descriptions of all instructions
+   */
+  Map<String, InstructionFunctionModel> instructionModels;
+  /**
+   * Integer registers x0-x31
+   */
+  RegisterModel[] integerRegisters;
+  /**
+   * Float registers f0-f31
+   */
+  RegisterModel[] floatRegisters;
+  /**
+   * Factory for creating instances of InputCodeModel
+   */
+  InputCodeModelFactory inputCodeModelFactory;
+  /**
+   * Result of the loading - list of instructions
+   */
+  List<InputCodeModel> instructions;
+  /**
+   * Result of the loading - labels of the code
+   */
+  Map<String, Symbol> symbolTable;
+  /**
+   * Result of the loading - initial content of the data memory
+   */
+  List<Segment> segments;
+  
+  /**
+   * For cases when instance manager is not needed
+   */
+  public MachineCodeLoader(IDataProvider dataProvider)
+  {
+    this(dataProvider.getInstructionFunctionModels(), dataProvider.getRegisterFile().getRegisterMap(true),
+         new InputCodeModelFactory());
+  }
+  
+  /**
+   * @brief Constructor
+   */
+  public MachineCodeLoader(Map<String, InstructionFunctionModel> instructionModels,
+                           Map<String, RegisterModel> registers,
+                           InputCodeModelFactory manager)
+  {
+    this.instructionModels     = instructionModels;
+    this.inputCodeModelFactory = manager;
+    this.integerRegisters      = new RegisterModel[32];
+    this.floatRegisters        = new RegisterModel[32];
+    for (int i = 0; i < 32; i++)
+    {
+      integerRegisters[i] = registers.get("x" + i);
+      floatRegisters[i]   = registers.get("f" + i);
+    }
+    this.instructions = new ArrayList<>();
+    this.symbolTable  = new HashMap<>();
+    this.segments     = new ArrayList<>();
+  }
+  
+  /**
+   * @param binary Content of a file
+   *
+   * @return True if the file is an ELF file, otherwise it is loaded as a flat binary
+   */
+  public static boolean isElf(byte[] binary)
+  {
+    return binary.length >= 4 && ByteBuffer.wrap(binary).order(ByteOrder.LITTLE_ENDIAN).getInt(0) == ELF_MAGIC;
+  }
+  
+  /**
+   * After calling this method, the results (instructions, labels, data) can be collected from the instance.
+   *
+   * @param binary Flat binary or ELF32 file
+   *
+   * @throws IllegalArgumentException If the file is malformed or contains an unsupported instruction
+   * @brief Decodes the machine code
+   */
+  public void load(byte[] binary)
+  {
+    this.instructions = new ArrayList<>();
+    this.symbolTable  = new HashMap<>();
+    this.segments     = new ArrayList<>();
+    
+    ByteBuffer buffer = ByteBuffer.wrap(binary).order(ByteOrder.LITTLE_ENDIAN);
+    if (isElf(binary))
+    {
+      loadElf(buffer);
+    }
+    else
+    {
+      if (binary.length % 4 != 0)
+      {
+        throw new IllegalArgumentException("Flat binary size must be a multiple of 4 bytes, got " + binary.length);
+      }
+      int[] words = new int[binary.length / 4];
+      buffer.asIntBuffer().get(words);
+      decodeAll(words, null);
+    }
+  }
+  
+  /**
+   * @param buffer ELF file
+   */
+  private void loadElf(ByteBuffer buffer)
+  {
+    if (buffer.capacity() < 52 || buffer.get(4) != 1 || buffer.get(5) != 1)
+    {
+      throw new IllegalArgumentException("Only little-endian ELF32 files are supported");
+    }
+    if (Short.toUnsignedInt(buffer.getShort(18)) != EM_RISCV)
+    {
+      throw new IllegalArgumentException("ELF file is not a RISC-V program");
+    }
+    List<Section> sections = readSections(buffer);
+    List<Section> code     = sections.stream().filter(Section::isCode).sorted(Comparator.comparingLong(Section::address))
+            .toList();
+    if (code.isEmpty())
+    {
+      throw new IllegalArgumentException("ELF file has no code");
+    }
+    
+    // The code starts at 0 in the simulator
+    long base = code.get(0).address();
+    long end  = code.stream().mapToLong(section -> section.address() + section.size()).max().orElse(base);
+    int[]     words  = new int[(int) ((end - base) / 4)];
+    boolean[] filled = new boolean[words.length];
+    for (Section section : code)
+    {
+      if (section.address() % 4 != 0 || section.size() % 4 != 0)
+      {
+        throw new IllegalArgumentException("Section " + section.name() + " is not aligned to 4 bytes");
+      }
+      int first = (int) ((section.address() - base) / 4);
+      buffer.slice(section.offset(), section.size()).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer()
+              .get(words, first, section.size() / 4);
+      for (int i = 0; i < section.size() / 4; i++)
+      {
+        filled[first + i] = true;
+      }
+    }
+    decodeAll(words, filled);
+    
+    for (Section section : sections)
+    {
+      if (!section.isData())
+      {
+        continue;
+      }
+      if (section.address() + section.size() > MAX_DATA_ADDRESS)
+      {
+        throw new IllegalArgumentException(
+                "Section " + section.name() + " must end below address " + MAX_DATA_ADDRESS);
+      }
+      byte[] data = new byte[section.size()];
+      buffer.get(section.offset(), data);
+      segments.add(new Segment(section.address(), data));
+    }
+    
+    for (Section section : sections)
+    {
+      if (section.type() == SHT_SYMTAB)
+      {
+        readSymbols(buffer, section, sections, base);
+      }
+    }
+  }
+  
+  /**
+   * @return Sections of the ELF file, in the order of the section header table
+   */
+  private static List<Section> readSections(ByteBuffer buffer)
+  {
+    int sectionOffset = buffer.getInt(32);
+    int entrySize     = Short.toUnsignedInt(buffer.getShort(46));
+    int count         = Short.toUnsignedInt(buffer.getShort(48));
+    int namesIndex    = Short.toUnsignedInt(buffer.getShort(50));
+    if (count == 0 || sectionOffset <= 0 || (long) sectionOffset + (long) count * entrySize > buffer.capacity())
+    {
+      throw new IllegalArgumentException("ELF file has no section headers");
+    }
+    
+    int[] nameOffsets = new int[count];
+    List<Section> sections = new ArrayList<>(count);
+    for (int i = 0; i < count; i++)
+    {
+      int header = sectionOffset + i * entrySize;
+      nameOffsets[i] = buffer.getInt(header);
+      Section section = new Section("", buffer.getInt(header + 4), buffer.getInt(header + 8),
+                                    Integer.toUnsignedLong(buffer.getInt(header + 12)), buffer.getInt(header + 16),
+                                    buffer.getInt(header + 20), buffer.getInt(header + 24));
+      if (section.type() != SHT_NOBITS && (section.offset() < 0 || section.size() < 0
+              || (long) section.offset() + section.size() > buffer.capacity()))
+      {
+        throw new IllegalArgumentException("ELF section " + i + " is outside of the file");
+      }
+      sections.add(section);
+    }
+    
+    // Name the sections
+    Section names = namesIndex < count ? sections.get(namesIndex) : null;
+    for (int i = 0; i < count; i++)
+    {
+      Section section = sections.get(i);
+      String  name    = names == null ? String.valueOf(i) : readString(buffer, names, nameOffsets[i]);
+      sections.set(i, new Section(name, section.type(), section.flags(), section.address(), section.offset(),
+                                  section.size(), section.link()));
+    }
+    return sections;
+  }
+  
+  /**
+   * Reads the symbols that point to code as labels, relative to the start of the code
+   *
+   * @param symbols  Symbol table section
+   * @param sections All sections
+   * @param base     Address of the start of the code
+   */
+  private void readSymbols(ByteBuffer buffer, Section symbols, List<Section> sections, long base)
+  {
+    Section strings = sections.get(symbols.link());
+    for (int offset = symbols.offset(); offset + 16 <= symbols.offset() + symbols.size(); offset += 16)
+    {
+      int  type    = buffer.get(offset + 12) & 0xF;
+      int  index   = Short.toUnsignedInt(buffer.getShort(offset + 14));
+      long address = Integer.toUnsignedLong(buffer.getInt(offset + 4));
+      if (type == STT_SECTION || type == STT_FILE || index == 0 || index >= sections.size() || !sections.get(index)
+              .isCode())
+      {
+        continue;
+      }
+      String name = readString(buffer, strings, buffer.getInt(offset));
+      if (!name.isEmpty() && CodeParser.labelPattern.matcher(name).matches())
+      {
+        // The first definition wins, as local symbols of different files may share a name
+        symbolTable.putIfAbsent(name, new Symbol(name, Symbol.SymbolType.LABEL,
+                                                 RegisterDataContainer.fromValue(address - base), null));
+      }
+    }
+  }
+  
+  /**
+   * @return Zero terminated string at the offset of the string table
+   */
+  private static String readString(ByteBuffer buffer, Section strings, int offset)
+  {
+    int start = strings.offset() + offset;
+    int end   = start;
+    while (end < strings.offset() + strings.size() && buffer.get(end) != 0)
+    {
+      end++;
+    }
+    byte[] bytes = new byte[end - start];
+    buffer.get(start, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+  
+  /**
+   * @param words  Instruction words, the first one at address 0
+   * @param filled Words that belong to a code section, null if all do. The others (alignment gaps) become nops.
+   */
+  private void decodeAll(int[] words, boolean[] filled)
+  {
+    InstructionFunctionModel nop = instructionModels.get("nop");
+    for (int i = 0; i < words.length; i++)
+    {
+      if (filled != null && !filled[i])
+      {
+        instructions.add(inputCodeModelFactory.createInstance(nop, new ArrayList<>(), i, null));
+        continue;
+      }
+      instructions.add(decode(words[i], i));
+    }
+  }
+  
+  /**
+   * @param word  Instruction word
+   * @param index Index of the instruction, its address is index * 4
+   *
+   * @return The decoded instruction
+   * @throws IllegalArgumentException If the instruction is not supported
+   */
+  public InputCodeModel decode(int word, int index)
+  {
+    String                   name  = instructionName(word);
+    InstructionFunctionModel model = name == null ? null : instructionModels.get(name);
+    if (model == null)
+    {
+      throw new IllegalArgumentException(
+              String.format("Unsupported instruction 0x%08x at address 0x%x", word, index * 4L));
+    }
+    
+    int                     rs1       = (word >>> 15) & 0x1F;
+    List<InputCodeArgument> arguments = new ArrayList<>(model.arguments().size());
+    for (InstructionArgument argument : model.arguments())
+    {
+      int field = switch (argument.name())
+      {
+        case "rd" -> (word >>> 7) & 0x1F;
+        case "rs1" -> rs1;
+        // fmv.w.x names its integer source rs2, it is encoded in the rs1 field
+        case "rs2" -> name.equals("fmv.w.x") ? rs1 : (word >>> 20) & 0x1F;
+        case "rs3" -> word >>> 27;
+        case "imm" -> immediate(word);
+        default -> throw new IllegalStateException("Argument " + argument.name() + " of " + name + " has no encoding");
+      };
+      if (argument.isRegister())
+      {
+        boolean       isFloat  = argument.type() == DataTypeEnum.kFloat || argument.type() == DataTypeEnum.kDouble;
+        RegisterModel register = isFloat ? floatRegisters[field] : integerRegisters[field];
+        arguments.add(new InputCodeArgument(argument.name(), (isFloat ? "f" : "x") + field, register));
+      }
+      else
+      {
+        // Sign extended to the type of the argument
+        RegisterDataContainer value = new RegisterDataContainer();
+        if (argument.type() == DataTypeEnum.kLong || argument.type() == DataTypeEnum.kULong)
+        {
+          value.setValue((long) field, argument.type());
+        }
+        else
+        {
+          value.setValue(field, argument.type());
+        }
+        arguments.add(new InputCodeArgument(argument.name(), value));
+      }
+    }
+    return inputCodeModelFactory.createInstance(model, arguments, index, null);
+  }
+  
+  /**
+   * @return Name of the instruction in {@code supportedInstructions.json}, null if the word is not a known encoding
+   */
+  static String instructionName(int word)
+  {
+    int funct3 = (word >>> 12) & 0x7;
+    int funct7 = word >>> 25;
+    int rs2    = (word >>> 20) & 0x1F;
+    return switch (word & 0x7F)
+    {
+      case 0x37 -> "lui";
+      case 0x17 -> "auipc";
+      case 0x6F -> "jal";
+      case 0x67 -> funct3 == 0 ? "jalr" : null;
+      case 0x63 -> pick(funct3, "beq", "bne", null, null, "blt", "bge", "bltu", "bgeu");
+      case 0x03 -> pick(funct3, "lb", "lh", "lw", "ld", "lbu", "lhu", "lwu");
+      case 0x23 -> pick(funct3, "sb", "sh", "sw", "sd");
+      case 0x13 -> switch (funct3)
+      {
+        case 1 -> funct7 == 0 ? "slli" : null;
+        case 5 -> funct7 == 0 ? "srli" : funct7 == 0x20 ? "srai" : null;
+        default -> pick(funct3, "addi", null, "slti", "sltiu", "xori", null, "ori", "andi");
+      };
+      case 0x33 -> switch (funct7)
+      {
+        case 0x00 -> pick(funct3, "add", "sll", "slt", "sltu", "xor", "srl", "or", "and");
+        case 0x01 -> pick(funct3, "mul", "mulh", "mulhsu", "mulhu", "div", "divu", "rem", "remu");
+        case 0x20 -> funct3 == 0 ? "sub" : funct3 == 5 ? "sra" : null;
+        default -> null;
+      };
+      case 0x07 -> pick(funct3, null, null, "flw", "fld");
+      case 0x27 -> pick(funct3, null, null, "fsw", "fsd");
+      // Fused multiply-add, single precision only
+      case 0x43 -> (funct7 & 0x3) == 0 ? "fmadd.s" : null;
+      case 0x47 -> (funct7 & 0x3) == 0 ? "fmsub.s" : null;
+      case 0x4B -> (funct7 & 0x3) == 0 ? "fnmsub.s" : null;
+      case 0x4F -> (funct7 & 0x3) == 0 ? "fnmadd.s" : null;
+      case 0x53 -> switch (funct7)
+      {
+        case 0x00 -> "fadd.s";
+        case 0x04 -> "fsub.s";
+        case 0x08 -> "fmul.s";
+        case 0x0C -> "fdiv.s";
+        case 0x2C -> rs2 == 0 ? "fsqrt.s" : null;
+        case 0x10 -> pick(funct3, "fsgnj.s", "fsgnjn.s", "fsgnjx.s");
+        case 0x14 -> pick(funct3, "fmin.s", "fmax.s");
+        case 0x50 -> pick(funct3, "fle.s", "flt.s", "feq.s");
+        case 0x60 -> pick(rs2, "fcvt.w.s", null, "fcvt.l.s");
+        case 0x68 -> pick(rs2, "fcvt.s.w", null, "fcvt.s.l");
+        case 0x70 -> rs2 != 0 ? null : pick(funct3, "fmv.x.w", "fclass.s");
+        case 0x78 -> rs2 == 0 && funct3 == 0 ? "fmv.w.x" : null;
+        default -> null;
+      };
+      default -> null;
+    };
+  }
+  
+  /**
+   * @return The name at the index, null if there is none
+   */
+  private static String pick(int index, String... names)
+  {
+    return index < names.length ? names[index] : null;
+  }
+  
+  /**
+   * @return Sign extended immediate of the instruction, in the format given by its opcode. Shift amount for shifts.
+   */
+  static int immediate(int word)
+  {
+    int funct3 = (word >>> 12) & 0x7;
+    return switch (word & 0x7F)
+    {
+      // U-type, the simulator shifts it
+      case 0x37, 0x17 -> word >>> 12;
+      // J-type
+      case 0x6F -> ((word >> 31) << 20) | (((word >>> 12) & 0xFF) << 12) | (((word >>> 20) & 0x1) << 11) | (((word
+              >>> 21) & 0x3FF) << 1);
+      // B-type
+      case 0x63 -> ((word >> 31) << 12) | (((word >>> 7) & 0x1) << 11) | (((word >>> 25) & 0x3F) << 5) | (((word
+              >>> 8) & 0xF) << 1);
+      // S-type
+      case 0x23, 0x27 -> ((word >> 25) << 5) | ((word >>> 7) & 0x1F);
+      // Shift amount
+      case 0x13 -> funct3 == 1 || funct3 == 5 ? (word >>> 20) & 0x1F : word >> 20;
+      // I-type
+      default -> word >> 20;
+    };
+  }
+  
+  /**
+   * @return Decoded instructions
+   */
+  public List<InputCodeModel> getInstructions()
+  {
+    return instructions;
+  }
+  
+  /**
+   * @return Labels of the code, by name
+   */
+  public Map<String, Symbol> getSymbolTable()
+  {
+    return symbolTable;
+  }
+  
+  /**
+   * @return Initial content of the data memory, empty for a flat binary
+   */
+  public List<Segment> getSegments()
+  {
+    return segments;
+  }
+}
@@ -99,7 +99,7 @@ public class MemoryModel
    * @return Finished transaction
    * @brief Call at the clock cycle when the transaction is finished, not before or after
    */
-  public MemoryTransaction finishTransaction(int id)
+  public MemoryTransaction finishTransaction(long id)
   {
     if (cache != null)
     {
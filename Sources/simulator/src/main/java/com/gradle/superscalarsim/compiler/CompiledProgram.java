@@ -49,6 +49,14 @@ public class CompiledProgram
    */
   public Set<String> labels;
   
+  /**
+   * @brief Default constructor for deserialization
+   */
+  public CompiledProgram()
+  {
+  
+  }
+  
   public CompiledProgram(List<String> program, List<Integer> asmToC, Set<String> labels)
   {
     this.program = program;
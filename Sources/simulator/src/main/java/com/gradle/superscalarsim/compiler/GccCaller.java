@@ -31,11 +31,14 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gradle.superscalarsim.app.MyLogger;
 import com.gradle.superscalarsim.loader.ConfigLoader;
+import com.gradle.superscalarsim.metrics.Metrics;
 import com.gradle.superscalarsim.serialization.Serialization;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -86,6 +89,10 @@ public class GccCaller
                                                 "-fdiagnostics-format=json", "-fPIE", "-fno-plt", "-");
   static Logger logger = MyLogger.initializeLogger("GCC", Level.INFO);
   private static String compilerPath = ConfigLoader.gccPath;
+  /**
+   * Versions of the compilers by path, see {@link #getCompilerVersion()}
+   */
+  private static final Map<String, String> compilerVersions = new ConcurrentHashMap<>();
   
   public static String getCompilerPath()
   {
@@ -98,7 +105,57 @@ public class GccCaller
     compilerPath = path;
   }
   
+  /**
+   * The version is read once per path (<code>gcc --version</code>) and combined with the modification time and size
+   * of the executable, so a reinstalled compiler gets a new version.
+   *
+   * @return Identification of the current compiler, used as a part of cache keys
+   */
+  public static String getCompilerVersion()
+  {
+    String path       = compilerPath;
+    File   executable = new File(path);
+    String stamp      = executable.lastModified() + ":" + executable.length();
+    String version    = compilerVersions.computeIfAbsent(path, GccCaller::readCompilerVersion);
+    return (version == null ? "unknown" : version) + ":" + stamp;
+  }
+  
+  /**
+   * @return First line of <code>gcc --version</code>, null if the compiler cannot be run (not remembered)
+   */
+  private static String readCompilerVersion(String path)
+  {
+    try
+    {
+      Process p      = new ProcessBuilder(path, "--version").redirectErrorStream(true).start();
+      String  output = new String(p.getInputStream().readAllBytes());
+      p.waitFor();
+      return output.lines().findFirst().orElse("unknown");
+    }
+    catch (Exception e)
+    {
+      logger.warning("Cannot read the GCC version: " + e.getMessage());
+      return null;
+    }
+  }
+  
+  /**
+   * @param code          C code
+   * @param optimizeFlags Optimization flags (O2, ...)
+   *
+   * @return Result of the compilation
+   * @brief Compile the code, the duration is recorded in the metrics
+   */
   public static CompileResult compile(String code, List<String> optimizeFlags)
+  {
+    long          start  = System.nanoTime();
+    CompileResult result = runGcc(code, optimizeFlags);
+    Metrics.histogram("simulator_gcc_duration_seconds", "Duration of GCC invocations", 1e-9, "result",
+                      result.success ? "success" : "failure").record(System.nanoTime() - start);
+    return result;
+  }
+  
+  private static CompileResult runGcc(String code, List<String> optimizeFlags)
   {
     ProcessBuilder pb = new ProcessBuilder(getCommand(optimizeFlags));
     
@@ -177,7 +234,7 @@ public class GccCaller
   }
   
   // /usr/bin/riscv64-linux-gnu-gcc -xc -O0 -march=rv32imfd -mabi=ilp32d -o /dev/stdout -S -g -fverbose-asm -fcf-protection=none -fno-stack-protector -fno-asynchronous-unwind-tables -fno-dwarf2-cfi-asm -nostdlib -xc -
-  static List<String> getCommand(List<String> optimizeFlags)
+  public static List<String> getCommand(List<String> optimizeFlags)
   {
     // Add optimization flags
     List<String> extraFlags = new ArrayList<>();
@@ -206,6 +263,14 @@ public class GccCaller
      */
     public List<Object> compilerErrors;
     
+    /**
+     * @brief Default constructor for deserialization
+     */
+    private CompileResult()
+    {
+    
+    }
+    
     private CompileResult(boolean success, String code, String error, List<Object> compilerErrors)
     {
       this.success        = success;
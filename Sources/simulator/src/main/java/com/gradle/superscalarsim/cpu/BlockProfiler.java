@@ -0,0 +1,179 @@
+/**
+ * @file BlockProfiler.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Per-block profiler of the simulation step
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @brief Time spent in the blocks of the CPU during the simulation
+ * @details Accumulates the wall-clock time and the number of calls of each stage of {@link CpuState#step}.
+ * Function units of one kind are measured together, their call count is the number of units.
+ * The profiler is opt-in (see {@link Cpu#profiler}), without it the step runs without any measurement.
+ * With it, every stage costs two reads of {@link System#nanoTime}, so short stages are overestimated.
+ * Not thread-safe, a profiler belongs to one simulation at a time.
+ */
+public class BlockProfiler
+{
+  private final long[] nanos = new long[Stage.values().length];
+  
+  private final long[] calls = new long[Stage.values().length];
+  
+  /**
+   * Number of profiled steps
+   */
+  private long steps = 0;
+  
+  /**
+   * @param stage Stage that just finished
+   * @param start Time the stage started, from {@link System#nanoTime}
+   * @param count Number of blocks the stage ran
+   *
+   * @return Current time, the start of the next stage
+   */
+  long record(Stage stage, long start, int count)
+  {
+    long now = System.nanoTime();
+    nanos[stage.ordinal()] += now - start;
+    calls[stage.ordinal()] += count;
+    return now;
+  }
+  
+  /**
+   * @brief Count a finished step
+   */
+  void countStep()
+  {
+    steps++;
+  }
+  
+  /**
+   * @return Time spent in the stage in nanoseconds
+   */
+  public long getNanos(Stage stage)
+  {
+    return nanos[stage.ordinal()];
+  }
+  
+  /**
+   * @return Number of block calls of the stage
+   */
+  public long getCalls(Stage stage)
+  {
+    return calls[stage.ordinal()];
+  }
+  
+  /**
+   * @return Number of profiled steps
+   */
+  public long getSteps()
+  {
+    return steps;
+  }
+  
+  /**
+   * @return Time spent in all stages in nanoseconds
+   */
+  public long getTotalNanos()
+  {
+    long total = 0;
+    for (long stageNanos : nanos)
+    {
+      total += stageNanos;
+    }
+    return total;
+  }
+  
+  /**
+   * @return Table of the stages, the most expensive first
+   */
+  public String report()
+  {
+    long        total  = Math.max(1, getTotalNanos());
+    List<Stage> stages = new ArrayList<>(List.of(Stage.values()));
+    stages.sort(Comparator.comparingLong(this::getNanos).reversed());
+    StringBuilder out = new StringBuilder();
+    out.append(String.format("%-44s %12s %7s %12s %10s%n", "Block", "Time [ms]", "Share", "Calls", "ns/call"));
+    for (Stage stage : stages)
+    {
+      long stageNanos = getNanos(stage);
+      long stageCalls = getCalls(stage);
+      out.append(String.format("%-44s %12.3f %6.1f%% %12d %10.1f%n", stage.getName(), stageNanos / 1e6,
+                               100.0 * stageNanos / total, stageCalls,
+                               stageCalls == 0 ? 0.0 : (double) stageNanos / stageCalls));
+    }
+    out.append(String.format("%-44s %12.3f %6.1f%% %12d %10.1f%n", "Total (per step)", total / 1e6, 100.0, steps,
+                             steps == 0 ? 0.0 : (double) total / steps));
+    return out.toString();
+  }
+  
+  /**
+   * @brief Measured stages of a step, in the order they run
+   */
+  public enum Stage
+  {
+    kMemory("SimulatedMemory.simulate"),
+    kCache("Cache.simulate"),
+    kReorderBuffer("ReorderBufferBlock.simulate"),
+    kArithmeticEmpty("ArithmeticFunctionUnitBlock.emptyIfDone"),
+    kFpEmpty("FP ArithmeticFunctionUnitBlock.emptyIfDone"),
+    kLoadStoreEmpty("LoadStoreFunctionUnit.emptyIfDone"),
+    kMemoryAccessEmpty("MemoryAccessUnit.emptyIfDone"),
+    kBranchEmpty("BranchFunctionUnitBlock.emptyIfDone"),
+    kAluIssueWindow("ALU IssueWindowBlock.simulate"),
+    kFpIssueWindow("FP IssueWindowBlock.simulate"),
+    kBranchIssueWindow("Branch IssueWindowBlock.simulate"),
+    kLoadStoreIssueWindow("Load/store IssueWindowBlock.simulate"),
+    kStoreBuffer("StoreBufferBlock.simulate"),
+    kLoadBuffer("LoadBufferBlock.simulate"),
+    kArithmetic("ArithmeticFunctionUnitBlock.simulate"),
+    kFp("FP ArithmeticFunctionUnitBlock.simulate"),
+    kLoadStore("LoadStoreFunctionUnit.simulate"),
+    kMemoryAccess("MemoryAccessUnit.simulate"),
+    kBranch("BranchFunctionUnitBlock.simulate"),
+    kIssueWindowSuperBlock("IssueWindowSuperBlock.simulate"),
+    kDecodeAndDispatch("DecodeAndDispatchBlock.simulate"),
+    kInstructionFetch("InstructionFetchBlock.simulate");
+    
+    /**
+     * Name in the report
+     */
+    private final String name;
+    
+    Stage(String name)
+    {
+      this.name = name;
+    }
+    
+    public String getName()
+    {
+      return name;
+    }
+  }
+}
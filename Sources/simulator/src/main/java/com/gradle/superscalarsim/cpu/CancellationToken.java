@@ -0,0 +1,57 @@
+/**
+ * @file CancellationToken.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cooperative cancellation of a simulation
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+/**
+ * @brief Flag to stop a running simulation from another thread
+ * @details The simulation polls the token (see {@link SimulationBudget}) and stops with {@link StopReason#kCancelled}.
+ * Cancelling is a one-way operation.
+ */
+public class CancellationToken
+{
+  /**
+   * True if the simulation should stop
+   */
+  private volatile boolean cancelled = false;
+  
+  /**
+   * @brief Request the simulation to stop. Safe to call from any thread, any number of times.
+   */
+  public void cancel()
+  {
+    cancelled = true;
+  }
+  
+  /**
+   * @return True if cancel was called
+   */
+  public boolean isCancelled()
+  {
+    return cancelled;
+  }
+}
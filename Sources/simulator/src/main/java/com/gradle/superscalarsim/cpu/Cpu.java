@@ -27,10 +27,12 @@
 
 package com.gradle.superscalarsim.cpu;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.gradle.superscalarsim.loader.IDataProvider;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -59,6 +61,41 @@ public class Cpu implements Serializable
    */
   public StopReason stopReason;
   
+  /**
+   * Receives the time spent in the blocks, null to simulate without profiling
+   */
+  @JsonIgnore
+  public transient BlockProfiler profiler;
+  
+  /**
+   * Program of the configuration parsed outside the CPU, null to parse the code on every reset
+   */
+  @JsonIgnore
+  private transient ParsedProgram program;
+  
+  /**
+   * Index of the stop condition that stopped the simulation, -1 if none did
+   */
+  public int firedCondition = -1;
+  
+  /**
+   * Evaluates the stop conditions, null without conditions
+   */
+  @JsonIgnore
+  private transient StopConditionMonitor stopConditionMonitor;
+  
+  /**
+   * Stop conditions, kept to watch the new state of a backward simulation
+   */
+  @JsonIgnore
+  private transient List<StopCondition> stopConditions = List.of();
+  
+  /**
+   * Conditions fire only after this tick
+   */
+  @JsonIgnore
+  private transient long stopConditionsFromTick;
+  
   /**
    * Assumes the cpuConfiguration is correct
    *
@@ -75,6 +112,22 @@ public class Cpu implements Serializable
     this.stopReason         = StopReason.kNotStopped;
   }
   
+  /**
+   * @param simConfig          CPU configuration to use
+   * @param staticDataProvider registers and instruction definitions - can be null
+   * @param program            The program of the configuration, parsed for its call stack size
+   *
+   * @brief Create a CPU with an already parsed program at the default state (tick 0)
+   */
+  public Cpu(SimulationConfig simConfig, IDataProvider staticDataProvider, ParsedProgram program)
+  {
+    this.configuration      = simConfig;
+    this.staticDataProvider = Objects.requireNonNullElseGet(staticDataProvider, StaticDataProvider::new);
+    this.program            = program;
+    this.cpuState           = new CpuState(this.configuration, this.staticDataProvider, program);
+    this.stopReason         = StopReason.kNotStopped;
+  }
+  
   /**
    * @param cpuConfig CPU configuration to use
    *
@@ -105,7 +158,44 @@ public class Cpu implements Serializable
   public void setCode(String code)
   {
     this.configuration.code = code;
+    this.program            = null;
     this.cpuState           = new CpuState(this.configuration, this.staticDataProvider);
+    watchStopConditions();
+  }
+  
+  /**
+   * Loops are not extrapolated while conditions are set, a fast-forward would skip over their events.
+   *
+   * @param conditions Conditions that stop the simulation, empty for none
+   * @param fromTick   Conditions fire only in later ticks, so a client can continue past a fired condition
+   *
+   * @throws IllegalArgumentException if a condition is incomplete or refers to a missing label or register
+   * @brief Sets the conditions that stop the runs
+   */
+  public void setStopConditions(List<StopCondition> conditions, long fromTick)
+  {
+    if (stopConditionMonitor != null)
+    {
+      stopConditionMonitor.detach();
+    }
+    this.stopConditions         = conditions;
+    this.stopConditionsFromTick = fromTick;
+    watchStopConditions();
+  }
+  
+  /**
+   * @brief Attaches the stop conditions to the current state
+   */
+  private void watchStopConditions()
+  {
+    if (stopConditions.isEmpty())
+    {
+      stopConditionMonitor = null;
+      cpuState.reorderBufferBlock.setLoopAccelerator(cpuState.loopAccelerator);
+      return;
+    }
+    stopConditionMonitor = new StopConditionMonitor(stopConditions, cpuState, stopConditionsFromTick);
+    cpuState.reorderBufferBlock.setLoopAccelerator(null);
   }
   
   public void stepBack()
@@ -116,28 +206,64 @@ public class Cpu implements Serializable
   /**
    * @param targetTick Tick of the desired state
    *
+   * @brief Runs simulation from given state to the end, with the default budget
+   */
+  public void simulateState(long targetTick)
+  {
+    simulateState(targetTick, new SimulationBudget());
+  }
+  
+  /**
+   * @param targetTick Tick of the desired state
+   * @param budget     Limits of the run. If exhausted, the simulation stops early and stopReason says why.
+   *
    * @brief Runs simulation from given state to the end
    */
-  public void simulateState(int targetTick)
+  public void simulateState(long targetTick, SimulationBudget budget)
   {
-    int currentTick = this.cpuState.tick;
+    long currentTick = this.cpuState.tick;
     
     // Forward or backward simulation?
-    if (targetTick >= currentTick)
+    if (targetTick < currentTick)
     {
-      // Forward
-      while (!simEnded() && this.cpuState.tick < targetTick)
-      {
-        step();
-      }
+      // Backward
+      this.cpuState = new CpuState(this.configuration, this.staticDataProvider, program);
+      watchStopConditions();
+    }
+    run(targetTick, budget);
+  }
+  
+  /**
+   * @param targetTick Tick to stop at
+   * @param budget     Limits of the run
+   *
+   * @brief Steps the simulation until it ends, reaches the target tick or exhausts the budget
+   */
+  private void run(long targetTick, SimulationBudget budget)
+  {
+    long steps = 0;
+    this.firedCondition = -1;
+    if (cpuState.loopAccelerator != null)
+    {
+      // Fast-forwards must not skip over the end of the run
+      cpuState.loopAccelerator.setTickLimit(Math.min(targetTick, budget.getMaxCycles()));
     }
-    else
+    while (!simEnded() && this.cpuState.tick < targetTick)
     {
-      // Backward
-      this.cpuState = new CpuState(this.configuration, this.staticDataProvider);
-      while (!simEnded() && this.cpuState.tick < targetTick)
+      StopReason budgetStatus = budget.check(this.cpuState.tick, steps);
+      if (budgetStatus != StopReason.kNotStopped)
       {
-        step();
+        this.stopReason = budgetStatus;
+        return;
+      }
+      step();
+      steps++;
+      int fired = stopConditionMonitor == null ? -1 : stopConditionMonitor.check();
+      if (fired >= 0)
+      {
+        this.firedCondition = fired;
+        this.stopReason     = StopReason.kStopCondition;
+        return;
       }
     }
   }
@@ -159,18 +285,25 @@ public class Cpu implements Serializable
    */
   public void step()
   {
-    this.cpuState.step();
+    this.cpuState.step(profiler);
   }// end of step
   
   /**
-   * @brief Runs simulation from current state to the end. Flushes cache at the end!
+   * @brief Runs simulation from current state to the end, with the default budget. Flushes cache at the end!
    */
   public void execute(boolean flush)
   {
-    while (!simEnded())
-    {
-      step();
-    }
+    execute(flush, new SimulationBudget());
+  }
+  
+  /**
+   * @param budget Limits of the run. If exhausted, the simulation stops early and stopReason says why.
+   *
+   * @brief Runs simulation from current state to the end. Flushes cache at the end!
+   */
+  public void execute(boolean flush, SimulationBudget budget)
+  {
+    run(Long.MAX_VALUE, budget);
     if (this.cpuState.cache != null && flush)
     {
       // Flush cache
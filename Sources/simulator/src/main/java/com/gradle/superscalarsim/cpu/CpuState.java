@@ -41,6 +41,7 @@ import com.gradle.superscalarsim.enums.cache.ReplacementPoliciesEnum;
 import com.gradle.superscalarsim.factories.InputCodeModelFactory;
 import com.gradle.superscalarsim.factories.RegisterModelFactory;
 import com.gradle.superscalarsim.factories.SimCodeModelFactory;
+import com.gradle.superscalarsim.jfr.CpuInitEvent;
 import com.gradle.superscalarsim.loader.IDataProvider;
 import com.gradle.superscalarsim.managers.ManagerRegistry;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
@@ -48,7 +49,9 @@ import com.gradle.superscalarsim.models.instruction.InputCodeModel;
 import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.models.register.RegisterFile;
 import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.pipetrace.PipelineTracer;
 import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.steadystate.LoopAccelerator;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -72,7 +75,7 @@ public class CpuState implements Serializable
    * The manager registry is used to keep track of all relevant models in the CPU.
    */
   public ManagerRegistry managerRegistry;
-  public int tick;
+  public long tick;
   public InstructionMemoryBlock instructionMemoryBlock;
   public SimulationStatistics statistics;
   
@@ -115,6 +118,11 @@ public class CpuState implements Serializable
    * @brief Debug log for debugging/presentation purposes
    */
   public DebugLog debugLog;
+  /**
+   * Fast-forwards loops in a steady state, null if the extrapolation is off. Not serialized, copies run without it.
+   */
+  @JsonIgnore
+  public LoopAccelerator loopAccelerator;
   /**
    * Logger, hidden from serialization
    */
@@ -128,13 +136,35 @@ public class CpuState implements Serializable
   
   public CpuState(SimulationConfig config, IDataProvider staticDataProvider)
   {
-    this.initState(config, staticDataProvider);
+    this.initState(config, staticDataProvider, null);
+  }
+  
+  /**
+   * @param program Program of the configuration, already parsed. Null to parse the code of the configuration.
+   */
+  public CpuState(SimulationConfig config, IDataProvider staticDataProvider, ParsedProgram program)
+  {
+    this.initState(config, staticDataProvider, program);
   }
   
   /**
+   * @param program Program of the configuration, already parsed. Null to parse the code of the configuration.
+   *
    * @brief Initialize the CPU state - given the configuration.
+   * @details Recorded as a {@link CpuInitEvent} in Flight Recorder.
+   */
+  public void initState(SimulationConfig config, IDataProvider staticDataProvider, ParsedProgram program)
+  {
+    CpuInitEvent event = new CpuInitEvent();
+    event.begin();
+    buildState(config, staticDataProvider, program);
+    event.finish(config, instructionMemoryBlock.getCode().size());
+  }
+  
+  /**
+   * @brief Parse the code if needed, initialize the memory and create the blocks
    */
-  public void initState(SimulationConfig config, IDataProvider staticDataProvider)
+  private void buildState(SimulationConfig config, IDataProvider staticDataProvider, ParsedProgram program)
   {
     this.tick            = 0;
     this.managerRegistry = new ManagerRegistry();
@@ -160,40 +190,32 @@ public class CpuState implements Serializable
     // Parse code and allocate memory locations
     //
     
-    CodeParser codeParser = new CodeParser(functionModels, registerMap, inputCodeModelFactory, config.memoryLocations);
-    codeParser.parseCode(config.code, false); // false to avoid duplicate work
-    if (codeParser.hasErrors())
+    if (program == null)
     {
-      throw new IllegalStateException("Code parsing failed: " + codeParser.getErrorMessages());
+      program = ParsedProgram.parse(config, staticDataProvider);
     }
-    // Parser now holds all memory locations, all labels, all errors
-    
-    // Initialize memory. This is linked to the values of labels in code, so relocating the labels changes the values in code
-    MemoryInitializer memoryInitializer = new MemoryInitializer(128, config.cpuConfig.callStackSize);
-    memoryInitializer.setSymbolTable(codeParser.getSymbolTable());
-    memoryInitializer.initializeMemory(simulatedMemory);
-    
-    codeParser.fillImmediateValues();
-    if (codeParser.hasErrors())
+    else if (program.getCallStackSize() != config.cpuConfig.callStackSize)
     {
-      throw new IllegalStateException("Code parsing failed: " + codeParser.getErrorMessages());
+      throw new IllegalArgumentException("Program was laid out for a call stack of " + program.getCallStackSize()
+                                                 + " bytes, the CPU has " + config.cpuConfig.callStackSize);
     }
+    MemoryInitializer    memoryInitializer = new MemoryInitializer(128, config.cpuConfig.callStackSize);
+    List<InputCodeModel> instructions      = program.link(registerMap, inputCodeModelFactory);
+    Map<String, Symbol>  symbolTable       = program.getSymbolTable();
+    program.getSegments().forEach(segment -> simulatedMemory.insertIntoMemory(segment.address(), segment.data()));
     
     // Count static instruction mix
-    this.statistics.allocateInstructionStats(codeParser.getInstructions().size());
-    codeParser.getInstructions()
-            .forEach(ins -> statistics.staticInstructionMix.increment(ins.getInstructionTypeEnum()));
+    this.statistics.allocateInstructionStats(instructions.size());
+    instructions.forEach(ins -> statistics.staticInstructionMix.increment(ins.getInstructionTypeEnum()));
     
     InstructionFunctionModel nopFM = functionModels.get("nop");
-    InputCodeModel nop = inputCodeModelFactory.createInstance(nopFM, new ArrayList<>(),
-                                                              codeParser.getInstructions().size(), null);
-    this.instructionMemoryBlock = new InstructionMemoryBlock(codeParser.getInstructions(), codeParser.getSymbolTable(),
-                                                             nop);
+    InputCodeModel nop = inputCodeModelFactory.createInstance(nopFM, new ArrayList<>(), instructions.size(), null);
+    this.instructionMemoryBlock = new InstructionMemoryBlock(instructions, symbolTable, nop);
     
     // Create memory
     this.unifiedRegisterFileBlock = new UnifiedRegisterFileBlock(registerMap, config.cpuConfig.speculativeRegisters,
                                                                  registerModelFactory);
-    this.debugLog                 = new DebugLog(unifiedRegisterFileBlock);
+    this.debugLog                 = new DebugLog(unifiedRegisterFileBlock, config.debugLogLimit);
     // Set the sp to the end of the stack
     RegisterModel sp = this.unifiedRegisterFileBlock.getRegister("sp");
     if (sp != null)
@@ -219,7 +241,8 @@ public class CpuState implements Serializable
     this.renameMapTableBlock = new RenameMapTableBlock(unifiedRegisterFileBlock);
     
     // TODO: test sharing for small global history
-    this.globalHistoryRegister = new GlobalHistoryRegister(8);
+    // Conditional branches in flight are at most in the ROB and the fetched bundle
+    this.globalHistoryRegister = new GlobalHistoryRegister(8, config.cpuConfig.robSize + config.cpuConfig.fetchWidth);
     BitPredictor defaultPredictor = new BitPredictor(config.cpuConfig.predictorType,
                                                      config.cpuConfig.predictorDefaultState);
     
@@ -228,14 +251,8 @@ public class CpuState implements Serializable
                                               this.patternHistoryTable);
     this.branchTargetBuffer  = new BranchTargetBuffer(config.cpuConfig.btbSize);
     
-    ReplacementPoliciesEnum replacementPoliciesEnum = switch (config.cpuConfig.cacheReplacement)
-    {
-      case "LRU" -> ReplacementPoliciesEnum.LRU;
-      case "FIFO" -> ReplacementPoliciesEnum.FIFO;
-      case "Random" -> ReplacementPoliciesEnum.RANDOM;
-      default -> throw new IllegalStateException(
-              "Unexpected value for cache replacement: " + config.cpuConfig.cacheReplacement);
-    };
+    ReplacementPoliciesEnum replacementPoliciesEnum = ReplacementPoliciesEnum.fromConfigName(
+            config.cpuConfig.cacheReplacement);
     
     // Define memory
     boolean writeBack = config.cpuConfig.storeBehavior.equals("write-back");
@@ -359,6 +376,19 @@ public class CpuState implements Serializable
                                                              fpIssueWindowBlock, branchIssueWindowBlock,
                                                              loadStoreIssueWindowBlock);
     }
+    
+    if (config.extrapolateLoops)
+    {
+      if (replacementPoliciesEnum == ReplacementPoliciesEnum.RANDOM && cache != null)
+      {
+        logger.warning("Loop extrapolation does not support the random replacement policy. Not extrapolating.");
+      }
+      else
+      {
+        this.loopAccelerator = new LoopAccelerator(this);
+        this.reorderBufferBlock.setLoopAccelerator(loopAccelerator);
+      }
+    }
   }
   
   /**
@@ -408,45 +438,132 @@ public class CpuState implements Serializable
    */
   public void step()
   {
+    step(null);
+  }// end of step
+  
+  /**
+   * @param profiler Receives the time spent in each block, null to run without profiling
+   *
+   * @brief The same step as {@link #step()}, with the time of each block measured when a profiler is given
+   * @details Without a profiler, the clock is never read.
+   */
+  public void step(BlockProfiler profiler)
+  {
+    long time = profiler == null ? 0 : System.nanoTime();
     // memory
     simulatedMemory.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kMemory, time, 1);
     if (cache != null)
     {
       cache.simulate(tick);
+      time = lap(profiler, BlockProfiler.Stage.kCache, time, 1);
     }
     // rob
     reorderBufferBlock.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kReorderBuffer, time, 1);
     // Empty all FUs
-    arithmeticFunctionUnitBlocks.forEach(arithmeticFunctionUnitBlock -> arithmeticFunctionUnitBlock.emptyIfDone());
-    fpFunctionUnitBlocks.forEach(arithmeticFunctionUnitBlock -> arithmeticFunctionUnitBlock.emptyIfDone());
-    loadStoreFunctionUnits.forEach(loadStoreFunctionUnit -> loadStoreFunctionUnit.emptyIfDone());
-    memoryAccessUnits.forEach(memoryAccessUnit -> memoryAccessUnit.emptyIfDone());
-    branchFunctionUnitBlocks.forEach(branchFunctionUnitBlock -> branchFunctionUnitBlock.emptyIfDone());
+    arithmeticFunctionUnitBlocks.forEach(arithmeticFunctionUnitBlock -> arithmeticFunctionUnitBlock.emptyIfDone(tick));
+    time = lap(profiler, BlockProfiler.Stage.kArithmeticEmpty, time, arithmeticFunctionUnitBlocks.size());
+    fpFunctionUnitBlocks.forEach(arithmeticFunctionUnitBlock -> arithmeticFunctionUnitBlock.emptyIfDone(tick));
+    time = lap(profiler, BlockProfiler.Stage.kFpEmpty, time, fpFunctionUnitBlocks.size());
+    loadStoreFunctionUnits.forEach(loadStoreFunctionUnit -> loadStoreFunctionUnit.emptyIfDone(tick));
+    time = lap(profiler, BlockProfiler.Stage.kLoadStoreEmpty, time, loadStoreFunctionUnits.size());
+    memoryAccessUnits.forEach(memoryAccessUnit -> memoryAccessUnit.emptyIfDone(tick));
+    time = lap(profiler, BlockProfiler.Stage.kMemoryAccessEmpty, time, memoryAccessUnits.size());
+    branchFunctionUnitBlocks.forEach(branchFunctionUnitBlock -> branchFunctionUnitBlock.emptyIfDone(tick));
+    time = lap(profiler, BlockProfiler.Stage.kBranchEmpty, time, branchFunctionUnitBlocks.size());
     // run all AbstractIssueWindowBlock blocks
     aluIssueWindowBlock.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kAluIssueWindow, time, 1);
     fpIssueWindowBlock.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kFpIssueWindow, time, 1);
     branchIssueWindowBlock.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kBranchIssueWindow, time, 1);
     loadStoreIssueWindowBlock.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kLoadStoreIssueWindow, time, 1);
     storeBufferBlock.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kStoreBuffer, time, 1);
     loadBufferBlock.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kLoadBuffer, time, 1);
     // Run all FUs
     arithmeticFunctionUnitBlocks.forEach(arithmeticFunctionUnitBlock -> arithmeticFunctionUnitBlock.simulate(tick));
+    time = lap(profiler, BlockProfiler.Stage.kArithmetic, time, arithmeticFunctionUnitBlocks.size());
     fpFunctionUnitBlocks.forEach(arithmeticFunctionUnitBlock -> arithmeticFunctionUnitBlock.simulate(tick));
+    time = lap(profiler, BlockProfiler.Stage.kFp, time, fpFunctionUnitBlocks.size());
     loadStoreFunctionUnits.forEach(loadStoreFunctionUnit -> loadStoreFunctionUnit.simulate(tick));
+    time = lap(profiler, BlockProfiler.Stage.kLoadStore, time, loadStoreFunctionUnits.size());
     memoryAccessUnits.forEach(memoryAccessUnit -> memoryAccessUnit.simulate(tick));
+    time = lap(profiler, BlockProfiler.Stage.kMemoryAccess, time, memoryAccessUnits.size());
     branchFunctionUnitBlocks.forEach(branchFunctionUnitBlock -> branchFunctionUnitBlock.simulate(tick));
+    time = lap(profiler, BlockProfiler.Stage.kBranch, time, branchFunctionUnitBlocks.size());
     
     issueWindowSuperBlock.simulate(tick); // put instructions into issue windows
+    time = lap(profiler, BlockProfiler.Stage.kIssueWindowSuperBlock, time, 1);
     decodeAndDispatchBlock.simulate(tick);
+    time = lap(profiler, BlockProfiler.Stage.kDecodeAndDispatch, time, 1);
     instructionFetchBlock.simulate(tick);
+    lap(profiler, BlockProfiler.Stage.kInstructionFetch, time, 1);
     // Stats
     statistics.incrementClockCycles();
+    if (profiler != null)
+    {
+      profiler.countStep();
+    }
     
     this.tick++;
-  }// end of run
+    if (loopAccelerator != null)
+    {
+      loopAccelerator.afterStep();
+    }
+  }// end of step
+  
+  /**
+   * @return Start time of the next block
+   * @brief Records the block that started at {@code time}, does nothing without a profiler
+   */
+  private static long lap(BlockProfiler profiler, BlockProfiler.Stage stage, long time, int count)
+  {
+    return profiler == null ? time : profiler.record(stage, time, count);
+  }
+  
+  /**
+   * @return All function units, in the order they are simulated: arithmetic, floating point, load/store, memory
+   * access and branch units
+   */
+  public List<AbstractFunctionUnitBlock> getFunctionUnits()
+  {
+    List<AbstractFunctionUnitBlock> units = new ArrayList<>();
+    units.addAll(arithmeticFunctionUnitBlocks);
+    units.addAll(fpFunctionUnitBlocks);
+    units.addAll(loadStoreFunctionUnits);
+    units.addAll(memoryAccessUnits);
+    units.addAll(branchFunctionUnitBlocks);
+    return units;
+  }
+  
+  /**
+   * @param pipelineTracer Receives the fetch, decode, dispatch, execute, address, memory, complete, commit and squash
+   *                       events of every instruction, null to stop tracing
+   *
+   * @brief Connects a tracer to all blocks of the pipeline
+   */
+  public void setPipelineTracer(PipelineTracer pipelineTracer)
+  {
+    instructionFetchBlock.setPipelineTracer(pipelineTracer);
+    decodeAndDispatchBlock.setPipelineTracer(pipelineTracer);
+    issueWindowSuperBlock.setPipelineTracer(pipelineTracer);
+    List<AbstractFunctionUnitBlock> units = getFunctionUnits();
+    for (int i = 0; i < units.size(); i++)
+    {
+      units.get(i).setPipelineTracer(pipelineTracer, i);
+    }
+    loadBufferBlock.setPipelineTracer(pipelineTracer);
+    reorderBufferBlock.setPipelineTracer(pipelineTracer);
+  }
   
   /**
    * The order of checks sets their priority.
+   * Cycle and time limits are not checked here, see {@link SimulationBudget}.
    *
    * @return Reason for stopping the simulation, or kNotStopped if the simulation should continue.
    * @brief Gets the simulation status. The result controls if the simulation should continue.
@@ -458,10 +575,6 @@ public class CpuState implements Serializable
     {
       return StopReason.kCallStackHalt;
     }
-    if (tick > 1000000)
-    {
-      return StopReason.kMaxCycles;
-    }
     boolean exceptionRaised = reorderBufferBlock.stopReason == StopReason.kException;
     if (exceptionRaised)
     {
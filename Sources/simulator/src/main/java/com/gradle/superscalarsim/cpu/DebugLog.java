@@ -29,18 +29,25 @@ package com.gradle.superscalarsim.cpu;
 
 import com.fasterxml.jackson.annotation.JsonIdentityInfo;
 import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import com.gradle.superscalarsim.blocks.base.UnifiedRegisterFileBlock;
 import com.gradle.superscalarsim.models.instruction.DebugInfo;
 import com.gradle.superscalarsim.models.register.RegisterModel;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 /**
  * Messages generated during simulation. Can be used for debugging.
  * Are shown in the GUI.
+ * <p>
+ * For long runs the log can be limited to the newest messages. The older ones are dropped, or handed to a spill
+ * consumer (e.g. written to a file), so the memory used by the log does not grow with the length of the run.
  */
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
 public class DebugLog
@@ -51,9 +58,22 @@ public class DebugLog
    */
   static Pattern formatPattern = Pattern.compile("[$][{](.*?)[}]");
   /**
-   * List of messages
+   * List of messages, the oldest first
+   */
+  private Deque<Entry> entries;
+  /**
+   * Maximum number of kept messages, 0 for no limit
+   */
+  private int limit;
+  /**
+   * Number of messages dropped (or spilled) because of the limit
    */
-  private List<Entry> entries;
+  private long droppedEntries;
+  /**
+   * Receives the messages dropped because of the limit. Null to discard them.
+   */
+  @JsonIgnore
+  private Consumer<Entry> spill;
   /**
    * Registers to format the messages
    */
@@ -64,9 +84,19 @@ public class DebugLog
    * Constructor
    */
   public DebugLog(UnifiedRegisterFileBlock registerFile)
+  {
+    this(registerFile, 0);
+  }
+  
+  /**
+   * @param registerFile Registers to format the messages
+   * @param limit        Maximum number of kept messages, 0 for no limit
+   */
+  public DebugLog(UnifiedRegisterFileBlock registerFile, int limit)
   {
     this.registerFile = registerFile;
-    this.entries      = new ArrayList<>();
+    this.limit        = limit;
+    this.entries      = new ArrayDeque<>();
   }
   
   /**
@@ -75,10 +105,19 @@ public class DebugLog
    *
    * @brief Add message to the log
    */
-  public void add(DebugInfo debugInfo, int cycle)
+  public void add(DebugInfo debugInfo, long cycle)
   {
     String message = format(debugInfo);
-    entries.add(new Entry(message, cycle));
+    if (limit > 0 && entries.size() >= limit)
+    {
+      Entry dropped = entries.removeFirst();
+      droppedEntries++;
+      if (spill != null)
+      {
+        spill.accept(dropped);
+      }
+    }
+    entries.addLast(new Entry(message, cycle));
   }
   
   /**
@@ -109,11 +148,55 @@ public class DebugLog
   }
   
   /**
-   * @return List of messages
+   * @return Kept messages, the oldest first. A copy, it does not change with the log.
    */
   public List<Entry> getEntries()
   {
-    return entries;
+    return new ArrayList<>(entries);
+  }
+  
+  /**
+   * @param sequence Number of messages added before the first wanted one
+   *
+   * @return Kept messages added after the first {@code sequence} ones
+   * @brief Get the messages added since an earlier call of {@link #getTotalEntries()}
+   */
+  public List<Entry> getEntriesSince(long sequence)
+  {
+    List<Entry> newEntries = new ArrayList<>();
+    long        skip       = sequence - droppedEntries;
+    for (Entry entry : entries)
+    {
+      if (skip-- <= 0)
+      {
+        newEntries.add(entry);
+      }
+    }
+    return newEntries;
+  }
+  
+  /**
+   * @return Number of messages added to the log, including the dropped ones
+   */
+  public long getTotalEntries()
+  {
+    return droppedEntries + entries.size();
+  }
+  
+  /**
+   * @return Number of messages dropped because of the limit
+   */
+  public long getDroppedEntries()
+  {
+    return droppedEntries;
+  }
+  
+  /**
+   * @param spill Receives the messages dropped because of the limit, null to discard them
+   */
+  public void setSpill(Consumer<Entry> spill)
+  {
+    this.spill = spill;
   }
   
   public static class Entry
@@ -126,13 +209,13 @@ public class DebugLog
     /**
      * Cycle when the message was generated
      */
-    private int cycle;
+    private long cycle;
     
     /**
      * @param message Message
      * @param cycle   Cycle when the message was generated
      */
-    public Entry(String message, int cycle)
+    public Entry(String message, long cycle)
     {
       this.message = message;
       this.cycle   = cycle;
@@ -149,7 +232,7 @@ public class DebugLog
     /**
      * @return Cycle when the message was generated
      */
-    public int getCycle()
+    public long getCycle()
     {
       return cycle;
     }
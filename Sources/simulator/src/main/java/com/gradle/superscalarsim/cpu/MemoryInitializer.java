@@ -29,6 +29,7 @@
 package com.gradle.superscalarsim.cpu;
 
 import com.gradle.superscalarsim.blocks.loadstore.SimulatedMemory;
+import com.gradle.superscalarsim.code.MachineCodeLoader;
 import com.gradle.superscalarsim.code.Symbol;
 import com.gradle.superscalarsim.models.register.RegisterDataContainer;
 
@@ -113,6 +114,19 @@ public class MemoryInitializer
    */
   public void initializeMemory(SimulatedMemory memory)
   {
+    for (MachineCodeLoader.Segment segment : initializeSegments())
+    {
+      memory.insertIntoMemory(segment.address(), segment.data());
+    }
+  }
+  
+  /**
+   * @return Data of the locations registered before this call, with their addresses
+   * @brief Assigns addresses to the locations
+   */
+  public List<MachineCodeLoader.Segment> initializeSegments()
+  {
+    List<MachineCodeLoader.Segment> segments = new ArrayList<>();
     // Second step - fill the memory values
     for (Symbol symbol : symbolTable.values())
     {
@@ -139,9 +153,9 @@ public class MemoryInitializer
       Symbol label   = symbolTable.get(memoryLocation.getName());
       long   address = label.getAddress();
       byte[] data    = memoryLocation.getBytes();
-      // Insert data into memory
-      memory.insertIntoMemory(address, data);
+      segments.add(new MachineCodeLoader.Segment(address, data));
     }
+    return segments;
   }
   
   /**
@@ -0,0 +1,202 @@
+/**
+ * @file ParsedProgram.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Program parsed once and loaded into any number of CPUs
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.code.CodeParser;
+import com.gradle.superscalarsim.code.MachineCodeLoader;
+import com.gradle.superscalarsim.code.Symbol;
+import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.loader.IDataProvider;
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The layout of the data depends on the size of the call stack, so a program can be shared by the runs with the same
+ * code, memory locations and call stack size. The program is not modified by the CPUs, each CPU links its own copy
+ * of the instructions to its registers (see {@link #link}), so a program can be shared across threads.
+ *
+ * @brief Program parsed and laid out in memory, ready to be loaded into a CPU
+ */
+public class ParsedProgram
+{
+  /**
+   * Instructions, the arguments refer to the registers of the parser
+   */
+  private final List<InputCodeModel> instructions;
+  
+  /**
+   * Labels of the code and the data
+   */
+  private final Map<String, Symbol> symbolTable;
+  
+  /**
+   * Initial content of the memory
+   */
+  private final List<MachineCodeLoader.Segment> segments;
+  
+  /**
+   * Size of the call stack the data was laid out for
+   */
+  private final int callStackSize;
+  
+  /**
+   * @param instructions  Instructions with filled immediate values
+   * @param symbolTable   Labels of the code and the data
+   * @param segments      Initial content of the memory
+   * @param callStackSize Size of the call stack the data was laid out for
+   */
+  public ParsedProgram(List<InputCodeModel> instructions,
+                       Map<String, Symbol> symbolTable,
+                       List<MachineCodeLoader.Segment> segments,
+                       int callStackSize)
+  {
+    this.instructions  = instructions;
+    this.symbolTable   = symbolTable;
+    this.segments      = segments;
+    this.callStackSize = callStackSize;
+  }
+  
+  /**
+   * @param codeParser    Parser that has parsed the code, with or without filling the immediate values
+   * @param callStackSize Size of the call stack
+   *
+   * @return The program of the parser. The parser must not be used for another program after this call.
+   * @throws IllegalStateException if the code has errors
+   * @brief Lays out the data of a parsed program and fills the immediate values
+   */
+  public static ParsedProgram fromParser(CodeParser codeParser, int callStackSize)
+  {
+    if (codeParser.hasErrors())
+    {
+      throw new IllegalStateException("Code parsing failed: " + codeParser.getErrorMessages());
+    }
+    // Parser now holds all memory locations, all labels, all errors
+    
+    // The layout is linked to the values of labels in code, so relocating the labels changes the values in code
+    MemoryInitializer memoryInitializer = new MemoryInitializer(128, callStackSize);
+    memoryInitializer.setSymbolTable(codeParser.getSymbolTable());
+    List<MachineCodeLoader.Segment> segments = memoryInitializer.initializeSegments();
+    
+    codeParser.fillImmediateValues();
+    if (codeParser.hasErrors())
+    {
+      throw new IllegalStateException("Code parsing failed: " + codeParser.getErrorMessages());
+    }
+    return new ParsedProgram(codeParser.getInstructions(), codeParser.getSymbolTable(), segments, callStackSize);
+  }
+  
+  /**
+   * @param config             Configuration with the code or the binary
+   * @param staticDataProvider Instruction and register definitions
+   *
+   * @return The parsed or loaded program
+   * @throws IllegalStateException    if the code has errors
+   * @throws IllegalArgumentException if the binary cannot be loaded
+   */
+  public static ParsedProgram parse(SimulationConfig config, IDataProvider staticDataProvider)
+  {
+    int callStackSize = config.cpuConfig.callStackSize;
+    if (config.binary != null)
+    {
+      // Machine code has its data at fixed addresses
+      MachineCodeLoader loader = new MachineCodeLoader(staticDataProvider);
+      loader.load(config.binary);
+      return new ParsedProgram(loader.getInstructions(), loader.getSymbolTable(), loader.getSegments(),
+                               callStackSize);
+    }
+    CodeParser codeParser = new CodeParser(staticDataProvider.getInstructionFunctionModels(),
+                                           staticDataProvider.getRegisterFile().getRegisterMap(true),
+                                           new InputCodeModelFactory(), config.memoryLocations);
+    codeParser.parseCode(config.code, false); // false to avoid duplicate work
+    return fromParser(codeParser, callStackSize);
+  }
+  
+  /**
+   * @param registerMap Registers of the CPU by name
+   * @param factory     Factory of the CPU
+   *
+   * @return Copy of the instructions with the register arguments pointing to the registers of the CPU
+   */
+  public List<InputCodeModel> link(Map<String, RegisterModel> registerMap, InputCodeModelFactory factory)
+  {
+    List<InputCodeModel> linked = new ArrayList<>(instructions.size());
+    for (InputCodeModel instruction : instructions)
+    {
+      List<InputCodeArgument> arguments = new ArrayList<>(instruction.arguments().size());
+      for (InputCodeArgument argument : instruction.arguments())
+      {
+        InputCodeArgument copy = new InputCodeArgument(argument);
+        if (argument.isRegister())
+        {
+          copy.setRegisterValue(registerMap.get(argument.getRegisterValue().getName()));
+        }
+        arguments.add(copy);
+      }
+      linked.add(factory.createInstance(instruction.instructionFunctionModel(), arguments, instruction.codeId(),
+                                        instruction.debugInfo()));
+    }
+    return linked;
+  }
+  
+  /**
+   * @return Instructions, the arguments refer to the registers of the parser
+   */
+  public List<InputCodeModel> getInstructions()
+  {
+    return instructions;
+  }
+  
+  /**
+   * @return Labels of the code and the data
+   */
+  public Map<String, Symbol> getSymbolTable()
+  {
+    return symbolTable;
+  }
+  
+  /**
+   * @return Initial content of the memory
+   */
+  public List<MachineCodeLoader.Segment> getSegments()
+  {
+    return segments;
+  }
+  
+  /**
+   * @return Size of the call stack the data was laid out for
+   */
+  public int getCallStackSize()
+  {
+    return callStackSize;
+  }
+}
@@ -0,0 +1,118 @@
+/**
+ * @file SimulationBudget.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cycle and wall-clock limits of a simulation run
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+/**
+ * @brief Limits of a single simulation run
+ * @details Protection against infinite loops and abandoned requests. A run stops when the tick exceeds the cycle budget,
+ * when the wall-clock deadline passes or when the cancellation token is cancelled.
+ * The cycle budget is checked every cycle, the clock and the token only every {@link #CHECK_INTERVAL} cycles.
+ * The deadline is counted from the creation of the budget.
+ */
+public class SimulationBudget
+{
+  /**
+   * Default cycle budget
+   */
+  public static final int DEFAULT_MAX_CYCLES = 1000000;
+  
+  /**
+   * Number of cycles between the checks of the clock and the token
+   */
+  public static final int CHECK_INTERVAL = 1024;
+  
+  /**
+   * Maximum tick of the simulation
+   */
+  private final long maxCycles;
+  
+  /**
+   * Deadline in {@link System#nanoTime()} units. Long.MAX_VALUE if there is no deadline.
+   */
+  private final long deadline;
+  
+  /**
+   * Token to poll. Can be null.
+   */
+  private final CancellationToken token;
+  
+  /**
+   * @param maxCycles Maximum tick of the simulation
+   * @param timeoutMs Wall-clock budget in milliseconds, 0 or less for no limit
+   * @param token     Cancellation token, can be null
+   */
+  public SimulationBudget(long maxCycles, long timeoutMs, CancellationToken token)
+  {
+    this.maxCycles = maxCycles;
+    this.deadline  = timeoutMs > 0 ? System.nanoTime() + timeoutMs * 1_000_000 : Long.MAX_VALUE;
+    this.token     = token;
+  }
+  
+  /**
+   * @brief Default cycle budget, no time limit, not cancellable
+   */
+  public SimulationBudget()
+  {
+    this(DEFAULT_MAX_CYCLES, 0, null);
+  }
+  
+  /**
+   * @param tick  Current tick of the simulation
+   * @param steps Number of steps done in the current run
+   *
+   * @return Reason to stop the simulation, or kNotStopped if the budget is not exhausted
+   */
+  public StopReason check(long tick, long steps)
+  {
+    if (tick > maxCycles)
+    {
+      return StopReason.kMaxCycles;
+    }
+    if (steps % CHECK_INTERVAL != 0)
+    {
+      return StopReason.kNotStopped;
+    }
+    if (token != null && token.isCancelled())
+    {
+      return StopReason.kCancelled;
+    }
+    if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0)
+    {
+      return StopReason.kTimeOut;
+    }
+    return StopReason.kNotStopped;
+  }
+  
+  /**
+   * @return Maximum tick of the simulation
+   */
+  public long getMaxCycles()
+  {
+    return maxCycles;
+  }
+}
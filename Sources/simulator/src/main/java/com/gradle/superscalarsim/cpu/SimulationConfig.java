@@ -28,13 +28,17 @@
 package com.gradle.superscalarsim.cpu;
 
 import com.gradle.superscalarsim.code.CodeParser;
+import com.gradle.superscalarsim.code.MachineCodeLoader;
+import com.gradle.superscalarsim.code.Symbol;
 import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.jfr.ValidationEvent;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
 import com.gradle.superscalarsim.models.FunctionalUnitDescription;
 import com.gradle.superscalarsim.models.instruction.InputCodeModel;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration for the simulation - code, memory, buffers, entry point etc.
@@ -48,6 +52,12 @@ public class SimulationConfig
    */
   public String code;
   
+  /**
+   * RISC-V machine code to run instead of {@link #code}, a flat binary or an ELF32 file (base64 in JSON).
+   * Skips the parsing of assembly, see {@link MachineCodeLoader}.
+   */
+  public byte[] binary;
+  
   /**
    * Memory locations defined outside the code.
    */
@@ -66,6 +76,18 @@ public class SimulationConfig
    */
   public Object entryPoint;
   
+  /**
+   * Maximum number of kept debug log messages, the oldest ones are dropped. 0 (the default) keeps all of them.
+   * A limit keeps the memory of a long run flat.
+   */
+  public int debugLogLimit;
+  
+  /**
+   * Fast-forward loops in a steady state functionally and extrapolate their statistics.
+   * Off by default, the statistics are then approximate.
+   */
+  public boolean extrapolateLoops;
+  
   /**
    * @brief Default constructor. Not useful, because it has no code.
    */
@@ -103,12 +125,10 @@ public class SimulationConfig
    */
   public ValidationResult validate()
   {
+    ValidationEvent event = new ValidationEvent();
+    event.begin();
     List<ConfigError> errorMessages = new ArrayList<>();
     
-    // Validate CPU config
-    CpuConfigValidator configValidator = new CpuConfigValidator();
-    configValidator.validate(cpuConfig);
-    
     // Add validation for memory locations and code
     
     if (code == null)
@@ -123,8 +143,23 @@ public class SimulationConfig
       memoryLocations = new ArrayList<>();
     }
     
-    // Safe to parse code
     StaticDataProvider provider = new StaticDataProvider();
+    if (binary != null)
+    {
+      MachineCodeLoader loader = new MachineCodeLoader(provider);
+      try
+      {
+        loader.load(binary);
+        validateSegments(loader.getSegments(), errorMessages);
+      }
+      catch (IllegalArgumentException e)
+      {
+        errorMessages.add(new ConfigError(e.getMessage(), "binary"));
+      }
+      return event.finish(validate(loader.getInstructions(), loader.getSymbolTable(), errorMessages), true);
+    }
+    
+    // Safe to parse code
     CodeParser codeParser = new CodeParser(provider.getInstructionFunctionModels(),
                                            provider.getRegisterFile().getRegisterMap(true), new InputCodeModelFactory(),
                                            memoryLocations);
@@ -135,6 +170,56 @@ public class SimulationConfig
       codeParser.getErrorMessages().forEach(e -> errorMessages.add(new ConfigError(e.message, "code")));
     }
     
+    return event.finish(validate(codeParser.getInstructions(), codeParser.getSymbolTable(), errorMessages), true);
+  }
+  
+  /**
+   * The stack is placed below the data of a parsed program, data of machine code has fixed addresses.
+   *
+   * @param segments      Data of the machine code
+   * @param errorMessages Errors found so far
+   */
+  private void validateSegments(List<MachineCodeLoader.Segment> segments, List<ConfigError> errorMessages)
+  {
+    long stackEnd = 128L + cpuConfig.callStackSize;
+    for (MachineCodeLoader.Segment segment : segments)
+    {
+      if (segment.address() < stackEnd)
+      {
+        errorMessages.add(new ConfigError("Data at address " + segment.address() + " overlaps the stack, which ends at "
+                                                  + stackEnd, "binary"));
+      }
+    }
+  }
+  
+  /**
+   * Skips parsing of the code, used when the code was parsed and checked just before (compiled C code).
+   *
+   * @param codeParser Parser that has parsed {@link #code} with {@link #memoryLocations}
+   *
+   * @brief Validate the configuration, except for the code
+   */
+  public ValidationResult validate(CodeParser codeParser)
+  {
+    ValidationEvent event = new ValidationEvent();
+    event.begin();
+    return event.finish(validate(codeParser.getInstructions(), codeParser.getSymbolTable(), new ArrayList<>()),
+                        false);
+  }
+  
+  /**
+   * @param instructions  Parsed or loaded instructions
+   * @param symbolTable   Labels of the code
+   * @param errorMessages Errors found so far
+   */
+  private ValidationResult validate(List<InputCodeModel> instructions,
+                                    Map<String, Symbol> symbolTable,
+                                    List<ConfigError> errorMessages)
+  {
+    // Validate CPU config
+    CpuConfigValidator configValidator = new CpuConfigValidator();
+    configValidator.validate(cpuConfig);
+    
     for (MemoryLocation memoryLocation : memoryLocations)
     {
       if (!memoryLocation.isValid())
@@ -143,11 +228,16 @@ public class SimulationConfig
       }
     }
     
+    if (debugLogLimit < 0)
+    {
+      errorMessages.add(new ConfigError("Debug log limit must not be negative", "debugLogLimit"));
+    }
+    
     // Check entry point
     if (entryPoint instanceof String)
     {
       // Check if label exists
-      if (!codeParser.getSymbolTable().containsKey(entryPoint))
+      if (!symbolTable.containsKey(entryPoint))
       {
         errorMessages.add(new ConfigError("Entry point label does not exist", "entryPoint"));
       }
@@ -160,7 +250,7 @@ public class SimulationConfig
       {
         errorMessages.add(new ConfigError("Entry point address must be greater than 0", "entryPoint"));
       }
-      int maxAddress = 4 * codeParser.getInstructions().size();
+      int maxAddress = 4 * instructions.size();
       if (entry > maxAddress)
       {
         errorMessages.add(new ConfigError("Entry point address must be pointing to a code", "entryPoint"));
@@ -177,7 +267,7 @@ public class SimulationConfig
     
     // Check if every instruction has a FU that can execute it
     outer:
-    for (InputCodeModel instruction : codeParser.getInstructions())
+    for (InputCodeModel instruction : instructions)
     {
       String interpretableAs = instruction.instructionFunctionModel().interpretableAs();
       FunctionalUnitDescription.CapabilityName capabilityName = FunctionalUnitDescription.classifyExpression(
@@ -210,6 +300,43 @@ public class SimulationConfig
     }
   }
   
+  /**
+   * The constants were measured on the default configuration, the estimate is within a factor of two.
+   * Safe to call on an invalid configuration.
+   *
+   * @return Rough estimate of the heap used by a CPU with this configuration, in bytes
+   * @brief Estimate the memory use of the simulation
+   */
+  public long estimateMemoryUsage()
+  {
+    long bytes = 128 * 1024;
+    if (code != null)
+    {
+      // Parsed instructions, statistics, labels
+      bytes += code.lines().count() * 1024;
+    }
+    if (binary != null)
+    {
+      // Loaded instructions, one per word
+      bytes += binary.length * 256L;
+    }
+    if (memoryLocations != null)
+    {
+      for (MemoryLocation memoryLocation : memoryLocations)
+      {
+        if (memoryLocation != null && memoryLocation.data != null)
+        {
+          bytes += memoryLocation.data.size() * 64L;
+        }
+      }
+    }
+    if (cpuConfig != null && cpuConfig.useCache)
+    {
+      bytes += 8L * Math.max(0, cpuConfig.cacheLines) * Math.max(0, cpuConfig.cacheLineSize);
+    }
+    return bytes;
+  }
+  
   public static class ValidationResult
   {
     public boolean valid;
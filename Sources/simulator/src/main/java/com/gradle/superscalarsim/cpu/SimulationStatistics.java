@@ -46,6 +46,22 @@ import java.util.Map;
 @JsonIdentityInfo(generator = ObjectIdGenerators.IntSequenceGenerator.class, property = "id")
 public class SimulationStatistics
 {
+  /**
+   * Position of the committed instructions in {@link #getCounters()}
+   */
+  public static final int COMMITTED_INSTRUCTIONS_COUNTER = 0;
+  /**
+   * Position of the clock cycles in {@link #getCounters()}
+   */
+  public static final int CLOCK_CYCLES_COUNTER = 1;
+  /**
+   * Number of counters before the per FU and per instruction ones in {@link #getCounters()}
+   */
+  private static final int GLOBAL_COUNTERS = 22;
+  /**
+   * Number of counters of an instruction in {@link #getCounters()}
+   */
+  private static final int INSTRUCTION_COUNTERS = 5;
   /**
    * Static instruction mix
    */
@@ -116,6 +132,10 @@ public class SimulationStatistics
    * Maximal number of allocated speculative registers
    */
   public int maxAllocatedRegisters;
+  /**
+   * Use of the loop extrapolation, null if it is off
+   */
+  public LoopExtrapolation loopExtrapolation;
   
   /**
    * @param instructionCount Number of instructions in the code. Use -1 if unknown.
@@ -304,6 +324,99 @@ public class SimulationStatistics
     this.flushedInstructions++;
   }// end of incrementFailedInstructions
   
+  /**
+   * The difference of two snapshots is the work done between them.
+   * The maximum of allocated registers and the loop extrapolation are not counters, so they are left out.
+   *
+   * @return All counters in a fixed order: the global ones, busy cycles of the FUs, then 5 per instruction
+   * @brief Takes a snapshot of the counters
+   */
+  public long[] getCounters()
+  {
+    long[] counters = new long[GLOBAL_COUNTERS + fuStats.size() + INSTRUCTION_COUNTERS * instructionStats.size()];
+    long[] global = {committedInstructions, clockCycles, flushedInstructions, robFlushes, correctlyPredictedBranches,
+                     conditionalBranches, takenBranches, mainMemoryLoadedBytes, mainMemoryStoredBytes,
+                     dynamicInstructionMix.intArithmetic, dynamicInstructionMix.floatArithmetic,
+                     dynamicInstructionMix.memory, dynamicInstructionMix.branch, dynamicInstructionMix.other,
+                     cache.readAccesses, cache.writeAccesses, cache.hits, cache.misses, cache.totalDelay,
+                     cache.bytesWritten, cache.bytesRead, cache.writebacks};
+    System.arraycopy(global, 0, counters, 0, GLOBAL_COUNTERS);
+    int i = GLOBAL_COUNTERS;
+    for (FUStats fu : fuStats.values())
+    {
+      counters[i++] = fu.busyCycles;
+    }
+    for (InstructionStats instruction : instructionStats)
+    {
+      counters[i++] = instruction.committedCount;
+      counters[i++] = instruction.decoded;
+      counters[i++] = instruction.correctlyPredicted;
+      counters[i++] = instruction.cacheHits == null ? 0 : instruction.cacheHits;
+      counters[i++] = instruction.memoryAccesses == null ? 0 : instruction.memoryAccesses;
+    }
+    return counters;
+  }
+  
+  /**
+   * @param counters Counters in the order of {@link #getCounters()}
+   *
+   * @brief Overwrites all counters
+   */
+  public void setCounters(long[] counters)
+  {
+    committedInstructions                 = counters[0];
+    clockCycles                           = counters[1];
+    flushedInstructions                   = counters[2];
+    robFlushes                            = counters[3];
+    correctlyPredictedBranches            = counters[4];
+    conditionalBranches                   = counters[5];
+    takenBranches                         = counters[6];
+    mainMemoryLoadedBytes                 = counters[7];
+    mainMemoryStoredBytes                 = counters[8];
+    dynamicInstructionMix.intArithmetic   = counters[9];
+    dynamicInstructionMix.floatArithmetic = counters[10];
+    dynamicInstructionMix.memory          = counters[11];
+    dynamicInstructionMix.branch          = counters[12];
+    dynamicInstructionMix.other           = counters[13];
+    cache.readAccesses                    = counters[14];
+    cache.writeAccesses                   = counters[15];
+    cache.hits                            = counters[16];
+    cache.misses                          = counters[17];
+    cache.totalDelay                      = counters[18];
+    cache.bytesWritten                    = counters[19];
+    cache.bytesRead                       = counters[20];
+    cache.writebacks                      = counters[21];
+    int i = GLOBAL_COUNTERS;
+    for (FUStats fu : fuStats.values())
+    {
+      fu.busyCycles = counters[i++];
+    }
+    for (InstructionStats instruction : instructionStats)
+    {
+      instruction.committedCount     = counters[i++];
+      instruction.decoded            = counters[i++];
+      instruction.correctlyPredicted = counters[i++];
+      // Null marks a non-memory instruction
+      long cacheHits      = counters[i++];
+      long memoryAccesses = counters[i++];
+      if (instruction.memoryAccesses != null || memoryAccesses != 0)
+      {
+        instruction.cacheHits      = cacheHits;
+        instruction.memoryAccesses = memoryAccesses;
+      }
+    }
+  }
+  
+  /**
+   * @param instruction Index of the instruction in the code
+   *
+   * @return Position of the committed count of the instruction in {@link #getCounters()}
+   */
+  public int getCommittedCountIndex(int instruction)
+  {
+    return GLOBAL_COUNTERS + fuStats.size() + INSTRUCTION_COUNTERS * instruction;
+  }
+  
   /**
    * @return Number of committed instructions
    * @brief Get number of committed instructions
@@ -422,33 +535,37 @@ public class SimulationStatistics
     /**
      * Counter for how many times cache has been accessed for read.
      */
-    private int readAccesses;
+    private long readAccesses;
     /**
      * Counter for how many times cache has been accessed for write.
      */
-    private int writeAccesses;
+    private long writeAccesses;
     /**
      * Counter for the number of cache hits.
      */
-    private int hits;
+    private long hits;
     /**
      * Counter for the number of cache misses.
      * Misaligned access that causes to load 2 cache lines counts as a single miss.
      */
-    private int misses;
+    private long misses;
     /**
      * Counter for the total delay caused by cache accesses.
      * TODO
      */
-    private int totalDelay;
+    private long totalDelay;
     /**
      * Number of bytes written to cache
      */
-    private int bytesWritten;
+    private long bytesWritten;
     /**
      * Number of bytes read from cache
      */
-    private int bytesRead;
+    private long bytesRead;
+    /**
+     * Number of dirty lines written back to main memory when they were replaced
+     */
+    private long writebacks;
     
     /**
      * @brief Constructor
@@ -457,12 +574,12 @@ public class SimulationStatistics
     {
     }
     
-    public int getHits()
+    public long getHits()
     {
       return hits;
     }
     
-    public int getMisses()
+    public long getMisses()
     {
       return misses;
     }
@@ -473,7 +590,7 @@ public class SimulationStatistics
     @JsonProperty("hitRate")
     public double getHitRate()
     {
-      int all = hits + misses;
+      long all = hits + misses;
       if (all == 0)
       {
         return 0;
@@ -481,22 +598,22 @@ public class SimulationStatistics
       return (double) hits / all;
     }
     
-    public int getReadAccesses()
+    public long getReadAccesses()
     {
       return readAccesses;
     }
     
-    public int getWriteAccesses()
+    public long getWriteAccesses()
     {
       return writeAccesses;
     }
     
-    public int getBytesWritten()
+    public long getBytesWritten()
     {
       return bytesWritten;
     }
     
-    public int getBytesRead()
+    public long getBytesRead()
     {
       return bytesRead;
     }
@@ -527,15 +644,56 @@ public class SimulationStatistics
     {
       totalDelay += delay;
     }
+    
+    public long getWritebacks()
+    {
+      return writebacks;
+    }
+    
+    public void incrementWritebacks()
+    {
+      writebacks++;
+    }
+  }
+  
+  /**
+   * @brief Use of the loop extrapolation (see {@link com.gradle.superscalarsim.steadystate.LoopAccelerator})
+   */
+  public static class LoopExtrapolation
+  {
+    /**
+     * Number of times a loop was fast-forwarded
+     */
+    public long fastForwards;
+    /**
+     * Loop periods executed functionally, their statistics are extrapolated
+     */
+    public long periods;
+    /**
+     * Cycles added by the extrapolation
+     */
+    public long cycles;
+    /**
+     * Committed instructions added by the extrapolation
+     */
+    public long instructions;
+    /**
+     * Fast-forwards stopped because the control flow left the path of the period (usually the exit of the loop)
+     */
+    public long controlFlowBreaks;
+    /**
+     * Fast-forwards stopped because the cache hits and misses of a period differed from the first period
+     */
+    public long memoryPatternBreaks;
   }
   
   public static class InstructionMix
   {
-    public int intArithmetic;
-    public int floatArithmetic;
-    public int memory;
-    public int branch;
-    public int other;
+    public long intArithmetic;
+    public long floatArithmetic;
+    public long memory;
+    public long branch;
+    public long other;
     
     public void increment(InstructionTypeEnum type)
     {
@@ -554,7 +712,7 @@ public class SimulationStatistics
     /**
      * The number of cycles that the FU was busy.
      */
-    public int busyCycles;
+    public long busyCycles;
     
     /**
      * @brief Constructor
@@ -578,29 +736,29 @@ public class SimulationStatistics
     /**
      * The number of cycles that instruction was committed.
      */
-    public int committedCount;
+    public long committedCount;
     
     /**
      * The number of times that instruction was decoded.
      */
-    public int decoded;
+    public long decoded;
     /**
      * The number of times that the (jump) instruction was correctly predicted.
      * Zero for all other instructions.
      * The number of times that the (jump) instruction was incorrectly predicted can be calculated as (committedCount - correctlyPredicted).
      */
-    public int correctlyPredicted;
+    public long correctlyPredicted;
     /**
      * Cache hits of this instruction. Zero for all non-memory instructions.
      * Cache misses of this instruction can be calculated as (memoryAccesses - cacheHits).
      * Misaligned access that causes to load 2 cache lines counts as a single miss.
      * Null if the instruction is not a memory instruction.
      */
-    public Integer cacheHits;
+    public Long cacheHits;
     /**
      * Memory Access count. Null for non-memory instructions.
      */
-    public Integer memoryAccesses;
+    public Long memoryAccesses;
     
     /**
      * Constructor
@@ -641,11 +799,11 @@ public class SimulationStatistics
       // Init
       if (memoryAccesses == null)
       {
-        memoryAccesses = 0;
+        memoryAccesses = 0L;
       }
       if (cacheHits == null)
       {
-        cacheHits = 0;
+        cacheHits = 0L;
       }
       
       this.memoryAccesses++;
@@ -658,7 +816,7 @@ public class SimulationStatistics
     /**
      * @return Cache misses
      */
-    public Integer getCacheMisses()
+    public Long getCacheMisses()
     {
       if (memoryAccesses == null || cacheHits == null)
       {
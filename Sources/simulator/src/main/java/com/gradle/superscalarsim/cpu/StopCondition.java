@@ -0,0 +1,155 @@
+/**
+ * @file StopCondition.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Condition that stops a simulation
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+/**
+ * Part of a /simulate request. The fields used depend on the type, the rest is ignored.
+ * Event conditions (commits, writes, flushes, misses) fire in the cycle of the event,
+ * the register condition fires when its predicate becomes true.
+ *
+ * @brief Condition that stops the simulation, checked after every cycle
+ * @see StopConditionMonitor
+ */
+public class StopCondition
+{
+  /**
+   * What the condition watches
+   */
+  public Type type;
+  
+  /**
+   * Address of the instruction for kPc, start of the watched range for kMemoryWrite
+   */
+  public long address;
+  
+  /**
+   * Instruction label for kLabel, data label for kMemoryWrite (used instead of the address if set)
+   */
+  public String label;
+  
+  /**
+   * Commits of the instruction for kPc and kLabel, committed instructions for kCommits. Counted from the start of
+   * the simulation.
+   */
+  public long count = 1;
+  
+  /**
+   * Size of the watched range in bytes for kMemoryWrite. 0 for the size of the labelled data, or one byte.
+   */
+  public int size;
+  
+  /**
+   * Architectural register for kRegister, e.g. x10 or a0
+   */
+  public String register;
+  
+  /**
+   * Comparison of the register with the value: ==, !=, &lt;, &lt;=, &gt;, &gt;=
+   */
+  public String operator = "==";
+  
+  /**
+   * Value the register is compared with, as a signed 64-bit integer
+   */
+  public long value;
+  
+  public StopCondition()
+  {
+  }
+  
+  /**
+   * @param type    What the condition watches
+   * @param address Instruction address or start of the watched range
+   * @param count   Number of commits
+   *
+   * @brief Constructor of the address and count conditions
+   */
+  public StopCondition(Type type, long address, long count)
+  {
+    this.type    = type;
+    this.address = address;
+    this.count   = count;
+  }
+  
+  /**
+   * @param register Architectural register
+   * @param operator Comparison
+   * @param value    Compared value
+   *
+   * @brief Constructor of a kRegister condition
+   */
+  public StopCondition(String register, String operator, long value)
+  {
+    this.type     = Type.kRegister;
+    this.register = register;
+    this.operator = operator;
+    this.value    = value;
+  }
+  
+  /**
+   * @param type What the condition watches
+   *
+   * @brief Constructor of the conditions without parameters (kFlush, kCacheMiss)
+   */
+  public StopCondition(Type type)
+  {
+    this.type = type;
+  }
+  
+  public enum Type
+  {
+    /**
+     * The instruction at the address committed for the count-th time
+     */
+    kPc,
+    /**
+     * The instruction at the label committed for the count-th time
+     */
+    kLabel,
+    /**
+     * The architectural register satisfies the comparison
+     */
+    kRegister,
+    /**
+     * A committed store wrote into the range
+     */
+    kMemoryWrite,
+    /**
+     * The count-th instruction committed
+     */
+    kCommits,
+    /**
+     * The ROB flushed (a misprediction or a memory ordering violation)
+     */
+    kFlush,
+    /**
+     * The cache missed
+     */
+    kCacheMiss
+  }
+}
@@ -0,0 +1,293 @@
+/**
+ * @file StopConditionMonitor.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Evaluation of stop conditions
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.blocks.base.ReorderBufferBlock;
+import com.gradle.superscalarsim.cachetrace.MemoryAccessListener;
+import com.gradle.superscalarsim.code.Symbol;
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+
+import java.util.List;
+
+/**
+ * The conditions are resolved (labels, registers) against one CPU state. The monitor receives the committed stores
+ * from the ROB, the previous listener of the ROB still gets them.
+ *
+ * @brief Evaluates stop conditions inside the simulation loop
+ */
+public class StopConditionMonitor implements MemoryAccessListener
+{
+  private final CpuState cpuState;
+  
+  private final List<StopCondition> conditions;
+  
+  /**
+   * Resolved address of each condition: instruction index for kPc and kLabel, start of the range for kMemoryWrite
+   */
+  private final long[] resolved;
+  
+  /**
+   * End of the range of each kMemoryWrite condition, exclusive
+   */
+  private final long[] rangeEnd;
+  
+  /**
+   * Watched value of each condition at the previous check
+   */
+  private final long[] previous;
+  
+  /**
+   * Registers of the kRegister conditions
+   */
+  private final RegisterModel[] registers;
+  
+  /**
+   * Receives the accesses before this monitor, null if nobody did
+   */
+  private final MemoryAccessListener nextListener;
+  
+  /**
+   * First kMemoryWrite condition hit by a store since the last check, -1 if none
+   */
+  private int writtenCondition = -1;
+  
+  /**
+   * Conditions fire only after this tick
+   */
+  private final long fromTick;
+  
+  /**
+   * @param conditions Conditions, their index is reported when they fire
+   * @param cpuState   State to watch
+   * @param fromTick   Conditions fire only in later ticks, so a client can continue past a fired condition
+   *
+   * @throws IllegalArgumentException if a condition is incomplete or refers to a missing label or register
+   */
+  public StopConditionMonitor(List<StopCondition> conditions, CpuState cpuState, long fromTick)
+  {
+    this.cpuState   = cpuState;
+    this.conditions = conditions;
+    this.fromTick   = fromTick;
+    this.resolved   = new long[conditions.size()];
+    this.rangeEnd   = new long[conditions.size()];
+    this.previous   = new long[conditions.size()];
+    this.registers  = new RegisterModel[conditions.size()];
+    boolean watchesMemory = false;
+    for (int i = 0; i < conditions.size(); i++)
+    {
+      resolve(i, conditions.get(i));
+      watchesMemory |= conditions.get(i).type == StopCondition.Type.kMemoryWrite;
+    }
+    
+    ReorderBufferBlock reorderBuffer = cpuState.reorderBufferBlock;
+    this.nextListener = reorderBuffer.getMemoryAccessListener();
+    if (watchesMemory)
+    {
+      reorderBuffer.setMemoryAccessListener(this);
+    }
+    for (int i = 0; i < conditions.size(); i++)
+    {
+      previous[i] = watchedValue(i);
+    }
+  }
+  
+  private void resolve(int i, StopCondition condition)
+  {
+    if (condition.type == null)
+    {
+      throw new IllegalArgumentException("Stop condition " + i + " has no type");
+    }
+    int codeSize = cpuState.instructionMemoryBlock.getCode().size();
+    switch (condition.type)
+    {
+      case kPc ->
+      {
+        if (condition.address < 0 || condition.address % 4 != 0 || condition.address / 4 >= codeSize)
+        {
+          throw new IllegalArgumentException("Stop condition " + i + ": no instruction at " + condition.address);
+        }
+        resolved[i] = condition.address / 4;
+      }
+      case kLabel ->
+      {
+        Symbol symbol = cpuState.instructionMemoryBlock.getLabels().get(condition.label);
+        if (symbol == null || symbol.getMemoryLocation() != null)
+        {
+          throw new IllegalArgumentException("Stop condition " + i + ": label " + condition.label + " not found");
+        }
+        resolved[i] = symbol.getAddress() / 4;
+      }
+      case kRegister ->
+      {
+        RegisterModel register = condition.register == null ? null : cpuState.unifiedRegisterFileBlock.getRegister(
+                condition.register);
+        if (register == null || register.isSpeculative())
+        {
+          throw new IllegalArgumentException(
+                  "Stop condition " + i + ": architectural register " + condition.register + " not found");
+        }
+        if (!List.of("==", "!=", "<", "<=", ">", ">=").contains(condition.operator))
+        {
+          throw new IllegalArgumentException("Stop condition " + i + ": unknown operator " + condition.operator);
+        }
+        registers[i] = register;
+      }
+      case kMemoryWrite ->
+      {
+        int size = condition.size;
+        resolved[i] = condition.address;
+        if (condition.label != null)
+        {
+          Symbol symbol = cpuState.instructionMemoryBlock.getLabels().get(condition.label);
+          if (symbol == null || symbol.getMemoryLocation() == null)
+          {
+            throw new IllegalArgumentException("Stop condition " + i + ": data " + condition.label + " not found");
+          }
+          resolved[i] = symbol.getAddress();
+          if (size == 0)
+          {
+            size = symbol.getMemoryLocation().getByteSize();
+          }
+        }
+        if (size < 0)
+        {
+          throw new IllegalArgumentException("Stop condition " + i + ": size must not be negative");
+        }
+        rangeEnd[i] = resolved[i] + Math.max(size, 1);
+      }
+      case kCommits, kFlush ->
+      {
+        // Nothing to resolve
+      }
+      case kCacheMiss ->
+      {
+        if (cpuState.cache == null)
+        {
+          throw new IllegalArgumentException("Stop condition " + i + ": the CPU has no cache");
+        }
+      }
+    }
+  }
+  
+  /**
+   * @return Index of the first condition that fired in the last cycle, -1 if none
+   */
+  public int check()
+  {
+    int fired = writtenCondition;
+    writtenCondition = -1;
+    for (int i = 0; i < conditions.size(); i++)
+    {
+      StopCondition condition = conditions.get(i);
+      long          before    = previous[i];
+      long          now       = watchedValue(i);
+      previous[i] = now;
+      boolean firedNow = switch (condition.type)
+      {
+        case kPc, kLabel -> now > before && now >= condition.count;
+        case kCommits -> before < condition.count && now >= condition.count;
+        case kRegister -> before == 0 && now == 1;
+        case kFlush, kCacheMiss -> now > before;
+        case kMemoryWrite -> false;
+      };
+      if (firedNow && (fired == -1 || i < fired))
+      {
+        fired = i;
+      }
+    }
+    return cpuState.tick > fromTick ? fired : -1;
+  }
+  
+  /**
+   * @return The value compared between checks. For the register condition, 1 if the predicate holds, 0 otherwise.
+   */
+  private long watchedValue(int i)
+  {
+    StopCondition        condition  = conditions.get(i);
+    SimulationStatistics statistics = cpuState.statistics;
+    return switch (condition.type)
+    {
+      case kPc, kLabel -> statistics.instructionStats.get((int) resolved[i]).committedCount;
+      case kCommits -> statistics.committedInstructions;
+      case kRegister -> compare((long) registers[i].getValue(DataTypeEnum.kLong), condition) ? 1 : 0;
+      case kFlush -> statistics.robFlushes;
+      case kCacheMiss -> statistics.cache.getMisses();
+      case kMemoryWrite -> 0;
+    };
+  }
+  
+  private static boolean compare(long registerValue, StopCondition condition)
+  {
+    return switch (condition.operator)
+    {
+      case "==" -> registerValue == condition.value;
+      case "!=" -> registerValue != condition.value;
+      case "<" -> registerValue < condition.value;
+      case "<=" -> registerValue <= condition.value;
+      case ">" -> registerValue > condition.value;
+      default -> registerValue >= condition.value;
+    };
+  }
+  
+  /**
+   * @brief Marks the kMemoryWrite conditions hit by a committed store
+   */
+  @Override
+  public void onCommittedAccess(long address, int size, boolean isStore)
+  {
+    if (nextListener != null)
+    {
+      nextListener.onCommittedAccess(address, size, isStore);
+    }
+    if (!isStore)
+    {
+      return;
+    }
+    for (int i = 0; i < conditions.size(); i++)
+    {
+      boolean watched  = conditions.get(i).type == StopCondition.Type.kMemoryWrite;
+      boolean overlaps = address < rangeEnd[i] && address + size > resolved[i];
+      if (watched && overlaps && (writtenCondition == -1 || i < writtenCondition))
+      {
+        writtenCondition = i;
+      }
+    }
+  }
+  
+  /**
+   * @brief Gives the memory accesses back to the previous listener of the ROB
+   */
+  public void detach()
+  {
+    if (cpuState.reorderBufferBlock.getMemoryAccessListener() == this)
+    {
+      cpuState.reorderBufferBlock.setMemoryAccessListener(nextListener);
+    }
+  }
+}
@@ -50,9 +50,17 @@ public enum StopReason
    */
   kMaxCycles,
   /**
-   * Simulation stopped because the maximum time was reached (Protection against infinite loops).
+   * Simulation stopped because the wall-clock budget was exhausted (Protection against infinite loops).
    */
   kTimeOut,
+  /**
+   * Simulation stopped because it was cancelled (the client went away or the request timed out).
+   */
+  kCancelled,
+  /**
+   * Simulation stopped because a stop condition of the request fired (see {@link Cpu#firedCondition}).
+   */
+  kStopCondition,
   /**
    * Simulation did not even start, because of a bad configuration.
    */
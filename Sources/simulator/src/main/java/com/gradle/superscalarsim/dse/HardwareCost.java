@@ -0,0 +1,115 @@
+/**
+ * @file HardwareCost.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Rough hardware cost of a CPU configuration
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.dse;
+
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.models.FunctionalUnitDescription;
+
+/**
+ * @brief A rough, unit-less hardware cost of a CPU configuration, to weigh performance against
+ * @details The cost adds up the storage and logic the configuration asks for, with fixed weights: one unit is about
+ * a ROB entry. It is meant for ranking the points of a sweep, not for estimating area.
+ */
+public class HardwareCost
+{
+  /**
+   * Cost of a ROB, load buffer or store buffer entry
+   */
+  public static final double BUFFER_ENTRY = 1;
+  
+  /**
+   * Cost of a speculative register
+   */
+  public static final double REGISTER = 0.25;
+  
+  /**
+   * Cost of one instruction of fetch or commit width
+   */
+  public static final double WIDTH = 16;
+  
+  /**
+   * Cost of a cache line per 32 bytes of data, plus {@link #CACHE_TAG} for its tag
+   */
+  public static final double CACHE_DATA = 1;
+  
+  public static final double CACHE_TAG = 1;
+  
+  /**
+   * Cost of a way of associativity (comparators)
+   */
+  public static final double CACHE_WAY = 4;
+  
+  /**
+   * Cost of a bit of a PHT predictor
+   */
+  public static final double PHT_BIT = 1 / 64.0;
+  
+  /**
+   * Cost of a BTB entry
+   */
+  public static final double BTB_ENTRY = 1 / 8.0;
+  
+  /**
+   * @param config CPU configuration
+   *
+   * @return Cost of the configuration
+   */
+  public static double of(CpuConfig config)
+  {
+    double cost = config.robSize * BUFFER_ENTRY;
+    cost += (config.lbSize + config.sbSize) * BUFFER_ENTRY;
+    cost += config.speculativeRegisters * REGISTER;
+    cost += (config.fetchWidth + config.commitWidth) * WIDTH;
+    for (FunctionalUnitDescription unit : config.fUnits)
+    {
+      cost += unitCost(unit.fuType);
+    }
+    if (config.useCache)
+    {
+      cost += config.cacheLines * (config.cacheLineSize / 32.0 * CACHE_DATA + CACHE_TAG);
+      cost += config.cacheAssoc * CACHE_WAY;
+    }
+    cost += config.phtSize * config.predictorType.getWidth() * PHT_BIT;
+    cost += config.btbSize * BTB_ENTRY;
+    return cost;
+  }
+  
+  /**
+   * @return Cost of a functional unit, floating point units are the largest
+   */
+  public static double unitCost(FunctionalUnitDescription.Type type)
+  {
+    return switch (type)
+    {
+      case FX -> 20;
+      case FP -> 40;
+      case L_S, Branch -> 10;
+      case Memory -> 15;
+    };
+  }
+}
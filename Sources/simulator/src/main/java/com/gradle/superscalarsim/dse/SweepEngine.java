@@ -0,0 +1,306 @@
+/**
+ * @file SweepEngine.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Parallel design-space sweep with memoization and pruning
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.dse;
+
+import com.gradle.superscalarsim.code.CodeParser;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.ParsedProgram;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.loader.IDataProvider;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @brief Simulates the points of a design space in parallel and finds the Pareto front of IPC against cost
+ * @details The program is parsed once and its parse validates every configuration. The memory layout depends on the
+ * call stack size, so the program is laid out once per call stack size and the points with that size share the
+ * layout. The instruction set and register definitions come from one {@link StaticDataProvider}.
+ * <p>
+ * Results are memoized by the hash of the run (program, memory, entry point, cycle budget and configuration), so
+ * a point seen before, in this sweep or in an earlier one sharing the memo, is not simulated again.
+ * <p>
+ * With a warm-up, every point is first simulated for the warm-up cycles. A point is pruned when another point is not
+ * more expensive and has a warm-up IPC higher by the prune margin: it would not be on the Pareto front unless its
+ * IPC changed a lot after the warm-up. The remaining points run to the end. Their CPUs are kept between the two
+ * phases, so a sweep with a warm-up holds the state of all its points in memory at once.
+ */
+public class SweepEngine
+{
+  private final IDataProvider dataProvider = new StaticDataProvider();
+  
+  private final int threads;
+  
+  /**
+   * Cycle budget of one point
+   */
+  private final long maxCycles;
+  
+  /**
+   * Cycles simulated before pruning, 0 to not prune
+   */
+  private final long warmupCycles;
+  
+  /**
+   * How much better (relative IPC) a point must be to prune another one
+   */
+  private final double pruneMargin;
+  
+  /**
+   * Results of complete runs by their hash. Read and written by the calling thread only.
+   */
+  private final Map<String, SweepResult> memo;
+  
+  /**
+   * @param threads      Number of points simulated in parallel
+   * @param maxCycles    Cycle budget of one point
+   * @param warmupCycles Cycles simulated before pruning, 0 to not prune
+   * @param pruneMargin  Relative IPC advantage needed to prune a point (0.1 for 10 %)
+   * @param memo         Memoized results, updated with the new ones
+   */
+  public SweepEngine(int threads, long maxCycles, long warmupCycles, double pruneMargin, Map<String, SweepResult> memo)
+  {
+    this.threads      = threads;
+    this.maxCycles    = maxCycles;
+    this.warmupCycles = warmupCycles;
+    this.pruneMargin  = pruneMargin;
+    this.memo         = memo;
+  }
+  
+  /**
+   * @param code       ASM program
+   * @param memory     Memory configuration
+   * @param entryPoint Entry point of the program (label or address)
+   * @param points     Points of the design space
+   *
+   * @return A result per point, in the order of the points
+   * @throws IllegalArgumentException If the program does not parse
+   */
+  public List<SweepResult> run(String code,
+                               List<MemoryLocation> memory,
+                               Object entryPoint,
+                               List<SweepPoint> points) throws InterruptedException
+  {
+    CodeParser parser = new CodeParser(dataProvider.getInstructionFunctionModels(),
+                                       dataProvider.getRegisterFile().getRegisterMap(true),
+                                       new InputCodeModelFactory(), memory);
+    parser.parseCode(code);
+    if (parser.hasErrors())
+    {
+      throw new IllegalArgumentException("Code parsing failed: " + parser.getErrorMessages());
+    }
+    String programHash = Serialization.canonicalHash(
+            Map.of("code", code, "memory", memory, "entryPoint", entryPoint.toString(), "maxCycles", maxCycles));
+    
+    List<SweepResult>           results = new ArrayList<>();
+    List<PointRun>              runs    = new ArrayList<>();
+    Map<Integer, ParsedProgram> layouts = new HashMap<>();
+    for (SweepPoint point : points)
+    {
+      SweepResult result = new SweepResult(point);
+      result.cost = HardwareCost.of(point.config);
+      result.hash = Serialization.canonicalHash(List.of(programHash, point.getConfigHash()));
+      results.add(result);
+      
+      SweepResult memoized = memo.get(result.hash);
+      if (memoized != null)
+      {
+        copyRun(memoized, result);
+        result.status = SweepResult.Status.kMemoized;
+        continue;
+      }
+      SimulationConfig                  config     = new SimulationConfig(code, memory, point.config, entryPoint);
+      SimulationConfig.ValidationResult validation = config.validate(parser);
+      if (!validation.valid)
+      {
+        result.status = SweepResult.Status.kError;
+        result.error  = validation.toString();
+        continue;
+      }
+      ParsedProgram program = layouts.computeIfAbsent(point.config.callStackSize,
+                                                      size -> ParsedProgram.parse(config, dataProvider));
+      runs.add(new PointRun(config, program, result));
+    }
+    
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try
+    {
+      if (warmupCycles > 0)
+      {
+        pool.submit(() -> runs.parallelStream().forEach(run -> run.simulate(warmupCycles))).get();
+        for (PointRun run : runs)
+        {
+          run.result.warmupIpc = run.cpu.cpuState.statistics.getIpc();
+        }
+        prune(runs);
+      }
+      pool.submit(() -> runs.parallelStream().filter(run -> run.result.status != SweepResult.Status.kPruned)
+              .forEach(run -> run.simulate(Long.MAX_VALUE))).get();
+    }
+    catch (ExecutionException e)
+    {
+      throw new IllegalStateException(e.getCause());
+    }
+    finally
+    {
+      pool.shutdown();
+    }
+    
+    for (PointRun run : runs)
+    {
+      if (run.result.status == SweepResult.Status.kSimulated)
+      {
+        run.finish();
+        memo.put(run.result.hash, run.result);
+      }
+    }
+    markParetoFront(results);
+    return results;
+  }
+  
+  /**
+   * Marks the unfinished points that another point clearly dominates after the warm-up. Their CPUs are released.
+   */
+  private void prune(List<PointRun> runs)
+  {
+    for (PointRun run : runs)
+    {
+      if (run.cpu.stopReason != StopReason.kNotStopped)
+      {
+        // Already complete
+        continue;
+      }
+      for (PointRun other : runs)
+      {
+        if (other != run && other.result.cost <= run.result.cost
+                && other.result.warmupIpc > run.result.warmupIpc * (1 + pruneMargin))
+        {
+          run.result.status = SweepResult.Status.kPruned;
+          break;
+        }
+      }
+    }
+    for (PointRun run : runs)
+    {
+      if (run.result.status == SweepResult.Status.kPruned)
+      {
+        run.result.clockCycles = run.cpu.cpuState.statistics.clockCycles;
+        run.result.stopReason  = run.cpu.stopReason;
+        run.cpu                = null;
+      }
+    }
+  }
+  
+  /**
+   * Sets {@link SweepResult#paretoOptimal} of the complete results: no other has a lower or equal cost and a higher or
+   * equal IPC (with one of them strictly better). Of equal points, only the first is marked.
+   *
+   * @param results Results of a sweep
+   */
+  public static void markParetoFront(List<SweepResult> results)
+  {
+    List<SweepResult> complete = new ArrayList<>(results.stream().filter(SweepResult::isComplete).toList());
+    complete.sort(Comparator.comparingDouble((SweepResult result) -> result.cost)
+                          .thenComparing(Comparator.comparingDouble((SweepResult result) -> result.ipc).reversed()));
+    double bestIpc = Double.NEGATIVE_INFINITY;
+    for (SweepResult result : complete)
+    {
+      result.paretoOptimal = result.ipc > bestIpc;
+      bestIpc              = Math.max(bestIpc, result.ipc);
+    }
+  }
+  
+  private static void copyRun(SweepResult from, SweepResult to)
+  {
+    to.ipc                   = from.ipc;
+    to.warmupIpc             = from.warmupIpc;
+    to.clockCycles           = from.clockCycles;
+    to.committedInstructions = from.committedInstructions;
+    to.stopReason            = from.stopReason;
+  }
+  
+  /**
+   * @brief Simulation of one point, kept between the warm-up and the rest of the run
+   */
+  private class PointRun
+  {
+    final SimulationConfig config;
+    
+    /**
+     * Program laid out for the call stack size of the point, shared with the other points of that size
+     */
+    final ParsedProgram program;
+    
+    final SweepResult result;
+    
+    Cpu cpu;
+    
+    PointRun(SimulationConfig config, ParsedProgram program, SweepResult result)
+    {
+      this.config  = config;
+      this.program = program;
+      this.result  = result;
+    }
+    
+    /**
+     * @param targetTick Tick to stop at, the run also stops at the end of the program or the cycle budget
+     */
+    void simulate(long targetTick)
+    {
+      long start = System.nanoTime();
+      if (cpu == null)
+      {
+        cpu = new Cpu(config, dataProvider, program);
+      }
+      cpu.simulateState(targetTick, new SimulationBudget(maxCycles, 0, null));
+      result.timeMs += (System.nanoTime() - start) / 1_000_000;
+    }
+    
+    void finish()
+    {
+      SimulationStatistics statistics = cpu.cpuState.statistics;
+      result.ipc                   = statistics.getIpc();
+      result.clockCycles           = statistics.clockCycles;
+      result.committedInstructions = statistics.getCommittedInstructions();
+      result.stopReason            = cpu.stopReason;
+      cpu                          = null;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/**
+ * @file SweepPoint.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief One point of a design space
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.dse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * @brief One point of a design space: the parameter values and the configuration they make
+ */
+public class SweepPoint
+{
+  /**
+   * Parameter name to its value at this point
+   */
+  public final Map<String, JsonNode> values;
+  
+  public final CpuConfig config;
+  
+  public SweepPoint(Map<String, JsonNode> values, CpuConfig config)
+  {
+    this.values = values;
+    this.config = config;
+  }
+  
+  /**
+   * @return The parameter values as {@code name=value} pairs, e.g. {@code robSize=64 fUnits.FX=2}
+   */
+  public String getName()
+  {
+    return values.entrySet().stream().map(value -> value.getKey() + "=" + value.getValue())
+            .collect(Collectors.joining(" "));
+  }
+  
+  /**
+   * The name of the configuration is not part of the hash, equal configurations from different files have the same
+   * hash.
+   *
+   * @return Hash of the configuration
+   */
+  public String getConfigHash()
+  {
+    ObjectNode node = Serialization.getSerializer().valueToTree(config);
+    node.remove("name");
+    return Serialization.canonicalHash(node);
+  }
+}
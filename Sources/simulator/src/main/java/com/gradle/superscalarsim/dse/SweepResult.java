@@ -0,0 +1,130 @@
+/**
+ * @file SweepResult.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Outcome of one point of a sweep
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.dse;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gradle.superscalarsim.cpu.StopReason;
+
+import java.util.Map;
+
+/**
+ * @brief Outcome of one point of a sweep
+ */
+public class SweepResult
+{
+  /**
+   * Parameter values of the point, as {@code name=value} pairs
+   */
+  public String name;
+  
+  public Map<String, JsonNode> values;
+  
+  /**
+   * Hash of the program, its memory, the cycle budget and the configuration. Key of the memoized results.
+   */
+  public String hash;
+  
+  public Status status;
+  
+  /**
+   * Cost of the configuration, see {@link HardwareCost}
+   */
+  public double cost;
+  
+  /**
+   * IPC of the whole run, 0 if the point was pruned or failed
+   */
+  public double ipc;
+  
+  /**
+   * IPC after the warm-up prefix, the value pruning compares. 0 without pruning.
+   */
+  public double warmupIpc;
+  
+  public long clockCycles;
+  
+  public long committedInstructions;
+  
+  public StopReason stopReason;
+  
+  /**
+   * True if no other point has both a lower or equal cost and a higher or equal IPC
+   */
+  public boolean paretoOptimal;
+  
+  /**
+   * Simulation time of the point, 0 for a memoized result
+   */
+  public long timeMs;
+  
+  /**
+   * Why the point could not be simulated (invalid configuration), null if it was
+   */
+  public String error;
+  
+  public SweepResult()
+  {
+  }
+  
+  public SweepResult(SweepPoint point)
+  {
+    this.name   = point.getName();
+    this.values = point.values;
+    this.status = Status.kSimulated;
+  }
+  
+  /**
+   * @return True if the result has the IPC of the whole run
+   */
+  @JsonIgnore
+  public boolean isComplete()
+  {
+    return status == Status.kSimulated || status == Status.kMemoized;
+  }
+  
+  public enum Status
+  {
+    /**
+     * Simulated to the end (or to the cycle budget)
+     */
+    kSimulated,
+    /**
+     * Taken from an earlier run of the same configuration
+     */
+    kMemoized,
+    /**
+     * Stopped after the warm-up, another point was clearly better and not more expensive
+     */
+    kPruned,
+    /**
+     * Invalid configuration
+     */
+    kError
+  }
+}
@@ -0,0 +1,201 @@
+/**
+ * @file SweepSpec.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Design space of a sweep
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.dse;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.models.FunctionalUnitDescription;
+import com.gradle.superscalarsim.serialization.Serialization;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @brief Design space of a sweep: a base CPU configuration and the values to try for some of its fields
+ * @details The points of the space are the cross product of the parameter values. A parameter is the name of a
+ * {@link CpuConfig} field (e.g. {@code robSize}, {@code cacheLines}, or {@code fUnits} with whole unit lists),
+ * or {@code fUnits.<type>} (e.g. {@code fUnits.FX}) for the number of functional units of a type. Units of a type
+ * are copies of the first unit of that type in the base configuration.
+ * <p>
+ * Example: {@code {"parameters": {"robSize": [32, 128], "fetchWidth": [2, 4], "fUnits.FX": [1, 2]}}}
+ */
+public class SweepSpec
+{
+  /**
+   * Prefix of the parameters that set the number of units of a type
+   */
+  public static final String UNIT_COUNT_PREFIX = "fUnits.";
+  
+  /**
+   * Configuration the parameters are applied to. The default configuration if null.
+   */
+  public CpuConfig base;
+  
+  /**
+   * Parameter name to its values, in the order of the sweep
+   */
+  public LinkedHashMap<String, List<JsonNode>> parameters = new LinkedHashMap<>();
+  
+  /**
+   * @return The points of the space, the last parameter changes fastest
+   * @throws IllegalArgumentException If a parameter does not exist, has no values or a value of a wrong type
+   */
+  public List<SweepPoint> expand()
+  {
+    ObjectMapper mapper   = Serialization.getSerializer();
+    ObjectNode   baseNode = mapper.valueToTree(base == null ? CpuConfig.getDefaultConfiguration() : base);
+    for (Map.Entry<String, List<JsonNode>> parameter : parameters.entrySet())
+    {
+      String name = parameter.getKey();
+      if (name.startsWith(UNIT_COUNT_PREFIX))
+      {
+        unitType(name);
+      }
+      else if (name.equals("name") || !baseNode.has(name))
+      {
+        throw new IllegalArgumentException("Unknown parameter: " + name);
+      }
+      if (parameter.getValue() == null || parameter.getValue().isEmpty())
+      {
+        throw new IllegalArgumentException("No values for parameter " + name);
+      }
+    }
+    
+    List<SweepPoint> points = new ArrayList<>();
+    expand(baseNode, new ArrayList<>(parameters.keySet()), 0, new LinkedHashMap<>(), points);
+    return points;
+  }
+  
+  private void expand(ObjectNode baseNode,
+                      List<String> names,
+                      int depth,
+                      LinkedHashMap<String, JsonNode> values,
+                      List<SweepPoint> points)
+  {
+    if (depth == names.size())
+    {
+      points.add(createPoint(baseNode, new LinkedHashMap<>(values)));
+      return;
+    }
+    String name = names.get(depth);
+    for (JsonNode value : parameters.get(name))
+    {
+      values.put(name, value);
+      expand(baseNode, names, depth + 1, values, points);
+    }
+    values.remove(name);
+  }
+  
+  private static SweepPoint createPoint(ObjectNode baseNode, LinkedHashMap<String, JsonNode> values)
+  {
+    ObjectNode node = baseNode.deepCopy();
+    for (Map.Entry<String, JsonNode> value : values.entrySet())
+    {
+      if (value.getKey().startsWith(UNIT_COUNT_PREFIX))
+      {
+        if (!value.getValue().canConvertToInt() || value.getValue().asInt() < 0)
+        {
+          throw new IllegalArgumentException("Invalid unit count of " + value.getKey() + ": " + value.getValue());
+        }
+        setUnitCount(node, unitType(value.getKey()), value.getValue().asInt());
+      }
+      else
+      {
+        node.set(value.getKey(), value.getValue());
+      }
+    }
+    try
+    {
+      return new SweepPoint(values, Serialization.getDeserializer().treeToValue(node, CpuConfig.class));
+    }
+    catch (JsonProcessingException e)
+    {
+      throw new IllegalArgumentException("Invalid parameter value in " + values + ": " + e.getOriginalMessage());
+    }
+  }
+  
+  /**
+   * Replaces the units of a type with copies of the first one, at its position, and renumbers all units.
+   */
+  private static void setUnitCount(ObjectNode config, FunctionalUnitDescription.Type type, int count)
+  {
+    ArrayNode units    = config.withArray("fUnits");
+    ArrayNode result   = units.arrayNode();
+    JsonNode  template = null;
+    for (JsonNode unit : units)
+    {
+      if (!type.name().equals(unit.path("fuType").asText()))
+      {
+        result.add(unit);
+        continue;
+      }
+      if (template != null)
+      {
+        continue;
+      }
+      template = unit;
+      for (int i = 0; i < count; i++)
+      {
+        ObjectNode copy = template.deepCopy();
+        if (i > 0)
+        {
+          copy.put("name", template.path("name").asText() + " " + (i + 1));
+        }
+        result.add(copy);
+      }
+    }
+    if (template == null)
+    {
+      throw new IllegalArgumentException("The base configuration has no " + type + " unit to copy");
+    }
+    for (int i = 0; i < result.size(); i++)
+    {
+      ((ObjectNode) result.get(i)).put("id", i);
+    }
+    config.set("fUnits", result);
+  }
+  
+  private static FunctionalUnitDescription.Type unitType(String parameter)
+  {
+    String type = parameter.substring(UNIT_COUNT_PREFIX.length());
+    try
+    {
+      return FunctionalUnitDescription.Type.valueOf(type);
+    }
+    catch (IllegalArgumentException e)
+    {
+      throw new IllegalArgumentException("Unknown functional unit type in " + parameter);
+    }
+  }
+}
@@ -33,5 +33,21 @@ public enum ReplacementPoliciesEnum
 {
   FIFO, ///< FIFO replacement policy
   LRU, ///< LeastRecentlyUsed replacement policy
-  RANDOM ///< Random replacement policy
+  RANDOM; ///< Random replacement policy
+  
+  /**
+   * @param name Name of the policy in the CPU configuration (LRU, FIFO, Random)
+   *
+   * @return The policy
+   */
+  public static ReplacementPoliciesEnum fromConfigName(String name)
+  {
+    return switch (name)
+    {
+      case "LRU" -> LRU;
+      case "FIFO" -> FIFO;
+      case "Random" -> RANDOM;
+      default -> throw new IllegalStateException("Unexpected value for cache replacement: " + name);
+    };
+  }
 }
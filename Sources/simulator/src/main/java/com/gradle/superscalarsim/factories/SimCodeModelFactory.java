@@ -53,7 +53,7 @@ public class SimCodeModelFactory
     this.manager = manager;
   }
   
-  public SimCodeModel createInstance(InputCodeModel inputCodeModel, int id, int fetchId)
+  public SimCodeModel createInstance(InputCodeModel inputCodeModel, long id, long fetchId)
   {
     SimCodeModel instance = new SimCodeModel(inputCodeModel, id, fetchId);
     if (manager != null)
@@ -0,0 +1,81 @@
+/**
+ * @file CacheMissEvent.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Sampled JFR event of a cache miss
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * @brief Miss of the simulated cache, sampled
+ * @details Misses are frequent, only every 64th one is recorded. Disabled by default,
+ * enable it in the recording settings (<code>superscalarsim.CacheMiss#enabled=true</code>).
+ */
+@Name("superscalarsim.CacheMiss")
+@Label("Cache Miss (Sampled)")
+@Category({"Superscalar Simulator", "Simulation", "Pipeline"})
+@Enabled(false)
+@StackTrace(false)
+public class CacheMissEvent extends Event
+{
+  static final Sampler SAMPLER = new Sampler(64);
+  
+  /**
+   * Checked before the event is allocated, misses are on the hottest path of the simulation
+   */
+  static final EventType TYPE = EventType.getEventType(CacheMissEvent.class);
+  
+  @Label("Address")
+  @MemoryAddress
+  public long address;
+  
+  @Label("Store")
+  public boolean store;
+  
+  @Label("Tick")
+  @Description("Simulated cycle of the access")
+  public long tick;
+  
+  @Label("Sample Rate")
+  @Description("One miss out of this many is recorded")
+  public int sampleRate;
+  
+  /**
+   * @brief Record the miss if the event is enabled and the miss is sampled
+   */
+  public static void emit(long address, boolean store, long tick)
+  {
+    if (TYPE.isEnabled() && SAMPLER.next())
+    {
+      CacheMissEvent event = new CacheMissEvent();
+      event.address    = address;
+      event.store      = store;
+      event.tick       = tick;
+      event.sampleRate = SAMPLER.getRate();
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * @file CpuInitEvent.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief JFR event of the initialization of the CPU state
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.jfr;
+
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import jdk.jfr.*;
+
+/**
+ * @brief Construction of the CPU state: parsing of the code, memory and blocks
+ */
+@Name("superscalarsim.CpuInit")
+@Label("CPU State Initialization")
+@Category({"Superscalar Simulator", "Simulation"})
+@StackTrace(false)
+public class CpuInitEvent extends Event
+{
+  @Label("Configuration Hash")
+  @Description("Hash of the CPU configuration, the same configurations have the same hash")
+  public String configHash;
+  
+  @Label("Program Hash")
+  @Description("Hash of the program code")
+  public String programHash;
+  
+  @Label("Instructions")
+  @Description("Number of instructions of the program")
+  public int instructions;
+  
+  /**
+   * The hashes are computed only if the event is recorded.
+   *
+   * @param config       Configuration of the CPU
+   * @param instructions Number of instructions of the program
+   */
+  public void finish(SimulationConfig config, int instructions)
+  {
+    end();
+    if (shouldCommit())
+    {
+      this.configHash   = hash(config.cpuConfig);
+      this.programHash  = hash(config.binary != null ? config.binary : config.code);
+      this.instructions = instructions;
+      commit();
+    }
+  }
+  
+  /**
+   * @return Short hash of the object, enough to tell configurations apart
+   */
+  static String hash(Object object)
+  {
+    return Serialization.canonicalHash(object).substring(0, 16);
+  }
+}
@@ -0,0 +1,74 @@
+/**
+ * @file PipelineFlushEvent.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Sampled JFR event of a pipeline flush
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * @brief Flush of the pipeline after a misprediction, sampled
+ * @details Flushes are frequent, only every 64th one is recorded. Disabled by default,
+ * enable it in the recording settings (<code>superscalarsim.PipelineFlush#enabled=true</code>).
+ */
+@Name("superscalarsim.PipelineFlush")
+@Label("Pipeline Flush (Sampled)")
+@Category({"Superscalar Simulator", "Simulation", "Pipeline"})
+@Enabled(false)
+@StackTrace(false)
+public class PipelineFlushEvent extends Event
+{
+  static final Sampler SAMPLER = new Sampler(64);
+  
+  /**
+   * Checked before the event is allocated
+   */
+  static final EventType TYPE = EventType.getEventType(PipelineFlushEvent.class);
+  
+  @Label("Flushed Instructions")
+  @Description("Instructions removed from the reorder buffer")
+  public int flushedInstructions;
+  
+  @Label("Sample Rate")
+  @Description("One flush out of this many is recorded")
+  public int sampleRate;
+  
+  /**
+   * @param flushedInstructions Instructions removed from the reorder buffer
+   *
+   * @brief Record the flush if the event is enabled and the flush is sampled
+   */
+  public static void emit(int flushedInstructions)
+  {
+    if (TYPE.isEnabled() && SAMPLER.next())
+    {
+      PipelineFlushEvent event = new PipelineFlushEvent();
+      event.flushedInstructions = flushedInstructions;
+      event.sampleRate          = SAMPLER.getRate();
+      event.commit();
+    }
+  }
+}
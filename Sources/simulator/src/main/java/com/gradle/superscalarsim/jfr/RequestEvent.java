@@ -0,0 +1,52 @@
+/**
+ * @file RequestEvent.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief JFR event of a server request
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * @brief A request to the server, from its arrival to the end of the response
+ * @details Started on the IO thread and committed when the exchange completes, which can be on another thread.
+ */
+@Name("superscalarsim.Request")
+@Label("Request")
+@Category({"Superscalar Simulator", "Server"})
+@Description("HTTP request handled by the server")
+@StackTrace(false)
+public class RequestEvent extends Event
+{
+  @Label("Endpoint")
+  public String endpoint;
+  
+  @Label("Status Code")
+  public int status;
+  
+  @Label("Cache")
+  @Description("HIT or MISS if the response cache was consulted, empty otherwise")
+  public String cache;
+}
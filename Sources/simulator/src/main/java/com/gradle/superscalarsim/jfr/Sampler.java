@@ -0,0 +1,71 @@
+/**
+ * @file Sampler.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Sampling of frequent events
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.jfr;
+
+/**
+ * @brief Picks every n-th occurrence of a frequent event
+ * @details The counter is not synchronized. Concurrent simulations can lose or repeat a count,
+ * which only shifts the samples.
+ */
+public class Sampler
+{
+  /**
+   * One occurrence out of this many is sampled
+   */
+  private final int rate;
+  
+  private int counter = 0;
+  
+  /**
+   * @param rate One occurrence out of this many is sampled
+   */
+  public Sampler(int rate)
+  {
+    this.rate = rate;
+  }
+  
+  /**
+   * @return True if this occurrence is sampled
+   */
+  public boolean next()
+  {
+    int count = counter + 1;
+    if (count >= rate)
+    {
+      counter = 0;
+      return true;
+    }
+    counter = count;
+    return false;
+  }
+  
+  public int getRate()
+  {
+    return rate;
+  }
+}
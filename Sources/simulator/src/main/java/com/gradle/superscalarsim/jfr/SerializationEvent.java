@@ -0,0 +1,52 @@
+/**
+ * @file SerializationEvent.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief JFR event of the serialization of a response
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * @brief Serialization of a response
+ * @details If the response is not cached, it is serialized directly to the client, so the event includes
+ * the time of the writes.
+ */
+@Name("superscalarsim.Serialization")
+@Label("Serialization")
+@Category({"Superscalar Simulator", "Server"})
+@StackTrace(false)
+public class SerializationEvent extends Event
+{
+  @Label("Endpoint")
+  public String endpoint;
+  
+  @Label("Format")
+  public String format;
+  
+  @Label("Size")
+  @DataAmount
+  public long bytes;
+}
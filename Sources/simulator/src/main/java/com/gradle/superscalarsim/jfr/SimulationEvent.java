@@ -0,0 +1,78 @@
+/**
+ * @file SimulationEvent.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief JFR event of a simulation run
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.jfr;
+
+import com.gradle.superscalarsim.cpu.Cpu;
+import jdk.jfr.*;
+
+/**
+ * @brief A simulation run of a request
+ */
+@Name("superscalarsim.Simulation")
+@Label("Simulation")
+@Category({"Superscalar Simulator", "Simulation"})
+@StackTrace(false)
+public class SimulationEvent extends Event
+{
+  @Label("Configuration Hash")
+  @Description("Hash of the CPU configuration, the same configurations have the same hash")
+  public String configHash;
+  
+  @Label("Program Hash")
+  @Description("Hash of the program code")
+  public String programHash;
+  
+  @Label("Cycles")
+  @Description("Cycles simulated by the run")
+  public long cycles;
+  
+  @Label("Committed Instructions")
+  public long instructions;
+  
+  @Label("Stop Reason")
+  public String stopReason;
+  
+  /**
+   * @param cpu    The simulated CPU
+   * @param cycles Cycles simulated by the run
+   */
+  public void finish(Cpu cpu, long cycles)
+  {
+    end();
+    if (shouldCommit())
+    {
+      this.configHash   = CpuInitEvent.hash(cpu.configuration.cpuConfig);
+      this.programHash  = CpuInitEvent.hash(
+              cpu.configuration.binary != null ? cpu.configuration.binary : cpu.configuration.code);
+      this.cycles       = cycles;
+      this.instructions = cpu.cpuState.statistics.committedInstructions;
+      this.stopReason   = String.valueOf(cpu.stopReason);
+      commit();
+    }
+  }
+}
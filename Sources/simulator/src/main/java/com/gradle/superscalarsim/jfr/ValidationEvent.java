@@ -0,0 +1,71 @@
+/**
+ * @file ValidationEvent.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief JFR event of the validation of a configuration
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.jfr;
+
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import jdk.jfr.*;
+
+/**
+ * @brief Validation of a simulation configuration
+ */
+@Name("superscalarsim.Validation")
+@Label("Validation")
+@Category({"Superscalar Simulator", "Simulation"})
+@StackTrace(false)
+public class ValidationEvent extends Event
+{
+  @Label("Valid")
+  public boolean valid;
+  
+  @Label("Errors")
+  public int errors;
+  
+  @Label("Code Parsed")
+  @Description("False if the code was parsed before the validation (compiled C code)")
+  public boolean codeParsed;
+  
+  /**
+   * @param result     Result of the validation
+   * @param codeParsed True if the validation parsed the code
+   *
+   * @return The result, for chaining
+   * @brief Commit the event with the result
+   */
+  public SimulationConfig.ValidationResult finish(SimulationConfig.ValidationResult result, boolean codeParsed)
+  {
+    end();
+    if (shouldCommit())
+    {
+      this.valid      = result.valid;
+      this.errors     = result.messages.size();
+      this.codeParsed = codeParsed;
+      commit();
+    }
+    return result;
+  }
+}
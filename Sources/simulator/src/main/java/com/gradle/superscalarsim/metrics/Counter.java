@@ -0,0 +1,59 @@
+/**
+ * @file Counter.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Lock-free monotonic counter
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @brief Monotonic counter, cheap to increment from many threads
+ */
+public class Counter
+{
+  private final LongAdder value = new LongAdder();
+  
+  public void increment()
+  {
+    value.increment();
+  }
+  
+  /**
+   * @param amount Non-negative amount to add
+   */
+  public void add(long amount)
+  {
+    value.add(amount);
+  }
+  
+  /**
+   * @return Current value
+   */
+  public long get()
+  {
+    return value.sum();
+  }
+}
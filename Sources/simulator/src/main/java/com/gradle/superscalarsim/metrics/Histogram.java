@@ -0,0 +1,195 @@
+/**
+ * @file Histogram.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Lock-free log-linear histogram
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @brief Lock-free histogram of non-negative values with a bounded relative error
+ * @details The buckets are laid out like in HdrHistogram: values below 2^SUB_BITS have a bucket each,
+ * every higher power of two is split into 2^SUB_BITS linear sub-buckets. With 5 bits the error of a quantile
+ * is at most 1/32 (about 3 %) of the value, for any value up to Long.MAX_VALUE, in about 15 KB.
+ * <p>
+ * Recording is a few atomic increments, so it can be done on every request. Reading is not atomic with respect
+ * to concurrent recording, which is fine for monitoring.
+ */
+public class Histogram
+{
+  /**
+   * Precision of the buckets
+   */
+  static final int SUB_BITS = 5;
+  
+  /**
+   * Number of sub-buckets per power of two
+   */
+  static final int SUB_COUNT = 1 << SUB_BITS;
+  
+  /**
+   * Number of buckets, enough for all positive longs
+   */
+  static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * SUB_COUNT;
+  
+  /**
+   * Count of the values in each bucket
+   */
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  
+  private final LongAdder count = new LongAdder();
+  
+  private final LongAdder sum = new LongAdder();
+  
+  private final AtomicLong max = new AtomicLong(0);
+  
+  /**
+   * Scale of the exported values, e.g. 1e-9 for values recorded in nanoseconds and exported in seconds
+   */
+  private final double unit;
+  
+  /**
+   * @param unit Scale of the exported values, e.g. 1e-9 for values recorded in nanoseconds and exported in seconds
+   */
+  public Histogram(double unit)
+  {
+    this.unit = unit;
+  }
+  
+  /**
+   * @param value Value to record, negative values are recorded as 0
+   */
+  public void record(long value)
+  {
+    value = Math.max(0, value);
+    counts.incrementAndGet(bucketIndex(value));
+    count.increment();
+    sum.add(value);
+    max.accumulateAndGet(value, Math::max);
+  }
+  
+  /**
+   * @return Index of the bucket of the value
+   */
+  static int bucketIndex(long value)
+  {
+    if (value < SUB_COUNT)
+    {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+    int sub   = (int) (value >>> shift) - SUB_COUNT;
+    return SUB_COUNT + shift * SUB_COUNT + sub;
+  }
+  
+  /**
+   * @return Lowest value of the bucket
+   */
+  static long bucketLowerBound(int index)
+  {
+    if (index < SUB_COUNT)
+    {
+      return index;
+    }
+    int shift = (index - SUB_COUNT) / SUB_COUNT;
+    int sub   = (index - SUB_COUNT) % SUB_COUNT;
+    return (long) (SUB_COUNT + sub) << shift;
+  }
+  
+  /**
+   * @return Width of the bucket
+   */
+  static long bucketWidth(int index)
+  {
+    if (index < SUB_COUNT)
+    {
+      return 1;
+    }
+    return 1L << ((index - SUB_COUNT) / SUB_COUNT);
+  }
+  
+  /**
+   * @param quantile Quantile between 0 and 1
+   *
+   * @return Value at the quantile (middle of its bucket, at most the maximum), in the exported unit. 0 if empty.
+   */
+  public double getQuantile(double quantile)
+  {
+    if (quantile >= 1)
+    {
+      return getMax();
+    }
+    long total = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++)
+    {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0)
+    {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++)
+    {
+      seen += snapshot[i];
+      if (seen >= rank)
+      {
+        long middle = bucketLowerBound(i) + (bucketWidth(i) - 1) / 2;
+        return Math.min(middle, max.get()) * unit;
+      }
+    }
+    return max.get() * unit;
+  }
+  
+  /**
+   * @return Number of recorded values
+   */
+  public long getCount()
+  {
+    return count.sum();
+  }
+  
+  /**
+   * @return Sum of the recorded values, in the exported unit
+   */
+  public double getSum()
+  {
+    return sum.sum() * unit;
+  }
+  
+  /**
+   * @return Largest recorded value, in the exported unit
+   */
+  public double getMax()
+  {
+    return max.get() * unit;
+  }
+}
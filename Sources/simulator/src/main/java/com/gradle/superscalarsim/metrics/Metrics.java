@@ -0,0 +1,246 @@
+/**
+ * @file Metrics.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Registry of metrics in the Prometheus text format
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+
+/**
+ * @brief Registry of the metrics of the process
+ * @details The metrics are kept in the process and exported in the Prometheus text format
+ * (see <a href="https://prometheus.io/docs/instrumenting/exposition_formats/">exposition formats</a>),
+ * no external service is needed. A metric is identified by its name and labels, the labels are given as
+ * alternating names and values. Looking a metric up is a map access, so hot paths keep the returned object.
+ * <p>
+ * Histograms are exported as summaries (quantiles, sum and count), they are computed on the scrape from
+ * the buckets of the {@link Histogram}. Gauges are read from a supplier on the scrape.
+ */
+public class Metrics
+{
+  /**
+   * Quantiles exported for every histogram
+   */
+  static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+  
+  /**
+   * Families by name, sorted for a stable output
+   */
+  private static final Map<String, Family> families = new ConcurrentSkipListMap<>();
+  
+  /**
+   * @param name   Name of the metric, should end with _total
+   * @param help   Description of the metric
+   * @param labels Alternating label names and values
+   *
+   * @return The counter, created on the first call
+   */
+  public static Counter counter(String name, String help, String... labels)
+  {
+    return (Counter) family(name, help, Type.counter).metrics.computeIfAbsent(formatLabels(labels),
+                                                                               key -> new Counter());
+  }
+  
+  /**
+   * @param name   Name of the metric, with the unit (_seconds, _bytes, ...)
+   * @param help   Description of the metric
+   * @param unit   Scale of the exported values, e.g. 1e-9 for values recorded in nanoseconds and exported in seconds
+   * @param labels Alternating label names and values
+   *
+   * @return The histogram, created on the first call
+   */
+  public static Histogram histogram(String name, String help, double unit, String... labels)
+  {
+    return (Histogram) family(name, help, Type.summary).metrics.computeIfAbsent(formatLabels(labels),
+                                                                                 key -> new Histogram(unit));
+  }
+  
+  /**
+   * A gauge registered again with the same labels replaces the previous supplier.
+   *
+   * @param name     Name of the metric
+   * @param help     Description of the metric
+   * @param supplier Reads the current value, called on every scrape
+   * @param labels   Alternating label names and values
+   */
+  public static void gauge(String name, String help, DoubleSupplier supplier, String... labels)
+  {
+    family(name, help, Type.gauge).metrics.put(formatLabels(labels), supplier);
+  }
+  
+  /**
+   * @brief Counter kept by another object (a cache, an executor), read on every scrape
+   * @see #gauge
+   */
+  public static void counter(String name, String help, DoubleSupplier supplier, String... labels)
+  {
+    family(name, help, Type.counter).metrics.put(formatLabels(labels), supplier);
+  }
+  
+  /**
+   * @return All metrics in the Prometheus text format, version 0.0.4
+   */
+  public static String scrape()
+  {
+    StringBuilder out = new StringBuilder();
+    for (Family family : families.values())
+    {
+      out.append("# HELP ").append(family.name).append(' ').append(escapeHelp(family.help)).append('\n');
+      out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+      Map<String, Object> sorted = new TreeMap<>(family.metrics);
+      for (Map.Entry<String, Object> entry : sorted.entrySet())
+      {
+        String labels = entry.getKey();
+        Object metric = entry.getValue();
+        if (metric instanceof Counter counter)
+        {
+          sample(out, family.name, labels, counter.get());
+        }
+        else if (metric instanceof DoubleSupplier supplier)
+        {
+          sample(out, family.name, labels, supplier.getAsDouble());
+        }
+        else if (metric instanceof Histogram histogram)
+        {
+          for (double quantile : QUANTILES)
+          {
+            sample(out, family.name, addLabel(labels, "quantile", String.valueOf(quantile)),
+                   histogram.getQuantile(quantile));
+          }
+          sample(out, family.name + "_sum", labels, histogram.getSum());
+          sample(out, family.name + "_count", labels, histogram.getCount());
+        }
+      }
+    }
+    return out.toString();
+  }
+  
+  /**
+   * @brief Get or create the family. A name is registered with one type only.
+   */
+  private static Family family(String name, String help, Type type)
+  {
+    Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+    if (family.type != type)
+    {
+      throw new IllegalArgumentException("Metric " + name + " is a " + family.type + ", not a " + type);
+    }
+    return family;
+  }
+  
+  private static void sample(StringBuilder out, String name, String labels, double value)
+  {
+    out.append(name).append(labels).append(' ');
+    if (value == Math.rint(value) && Math.abs(value) < 1e15)
+    {
+      out.append((long) value);
+    }
+    else
+    {
+      out.append(value);
+    }
+    out.append('\n');
+  }
+  
+  /**
+   * @return Labels in the exposition format (<code>{a="1",b="2"}</code>), empty string without labels
+   */
+  static String formatLabels(String... labels)
+  {
+    if (labels.length % 2 != 0)
+    {
+      throw new IllegalArgumentException("Labels must be pairs of a name and a value");
+    }
+    if (labels.length == 0)
+    {
+      return "";
+    }
+    StringBuilder out = new StringBuilder("{");
+    for (int i = 0; i < labels.length; i += 2)
+    {
+      if (i > 0)
+      {
+        out.append(',');
+      }
+      out.append(labels[i]).append("=\"").append(escapeLabel(labels[i + 1])).append('"');
+    }
+    return out.append('}').toString();
+  }
+  
+  private static String addLabel(String labels, String name, String value)
+  {
+    String label = name + "=\"" + value + "\"";
+    if (labels.isEmpty())
+    {
+      return "{" + label + "}";
+    }
+    return labels.substring(0, labels.length() - 1) + "," + label + "}";
+  }
+  
+  private static String escapeLabel(String value)
+  {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+  
+  private static String escapeHelp(String help)
+  {
+    return help.replace("\\", "\\\\").replace("\n", "\\n");
+  }
+  
+  /**
+   * @brief Type of a family in the exposition format
+   */
+  private enum Type
+  {
+    counter, gauge, summary
+  }
+  
+  /**
+   * @brief Metrics with the same name and different labels
+   */
+  private static class Family
+  {
+    final String name;
+    final String help;
+    final Type   type;
+    
+    /**
+     * Metrics by their formatted labels. A {@link Counter}, a {@link Histogram} or a {@link DoubleSupplier}.
+     */
+    final Map<String, Object> metrics = new ConcurrentHashMap<>();
+    
+    Family(String name, String help, Type type)
+    {
+      this.name = name;
+      this.help = help;
+      this.type = type;
+    }
+  }
+}
@@ -81,4 +81,20 @@ public class FifoReplacementPolicyModel extends ReplacementPolicyModel
   public void updatePolicy(int index, int line)
   {
   }
+  
+  @Override
+  public int[] saveGroup(int index)
+  {
+    return fifo[index].stream().mapToInt(Integer::intValue).toArray();
+  }
+  
+  @Override
+  public void restoreGroup(int index, int[] saved)
+  {
+    fifo[index].clear();
+    for (int line : saved)
+    {
+      fifo[index].add(line);
+    }
+  }
 }
\ No newline at end of file
@@ -89,4 +89,20 @@ public class LruReplacementPolicyModel extends ReplacementPolicyModel
     }
     lru[index].add(line);
   }
+  
+  @Override
+  public int[] saveGroup(int index)
+  {
+    return lru[index].stream().mapToInt(Integer::intValue).toArray();
+  }
+  
+  @Override
+  public void restoreGroup(int index, int[] saved)
+  {
+    lru[index].clear();
+    for (int line : saved)
+    {
+      lru[index].add(line);
+    }
+  }
 }
\ No newline at end of file
@@ -54,4 +54,19 @@ public class RandomReplacementPolicyModel extends ReplacementPolicyModel
   {
     // no-op
   }
+  
+  /**
+   * @return Empty state, the random source is shared by all groups and cannot be restored
+   */
+  @Override
+  public int[] saveGroup(int index)
+  {
+    return new int[0];
+  }
+  
+  @Override
+  public void restoreGroup(int index, int[] saved)
+  {
+    // no-op
+  }
 }
\ No newline at end of file
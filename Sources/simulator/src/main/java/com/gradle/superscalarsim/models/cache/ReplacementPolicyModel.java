@@ -53,5 +53,18 @@ public abstract class ReplacementPolicyModel
   public abstract int getLineToReplace(int index);
   
   public abstract void updatePolicy(int index, int line);
+  
+  /**
+   * @param index Index of the group of lines
+   *
+   * @return State of the policy for the group, for {@link #restoreGroup}
+   */
+  public abstract int[] saveGroup(int index);
+  
+  /**
+   * @param index Index of the group of lines
+   * @param saved State returned by {@link #saveGroup}
+   */
+  public abstract void restoreGroup(int index, int[] saved);
 }
 
@@ -34,7 +34,7 @@ package com.gradle.superscalarsim.models.instruction;
  *
  * @brief Exception data. Attached to a {@link SimCodeModel}.
  */
-public record InstructionException(Kind exceptionKind, String exceptionMessage, int cycle)
+public record InstructionException(Kind exceptionKind, String exceptionMessage, long cycle)
 {
   
   /**
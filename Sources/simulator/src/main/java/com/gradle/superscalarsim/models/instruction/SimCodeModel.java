@@ -65,7 +65,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
   /**
    * ID of order of instructions processed by the fetch
    */
-  private final int id;
+  private final long id;
   
   /**
    * A copy of arguments, which are used for renaming.
@@ -75,11 +75,11 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
   /**
    * ID, when was instructions accepted by the issue window
    */
-  public int issueWindowId;
+  public long issueWindowId;
   /**
    * ID when the instruction was fetched
    */
-  private int fetchId;
+  private long fetchId;
   /**
    * ID of the function block, which processed this instruction
    */
@@ -88,11 +88,11 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    * ID marking when was result ready
    * TODO: not set ever
    */
-  private int readyId;
+  private long readyId;
   /**
    * ID marking when was instruction committed from ROB
    */
-  private int commitId;
+  private long commitId;
   /**
    * True if simcodemodel has left the system (committed, flushed).
    * A finished simcodemodel can be safely deleted.
@@ -134,7 +134,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    * @brief Constructor which copies original InputCodeModel
    * This constructor can be used only through the SimCodeModelAllocator
    */
-  public SimCodeModel(InputCodeModel inputCodeModel, int id, int fetchId)
+  public SimCodeModel(InputCodeModel inputCodeModel, long id, long fetchId)
   {
     this.inputCodeModel = inputCodeModel;
     this.id             = id;
@@ -276,7 +276,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    *
    * @brief Sets accepted id to issue window
    */
-  public void setIssueWindowId(int windowId)
+  public void setIssueWindowId(long windowId)
   {
     this.issueWindowId = windowId;
   }// end of setIssueWindowId
@@ -297,7 +297,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    *
    * @brief Sets id of when was instruction's result ready
    */
-  public void setCommitId(int commitId)
+  public void setCommitId(long commitId)
   {
     this.commitId = commitId;
   }// end of setCommitId
@@ -311,7 +311,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
   @Override
   public int compareTo(@NotNull SimCodeModel codeModel)
   {
-    return -Integer.compare(codeModel.getIntegerId(), this.id);
+    return -Long.compare(codeModel.getIntegerId(), this.id);
   }// end of compareTo
   //------------------------------------------------------
   
@@ -319,7 +319,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    * @return ID of the model
    * @brief Gets ID of the model
    */
-  public int getIntegerId()
+  public long getIntegerId()
   {
     return this.id;
   }// end of getId
@@ -331,7 +331,7 @@ public class SimCodeModel implements IInputCodeModel, Comparable<SimCodeModel>,
    */
   public String getId()
   {
-    return Integer.toString(this.id);
+    return Long.toString(this.id);
   }
   //------------------------------------------------------
   
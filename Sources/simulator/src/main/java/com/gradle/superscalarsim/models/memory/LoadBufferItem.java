@@ -59,12 +59,12 @@ public class LoadBufferItem
    */
   private boolean isAccessingMemory;
   
-  private int accessingMemoryId;
+  private long accessingMemoryId;
   
   /**
    * ID of the MA block in which was memory access done
    */
-  private int memoryAccessId;
+  private long memoryAccessId;
   
   /**
    * Has instruction bypassed MA?
@@ -74,7 +74,7 @@ public class LoadBufferItem
   /**
    * ID when the instruction failed
    */
-  private int memoryFailedId;
+  private long memoryFailedId;
   
   /**
    * @param destinationRegister Register name where the result will be stored
@@ -177,7 +177,7 @@ public class LoadBufferItem
    * @return MA release id
    * @brief Get MA id when was instruction released
    */
-  public int getMemoryAccessId()
+  public long getMemoryAccessId()
   {
     return memoryAccessId;
   }// end of getMemoryAccessId
@@ -188,7 +188,7 @@ public class LoadBufferItem
    *
    * @brief Set MA id when was instruction released
    */
-  public void setMemoryAccessId(int memoryAccessId)
+  public void setMemoryAccessId(long memoryAccessId)
   {
     this.memoryAccessId = memoryAccessId;
   }// end of setMemoryAccessId
@@ -219,7 +219,7 @@ public class LoadBufferItem
    * @return ID when instruction has failed
    * @brief Get id when instruction has failed
    */
-  public int getMemoryFailedId()
+  public long getMemoryFailedId()
   {
     return memoryFailedId;
   }// end of getMemoryFailedId
@@ -230,7 +230,7 @@ public class LoadBufferItem
    *
    * @brief Set id when instruction has failed
    */
-  public void setMemoryFailedId(int memoryFailedId)
+  public void setMemoryFailedId(long memoryFailedId)
   {
     this.memoryFailedId = memoryFailedId;
   }// end of setMemoryFailedId
@@ -240,7 +240,7 @@ public class LoadBufferItem
    * @return ID of the time, when instruction got into MA
    * @brief Get id when the load instruction got into MA from load buffer
    */
-  public int getAccessingMemoryId()
+  public long getAccessingMemoryId()
   {
     return accessingMemoryId;
   }// end of getAccessingMemoryId
@@ -251,7 +251,7 @@ public class LoadBufferItem
    *
    * @brief Set id when the load instruction got into MA from load buffer
    */
-  public void setAccessingMemoryId(int accessingMemoryId)
+  public void setAccessingMemoryId(long accessingMemoryId)
   {
     this.accessingMemoryId = accessingMemoryId;
   }// end of setAccessingMemoryId
@@ -48,12 +48,12 @@ public final class MemoryTransaction
    * ID (index) of the instruction in code. aka. getCodeId() aka. ID of InputCodeModel
    */
   private final int instructionId;
-  private final int timestamp;
+  private final long timestamp;
   private final long address;
   private final int size;
   private final boolean isStore;
   private final boolean isSigned;
-  private int id;
+  private long id;
   /**
    * Data to be written to memory or the result of a read.
    * Mutated by memory at transaction completion.
@@ -98,10 +98,10 @@ public final class MemoryTransaction
    *
    * @param instructionId index of instruction in code
    */
-  public MemoryTransaction(int id,
+  public MemoryTransaction(long id,
                            int mmuId,
                            int instructionId,
-                           int timestamp,
+                           long timestamp,
                            long address,
                            byte[] data,
                            int size,
@@ -143,7 +143,7 @@ public final class MemoryTransaction
    * @param data      Data to be stored
    * @param timestamp Timestamp of the memory access
    */
-  public static MemoryTransaction store(long address, byte[] data, int timestamp)
+  public static MemoryTransaction store(long address, byte[] data, long timestamp)
   {
     return new MemoryTransaction(-1, -1, -1, timestamp, address, data, data.length, true, false);
   }
@@ -166,7 +166,7 @@ public final class MemoryTransaction
    * @param size     Size of the data in bytes (1-8)
    * @param isSigned True if the data is signed
    */
-  public static MemoryTransaction load(long address, int size, int timestamp)
+  public static MemoryTransaction load(long address, int size, long timestamp)
   {
     return new MemoryTransaction(-1, -1, -1, timestamp, address, null, size, false, false);
   }
@@ -218,12 +218,12 @@ public final class MemoryTransaction
   /**
    * ID is set by the memory model
    */
-  public void setId(int id)
+  public void setId(long id)
   {
     this.id = id;
   }
   
-  public int id()
+  public long id()
   {
     return id;
   }
@@ -233,7 +233,7 @@ public final class MemoryTransaction
     this.data = data;
   }
   
-  public int timestamp()
+  public long timestamp()
   {
     return timestamp;
   }
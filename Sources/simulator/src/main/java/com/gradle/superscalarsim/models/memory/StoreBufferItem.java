@@ -46,7 +46,7 @@ public class StoreBufferItem
   /**
    * ID used when getting correct store for bypassing
    */
-  private final int sourceResultId;
+  private final long sourceResultId;
   /**
    * The instruction itself
    */
@@ -65,15 +65,15 @@ public class StoreBufferItem
    * Is instruction accessing memory
    */
   private boolean isAccessingMemory;
-  private int accessingMemoryId;
+  private long accessingMemoryId;
   /**
    * ID of the MA block in which was memory access done
    */
-  private int memoryAccessId;
+  private long memoryAccessId;
   /**
    * ID when the instruction failed
    */
-  private int memoryFailedId;
+  private long memoryFailedId;
   
   /**
    * @param simCodeModel Instruction itself
@@ -81,7 +81,7 @@ public class StoreBufferItem
    *
    * @brief Constructor
    */
-  public StoreBufferItem(SimCodeModel simCodeModel, int sourceId)
+  public StoreBufferItem(SimCodeModel simCodeModel, long sourceId)
   {
     this.simCodeModel   = simCodeModel;
     this.sourceReady    = false;
@@ -120,7 +120,7 @@ public class StoreBufferItem
    * @return MA release id
    * @brief Get MA id when was instruction released
    */
-  public int getMemoryAccessId()
+  public long getMemoryAccessId()
   {
     return memoryAccessId;
   }// end of getMemoryAccessId
@@ -131,7 +131,7 @@ public class StoreBufferItem
    *
    * @brief Set MA id when was instruction released
    */
-  public void setMemoryAccessId(int memoryAccessId)
+  public void setMemoryAccessId(long memoryAccessId)
   {
     this.memoryAccessId = memoryAccessId;
   }// end of setMemoryAccessId
@@ -141,7 +141,7 @@ public class StoreBufferItem
    * @return ID when instruction has failed
    * @brief Get id when instruction has failed
    */
-  public int getMemoryFailedId()
+  public long getMemoryFailedId()
   {
     return memoryFailedId;
   }// end of getMemoryFailedId
@@ -152,7 +152,7 @@ public class StoreBufferItem
    *
    * @brief Set id when instruction has failed
    */
-  public void setMemoryFailedId(int memoryFailedId)
+  public void setMemoryFailedId(long memoryFailedId)
   {
     this.memoryFailedId = memoryFailedId;
   }// end of setMemoryFailedId
@@ -162,7 +162,7 @@ public class StoreBufferItem
    * @return ID of the time, when instruction got into MA
    * @brief Get id when the load instruction got into MA from load buffer
    */
-  public int getAccessingMemoryId()
+  public long getAccessingMemoryId()
   {
     return accessingMemoryId;
   }// end of getAccessingMemoryId
@@ -173,7 +173,7 @@ public class StoreBufferItem
    *
    * @brief Set id when the load instruction got into MA from load buffer
    */
-  public void setAccessingMemoryId(int accessingMemoryId)
+  public void setAccessingMemoryId(long accessingMemoryId)
   {
     this.accessingMemoryId = accessingMemoryId;
   }// end of setAccessingMemoryId
@@ -242,7 +242,7 @@ public class StoreBufferItem
    * @return ID used when getting correct store for bypassing
    * @brief Get id used when getting correct store for bypassing
    */
-  public int getSourceResultId()
+  public long getSourceResultId()
   {
     return sourceResultId;
   }// end of getSourceResultId
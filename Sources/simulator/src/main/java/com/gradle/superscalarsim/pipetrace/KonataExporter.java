@@ -0,0 +1,235 @@
+/**
+ * @file KonataExporter.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Export of a pipeline trace to the Konata viewer
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.pipetrace;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every traced instruction becomes one row: fetch (F), decode (Dc), dispatch (Ds), execute (Ex), load/store buffer
+ * (Lsq), memory (Mem) and complete (Cm) stages, then a retire or a flush. Instructions dropped before reaching the ROB (the rest of a
+ * fetch block after a taken branch, the fetch and decode buffers on a flush) have no event of their own, they are
+ * flushed in the cycle after their last event, as are the instructions in flight at the end of the trace.
+ *
+ * @brief Converts a pipeline trace to the Kanata log format of the Konata pipeline viewer
+ */
+public class KonataExporter
+{
+  /**
+   * Instruction with a row in the log
+   */
+  private static class Row
+  {
+    final int fileId;
+    
+    /**
+     * Index of the last event of the instruction in the trace
+     */
+    final int lastEvent;
+    
+    String stage;
+    
+    Row(int fileId, int lastEvent)
+    {
+      this.fileId    = fileId;
+      this.lastEvent = lastEvent;
+    }
+  }
+  
+  private final PipelineTrace trace;
+  
+  private final Writer out;
+  
+  private final Map<Long, Row> rows = new HashMap<>();
+  
+  /**
+   * Rows without a retire, flushed in {@link #pendingCycle}
+   */
+  private final List<Row> pending = new ArrayList<>();
+  
+  private long pendingCycle;
+  
+  private long cycle;
+  
+  private int nextFileId;
+  
+  private int nextRetireId;
+  
+  private KonataExporter(PipelineTrace trace, Writer out)
+  {
+    this.trace = trace;
+    this.out   = out;
+  }
+  
+  /**
+   * @param trace Trace to convert
+   * @param path  Log file to create (or overwrite)
+   */
+  public static void export(PipelineTrace trace, Path path) throws IOException
+  {
+    try (Writer out = Files.newBufferedWriter(path))
+    {
+      export(trace, out);
+    }
+  }
+  
+  /**
+   * @param trace Trace to convert
+   * @param out   Writer for the log, it is flushed but not closed
+   */
+  public static void export(PipelineTrace trace, Writer out) throws IOException
+  {
+    BufferedWriter buffered = new BufferedWriter(out, 1 << 16);
+    new KonataExporter(trace, buffered).export();
+    buffered.flush();
+  }
+  
+  private void export() throws IOException
+  {
+    Map<Long, Integer> lastEvents = new HashMap<>();
+    for (int i = 0; i < trace.size(); i++)
+    {
+      lastEvents.put(trace.getId(i), i);
+    }
+    
+    out.write("Kanata\t0004\n");
+    cycle = trace.size() == 0 ? 0 : trace.getCycle(0);
+    out.write("C=\t" + cycle + "\n");
+    for (int i = 0; i < trace.size(); i++)
+    {
+      long eventCycle = trace.getCycle(i);
+      if (!pending.isEmpty() && pendingCycle <= eventCycle)
+      {
+        flushPending();
+      }
+      moveTo(eventCycle);
+      
+      long id  = trace.getId(i);
+      Row  row = rows.get(id);
+      if (row == null)
+      {
+        row = new Row(nextFileId++, lastEvents.get(id));
+        rows.put(id, row);
+        int pc = trace.getPc(i);
+        out.write("I\t" + row.fileId + "\t" + id + "\t0\n");
+        out.write("L\t" + row.fileId + "\t0\t" + String.format("%08x: ", pc) + trace.getInstruction(pc) + "\n");
+        out.write("L\t" + row.fileId + "\t1\tid " + id + "\n");
+      }
+      
+      PipelineStage stage = trace.getStage(i);
+      switch (stage)
+      {
+        case kCommit -> retire(id, row, nextRetireId++, 0);
+        case kSquash -> retire(id, row, 0, 1);
+        default ->
+        {
+          startStage(row, stageName(stage));
+          if (row.lastEvent == i)
+          {
+            // Dropped before the ROB, or still in flight at the end of the trace
+            pending.add(row);
+            pendingCycle = eventCycle + 1;
+            rows.remove(id);
+          }
+        }
+      }
+    }
+    if (!pending.isEmpty())
+    {
+      flushPending();
+    }
+  }
+  
+  private static String stageName(PipelineStage stage)
+  {
+    return switch (stage)
+    {
+      case kFetch -> "F";
+      case kDecode -> "Dc";
+      case kDispatch -> "Ds";
+      case kExecute -> "Ex";
+      case kAddress -> "Lsq";
+      case kMemory -> "Mem";
+      case kComplete -> "Cm";
+      case kCommit, kSquash -> throw new IllegalArgumentException("Not a stage: " + stage);
+    };
+  }
+  
+  private void moveTo(long target) throws IOException
+  {
+    if (target > cycle)
+    {
+      out.write("C\t" + (target - cycle) + "\n");
+      cycle = target;
+    }
+  }
+  
+  private void startStage(Row row, String stage) throws IOException
+  {
+    endStage(row);
+    out.write("S\t" + row.fileId + "\t0\t" + stage + "\n");
+    row.stage = stage;
+  }
+  
+  private void endStage(Row row) throws IOException
+  {
+    if (row.stage != null)
+    {
+      out.write("E\t" + row.fileId + "\t0\t" + row.stage + "\n");
+      row.stage = null;
+    }
+  }
+  
+  /**
+   * @param type 0 for a retire, 1 for a flush
+   */
+  private void retire(long id, Row row, int retireId, int type) throws IOException
+  {
+    endStage(row);
+    out.write("R\t" + row.fileId + "\t" + retireId + "\t" + type + "\n");
+    rows.remove(id);
+  }
+  
+  private void flushPending() throws IOException
+  {
+    moveTo(pendingCycle);
+    for (Row row : pending)
+    {
+      endStage(row);
+      out.write("R\t" + row.fileId + "\t0\t1\n");
+    }
+    pending.clear();
+  }
+}
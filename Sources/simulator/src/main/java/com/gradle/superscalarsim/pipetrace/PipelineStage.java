@@ -0,0 +1,71 @@
+/**
+ * @file PipelineStage.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Traced pipeline stages
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.pipetrace;
+
+/**
+ * @brief Pipeline event of an instruction, in the order an instruction passes them
+ */
+public enum PipelineStage
+{
+  /**
+   * Fetched from the instruction memory
+   */
+  kFetch,
+  /**
+   * Decoded and renamed
+   */
+  kDecode,
+  /**
+   * Placed into an issue window (it has a ROB entry)
+   */
+  kDispatch,
+  /**
+   * Issued to a function unit and started executing (address computation for loads and stores)
+   */
+  kExecute,
+  /**
+   * Address computed, waiting in the load or store buffer
+   */
+  kAddress,
+  /**
+   * Started the memory access in a memory access unit
+   */
+  kMemory,
+  /**
+   * Left a function unit with the result
+   */
+  kComplete,
+  /**
+   * Committed by the ROB
+   */
+  kCommit,
+  /**
+   * Removed from the ROB after a misprediction or a memory ordering violation
+   */
+  kSquash
+}
@@ -0,0 +1,207 @@
+/**
+ * @file PipelineTimeline.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Seekable index of a pipeline trace
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.pipetrace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state at tick T is the state after the events of all cycles before T, the state the CPU has at tick T.
+ * Every {@link #getKeyframeInterval()} ticks a keyframe stores the instructions in the ROB with the index of their
+ * last event. A seek starts from the keyframe at or before the tick and applies the events in between, so its cost
+ * does not depend on the length of the run.
+ *
+ * @brief Index of a pipeline trace for seeking to the contents of the ROB, issue windows and function units at a tick
+ */
+public class PipelineTimeline
+{
+  public static final int DEFAULT_KEYFRAME_INTERVAL = 256;
+  
+  /**
+   * Instruction in the ROB at a tick
+   *
+   * @param id          Instruction id, unique in the run
+   * @param pc          Address of the instruction
+   * @param instruction Text of the instruction
+   * @param stage       Last stage the instruction reached
+   * @param unit        Unit of the last stage, see {@link PipelineTracer#onStage}
+   */
+  public record Entry(long id, int pc, String instruction, PipelineStage stage, int unit)
+  {
+    /**
+     * @return True if the instruction waits in the issue window {@link #unit}
+     */
+    public boolean isInIssueWindow()
+    {
+      return stage == PipelineStage.kDispatch;
+    }
+    
+    /**
+     * @return True if the instruction executes in the function unit {@link #unit}
+     */
+    public boolean isInFunctionUnit()
+    {
+      return stage == PipelineStage.kExecute || stage == PipelineStage.kMemory;
+    }
+  }
+  
+  private final PipelineTrace trace;
+  
+  private final int interval;
+  
+  /**
+   * Index of the first event of the tick of each keyframe
+   */
+  private final int[] keyframeEvents;
+  
+  /**
+   * Last events of the instructions in the ROB at the tick of each keyframe, in the ROB order
+   */
+  private final int[][] keyframeRob;
+  
+  /**
+   * @param trace Trace to index
+   */
+  public PipelineTimeline(PipelineTrace trace)
+  {
+    this(trace, DEFAULT_KEYFRAME_INTERVAL);
+  }
+  
+  /**
+   * @param trace    Trace to index
+   * @param interval Ticks between keyframes
+   */
+  public PipelineTimeline(PipelineTrace trace, int interval)
+  {
+    if (interval <= 0)
+    {
+      throw new IllegalArgumentException("Keyframe interval must be positive");
+    }
+    this.trace    = trace;
+    this.interval = interval;
+    
+    long lastCycle = trace.size() == 0 ? 0 : trace.getCycle(trace.size() - 1);
+    int  count     = (int) (lastCycle / interval) + 1;
+    this.keyframeEvents = new int[count];
+    this.keyframeRob    = new int[count][];
+    
+    Map<Long, Integer> rob   = new LinkedHashMap<>();
+    int                event = 0;
+    for (int keyframe = 0; keyframe < count; keyframe++)
+    {
+      event                    = apply(rob, event, (long) keyframe * interval);
+      keyframeEvents[keyframe] = event;
+      keyframeRob[keyframe]    = rob.values().stream().mapToInt(Integer::intValue).toArray();
+    }
+  }
+  
+  /**
+   * @param rob   Last events of the instructions in the ROB, in the ROB order
+   * @param from  First event to apply
+   * @param until Tick, the events of earlier cycles are applied
+   *
+   * @return Index of the first event not applied
+   */
+  private int apply(Map<Long, Integer> rob, int from, long until)
+  {
+    int event = from;
+    for (; event < trace.size() && trace.getCycle(event) < until; event++)
+    {
+      long id = trace.getId(event);
+      switch (trace.getStage(event))
+      {
+        // Fetch and decode happen before the ROB
+        case kFetch, kDecode ->
+        {
+        }
+        case kDispatch -> rob.put(id, event);
+        case kCommit, kSquash -> rob.remove(id);
+        default -> rob.replace(id, event);
+      }
+    }
+    return event;
+  }
+  
+  /**
+   * @param tick The tick, ticks after the end of the trace give the state at the end
+   *
+   * @return Instructions in the ROB at the tick, in the ROB order (oldest first)
+   */
+  public List<Entry> stateAt(long tick)
+  {
+    if (tick < 0)
+    {
+      throw new IllegalArgumentException("Tick must be non-negative");
+    }
+    int keyframe = (int) Math.min(tick / interval, keyframeEvents.length - 1);
+    
+    Map<Long, Integer> rob = new LinkedHashMap<>();
+    for (int event : keyframeRob[keyframe])
+    {
+      rob.put(trace.getId(event), event);
+    }
+    apply(rob, keyframeEvents[keyframe], tick);
+    
+    List<Entry> entries = new ArrayList<>(rob.size());
+    for (int event : rob.values())
+    {
+      int pc = trace.getPc(event);
+      entries.add(new Entry(trace.getId(event), pc, trace.getInstruction(pc), trace.getStage(event),
+                            trace.getUnit(event)));
+    }
+    return entries;
+  }
+  
+  /**
+   * @return The indexed trace
+   */
+  public PipelineTrace getTrace()
+  {
+    return trace;
+  }
+  
+  /**
+   * @return Ticks between keyframes
+   */
+  public int getKeyframeInterval()
+  {
+    return interval;
+  }
+  
+  /**
+   * @return Approximate size of the trace and the index in bytes
+   */
+  public long estimateMemory()
+  {
+    long keyframes = Arrays.stream(keyframeRob).mapToLong(rob -> 16 + 4L * rob.length).sum();
+    return (long) trace.size() * 25 + 4L * keyframeEvents.length + keyframes;
+  }
+}
@@ -0,0 +1,264 @@
+/**
+ * @file PipelineTrace.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Pipeline trace loaded in memory
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.pipetrace;
+
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @brief Pipeline event trace held in memory, in primitive arrays
+ * @details Read from a file written by {@link PipelineTraceWriter}, or recorded directly as a tracer.
+ * The events are in simulation order, so their cycles never decrease.
+ */
+public class PipelineTrace implements PipelineTracer
+{
+  private static final PipelineStage[] STAGES = PipelineStage.values();
+  
+  private final List<String> listing;
+  
+  private long[] ids = new long[1024];
+  
+  private long[] cycles = new long[1024];
+  
+  private int[] pcs = new int[1024];
+  
+  private byte[] stages = new byte[1024];
+  
+  private int[] units = new int[1024];
+  
+  private int size;
+  
+  /**
+   * @param listing Text of the instructions of the program, indexed by PC / 4
+   */
+  public PipelineTrace(List<String> listing)
+  {
+    this.listing = listing;
+  }
+  
+  /**
+   * @param path File written by {@link PipelineTraceWriter}
+   *
+   * @return The trace
+   */
+  public static PipelineTrace read(Path path) throws IOException
+  {
+    try (InputStream stream = Files.newInputStream(path))
+    {
+      return read(stream);
+    }
+  }
+  
+  /**
+   * @param stream Stream in the format of {@link PipelineTraceWriter}, read to the end
+   *
+   * @return The trace
+   */
+  public static PipelineTrace read(InputStream stream) throws IOException
+  {
+    InputStream in     = new BufferedInputStream(stream, 1 << 16);
+    byte[]      header = in.readNBytes(PipelineTraceWriter.MAGIC.length + 1);
+    if (header.length != PipelineTraceWriter.MAGIC.length + 1 || !Arrays.equals(header, 0,
+                                                                                 PipelineTraceWriter.MAGIC.length,
+                                                                                 PipelineTraceWriter.MAGIC, 0,
+                                                                                 PipelineTraceWriter.MAGIC.length))
+    {
+      throw new IOException("Not a pipeline trace file");
+    }
+    if (header[PipelineTraceWriter.MAGIC.length] != PipelineTraceWriter.VERSION)
+    {
+      throw new IOException("Unsupported pipeline trace version: " + header[PipelineTraceWriter.MAGIC.length]);
+    }
+    
+    int          lines   = readInt(in);
+    List<String> listing = new ArrayList<>(lines);
+    for (int i = 0; i < lines; i++)
+    {
+      byte[] text = readExactly(in, readInt(in));
+      listing.add(new String(text, StandardCharsets.UTF_8));
+    }
+    
+    PipelineTrace trace = new PipelineTrace(listing);
+    byte[]        block = new byte[PipelineTraceWriter.RECORD_SIZE * 4096];
+    int           read;
+    while ((read = in.readNBytes(block, 0, block.length)) > 0)
+    {
+      if (read % PipelineTraceWriter.RECORD_SIZE != 0)
+      {
+        throw new EOFException("Pipeline trace ends in the middle of a record");
+      }
+      ByteBuffer records = ByteBuffer.wrap(block, 0, read).order(ByteOrder.LITTLE_ENDIAN);
+      while (records.hasRemaining())
+      {
+        long id    = records.getLong();
+        long cycle = records.getLong();
+        int  pc    = records.getInt();
+        int  field = records.getInt();
+        int  stage = field & 0xFF;
+        if (stage == 0)
+        {
+          // Zeroed tail of a file that was not closed
+          return trace;
+        }
+        if (stage > STAGES.length)
+        {
+          throw new IOException("Unknown pipeline stage: " + stage);
+        }
+        trace.add(id, pc, STAGES[stage - 1], (field >>> 8) - 1, cycle);
+      }
+    }
+    return trace;
+  }
+  
+  private static int readInt(InputStream in) throws IOException
+  {
+    return ByteBuffer.wrap(readExactly(in, 4)).order(ByteOrder.LITTLE_ENDIAN).getInt();
+  }
+  
+  private static byte[] readExactly(InputStream in, int length) throws IOException
+  {
+    if (length < 0)
+    {
+      throw new IOException("Corrupted pipeline trace header");
+    }
+    byte[] bytes = in.readNBytes(length);
+    if (bytes.length != length)
+    {
+      throw new EOFException("Pipeline trace ends in the header");
+    }
+    return bytes;
+  }
+  
+  @Override
+  public void onStage(SimCodeModel codeModel, PipelineStage stage, int unit, long cycle)
+  {
+    add(codeModel.getIntegerId(), codeModel.getSavedPc(), stage, unit, cycle);
+  }
+  
+  private void add(long id, int pc, PipelineStage stage, int unit, long cycle)
+  {
+    if (size == ids.length)
+    {
+      ids    = Arrays.copyOf(ids, size * 2);
+      cycles = Arrays.copyOf(cycles, size * 2);
+      pcs    = Arrays.copyOf(pcs, size * 2);
+      stages = Arrays.copyOf(stages, size * 2);
+      units  = Arrays.copyOf(units, size * 2);
+    }
+    ids[size]    = id;
+    cycles[size] = cycle;
+    pcs[size]    = pc;
+    stages[size] = (byte) stage.ordinal();
+    units[size]  = unit;
+    size++;
+  }
+  
+  /**
+   * @param path File to write the trace to, in the format of {@link PipelineTraceWriter}
+   */
+  public void write(Path path) throws IOException
+  {
+    try (PipelineTraceWriter writer = new PipelineTraceWriter(path, listing))
+    {
+      for (int i = 0; i < size; i++)
+      {
+        writer.write(ids[i], pcs[i], getStage(i), units[i], cycles[i]);
+      }
+    }
+  }
+  
+  /**
+   * @return Text of the instructions of the program, indexed by PC / 4
+   */
+  public List<String> getListing()
+  {
+    return listing;
+  }
+  
+  /**
+   * @return Number of events
+   */
+  public int size()
+  {
+    return size;
+  }
+  
+  /**
+   * @return Id of the instruction of the event, unique in the run
+   */
+  public long getId(int i)
+  {
+    return ids[i];
+  }
+  
+  public long getCycle(int i)
+  {
+    return cycles[i];
+  }
+  
+  public int getPc(int i)
+  {
+    return pcs[i];
+  }
+  
+  public PipelineStage getStage(int i)
+  {
+    return STAGES[stages[i]];
+  }
+  
+  /**
+   * @return Unit of the event (see {@link PipelineTracer#onStage}), {@link PipelineTracer#NO_UNIT} if it has none
+   */
+  public int getUnit(int i)
+  {
+    return units[i];
+  }
+  
+  /**
+   * @param pc Address of an instruction
+   *
+   * @return Text of the instruction, "?" if the address is outside the program
+   */
+  public String getInstruction(int pc)
+  {
+    int index = pc / 4;
+    return pc >= 0 && index < listing.size() ? listing.get(index) : "?";
+  }
+}
@@ -0,0 +1,190 @@
+/**
+ * @file PipelineTraceWriter.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Memory-mapped pipeline trace writer
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.pipetrace;
+
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * @brief Writes pipeline events into a memory-mapped file
+ * @details Format (little-endian): the 4 bytes {@link #MAGIC}, the version byte, the number of instructions of the
+ * program and their text (each as a length and UTF-8 bytes), then one {@link #RECORD_SIZE}-byte record per event:
+ * the instruction id (8 bytes), the cycle (8), the PC (4) and the stage (4): the ordinal of the stage plus one in
+ * the low byte, the unit (see {@link PipelineTracer#onStage}) plus one above it.
+ * The file is mapped one chunk at a time, a full chunk is left to the OS and the next one is mapped.
+ * On close, the file is truncated after the last record. A file of a crashed run ends with zeroed records, which
+ * the reader skips (stage 0).
+ */
+public class PipelineTraceWriter implements PipelineTracer, Closeable
+{
+  /**
+   * First bytes of a trace file
+   */
+  public static final byte[] MAGIC = {'S', 'S', 'P', 'T'};
+  
+  public static final int VERSION = 2;
+  
+  public static final int RECORD_SIZE = 24;
+  
+  /**
+   * Records in one mapped chunk, 24 MiB
+   */
+  public static final int DEFAULT_CHUNK_RECORDS = 1 << 20;
+  
+  private final FileChannel channel;
+  
+  private final long chunkSize;
+  
+  private final long headerSize;
+  
+  /**
+   * Offset of the current chunk in the file
+   */
+  private long chunkStart;
+  
+  private MappedByteBuffer chunk;
+  
+  private long count;
+  
+  /**
+   * @param path    File to create (or overwrite)
+   * @param listing Text of the instructions of the program, indexed by PC / 4
+   */
+  public PipelineTraceWriter(Path path, List<String> listing) throws IOException
+  {
+    this(path, listing, DEFAULT_CHUNK_RECORDS);
+  }
+  
+  /**
+   * @param path         File to create (or overwrite)
+   * @param listing      Text of the instructions of the program, indexed by PC / 4
+   * @param chunkRecords Records in one mapped chunk
+   */
+  public PipelineTraceWriter(Path path, List<String> listing, int chunkRecords) throws IOException
+  {
+    if (chunkRecords <= 0)
+    {
+      throw new IllegalArgumentException("Chunk must hold at least one record");
+    }
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    header.write(MAGIC);
+    header.write(VERSION);
+    header.write(intBytes(listing.size()));
+    for (String line : listing)
+    {
+      byte[] text = line.getBytes(StandardCharsets.UTF_8);
+      header.write(intBytes(text.length));
+      header.write(text);
+    }
+    
+    this.channel    = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                       StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    this.chunkSize  = (long) chunkRecords * RECORD_SIZE;
+    this.headerSize = header.size();
+    this.chunkStart = headerSize;
+    channel.write(ByteBuffer.wrap(header.toByteArray()));
+    mapChunk();
+  }
+  
+  private static byte[] intBytes(int value)
+  {
+    return ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).array();
+  }
+  
+  private void mapChunk() throws IOException
+  {
+    chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunkStart, chunkSize);
+    chunk.order(ByteOrder.LITTLE_ENDIAN);
+  }
+  
+  /**
+   * @throws UncheckedIOException If the next chunk cannot be mapped, the tracer interface does not allow IOException
+   */
+  @Override
+  public void onStage(SimCodeModel codeModel, PipelineStage stage, int unit, long cycle)
+  {
+    write(codeModel.getIntegerId(), codeModel.getSavedPc(), stage, unit, cycle);
+  }
+  
+  /**
+   * @param id    Instruction id, unique in the run
+   * @param pc    Address of the instruction
+   * @param stage The stage
+   * @param unit  Unit of the event, or {@link PipelineTracer#NO_UNIT}
+   * @param cycle Cycle of the event
+   */
+  public void write(long id, int pc, PipelineStage stage, int unit, long cycle)
+  {
+    if (!chunk.hasRemaining())
+    {
+      chunkStart += chunkSize;
+      try
+      {
+        mapChunk();
+      }
+      catch (IOException e)
+      {
+        throw new UncheckedIOException(e);
+      }
+    }
+    chunk.putLong(id);
+    chunk.putLong(cycle);
+    chunk.putInt(pc);
+    chunk.putInt(stage.ordinal() + 1 | (unit + 1) << 8);
+    count++;
+  }
+  
+  /**
+   * @return Number of records written so far
+   */
+  public long getCount()
+  {
+    return count;
+  }
+  
+  @Override
+  public void close() throws IOException
+  {
+    chunk.force();
+    chunk = null;
+    channel.truncate(headerSize + count * RECORD_SIZE);
+    channel.close();
+  }
+}
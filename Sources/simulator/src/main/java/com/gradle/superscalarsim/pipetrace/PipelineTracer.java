@@ -0,0 +1,52 @@
+/**
+ * @file PipelineTracer.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Receiver of pipeline events
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.pipetrace;
+
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+
+/**
+ * @brief Receives the pipeline events of every instruction, in simulation order
+ * @see com.gradle.superscalarsim.cpu.CpuState#setPipelineTracer
+ */
+public interface PipelineTracer
+{
+  /**
+   * Unit of the events that do not happen in a unit
+   */
+  int NO_UNIT = -1;
+  
+  /**
+   * @param codeModel Instruction that reached the stage
+   * @param stage     The stage
+   * @param unit      Function unit for the execute, address, memory and complete stages (index into
+   *                  {@link com.gradle.superscalarsim.cpu.CpuState#getFunctionUnits()}), issue window for the
+   *                  dispatch (ordinal of the instruction type), {@link #NO_UNIT} otherwise
+   * @param cycle     Cycle of the event
+   */
+  void onStage(SimCodeModel codeModel, PipelineStage stage, int unit, long cycle);
+}
@@ -56,7 +56,7 @@ public class ManagerSerializer extends StdSerializer<InstanceManager<?>>
     {
       Identifiable entry = (Identifiable) instance;
       String       key   = entry.getId();
-      jgen.writeObjectField(key, entry);
+      provider.defaultSerializeField(key, entry, jgen);
     }
     
     jgen.writeEndObject();
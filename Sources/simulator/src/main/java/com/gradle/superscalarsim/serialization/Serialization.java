@@ -29,22 +29,43 @@
 package com.gradle.superscalarsim.serialization;
 
 import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import com.kjetland.jackson.jsonSchema.JsonSchemaGenerator;
 
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+
 /**
  * Factory for JSON serializer, deserializer and schema generator.
+ * The binary formats (see {@link WireFormat}) use the same configuration.
  */
 public class Serialization
 {
   /**
    * Reuse the same ObjectMapper for all serialization and deserialization.
    */
-  static ObjectMapper mapper = createObjectMapper();
+  static ObjectMapper mapper = createObjectMapper(WireFormat.JSON.getFactory());
+  
+  /**
+   * Mappers for the binary formats. Creating them links the shared factories of {@link WireFormat} to a mapper.
+   */
+  static Map<WireFormat, ObjectMapper> binaryMappers = createBinaryMappers();
+  
+  /**
+   * Mapper with sorted properties and map keys, so equal objects give equal bytes. Used for hashing.
+   */
+  static ObjectMapper canonicalMapper = createCanonicalMapper();
   
   /**
    * @return ObjectMapper for serialization
@@ -54,6 +75,20 @@ public class Serialization
     return mapper;
   }
   
+  /**
+   * @param format Format of the output
+   *
+   * @return ObjectMapper for serialization into the given format
+   */
+  public static ObjectMapper getSerializer(WireFormat format)
+  {
+    if (format == WireFormat.JSON)
+    {
+      return mapper;
+    }
+    return binaryMappers.get(format);
+  }
+  
   /**
    * @return ObjectMapper for serialization, with pretty printing
    */
@@ -87,20 +122,75 @@ public class Serialization
    */
   public static JsonNode getSchema(Class<?> cls)
   {
-    ObjectMapper        objectMapper = createObjectMapper();
-    JsonSchemaGenerator schemaGen    = new JsonSchemaGenerator(objectMapper);
-    return schemaGen.generateJsonSchema(cls);
+    return SchemaGeneratorHolder.schemaGenerator.generateJsonSchema(cls);
+  }
+  
+  /**
+   * The generator is slow to create, it is created on the first use (holder idiom)
+   */
+  private static class SchemaGeneratorHolder
+  {
+    static final JsonSchemaGenerator schemaGenerator = new JsonSchemaGenerator(
+            createObjectMapper(new JsonFactory()));
+  }
+  
+  /**
+   * Equal objects have the same hash, regardless of the order of their properties and map entries.
+   *
+   * @param value Object to hash, serializable by the default mapper
+   *
+   * @return SHA-256 of the canonical JSON of the object, as a hex string
+   */
+  public static String canonicalHash(Object value)
+  {
+    try
+    {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(canonicalMapper.writeValueAsBytes(value)));
+    }
+    catch (JsonProcessingException e)
+    {
+      throw new UncheckedIOException(e);
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      // Every JVM has SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+  
+  private static ObjectMapper createCanonicalMapper()
+  {
+    ObjectMapper objectMapper = createObjectMapper(new JsonFactory());
+    objectMapper.setConfig(objectMapper.getSerializationConfig().with(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                                   .with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS));
+    return objectMapper;
+  }
+  
+  private static Map<WireFormat, ObjectMapper> createBinaryMappers()
+  {
+    Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+    for (WireFormat format : WireFormat.values())
+    {
+      if (format.isBinary())
+      {
+        mappers.put(format, createObjectMapper(format.getFactory()));
+      }
+    }
+    return mappers;
   }
   
   /**
    * Internal method for creating the ObjectMapper
+   *
+   * @param factory Factory of the format (JSON, CBOR, ...)
    */
-  private static ObjectMapper createObjectMapper()
+  private static ObjectMapper createObjectMapper(JsonFactory factory)
   {
     // Builder, had issues
     //    ObjectMapper objectMapper = JsonMapper.builder().addModule(new Jdk8Module()).addModule(new AfterburnerModule())
     //            .build();
-    ObjectMapper objectMapper = new ObjectMapper();
+    ObjectMapper objectMapper = new ObjectMapper(factory);
     // Add JDS types
     objectMapper.registerModule(new BlackbirdModule());
     objectMapper.registerModule(new Jdk8Module());
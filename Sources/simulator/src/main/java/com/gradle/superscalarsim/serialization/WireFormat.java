@@ -0,0 +1,151 @@
+/**
+ * @file WireFormat.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Data formats the server can speak
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.serialization;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * @brief Data formats used on the wire.
+ * @details All formats share the same data model (the Jackson annotations and the {@link Serialization} setup),
+ * only the encoding differs. JSON is the default, the binary formats are opt-in via the Content-Type and Accept headers.
+ * The factories are thread-safe and are shared, as recommended by Jackson.
+ */
+public enum WireFormat
+{
+  JSON("text/json", new JsonFactory()), //
+  CBOR("application/cbor", new CBORFactory()), //
+  SMILE("application/x-jackson-smile", new SmileFactory());
+  
+  /**
+   * Media type sent in the Content-Type header of responses
+   */
+  private final String mediaType;
+  
+  /**
+   * Factory for parsers and generators of the format
+   */
+  private final JsonFactory factory;
+  
+  WireFormat(String mediaType, JsonFactory factory)
+  {
+    this.mediaType = mediaType;
+    this.factory   = factory;
+  }
+  
+  /**
+   * @param contentType Value of the Content-Type header. Can be null.
+   *
+   * @return Format of the request body. JSON if the header is missing or unknown.
+   */
+  public static WireFormat fromContentType(String contentType)
+  {
+    if (contentType == null)
+    {
+      return JSON;
+    }
+    String type = contentType.split(";")[0].trim().toLowerCase();
+    for (WireFormat format : values())
+    {
+      if (format.matches(type))
+      {
+        return format;
+      }
+    }
+    return JSON;
+  }
+  
+  /**
+   * The first binary format listed in the header is picked, JSON otherwise.
+   * Quality values are not taken into account.
+   *
+   * @param accept Value of the Accept header. Can be null.
+   *
+   * @return Format of the response
+   */
+  public static WireFormat fromAccept(String accept)
+  {
+    if (accept == null)
+    {
+      return JSON;
+    }
+    for (String part : accept.split(","))
+    {
+      String type = part.split(";")[0].trim().toLowerCase();
+      if (CBOR.matches(type))
+      {
+        return CBOR;
+      }
+      if (SMILE.matches(type))
+      {
+        return SMILE;
+      }
+    }
+    return JSON;
+  }
+  
+  /**
+   * @param type Media type without parameters, lowercase
+   *
+   * @return True if the media type denotes this format
+   */
+  private boolean matches(String type)
+  {
+    return switch (this)
+    {
+      case JSON -> type.equals("text/json") || type.equals("application/json");
+      case CBOR -> type.equals("application/cbor");
+      case SMILE -> type.equals("application/x-jackson-smile") || type.equals("application/smile");
+    };
+  }
+  
+  /**
+   * @return Media type of the format
+   */
+  public String getMediaType()
+  {
+    return mediaType;
+  }
+  
+  /**
+   * @return Factory to pass to {@code ObjectReader.with} and {@code ObjectWriter.with}
+   */
+  public JsonFactory getFactory()
+  {
+    return factory;
+  }
+  
+  /**
+   * @return True if the format is not human-readable
+   */
+  public boolean isBinary()
+  {
+    return this != JSON;
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * @file EndpointClass.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Classes of endpoints with separate executors
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server;
+
+/**
+ * @brief Classes of endpoints by cost
+ * @details Each class runs on its own bounded executor (see {@link WorkerLanes}),
+ * so a burst of expensive requests cannot starve the cheap ones.
+ */
+public enum EndpointClass
+{
+  /**
+   * Cheap requests fired by the editor on every change (parsing, config checks, static data)
+   */
+  kInteractive(1),
+  /**
+   * Calls of the external compiler
+   */
+  kCompile(2),
+  /**
+   * Simulations. CPU and memory heavy, can run for the whole request timeout.
+   */
+  kSimulation(5);
+  
+  /**
+   * Value of the Retry-After header in seconds, when the class is saturated
+   */
+  private final int retryAfter;
+  
+  EndpointClass(int retryAfter)
+  {
+    this.retryAfter = retryAfter;
+  }
+  
+  /**
+   * @return Seconds the client should wait before retrying a rejected request
+   */
+  public int getRetryAfter()
+  {
+    return retryAfter;
+  }
+}
@@ -0,0 +1,156 @@
+/**
+ * @file EndpointMetrics.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Metrics of the requests of an endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server;
+
+import com.gradle.superscalarsim.jfr.RequestEvent;
+import com.gradle.superscalarsim.metrics.Histogram;
+import com.gradle.superscalarsim.metrics.Metrics;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import io.undertow.server.HttpServerExchange;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @brief Metrics of the requests of one endpoint
+ * @details Latency of the requests (from the arrival to the end of the response, including the wait for a thread),
+ * requests in flight, responses by status code, and the time and size of the serialization of the responses.
+ * See {@link Metrics}. The requests are recorded as {@link RequestEvent}s in Flight Recorder too.
+ */
+public class EndpointMetrics
+{
+  /**
+   * Name of the endpoint in the labels
+   */
+  private final String endpoint;
+  
+  /**
+   * Requests that arrived and did not complete yet
+   */
+  private final LongAdder inFlight = new LongAdder();
+  
+  private final Histogram duration;
+  
+  /**
+   * @param endpoint The endpoint
+   */
+  public EndpointMetrics(EndpointName endpoint)
+  {
+    this.endpoint = endpoint.getName();
+    this.duration = Metrics.histogram("simulator_http_request_duration_seconds", "Latency of the requests", 1e-9,
+                                      "endpoint", this.endpoint);
+    Metrics.gauge("simulator_http_requests_in_flight", "Requests being handled", inFlight::sum, "endpoint",
+                  this.endpoint);
+  }
+  
+  /**
+   * Must be called once per request, when it arrives.
+   *
+   * @brief Count the request in flight until its exchange completes, then record its latency and status
+   */
+  public void track(HttpServerExchange exchange)
+  {
+    long         start = System.nanoTime();
+    RequestEvent event = new RequestEvent();
+    event.begin();
+    inFlight.increment();
+    exchange.addExchangeCompleteListener((completed, next) ->
+                                         {
+                                           inFlight.decrement();
+                                           duration.record(System.nanoTime() - start);
+                                           Metrics.counter("simulator_http_responses_total",
+                                                           "Responses by status code", "endpoint", endpoint,
+                                                           "status", String.valueOf(completed.getStatusCode()))
+                                                   .increment();
+                                           event.end();
+                                           if (event.shouldCommit())
+                                           {
+                                             event.endpoint = endpoint;
+                                             event.status   = completed.getStatusCode();
+                                             event.cache    = Objects.requireNonNullElse(
+                                                     completed.getResponseHeaders()
+                                                             .getFirst(MyRequestHandler.X_CACHE), "");
+                                             event.commit();
+                                           }
+                                           next.proceed();
+                                         });
+  }
+  
+  /**
+   * @return Name of the endpoint
+   */
+  public String getEndpoint()
+  {
+    return endpoint;
+  }
+  
+  /**
+   * The metrics of a format are created on its first use, most clients use one format.
+   *
+   * @param format Format of the response
+   * @param nanos  Duration of the serialization
+   * @param bytes  Size of the serialized response
+   */
+  public void recordSerialization(WireFormat format, long nanos, long bytes)
+  {
+    Metrics.histogram("simulator_serialization_duration_seconds", "Time to serialize and write a response", 1e-9,
+                      "endpoint", endpoint, "format", format.name()).record(nanos);
+    Metrics.histogram("simulator_response_size_bytes", "Size of a serialized response", 1, "endpoint", endpoint,
+                      "format", format.name()).record(bytes);
+  }
+  
+  /**
+   * @brief Stream counting the bytes written through it
+   */
+  static class CountingOutputStream extends FilterOutputStream
+  {
+    long count = 0;
+    
+    CountingOutputStream(OutputStream out)
+    {
+      super(out);
+    }
+    
+    @Override
+    public void write(int b) throws IOException
+    {
+      out.write(b);
+      count++;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException
+    {
+      out.write(b, off, len);
+      count += len;
+    }
+  }
+}
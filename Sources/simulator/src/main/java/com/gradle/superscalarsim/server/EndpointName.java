@@ -35,11 +35,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public enum EndpointName
 {
   compile("compile"), //
+  compileSimulate("compileSimulate"), //
   parseAsm("parseAsm"), //
   checkConfig("checkConfig"), //
   simulate("simulate"), //
+  simulateStream("simulateStream"), //
   schema("schema"), //
-  instructionDescription("instructionDescription");
+  instructionDescription("instructionDescription"), //
+  timeline("timeline");
   
   private final String pathName;
   
@@ -56,6 +59,19 @@ public enum EndpointName
     return "/" + pathName;
   }
   
+  /**
+   * @return The class of the endpoint, decides the executor the request runs on
+   */
+  public EndpointClass getEndpointClass()
+  {
+    return switch (this)
+    {
+      case compile -> EndpointClass.kCompile;
+      case simulate, simulateStream, compileSimulate, timeline -> EndpointClass.kSimulation;
+      case parseAsm, checkConfig, schema, instructionDescription -> EndpointClass.kInteractive;
+    };
+  }
+  
   /**
    * @return The name of the endpoint
    */
@@ -27,9 +27,13 @@
 
 package com.gradle.superscalarsim.server;
 
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.serialization.WireFormat;
+
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Map;
 
 /**
  * @param <T> Request type
@@ -38,6 +42,7 @@ import java.io.OutputStream;
  * @brief Interface for request resolvers
  * @details Implementors of this interface are responsible for deserializing requests, resolving them and serializing responses.
  * The (de)serialization is per type, so the serialization object can be reused across multiple requests of the same type.
+ * The format of the data (JSON or a binary format) is chosen by the caller, the data model is the same for all formats.
  */
 public interface IRequestResolver<T, U>
 {
@@ -51,20 +56,83 @@ public interface IRequestResolver<T, U>
   U resolve(T request) throws ServerException;
   
   /**
-   * @param json The input stream containing the JSON
+   * Long-running resolvers should override this and poll the token.
+   *
+   * @param request The request to resolve
+   * @param token   Cancelled when the request times out or the client goes away
+   *
+   * @return The response
+   * @throws ServerException If the request contains invalid data
+   * @brief Resolve a request that can be cancelled
+   */
+  default U resolve(T request, CancellationToken token) throws ServerException
+  {
+    return resolve(request);
+  }
+  
+  /**
+   * Used for admission control, see {@link WorkerLanes}. Cheap requests do not need to override it.
+   *
+   * @param request The request to resolve
+   *
+   * @return Rough estimate of the memory needed to resolve the request and serialize the response, in bytes
+   * @brief Estimate the memory use of a request
+   */
+  default long estimateMemory(T request)
+  {
+    return 0;
+  }
+  
+  /**
+   * Only deterministic requests should have a key. The same key must always give the same response.
+   *
+   * @param request The request to resolve
+   *
+   * @return Key of the response in the response cache, or null if the response must not be cached
+   */
+  default String cacheKey(T request)
+  {
+    return null;
+  }
+  
+  /**
+   * @param response Response of a request with a cache key
+   *
+   * @return True if the response can be stored in the cache (it does not depend on timing, for example)
+   */
+  default boolean isCacheable(U response)
+  {
+    return true;
+  }
+  
+  /**
+   * Responses that only change between releases. They are serialized and compressed once, when the server starts,
+   * and served with an ETag (see {@link MyRequestHandler}).
+   *
+   * @return Response for every valid request, keyed by {@link #cacheKey}. Empty if the responses are not static.
+   */
+  default Map<String, U> precompute()
+  {
+    return Map.of();
+  }
+  
+  /**
+   * @param stream The input stream containing the request
+   * @param format The format of the request (JSON, CBOR, ...)
    *
    * @return The deserialized request object
-   * @throws IOException If the JSON string is invalid or there is an error reading the stream
-   * @brief Deserialize a request from JSON
+   * @throws IOException If the data is invalid or there is an error reading the stream
+   * @brief Deserialize a request
    */
-  T deserialize(InputStream json) throws IOException;
+  T deserialize(InputStream stream, WireFormat format) throws IOException;
   
   /**
    * @param response The response to serialize
-   * @param stream   The output stream to write the JSON to
+   * @param stream   The output stream to write the response to
+   * @param format   The format of the response (JSON, CBOR, ...)
    *
    * @throws IOException If there is an error writing to the stream
-   * @brief Serialize a response to JSON
+   * @brief Serialize a response
    */
-  void serialize(U response, OutputStream stream) throws IOException;
+  void serialize(U response, OutputStream stream, WireFormat format) throws IOException;
 }
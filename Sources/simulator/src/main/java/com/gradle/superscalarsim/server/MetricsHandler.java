@@ -0,0 +1,62 @@
+/**
+ * @file MetricsHandler.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Handler of the metrics endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server;
+
+import com.gradle.superscalarsim.metrics.Metrics;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+
+/**
+ * @brief Handler for GET /metrics
+ * @details Returns the metrics of the server (see {@link Metrics}) in the Prometheus text format, so the server
+ * can be scraped by Prometheus or read with curl. The scrape reads the counters without locking, it runs
+ * on the IO thread.
+ */
+public class MetricsHandler implements HttpHandler
+{
+  /**
+   * Content type of the Prometheus text format
+   */
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+  
+  @Override
+  public void handleRequest(HttpServerExchange exchange)
+  {
+    if (!exchange.getRequestMethod().toString().equals("GET"))
+    {
+      exchange.setStatusCode(405);
+      exchange.getResponseHeaders().put(Headers.ALLOW, "GET");
+      exchange.getResponseSender().send("Method not allowed");
+      return;
+    }
+    exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, CONTENT_TYPE);
+    exchange.getResponseHeaders().put(Headers.CACHE_CONTROL, "no-store");
+    exchange.getResponseSender().send(Metrics.scrape());
+  }
+}
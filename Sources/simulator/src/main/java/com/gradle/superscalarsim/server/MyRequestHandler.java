@@ -27,37 +27,134 @@
 
 package com.gradle.superscalarsim.server;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.jfr.DeserializationEvent;
+import com.gradle.superscalarsim.jfr.SerializationEvent;
 import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.ETagUtils;
 import io.undertow.util.Headers;
 import io.undertow.util.HttpString;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * @class MyRequestHandler
  * @brief Handler class for requests
+ * @details The format of the request body is taken from the Content-Type header,
+ * the format of the response from the Accept header (see {@link WireFormat}). Both default to JSON.
+ * Requests run on the executor of their endpoint class and are rejected with 503 when it is saturated,
+ * or when the estimated memory does not fit (see {@link WorkerLanes}).
+ * Responses of deterministic requests are cached (see {@link ResponseCache}).
+ * Responses of static endpoints are precomputed and served with an ETag, a request with a matching
+ * If-None-Match header gets 304 Not Modified.
+ * The phases of a request are recorded as Flight Recorder events (see the jfr package).
  */
 public class MyRequestHandler<T, U> implements HttpHandler
 {
   static Logger logger = MyLogger.initializeLogger("MyRequestHandler", Level.INFO);
   
+  /**
+   * Header telling if the response came from the cache (HIT) or not (MISS)
+   */
+  static final HttpString X_CACHE = new HttpString("X-Cache");
+  
   IRequestResolver<T, U> resolver;
   
-  public <R extends IRequestResolver<T, U>> MyRequestHandler(R resolver)
+  /**
+   * Executors and admission control, shared by all endpoints
+   */
+  WorkerLanes lanes;
+  
+  /**
+   * Class of the endpoint, selects the executor
+   */
+  EndpointClass endpointClass;
+  
+  /**
+   * Latency, status codes and serialization of the requests
+   */
+  EndpointMetrics metrics;
+  
+  /**
+   * Cache of the responses with a cache key. Can be null.
+   */
+  ResponseCache cache;
+  
+  /**
+   * Precomputed responses by cache key and format, see {@link IRequestResolver#precompute()}.
+   * Empty until {@link #precompute()} is called.
+   */
+  volatile Map<String, PrecomputedResponse> precomputed = Map.of();
+  
+  public <R extends IRequestResolver<T, U>> MyRequestHandler(R resolver,
+                                                             WorkerLanes lanes,
+                                                             EndpointName endpoint,
+                                                             ResponseCache cache)
+  {
+    this.resolver      = resolver;
+    this.lanes         = lanes;
+    this.endpointClass = endpoint.getEndpointClass();
+    this.metrics       = new EndpointMetrics(endpoint);
+    this.cache         = cache;
+  }
+  
+  /**
+   * Called by the server before it accepts requests. Resolvers without static responses do no work.
+   *
+   * @brief Serialize the static responses of the resolver in all formats
+   */
+  public void precompute()
+  {
+    Map<String, PrecomputedResponse> precomputed = new HashMap<>();
+    for (Map.Entry<String, U> entry : resolver.precompute().entrySet())
+    {
+      for (WireFormat format : WireFormat.values())
+      {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try
+        {
+          resolver.serialize(entry.getValue(), bytes, format);
+        }
+        catch (IOException e)
+        {
+          throw new UncheckedIOException(e);
+        }
+        precomputed.put(precomputedKey(entry.getKey(), format), new PrecomputedResponse(bytes.toByteArray(), format));
+      }
+    }
+    this.precomputed = precomputed;
+  }
+  
+  private static String precomputedKey(String cacheKey, WireFormat format)
   {
-    this.resolver = resolver;
+    return cacheKey + "/" + format.name();
   }
   
   @Override
   public void handleRequest(HttpServerExchange exchange) throws IOException
   {
-    exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/json");
+    if (exchange.isInIoThread())
+    {
+      // The worker thread runs this method again, the request is tracked once
+      metrics.track(exchange);
+    }
+    WireFormat requestFormat  = WireFormat.fromContentType(
+            exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE));
+    WireFormat responseFormat = WireFormat.fromAccept(exchange.getRequestHeaders().getFirst(Headers.ACCEPT));
+    exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, responseFormat.getMediaType());
+    exchange.getResponseHeaders().put(Headers.VARY, "Accept");
     addOptions(exchange);
     boolean wasHandled = handleVerb(exchange);
     if (wasHandled)
@@ -75,14 +172,35 @@ public class MyRequestHandler<T, U> implements HttpHandler
     
     if (exchange.isInIoThread())
     {
-      exchange.dispatch(this);
+      // A saturated class is answered right away instead of queueing the request
+      if (!lanes.tryEnter(endpointClass))
+      {
+        sendBusy(exchange, endpointClass, responseFormat);
+        return;
+      }
+      exchange.dispatch(lanes.getExecutor(endpointClass), worker ->
+      {
+        try
+        {
+          handleRequest(worker);
+        }
+        finally
+        {
+          lanes.exit(endpointClass);
+        }
+      });
       return;
     }
     
     // At this point, the request is in the worker thread
+    if (exchange.isResponseStarted())
+    {
+      // Timed out while waiting for a thread
+      return;
+    }
     
-    // TODO: If the request times out, it continues to run in the background.
-    // this means it will eat resources, until it finishes (which may be never).
+    // The token stops the work when the request times out
+    CancellationToken token = getCancellationToken(exchange);
     exchange.startBlocking();
     
     // Deserialize
@@ -93,28 +211,111 @@ public class MyRequestHandler<T, U> implements HttpHandler
     requestJson.transferTo(baos);
     InputStream firstClone  = new ByteArrayInputStream(baos.toByteArray());
     InputStream secondClone = new ByteArrayInputStream(baos.toByteArray());
+    DeserializationEvent deserializationEvent = new DeserializationEvent();
+    deserializationEvent.begin();
     try
     {
-      request = resolver.deserialize(firstClone);
+      request = resolver.deserialize(firstClone, requestFormat);
+      deserializationEvent.end();
+      if (deserializationEvent.shouldCommit())
+      {
+        deserializationEvent.endpoint = metrics.getEndpoint();
+        deserializationEvent.format   = requestFormat.name();
+        deserializationEvent.bytes    = baos.size();
+        deserializationEvent.commit();
+      }
     }
     catch (Exception e)
     {
       // Log it
       logger.severe("Cannot parse request: " + e.getMessage());
       // log the request string
-      String requestString = new String(secondClone.readAllBytes());
-      logger.info("Request: " + requestString);
+      if (requestFormat.isBinary())
+      {
+        logger.info("Request: " + baos.size() + " bytes of " + requestFormat);
+      }
+      else
+      {
+        String requestString = new String(secondClone.readAllBytes());
+        logger.info("Request: " + requestString);
+      }
       // Send back
-      sendError(exchange, new ServerError("root", "Cannot parse request", e.getMessage()));
+      sendError(exchange, new ServerError("root", "Cannot parse request", e.getMessage()), responseFormat);
+      return;
+    }
+    
+    Map<String, PrecomputedResponse> precomputed = this.precomputed;
+    if (!precomputed.isEmpty())
+    {
+      PrecomputedResponse response = precomputed.get(precomputedKey(resolver.cacheKey(request), responseFormat));
+      if (response != null)
+      {
+        sendPrecomputed(exchange, response);
+        return;
+      }
+    }
+    
+    // Deterministic responses are served from the cache, without resolving and serializing
+    String cacheKey = cache == null ? null : resolver.cacheKey(request);
+    if (cacheKey != null)
+    {
+      byte[] cached = cache.get(cacheKey, responseFormat);
+      if (cached != null)
+      {
+        exchange.getResponseHeaders().put(X_CACHE, "HIT");
+        sendGzipped(exchange, cached);
+        logger.info("Request served from the cache");
+        return;
+      }
+      exchange.getResponseHeaders().put(X_CACHE, "MISS");
+    }
+    
+    long memory = resolver.estimateMemory(request);
+    if (!lanes.tryReserveMemory(memory))
+    {
+      logger.info("Request rejected, not enough memory: " + memory + " bytes");
+      sendBusy(exchange, endpointClass, responseFormat);
       return;
     }
     
     // Serialize
     try
     {
-      U response = resolver.resolve(request);
-      System.gc();
-      resolver.serialize(response, outputStream);
+      U response = resolver.resolve(request, token);
+      if (token.isCancelled())
+      {
+        // The timeout handler already sent the response
+        logger.info("Request cancelled: " + request.getClass().getSimpleName());
+        return;
+      }
+      if (cacheKey != null && resolver.isCacheable(response))
+      {
+        SerializationEvent    event         = new SerializationEvent();
+        long                  start         = System.nanoTime();
+        ByteArrayOutputStream responseBytes = new ByteArrayOutputStream();
+        event.begin();
+        resolver.serialize(response, responseBytes, responseFormat);
+        recordSerialization(event, responseFormat, System.nanoTime() - start, responseBytes.size());
+        byte[] gzipped = cache.put(cacheKey, responseFormat, responseBytes.toByteArray());
+        if (acceptsGzip(exchange))
+        {
+          sendGzipped(exchange, gzipped);
+        }
+        else
+        {
+          responseBytes.writeTo(outputStream);
+        }
+      }
+      else
+      {
+        // Includes the time of the writes to the client
+        SerializationEvent                   event   = new SerializationEvent();
+        long                                 start   = System.nanoTime();
+        EndpointMetrics.CountingOutputStream counted = new EndpointMetrics.CountingOutputStream(outputStream);
+        event.begin();
+        resolver.serialize(response, counted, responseFormat);
+        recordSerialization(event, responseFormat, System.nanoTime() - start, counted.count);
+      }
       //
       logger.info("Request handled successfully: " + response.getClass().getSimpleName());
       exchange.endExchange();
@@ -123,17 +324,101 @@ public class MyRequestHandler<T, U> implements HttpHandler
     {
       // Send the error as a JSON, log it
       ServerError error = e.getError();
-      sendError(exchange, error);
+      sendError(exchange, error, responseFormat);
       logger.info("Request error: " + error.message());
     }
     catch (Exception e)
     {
       ServerError error = new ServerError("root", "Internal server error");
-      sendError(exchange, error);
+      sendError(exchange, error, responseFormat);
       logger.severe("Internal server error: " + e.getMessage());
       // print trace
       e.printStackTrace();
     }
+    finally
+    {
+      lanes.releaseMemory(memory);
+    }
+  }
+  
+  /**
+   * @param event Event begun before the serialization
+   *
+   * @brief Record a finished serialization in the metrics and in Flight Recorder
+   */
+  private void recordSerialization(SerializationEvent event, WireFormat format, long nanos, long bytes)
+  {
+    metrics.recordSerialization(format, nanos, bytes);
+    event.end();
+    if (event.shouldCommit())
+    {
+      event.endpoint = metrics.getEndpoint();
+      event.format   = format.name();
+      event.bytes    = bytes;
+      event.commit();
+    }
+  }
+  
+  /**
+   * @return True if the client accepts gzip encoded responses
+   */
+  private static boolean acceptsGzip(HttpServerExchange exchange)
+  {
+    String acceptEncoding = exchange.getRequestHeaders().getFirst(Headers.ACCEPT_ENCODING);
+    return acceptEncoding != null && acceptEncoding.contains("gzip");
+  }
+  
+  /**
+   * The gzip encoding handler leaves responses with a Content-Encoding alone, so the bytes are not compressed twice.
+   *
+   * @param gzipped Response compressed with gzip
+   *
+   * @brief Send a pre-compressed response, decompressing it if the client does not accept gzip
+   */
+  private static void sendGzipped(HttpServerExchange exchange, byte[] gzipped) throws IOException
+  {
+    if (acceptsGzip(exchange))
+    {
+      exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, "gzip");
+      exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, gzipped.length);
+      exchange.getOutputStream().write(gzipped);
+    }
+    else
+    {
+      try (InputStream plain = new GZIPInputStream(new ByteArrayInputStream(gzipped)))
+      {
+        plain.transferTo(exchange.getOutputStream());
+      }
+    }
+    exchange.endExchange();
+  }
+  
+  /**
+   * The API is POST only, so HTTP caches do not store the responses. Clients can still revalidate their copy
+   * by sending the ETag back in If-None-Match.
+   *
+   * @brief Send a precomputed response, or 304 if the client has it already
+   */
+  private static void sendPrecomputed(HttpServerExchange exchange, PrecomputedResponse response)
+  {
+    boolean gzip = acceptsGzip(exchange);
+    exchange.getResponseHeaders().put(Headers.ETAG, (gzip ? response.gzippedTag : response.plainTag).toString());
+    exchange.getResponseHeaders().put(Headers.CACHE_CONTROL, "public, max-age=86400");
+    exchange.getResponseHeaders().add(Headers.VARY, "Accept-Encoding");
+    if (!ETagUtils.handleIfNoneMatch(exchange, response.getTags(), false))
+    {
+      exchange.setStatusCode(304);
+      exchange.endExchange();
+      return;
+    }
+    byte[] bytes = response.plain;
+    if (gzip)
+    {
+      exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, "gzip");
+      bytes = response.gzipped;
+    }
+    exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, bytes.length);
+    exchange.getResponseSender().send(ByteBuffer.wrap(bytes));
   }
   
   /**
@@ -141,11 +426,13 @@ public class MyRequestHandler<T, U> implements HttpHandler
    *
    * @brief Add the CORS headers to the response
    */
-  public void addOptions(HttpServerExchange exchange)
+  public static void addOptions(HttpServerExchange exchange)
   {
     exchange.getResponseHeaders().put(new HttpString("Access-Control-Allow-Origin"), "*");
     exchange.getResponseHeaders().put(new HttpString("Access-Control-Allow-Methods"), "POST, OPTIONS");
-    exchange.getResponseHeaders().put(new HttpString("Access-Control-Allow-Headers"), "Content-Type");
+    exchange.getResponseHeaders().put(new HttpString("Access-Control-Allow-Headers"),
+                                     "Content-Type, Accept, If-None-Match");
+    exchange.getResponseHeaders().put(new HttpString("Access-Control-Expose-Headers"), "ETag");
     exchange.getResponseHeaders().put(new HttpString("Access-Control-Max-Age"), "86400");
   }
   
@@ -155,7 +442,7 @@ public class MyRequestHandler<T, U> implements HttpHandler
    * @return true if the request was handled, false otherwise
    * @brief Handle the request method
    */
-  public boolean handleVerb(HttpServerExchange exchange)
+  public static boolean handleVerb(HttpServerExchange exchange)
   {
     // Check that the request method is a POST or OPTIONS
     String method = exchange.getRequestMethod().toString();
@@ -184,13 +471,39 @@ public class MyRequestHandler<T, U> implements HttpHandler
   }
   
   /**
+   * @return The token of the request, cancelled when the request times out (see {@link TimeoutHandler}). A new token
+   * if the request did not pass the timeout handler.
+   */
+  public static CancellationToken getCancellationToken(HttpServerExchange exchange)
+  {
+    return Objects.requireNonNullElseGet(exchange.getAttachment(TimeoutHandler.CANCELLATION), CancellationToken::new);
+  }
+  
+  /**
+   * Works from the IO thread too.
+   *
+   * @param endpointClass Class of the rejected request, decides the Retry-After header
+   * @param format        Format of the response, the same as the successful response would have
+   *
+   * @brief Send a 503 response, the client should retry later
+   */
+  public static void sendBusy(HttpServerExchange exchange, EndpointClass endpointClass, WireFormat format) throws IOException
+  {
+    exchange.setStatusCode(503);
+    exchange.getResponseHeaders().put(Headers.RETRY_AFTER, endpointClass.getRetryAfter());
+    ServerError error = new ServerError("root", "Server is busy, try again later");
+    exchange.getResponseSender().send(ByteBuffer.wrap(Serialization.getSerializer(format).writeValueAsBytes(error)));
+  }
+  
+  /**
+   * @param format Format of the response, the same as the successful response would have
+   *
    * @brief Send an error response
    */
-  public void sendError(HttpServerExchange exchange, ServerError error) throws IOException
+  public static void sendError(HttpServerExchange exchange, ServerError error, WireFormat format) throws IOException
   {
     exchange.setStatusCode(400);
-    ObjectMapper mapper = Serialization.getSerializer();
-    mapper.writeValue(exchange.getOutputStream(), error);
+    Serialization.getSerializer(format).writeValue(exchange.getOutputStream(), error);
     exchange.endExchange();
   }
 }
@@ -0,0 +1,84 @@
+/**
+ * @file PrecomputedResponse.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Precomputed response of a static endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server;
+
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
+import io.undertow.util.ETag;
+
+import java.util.List;
+
+/**
+ * @brief Response of a static endpoint, serialized and compressed ahead of time
+ * @details The plain and the gzipped bytes are different representations, so they have different strong ETags.
+ * Either of them in If-None-Match means the client has the current response.
+ */
+public class PrecomputedResponse
+{
+  /**
+   * Serialized response
+   */
+  final byte[] plain;
+  
+  /**
+   * The response compressed with gzip
+   */
+  final byte[] gzipped;
+  
+  /**
+   * Tag of the plain bytes
+   */
+  final ETag plainTag;
+  
+  /**
+   * Tag of the gzipped bytes
+   */
+  final ETag gzippedTag;
+  
+  /**
+   * @param plain  Serialized response
+   * @param format Format of the response, part of the tag
+   */
+  public PrecomputedResponse(byte[] plain, WireFormat format)
+  {
+    this.plain   = plain;
+    this.gzipped = ResponseCache.gzip(plain);
+    String hash = Serialization.canonicalHash(List.of(format.name(), plain)).substring(0, 32);
+    this.plainTag   = new ETag(false, hash);
+    this.gzippedTag = new ETag(false, hash + "-gzip");
+  }
+  
+  /**
+   * @return Tags of all representations
+   */
+  List<ETag> getTags()
+  {
+    return List.of(plainTag, gzippedTag);
+  }
+}
@@ -29,18 +29,23 @@ package com.gradle.superscalarsim.server;
 
 import com.gradle.superscalarsim.app.MyLogger;
 import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
 import com.gradle.superscalarsim.server.checkConfig.CheckConfigHandler;
+import com.gradle.superscalarsim.server.compile.CompileCache;
 import com.gradle.superscalarsim.server.compile.CompileHandler;
+import com.gradle.superscalarsim.server.compileSimulate.CompileSimulateHandler;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionHandler;
 import com.gradle.superscalarsim.server.parseAsm.ParseAsmHandler;
 import com.gradle.superscalarsim.server.schema.SchemaHandler;
 import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import com.gradle.superscalarsim.server.simulateStream.SimulateStreamHandler;
+import com.gradle.superscalarsim.server.timeline.TimelineCache;
+import com.gradle.superscalarsim.server.timeline.TimelineHandler;
 import io.undertow.Handlers;
 import io.undertow.Undertow;
 import io.undertow.UndertowOptions;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.handlers.PathHandler;
-import io.undertow.server.handlers.RequestLimitingHandler;
 import io.undertow.server.handlers.accesslog.AccessLogHandler;
 import io.undertow.server.handlers.accesslog.AccessLogReceiver;
 import io.undertow.server.handlers.encoding.ContentEncodingRepository;
@@ -58,8 +63,9 @@ import static io.undertow.UndertowOptions.ENABLE_HTTP2;
 
 /**
  * @details Timeouts long-running requests (simulations stuck in a loop for example).
- * Rate limits the number of concurrent requests.
+ * Limits the number of concurrent requests per endpoint class, see {@link WorkerLanes}.
  * Supports gzip encoding - client must include "Accept-Encoding: gzip" header.
+ * Metrics of the server are available at GET /metrics, see {@link MetricsHandler}.
  * <a href="https://undertow.io/undertow-docs/undertow-docs-2.1.0/index.html">Docs for Undertow are available here</a>.
  * @class Server
  * @brief Undertow server with handlers for several HTTP endpoints.
@@ -71,13 +77,7 @@ public class Server
    * @brief Map of endpoints and their handlers
    */
   // @formatter:off
-  private final Map<EndpointName, IRequestResolver> endpoints = Map.of(
-          EndpointName.compile, new CompileHandler(),
-          EndpointName.parseAsm, new ParseAsmHandler(),
-          EndpointName.checkConfig, new CheckConfigHandler(),
-          EndpointName.simulate, new SimulateHandler(),
-          EndpointName.schema, new SchemaHandler(),
-          EndpointName.instructionDescription, new InstructionDescriptionHandler());
+  private final Map<EndpointName, IRequestResolver> endpoints;
   /**
    * @brief Host to listen on. Can be configured via command line argument
    */
@@ -91,9 +91,21 @@ public class Server
    */
   int timeout_ms;
   /**
-   * Maximum concurrent requests. If exceeded, the server will queue the requests.
+   * Executors per endpoint class and admission control
    */
-  int maxConcurrentRequests = 100;
+  WorkerLanes lanes = new WorkerLanes();
+  /**
+   * Cache of the deterministic responses
+   */
+  ResponseCache cache;
+  /**
+   * Cache of the compilations
+   */
+  CompileCache compileCache;
+  /**
+   * Recorded simulations of the /timeline requests
+   */
+  TimelineCache timelineCache = new TimelineCache(256L * 1024 * 1024);
   // @formatter:on
   /**
    * @brief Use gzip encoding (or deflate) for responses
@@ -102,19 +114,56 @@ public class Server
   
   public Server(String host, int port, int timeout_ms)
   {
-    this.host       = host;
-    this.port       = port;
-    this.timeout_ms = timeout_ms;
+    this(host, port, timeout_ms, new ResponseCache(64L * 1024 * 1024),
+         new CompileCache(new ResponseCache(16L * 1024 * 1024)));
   }
   
   /**
-   * TODO: would be great to use some binary protocol, to lower the overhead of JSON. However, the costs on frontend may be too high.
+   * @param cache        Cache of the deterministic responses
+   * @param compileCache Cache of the compilations
+   */
+  public Server(String host, int port, int timeout_ms, ResponseCache cache, CompileCache compileCache)
+  {
+    this.host         = host;
+    this.port         = port;
+    this.timeout_ms   = timeout_ms;
+    this.cache        = cache;
+    this.compileCache = compileCache;
+    // The simulation gets 3/4 of the request timeout, the rest is left for sending the partial result
+    CompileHandler  compileHandler  = new CompileHandler(compileCache);
+    SimulateHandler simulateHandler = new SimulateHandler(timeout_ms * 3L / 4);
+    // @formatter:off
+    this.endpoints  = Map.of(
+            EndpointName.compile, compileHandler,
+            EndpointName.compileSimulate, new CompileSimulateHandler(compileHandler, simulateHandler),
+            EndpointName.parseAsm, new ParseAsmHandler(),
+            EndpointName.checkConfig, new CheckConfigHandler(),
+            EndpointName.simulate, simulateHandler,
+            EndpointName.schema, new SchemaHandler(),
+            EndpointName.instructionDescription, new InstructionDescriptionHandler(),
+            EndpointName.timeline, new TimelineHandler(timelineCache, timeout_ms * 3L / 4));
+    // @formatter:on
+  }
+  
+  /**
+   * Clients can opt into a binary protocol (CBOR, Smile) per request, see {@link MyRequestHandler}.
    */
   public void start() throws IOException
   {
     // Register handlers
     PathHandler pathHandler = Handlers.path();
-    endpoints.forEach((key, value) -> pathHandler.addPrefixPath(key.getPath(), new MyRequestHandler(value)));
+    endpoints.forEach((key, value) ->
+                      {
+                        MyRequestHandler handler = new MyRequestHandler(value, lanes, key, cache);
+                        // The static responses are ready before the first request
+                        handler.precompute();
+                        pathHandler.addPrefixPath(key.getPath(), handler);
+                      });
+    pathHandler.addExactPath("/metrics", new MetricsHandler());
+    lanes.registerMetrics();
+    cache.registerMetrics("response");
+    compileCache.registerMetrics();
+    timelineCache.registerMetrics();
     
     HttpHandler baseHandler = pathHandler;
     
@@ -126,8 +175,11 @@ public class Server
                       .addEncodingHandler("deflate", new DeflateEncodingProvider(), 10)).setNext(pathHandler);
     }
     
+    // The stream is not compressed, the compression would buffer the events
+    baseHandler = Handlers.path(baseHandler)
+            .addPrefixPath(EndpointName.simulateStream.getPath(), new SimulateStreamHandler(lanes, timeout_ms * 3L / 4));
+    
     // Add error handling and timeout
-    baseHandler = new RequestLimitingHandler(maxConcurrentRequests, baseHandler);
     baseHandler = new TimeoutHandler(timeout_ms, baseHandler);
     baseHandler = new ErrorHandler(baseHandler);
     baseHandler = new AccessLogHandler(baseHandler, new MyRecv(), "%U returned %s %H %Dms",
@@ -156,6 +208,7 @@ public class Server
                                                     {
                                                       logger.info("Shutdown signal received");
                                                       server.stop();
+                                                      lanes.shutdown();
                                                       logger.info("Server stopped.");
                                                       shutdownLatch.countDown();
                                                     }));
@@ -27,9 +27,11 @@
 
 package com.gradle.superscalarsim.server;
 
+import com.gradle.superscalarsim.cpu.CancellationToken;
 import io.undertow.io.Sender;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
 import io.undertow.util.Headers;
 
 import java.util.concurrent.Executors;
@@ -40,9 +42,17 @@ import java.util.concurrent.TimeUnit;
  * Handler wrapper with timeout for requests.
  * If the request takes longer than the specified timeout, the handler will return a 500.
  * It is not exact, but good enough for timeouts.
+ * Streamed responses that already started sending are not interrupted.
+ * Every request gets a cancellation token (see {@link #CANCELLATION}), which is cancelled when the request times out,
+ * so the work behind it can stop.
  */
 class TimeoutHandler implements HttpHandler
 {
+  /**
+   * Key of the request's cancellation token in the exchange attachments
+   */
+  static final AttachmentKey<CancellationToken> CANCELLATION = AttachmentKey.create(CancellationToken.class);
+  
   private final HttpHandler next;
   private final int timeout_ms;
   
@@ -61,12 +71,16 @@ class TimeoutHandler implements HttpHandler
   @Override
   public void handleRequest(HttpServerExchange exchange) throws Exception
   {
+    CancellationToken token = new CancellationToken();
+    exchange.putAttachment(CANCELLATION, token);
+    
     // Schedule a timeout task
     scheduler.schedule(() ->
                        {
-                         if (!exchange.isComplete())
+                         if (!exchange.isComplete() && !exchange.isResponseStarted())
                          {
                            // Timeout handling logic
+                           token.cancel();
                            exchange.setStatusCode(500); // Internal Server Error
                            final String errorPage = "{\"error\": \"Request timed out\"}";
                            exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, "" + errorPage.length());
@@ -0,0 +1,235 @@
+/**
+ * @file WorkerLanes.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Executors per endpoint class and admission control
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server;
+
+import com.gradle.superscalarsim.metrics.Counter;
+import com.gradle.superscalarsim.metrics.Metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @brief Executors and admission control of the server
+ * @details Every {@link EndpointClass} has a fixed pool of threads and a limit of requests in flight
+ * (running and waiting). On top of that, all requests share a memory budget. The memory use of a request is estimated
+ * from its data (see {@link IRequestResolver#estimateMemory}) before it is resolved.
+ * A request that does not fit is rejected right away, so the client can retry later.
+ */
+public class WorkerLanes
+{
+  /**
+   * Executor and admission limit of each class
+   */
+  private final Map<EndpointClass, Lane> lanes = new EnumMap<>(EndpointClass.class);
+  
+  /**
+   * Memory budget in bytes, shared by all classes
+   */
+  private final long memoryBudget;
+  
+  /**
+   * Sum of the estimates of the requests being resolved
+   */
+  private final AtomicLong reservedMemory = new AtomicLong(0);
+  
+  /**
+   * Requests rejected because the memory budget was exhausted
+   */
+  private final Counter memoryRejected = new Counter();
+  
+  /**
+   * @param memoryBudget Memory budget in bytes, shared by all classes
+   */
+  public WorkerLanes(long memoryBudget)
+  {
+    int cores = Runtime.getRuntime().availableProcessors();
+    lanes.put(EndpointClass.kInteractive, new Lane("interactive", cores, 64 * cores));
+    lanes.put(EndpointClass.kCompile, new Lane("compile", Math.max(1, cores / 2), 4 * cores));
+    lanes.put(EndpointClass.kSimulation, new Lane("simulation", cores, 2 * cores));
+    this.memoryBudget = memoryBudget;
+  }
+  
+  /**
+   * @brief Lanes with half of the maximum heap as the memory budget
+   */
+  public WorkerLanes()
+  {
+    this(Runtime.getRuntime().maxMemory() / 2);
+  }
+  
+  /**
+   * Must be paired with {@link #exit} if it returns true.
+   *
+   * @return True if the request can be queued on the executor of the class
+   */
+  public boolean tryEnter(EndpointClass endpointClass)
+  {
+    Lane lane = lanes.get(endpointClass);
+    if (lane.inFlight.tryAcquire())
+    {
+      return true;
+    }
+    lane.rejected.increment();
+    return false;
+  }
+  
+  /**
+   * @brief Request of the class is done
+   */
+  public void exit(EndpointClass endpointClass)
+  {
+    lanes.get(endpointClass).inFlight.release();
+  }
+  
+  /**
+   * @return Executor for the requests of the class
+   */
+  public Executor getExecutor(EndpointClass endpointClass)
+  {
+    return lanes.get(endpointClass).executor;
+  }
+  
+  /**
+   * A request that does not fit into the budget is still admitted if no other request holds memory,
+   * otherwise it could never run.
+   * Must be paired with {@link #releaseMemory} if it returns true.
+   *
+   * @param bytes Estimated memory use of a request
+   *
+   * @return True if the memory was reserved
+   */
+  public boolean tryReserveMemory(long bytes)
+  {
+    while (true)
+    {
+      long reserved = reservedMemory.get();
+      if (reserved != 0 && reserved + bytes > memoryBudget)
+      {
+        memoryRejected.increment();
+        return false;
+      }
+      if (reservedMemory.compareAndSet(reserved, reserved + bytes))
+      {
+        return true;
+      }
+    }
+  }
+  
+  /**
+   * @param bytes The same amount as passed to {@link #tryReserveMemory}
+   */
+  public void releaseMemory(long bytes)
+  {
+    reservedMemory.addAndGet(-bytes);
+  }
+  
+  /**
+   * @brief Export the occupancy of the lanes and of the memory budget (see {@link Metrics})
+   */
+  public void registerMetrics()
+  {
+    lanes.forEach((endpointClass, lane) ->
+                  {
+                    String name = lane.name;
+                    Metrics.gauge("simulator_lane_in_flight", "Requests running or waiting in the lane",
+                                  () -> lane.capacity - lane.inFlight.availablePermits(), "lane", name);
+                    Metrics.gauge("simulator_lane_queued", "Requests waiting for a thread of the lane",
+                                  () -> lane.executor.getQueue().size(), "lane", name);
+                    Metrics.counter("simulator_lane_rejected_total", "Requests rejected because the lane was full",
+                                    lane.rejected::get, "lane", name);
+                  });
+    Metrics.gauge("simulator_memory_reserved_bytes", "Estimated memory of the requests being resolved",
+                  reservedMemory::get);
+    Metrics.gauge("simulator_memory_budget_bytes", "Memory budget shared by all requests", () -> memoryBudget);
+    Metrics.counter("simulator_memory_rejected_total", "Requests rejected because the memory budget was exhausted",
+                    memoryRejected::get);
+  }
+  
+  /**
+   * @brief Stop the threads. Running requests are finished.
+   */
+  public void shutdown()
+  {
+    lanes.values().forEach(lane -> lane.executor.shutdown());
+  }
+  
+  /**
+   * @brief Thread pool with a limit of requests in flight
+   */
+  private static class Lane
+  {
+    /**
+     * Name of the lane, prefix of the names of the threads
+     */
+    final String name;
+    
+    /**
+     * Fixed pool of daemon threads. The queue is not bounded, the semaphore limits it.
+     */
+    final ThreadPoolExecutor executor;
+    
+    /**
+     * Permits for running and waiting requests
+     */
+    final Semaphore inFlight;
+    
+    /**
+     * Number of permits of {@link #inFlight}
+     */
+    final int capacity;
+    
+    /**
+     * Requests rejected because the lane was full
+     */
+    final Counter rejected = new Counter();
+    
+    /**
+     * @param name      Name of the threads
+     * @param threads   Number of threads
+     * @param queueSize Number of requests that can wait for a thread
+     */
+    Lane(String name, int threads, int queueSize)
+    {
+      AtomicInteger counter = new AtomicInteger(0);
+      this.name     = name;
+      this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                                             runnable ->
+                                             {
+                                               Thread thread = new Thread(runnable,
+                                                                          name + "-" + counter.incrementAndGet());
+                                               thread.setDaemon(true);
+                                               return thread;
+                                             });
+      this.capacity = threads + queueSize;
+      this.inFlight = new Semaphore(capacity);
+    }
+  }
+}
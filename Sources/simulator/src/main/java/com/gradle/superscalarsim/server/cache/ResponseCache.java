@@ -0,0 +1,484 @@
+/**
+ * @file ResponseCache.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Two-tier cache of serialized responses
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.cache;
+
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.jfr.GzipEvent;
+import com.gradle.superscalarsim.metrics.Counter;
+import com.gradle.superscalarsim.metrics.Metrics;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @brief Cache of serialized responses of deterministic requests
+ * @details Two tiers: an LRU map in the heap and an optional directory on disk. Both are bounded by the total size
+ * of the stored bytes. A disk hit is promoted to the heap. The responses are stored gzipped, so a hit can be sent
+ * as is to clients that accept gzip.
+ * <p>
+ * Entries are keyed by the request key (see {@link com.gradle.superscalarsim.server.IRequestResolver#cacheKey}),
+ * the wire format and the build of the simulator, so a rebuild does not serve stale results from disk. The build is
+ * identified by a hash of the simulator classes and resources; if they cannot be read, the disk tier is disabled.
+ * Disk errors are logged and treated as misses.
+ */
+public class ResponseCache
+{
+  static Logger logger = MyLogger.initializeLogger("ResponseCache", Level.INFO);
+  
+  /**
+   * Suffix of the files of the disk tier
+   */
+  private static final String FILE_SUFFIX = ".gz";
+  
+  /**
+   * Heap tier, in access order (least recently used first)
+   */
+  private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+  
+  /**
+   * Maximum size of the heap tier in bytes
+   */
+  private final long memoryLimit;
+  
+  /**
+   * Current size of the heap tier in bytes. Guarded by the lock of {@link #memory}.
+   */
+  private long memorySize = 0;
+  
+  /**
+   * Directory of the disk tier, null if the disk tier is disabled
+   */
+  private final Path directory;
+  
+  /**
+   * Maximum size of the disk tier in bytes
+   */
+  private final long diskLimit;
+  
+  /**
+   * Current size of the disk tier in bytes, approximate under concurrent writes
+   */
+  private final AtomicLong diskSize = new AtomicLong(0);
+  
+  /**
+   * Hash of the simulator build, computed once. Empty if the build cannot be identified.
+   */
+  private static volatile String buildId;
+  
+  /**
+   * Mixed into every key, entries of other builds are never hit
+   */
+  private final String version;
+  
+  /**
+   * Lookups answered by the heap tier
+   */
+  private final Counter memoryHits = new Counter();
+  
+  /**
+   * Lookups answered by the disk tier
+   */
+  private final Counter diskHits = new Counter();
+  
+  /**
+   * Lookups answered by neither tier
+   */
+  private final Counter misses = new Counter();
+  
+  /**
+   * @param memoryLimit Maximum size of the heap tier in bytes
+   * @param directory   Directory of the disk tier, created if missing. Null to disable the disk tier.
+   * @param diskLimit   Maximum size of the disk tier in bytes
+   *
+   * @throws IOException If the directory cannot be created or read
+   */
+  public ResponseCache(long memoryLimit, Path directory, long diskLimit) throws IOException
+  {
+    this(memoryLimit, directory, diskLimit, directory == null ? null : buildId());
+  }
+  
+  /**
+   * @param memoryLimit Maximum size of the heap tier in bytes
+   * @param directory   Directory of the disk tier, created if missing. Null to disable the disk tier.
+   * @param diskLimit   Maximum size of the disk tier in bytes
+   * @param build       Identifier of the simulator build. Null disables the disk tier.
+   *
+   * @throws IOException If the directory cannot be created or read
+   */
+  public ResponseCache(long memoryLimit, Path directory, long diskLimit, String build) throws IOException
+  {
+    if (directory != null && build == null)
+    {
+      logger.warning("Simulator build cannot be identified, disk cache in " + directory + " is disabled");
+      directory = null;
+    }
+    this.memoryLimit = memoryLimit;
+    this.directory   = directory;
+    this.diskLimit   = diskLimit;
+    this.version     = String.valueOf(build);
+    if (directory != null)
+    {
+      Files.createDirectories(directory);
+      try (Stream<Path> files = Files.list(directory))
+      {
+        for (Path file : files.toList())
+        {
+          if (file.toString().endsWith(FILE_SUFFIX))
+          {
+            diskSize.addAndGet(Files.size(file));
+          }
+          else if (file.toString().endsWith(".tmp"))
+          {
+            // Leftover of an interrupted write
+            Files.deleteIfExists(file);
+          }
+        }
+      }
+      logger.info("Disk cache in " + directory + ": " + diskSize.get() + " bytes");
+    }
+  }
+  
+  /**
+   * @param memoryLimit Maximum size of the heap tier in bytes
+   *
+   * @brief Cache with the heap tier only
+   */
+  public ResponseCache(long memoryLimit)
+  {
+    this.memoryLimit = memoryLimit;
+    this.directory   = null;
+    this.diskLimit   = 0;
+    // The heap does not outlive the build
+    this.version     = "";
+  }
+  
+  /**
+   * The jar is hashed as a whole. Outside a jar (tests, IDE), the class directory is hashed file by file.
+   *
+   * @return Hash of the classes and resources of the simulator, null if they cannot be read
+   */
+  public static String buildId()
+  {
+    if (buildId == null)
+    {
+      String id;
+      try
+      {
+        id = hashBuild(Path.of(ResponseCache.class.getProtectionDomain().getCodeSource().getLocation().toURI()));
+      }
+      catch (Exception e)
+      {
+        logger.warning("Cannot hash the simulator build: " + e.getMessage());
+        id = "";
+      }
+      buildId = id;
+    }
+    return buildId.isEmpty() ? null : buildId;
+  }
+  
+  /**
+   * @param location Jar or directory of the classes
+   */
+  private static String hashBuild(Path location) throws IOException, NoSuchAlgorithmException
+  {
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    List<Path>    files;
+    if (Files.isDirectory(location))
+    {
+      try (Stream<Path> walk = Files.walk(location))
+      {
+        files = walk.filter(Files::isRegularFile).sorted().toList();
+      }
+    }
+    else
+    {
+      files = List.of(location);
+    }
+    for (Path file : files)
+    {
+      digest.update(location.relativize(file).toString().getBytes());
+      try (InputStream stream = new DigestInputStream(Files.newInputStream(file), digest))
+      {
+        stream.transferTo(OutputStream.nullOutputStream());
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+  
+  /**
+   * @param key    Key of the request
+   * @param format Format of the response
+   *
+   * @return Gzipped response, or null on a miss
+   */
+  public byte[] get(String key, WireFormat format)
+  {
+    String entryKey = entryKey(key, format);
+    synchronized (memory)
+    {
+      byte[] bytes = memory.get(entryKey);
+      if (bytes != null)
+      {
+        memoryHits.increment();
+        return bytes;
+      }
+    }
+    if (directory == null)
+    {
+      misses.increment();
+      return null;
+    }
+    Path file = directory.resolve(entryKey + FILE_SUFFIX);
+    try
+    {
+      byte[] bytes = Files.readAllBytes(file);
+      // Keep the file from being evicted
+      Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+      putMemory(entryKey, bytes);
+      diskHits.increment();
+      return bytes;
+    }
+    catch (NoSuchFileException e)
+    {
+      misses.increment();
+      return null;
+    }
+    catch (IOException e)
+    {
+      logger.warning("Cannot read cache entry " + file + ": " + e.getMessage());
+      misses.increment();
+      return null;
+    }
+  }
+  
+  /**
+   * @param name Name of the cache in the labels of the metrics
+   *
+   * @brief Export the hits, misses and sizes of the tiers (see {@link Metrics})
+   */
+  public void registerMetrics(String name)
+  {
+    String requests = "simulator_cache_requests_total";
+    String help     = "Lookups in the cache by the tier that answered them";
+    Metrics.counter(requests, help, memoryHits::get, "cache", name, "result", "hit_memory");
+    Metrics.counter(requests, help, diskHits::get, "cache", name, "result", "hit_disk");
+    Metrics.counter(requests, help, misses::get, "cache", name, "result", "miss");
+    Metrics.gauge("simulator_cache_size_bytes", "Size of the stored entries", () ->
+    {
+      synchronized (memory)
+      {
+        return memorySize;
+      }
+    }, "cache", name, "tier", "memory");
+    Metrics.gauge("simulator_cache_size_bytes", "Size of the stored entries", diskSize::get, "cache", name, "tier",
+                  "disk");
+  }
+  
+  /**
+   * @param key      Key of the request
+   * @param format   Format of the response
+   * @param response Serialized response, not compressed
+   *
+   * @return The response, gzipped
+   * @brief Store a response in both tiers
+   */
+  public byte[] put(String key, WireFormat format, byte[] response)
+  {
+    String entryKey = entryKey(key, format);
+    byte[] gzipped  = gzip(response);
+    putMemory(entryKey, gzipped);
+    if (directory != null)
+    {
+      putDisk(entryKey, gzipped);
+    }
+    return gzipped;
+  }
+  
+  /**
+   * @brief Store an entry in the heap tier, evicting the least recently used entries
+   */
+  private void putMemory(String entryKey, byte[] bytes)
+  {
+    if (bytes.length > memoryLimit)
+    {
+      return;
+    }
+    synchronized (memory)
+    {
+      byte[] previous = memory.put(entryKey, bytes);
+      if (previous != null)
+      {
+        memorySize -= previous.length;
+      }
+      memorySize += bytes.length;
+      var iterator = memory.entrySet().iterator();
+      while (memorySize > memoryLimit && iterator.hasNext())
+      {
+        Map.Entry<String, byte[]> eldest = iterator.next();
+        memorySize -= eldest.getValue().length;
+        iterator.remove();
+      }
+    }
+  }
+  
+  /**
+   * The file is written to a temporary file first, so readers never see a partial entry.
+   *
+   * @brief Store an entry in the disk tier, evicting the least recently used files if the tier is full
+   */
+  private void putDisk(String entryKey, byte[] bytes)
+  {
+    Path file = directory.resolve(entryKey + FILE_SUFFIX);
+    if (Files.exists(file))
+    {
+      return;
+    }
+    try
+    {
+      Path temp = Files.createTempFile(directory, entryKey, ".tmp");
+      Files.write(temp, bytes);
+      Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      if (diskSize.addAndGet(bytes.length) > diskLimit)
+      {
+        evictDisk();
+      }
+    }
+    catch (IOException e)
+    {
+      logger.warning("Cannot write cache entry " + file + ": " + e.getMessage());
+    }
+  }
+  
+  /**
+   * Deletes the oldest files until the tier is at 90 % of its limit, so the eviction does not run on every write.
+   */
+  private synchronized void evictDisk() throws IOException
+  {
+    if (diskSize.get() <= diskLimit)
+    {
+      return;
+    }
+    List<Path> files;
+    try (Stream<Path> list = Files.list(directory))
+    {
+      files = list.filter(path -> path.toString().endsWith(FILE_SUFFIX))
+              .sorted(Comparator.comparing(ResponseCache::lastModified)).toList();
+    }
+    for (Path file : files)
+    {
+      if (diskSize.get() <= diskLimit / 10 * 9)
+      {
+        break;
+      }
+      try
+      {
+        long size = Files.size(file);
+        if (Files.deleteIfExists(file))
+        {
+          diskSize.addAndGet(-size);
+        }
+      }
+      catch (NoSuchFileException ignored)
+      {
+        // Deleted in the meantime
+      }
+    }
+  }
+  
+  /**
+   * @return Last modification time of the file, the epoch if the file is gone
+   */
+  private static FileTime lastModified(Path file)
+  {
+    try
+    {
+      return Files.getLastModifiedTime(file);
+    }
+    catch (IOException e)
+    {
+      return FileTime.fromMillis(0);
+    }
+  }
+  
+  /**
+   * @return Key of the entry, safe to use as a file name
+   */
+  private String entryKey(String key, WireFormat format)
+  {
+    return Serialization.canonicalHash(List.of(version, key, format.name()));
+  }
+  
+  /**
+   * @return The bytes compressed with gzip
+   */
+  public static byte[] gzip(byte[] bytes)
+  {
+    GzipEvent event = new GzipEvent();
+    event.begin();
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+    {
+      gzip.write(bytes);
+    }
+    catch (IOException e)
+    {
+      // Cannot happen with an in-memory stream
+      throw new UncheckedIOException(e);
+    }
+    byte[] gzipped = out.toByteArray();
+    event.end();
+    if (event.shouldCommit())
+    {
+      event.inputBytes  = bytes.length;
+      event.outputBytes = gzipped.length;
+      event.commit();
+    }
+    return gzipped;
+  }
+}
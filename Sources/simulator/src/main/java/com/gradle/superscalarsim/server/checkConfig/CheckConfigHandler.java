@@ -31,6 +31,7 @@ import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
 import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
 import com.gradle.superscalarsim.server.IRequestResolver;
 import com.gradle.superscalarsim.server.ServerException;
 
@@ -66,14 +67,14 @@ public class CheckConfigHandler implements IRequestResolver<CheckConfigRequest,
   }
   
   @Override
-  public CheckConfigRequest deserialize(InputStream json) throws IOException
+  public CheckConfigRequest deserialize(InputStream stream, WireFormat format) throws IOException
   {
-    return compileReqReader.readValue(json);
+    return compileReqReader.with(format.getFactory()).readValue(stream);
   }
   
   @Override
-  public void serialize(CheckConfigResponse response, OutputStream stream) throws IOException
+  public void serialize(CheckConfigResponse response, OutputStream stream, WireFormat format) throws IOException
   {
-    compileRespWriter.writeValue(stream, response);
+    compileRespWriter.with(format.getFactory()).writeValue(stream, response);
   }
 }
@@ -0,0 +1,280 @@
+/**
+ * @file CompileCache.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cache of compilations with coalescing of concurrent requests
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.compile;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.compiler.AsmParser;
+import com.gradle.superscalarsim.compiler.CompiledProgram;
+import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.metrics.Counter;
+import com.gradle.superscalarsim.metrics.Metrics;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * @brief Cache of compilations, shared by the /compile requests
+ * @details The key is a hash of the C code, the full compiler command (path and normalized optimization flags)
+ * and the compiler version. The entry holds the result of GCC and the parsed assembly.
+ * The entries are stored serialized in a {@link ResponseCache}, so they live in memory and optionally on disk.
+ * <p>
+ * Concurrent requests for the same key wait for the one compilation in flight instead of starting their own GCC.
+ * Only deterministic results are stored: successful compilations and errors reported by GCC.
+ * Failures to run GCC are not.
+ */
+public class CompileCache
+{
+  static Logger logger = MyLogger.initializeLogger("CompileCache", Level.INFO);
+  
+  ObjectReader compilationReader = Serialization.getDeserializer().readerFor(Compilation.class);
+  ObjectWriter compilationWriter = Serialization.getSerializer().writerFor(Compilation.class);
+  
+  /**
+   * Storage of the serialized entries
+   */
+  private final ResponseCache store;
+  
+  /**
+   * The compiler, {@link GccCaller#compile} outside of tests
+   */
+  private final Compiler compiler;
+  
+  /**
+   * Compilations in progress by key
+   */
+  private final ConcurrentHashMap<String, CompletableFuture<Compilation>> inFlight = new ConcurrentHashMap<>();
+  
+  /**
+   * Requests that waited for the compilation of another request
+   */
+  private final Counter coalesced = new Counter();
+  
+  /**
+   * @param store    Storage of the entries
+   * @param compiler The compiler to call on a miss
+   */
+  public CompileCache(ResponseCache store, Compiler compiler)
+  {
+    this.store    = store;
+    this.compiler = compiler;
+  }
+  
+  /**
+   * @param store Storage of the entries
+   */
+  public CompileCache(ResponseCache store)
+  {
+    this(store, GccCaller::compile);
+  }
+  
+  /**
+   * @param code          C code
+   * @param optimizeFlags Optimization flags (O2, ...)
+   *
+   * @return Result of the compilation and the parsed program (null if the compilation failed)
+   * @brief Compile the code, or get the result of an equal earlier compilation
+   */
+  public Compilation compile(String code, List<String> optimizeFlags)
+  {
+    String      key    = key(code, optimizeFlags);
+    Compilation cached = load(key);
+    if (cached != null)
+    {
+      return cached;
+    }
+    
+    CompletableFuture<Compilation> own     = new CompletableFuture<>();
+    CompletableFuture<Compilation> running = inFlight.putIfAbsent(key, own);
+    if (running != null)
+    {
+      // Wait for the same compilation started by another request
+      coalesced.increment();
+      try
+      {
+        return running.join();
+      }
+      catch (CompletionException e)
+      {
+        if (e.getCause() instanceof RuntimeException cause)
+        {
+          throw cause;
+        }
+        throw e;
+      }
+    }
+    
+    try
+    {
+      // The previous compilation could have finished between the lookup and the registration
+      Compilation compilation = load(key);
+      if (compilation == null)
+      {
+        compilation = run(code, optimizeFlags);
+        if (compilation.isDeterministic())
+        {
+          save(key, compilation);
+        }
+      }
+      own.complete(compilation);
+      return compilation;
+    }
+    catch (RuntimeException e)
+    {
+      own.completeExceptionally(e);
+      throw e;
+    }
+    finally
+    {
+      inFlight.remove(key, own);
+    }
+  }
+  
+  /**
+   * @brief Export the metrics of the store (as the "compile" cache) and of the coalescing
+   */
+  public void registerMetrics()
+  {
+    store.registerMetrics("compile");
+    Metrics.counter("simulator_compile_coalesced_total", "Compilations that waited for an equal compilation in flight",
+                    coalesced::get);
+  }
+  
+  /**
+   * @return Key of the compilation
+   */
+  private static String key(String code, List<String> optimizeFlags)
+  {
+    return "compile-" + Serialization.canonicalHash(
+            List.of(code, GccCaller.getCommand(optimizeFlags), GccCaller.getCompilerVersion()));
+  }
+  
+  private Compilation run(String code, List<String> optimizeFlags)
+  {
+    GccCaller.CompileResult result = compiler.compile(code, optimizeFlags);
+    if (!result.success)
+    {
+      return new Compilation(result, null);
+    }
+    return new Compilation(result, AsmParser.parse(result.code));
+  }
+  
+  /**
+   * @return The stored compilation, null on a miss or if the entry cannot be read
+   */
+  private Compilation load(String key)
+  {
+    byte[] bytes = store.get(key, WireFormat.JSON);
+    if (bytes == null)
+    {
+      return null;
+    }
+    try
+    {
+      return compilationReader.readValue(new GZIPInputStream(new ByteArrayInputStream(bytes)));
+    }
+    catch (IOException e)
+    {
+      logger.warning("Cannot read cached compilation: " + e.getMessage());
+      return null;
+    }
+  }
+  
+  private void save(String key, Compilation compilation)
+  {
+    try
+    {
+      store.put(key, WireFormat.JSON, compilationWriter.writeValueAsBytes(compilation));
+    }
+    catch (IOException e)
+    {
+      logger.warning("Cannot store compilation: " + e.getMessage());
+    }
+  }
+  
+  /**
+   * @brief Compiler called on a miss
+   */
+  @FunctionalInterface
+  public interface Compiler
+  {
+    GccCaller.CompileResult compile(String code, List<String> optimizeFlags);
+  }
+  
+  /**
+   * @brief Cached result of a compilation
+   */
+  public static class Compilation
+  {
+    /**
+     * Result of GCC
+     */
+    public GccCaller.CompileResult result;
+    
+    /**
+     * The parsed assembly, null if the compilation failed
+     */
+    public CompiledProgram program;
+    
+    /**
+     * @brief Default constructor for deserialization
+     */
+    public Compilation()
+    {
+    
+    }
+    
+    public Compilation(GccCaller.CompileResult result, CompiledProgram program)
+    {
+      this.result  = result;
+      this.program = program;
+    }
+    
+    /**
+     * GCC reports errors of the code as JSON diagnostics. A failure without them is an error of the environment
+     * (GCC missing, killed, ...) and can go away on a retry.
+     *
+     * @return True if the same input always gives this result
+     */
+    boolean isDeterministic()
+    {
+      return result.success || (result.compilerErrors != null && !result.compilerErrors.isEmpty());
+    }
+  }
+}
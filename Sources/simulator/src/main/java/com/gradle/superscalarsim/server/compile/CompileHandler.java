@@ -30,14 +30,15 @@ package com.gradle.superscalarsim.server.compile;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.gradle.superscalarsim.code.CodeParser;
-import com.gradle.superscalarsim.compiler.AsmParser;
 import com.gradle.superscalarsim.compiler.CompiledProgram;
 import com.gradle.superscalarsim.compiler.GccCaller;
 import com.gradle.superscalarsim.factories.InputCodeModelFactory;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
 import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
 import com.gradle.superscalarsim.server.IRequestResolver;
 import com.gradle.superscalarsim.server.ServerException;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
@@ -48,13 +49,42 @@ import java.io.OutputStream;
  * @class CompileHandler
  * @brief Handler class for compile requests
  * Gets C code, calls the compiler, returns ASM for RISC-V
+ * The compilations are cached, see {@link CompileCache}. The ASM check depends on the memory locations
+ * of the request and runs every time.
  */
 public class CompileHandler implements IRequestResolver<CompileRequest, CompileResponse>
 {
   ObjectReader compileReqReader = Serialization.getDeserializer().readerFor(CompileRequest.class);
   ObjectWriter compileRespWriter = Serialization.getSerializer().writerFor(CompileResponse.class);
   
+  /**
+   * Cache of the compilations
+   */
+  CompileCache compileCache;
+  
+  public CompileHandler(CompileCache compileCache)
+  {
+    this.compileCache = compileCache;
+  }
+  
+  /**
+   * @brief Handler with a small in-memory cache
+   */
+  public CompileHandler()
+  {
+    this(new CompileCache(new ResponseCache(16L * 1024 * 1024)));
+  }
+  
   public CompileResponse resolve(CompileRequest request) throws ServerException
+  {
+    return compile(request).response;
+  }
+  
+  /**
+   * @return The response and the parser that checked the ASM
+   * @brief Compile the code and check the ASM
+   */
+  public CheckedCompilation compile(CompileRequest request) throws ServerException
   {
     if (request == null)
     {
@@ -72,13 +102,14 @@ public class CompileHandler implements IRequestResolver<CompileRequest, CompileR
     }
     
     // Compile
-    GccCaller.CompileResult res = GccCaller.compile(request.code, request.optimizeFlags);
+    CompileCache.Compilation compilation = compileCache.compile(request.code, request.optimizeFlags);
+    GccCaller.CompileResult  res         = compilation.result;
     if (!res.success)
     {
-      return new CompileResponse("c", res.error, null, null, res.compilerErrors, null);
+      return new CheckedCompilation(new CompileResponse("c", res.error, null, null, res.compilerErrors, null), null);
     }
     
-    CompiledProgram program             = AsmParser.parse(res.code);
+    CompiledProgram program             = compilation.program;
     String          concatenatedProgram = StringUtils.join(program.program, "\n");
     
     // Compilation OK, now asm check
@@ -93,28 +124,54 @@ public class CompileHandler implements IRequestResolver<CompileRequest, CompileR
     {
       if (parser.containsErrors())
       {
-        return new CompileResponse("asm", "ASM contains errors", null, null, null, parser.getErrorMessages());
+        return new CheckedCompilation(
+                new CompileResponse("asm", "ASM contains errors", null, null, null, parser.getErrorMessages()), parser);
       }
       else
       {
         // Warnings
-        return new CompileResponse("warning", "ASM contains warnings", concatenatedProgram, program.asmToC, null,
-                                   parser.getErrorMessages());
+        return new CheckedCompilation(
+                new CompileResponse("warning", "ASM contains warnings", concatenatedProgram, program.asmToC, null,
+                                    parser.getErrorMessages()), parser);
       }
     }
     
-    return new CompileResponse("success", "Compilation successful", concatenatedProgram, program.asmToC, null, null);
+    return new CheckedCompilation(
+            new CompileResponse("success", "Compilation successful", concatenatedProgram, program.asmToC, null, null),
+            parser);
   }
   
   @Override
-  public CompileRequest deserialize(InputStream json) throws IOException
+  public CompileRequest deserialize(InputStream stream, WireFormat format) throws IOException
   {
-    return compileReqReader.readValue(json);
+    return compileReqReader.with(format.getFactory()).readValue(stream);
   }
   
   @Override
-  public void serialize(CompileResponse response, OutputStream stream) throws IOException
+  public void serialize(CompileResponse response, OutputStream stream, WireFormat format) throws IOException
+  {
+    compileRespWriter.with(format.getFactory()).writeValue(stream, response);
+  }
+  
+  /**
+   * @brief Result of the compilation with the parsed ASM, so the ASM does not have to be parsed again
+   */
+  public static class CheckedCompilation
   {
-    compileRespWriter.writeValue(stream, response);
+    /**
+     * Response for the client
+     */
+    public CompileResponse response;
+    
+    /**
+     * Parser that checked the ASM (with the memory locations of the request). Null if the C compilation failed.
+     */
+    public CodeParser parser;
+    
+    public CheckedCompilation(CompileResponse response, CodeParser parser)
+    {
+      this.response = response;
+      this.parser   = parser;
+    }
   }
 }
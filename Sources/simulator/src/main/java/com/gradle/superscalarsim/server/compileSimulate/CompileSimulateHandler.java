@@ -0,0 +1,224 @@
+/**
+ * @file CompileSimulateHandler.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Handler for the /compileSimulate endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.compileSimulate;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.ParsedProgram;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.IRequestResolver;
+import com.gradle.superscalarsim.server.ServerException;
+import com.gradle.superscalarsim.server.compile.CompileHandler;
+import com.gradle.superscalarsim.server.compile.CompileRequest;
+import com.gradle.superscalarsim.server.compile.CompileResponse;
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import com.gradle.superscalarsim.server.simulate.SimulateRequest;
+import com.gradle.superscalarsim.server.simulate.SimulateResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * @class CompileSimulateHandler
+ * @brief Handler for /compileSimulate requests
+ * Gets C code and a CPU configuration, compiles the code and simulates it in one request.
+ * Saves the round trip of the program through the client (/compile, then /simulate). The ASM is parsed once,
+ * the parser that checked the program gives the instructions to the CPU.
+ * If the compilation fails, only the compile result is returned.
+ */
+public class CompileSimulateHandler implements IRequestResolver<CompileSimulateRequest, CompileSimulateResponse>
+{
+  ObjectReader compileSimReqReader = Serialization.getDeserializer().readerFor(CompileSimulateRequest.class);
+  ObjectWriter compileSimRespWriter = Serialization.getSerializer().writerFor(CompileSimulateResponse.class);
+  
+  /**
+   * Compiles the code, shares the compilation cache with /compile
+   */
+  private final CompileHandler compileHandler;
+  
+  /**
+   * Runs the simulation within its budget
+   */
+  private final SimulateHandler simulateHandler;
+  
+  public CompileSimulateHandler(CompileHandler compileHandler, SimulateHandler simulateHandler)
+  {
+    this.compileHandler  = compileHandler;
+    this.simulateHandler = simulateHandler;
+  }
+  
+  /**
+   * Handler without a time limit
+   */
+  public CompileSimulateHandler()
+  {
+    this(new CompileHandler(), new SimulateHandler());
+  }
+  
+  @Override
+  public CompileSimulateResponse resolve(CompileSimulateRequest request) throws ServerException
+  {
+    return resolve(request, null);
+  }
+  
+  @Override
+  public CompileSimulateResponse resolve(CompileSimulateRequest request,
+                                         CancellationToken token) throws ServerException
+  {
+    if (request == null)
+    {
+      throw new ServerException("root", "Missing request body");
+    }
+    
+    if (request.cpuConfig == null)
+    {
+      throw new ServerException("cpuConfig", "Missing cpuConfig");
+    }
+    
+    if (request.tick.isPresent() && request.tick.get() < 0)
+    {
+      throw new ServerException("tick", "Tick must be a non-negative 64-bit integer");
+    }
+    
+    if (request.maxCycles.isPresent() && request.maxCycles.get() <= 0)
+    {
+      throw new ServerException("maxCycles", "Cycle budget must be a positive 64-bit integer");
+    }
+    
+    List<MemoryLocation> memoryLocations = Objects.requireNonNullElseGet(request.memoryLocations, ArrayList::new);
+    Object               entryPoint      = Objects.requireNonNullElse(request.entryPoint, 0);
+    
+    // Compile and check the ASM
+    CompileHandler.CheckedCompilation compilation = compileHandler.compile(
+            new CompileRequest(request.code, request.optimizeFlags, memoryLocations));
+    if (compilation.parser == null || compilation.parser.containsErrors())
+    {
+      return new CompileSimulateResponse(compilation.response, null, null);
+    }
+    
+    // The code is checked, check the rest of the configuration
+    SimulationConfig config = new SimulationConfig(compilation.response.program, memoryLocations, request.cpuConfig,
+                                                   entryPoint);
+    SimulationConfig.ValidationResult errors = config.validate(compilation.parser);
+    if (!errors.valid)
+    {
+      throw new ServerException("config", errors.toString());
+    }
+    
+    ParsedProgram program;
+    try
+    {
+      program = ParsedProgram.fromParser(compilation.parser, config.cpuConfig.callStackSize);
+    }
+    catch (IllegalStateException e)
+    {
+      throw new ServerException("code", e.getMessage());
+    }
+    
+    SimulateResponse simulation = simulateHandler.simulate(
+            new SimulateRequest(config, request.tick, request.maxCycles), program, token);
+    if (request.shortResponse)
+    {
+      return new CompileSimulateResponse(compilation.response, null, simulation.toShortResponse());
+    }
+    return new CompileSimulateResponse(compilation.response, simulation, null);
+  }
+  
+  /**
+   * The program is not known before the compilation, the C code stands in for its size.
+   */
+  @Override
+  public long estimateMemory(CompileSimulateRequest request)
+  {
+    if (request == null || request.cpuConfig == null)
+    {
+      return 0;
+    }
+    return 2 * new SimulationConfig(request.code, request.memoryLocations, request.cpuConfig,
+                                    request.entryPoint).estimateMemoryUsage();
+  }
+  
+  /**
+   * The compilation and the simulation are deterministic for a given compiler.
+   */
+  @Override
+  public String cacheKey(CompileSimulateRequest request)
+  {
+    if (request == null || request.cpuConfig == null)
+    {
+      return null;
+    }
+    return "compileSimulate-" + Serialization.canonicalHash(List.of(request, GccCaller.getCompilerVersion()));
+  }
+  
+  /**
+   * A compilation that failed without compiler errors (GCC missing, ...) and a simulation stopped by the clock
+   * or by a cancellation would give a different result next time.
+   */
+  @Override
+  public boolean isCacheable(CompileSimulateResponse response)
+  {
+    CompileResponse compile = response.compile;
+    if (compile.status.equals("c") && (compile.compilerError == null || compile.compilerError.isEmpty()))
+    {
+      return false;
+    }
+    StopReason stopReason = null;
+    if (response.simulation != null)
+    {
+      stopReason = response.simulation.stopReason;
+    }
+    else if (response.summary != null)
+    {
+      stopReason = response.summary.stopReason;
+    }
+    return stopReason != StopReason.kTimeOut && stopReason != StopReason.kCancelled;
+  }
+  
+  @Override
+  public CompileSimulateRequest deserialize(InputStream stream, WireFormat format) throws IOException
+  {
+    return compileSimReqReader.with(format.getFactory()).readValue(stream);
+  }
+  
+  @Override
+  public void serialize(CompileSimulateResponse response, OutputStream stream, WireFormat format) throws IOException
+  {
+    compileSimRespWriter.with(format.getFactory()).writeValue(stream, response);
+  }
+}
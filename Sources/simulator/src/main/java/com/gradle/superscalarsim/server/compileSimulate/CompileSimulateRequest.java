@@ -0,0 +1,111 @@
+/**
+ * @file CompileSimulateRequest.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Request for the /compileSimulate endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.compileSimulate;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gradle.superscalarsim.cpu.CpuConfig;
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Parameters for the /compileSimulate endpoint request.
+ * The union of the /compile request and the /simulate request, without the program.
+ */
+public class CompileSimulateRequest
+{
+  /**
+   * @brief The C code to compile
+   */
+  @JsonProperty(required = true)
+  String code;
+  
+  /**
+   * @brief List of optimization flags
+   */
+  @JsonProperty(required = true)
+  List<String> optimizeFlags;
+  
+  /**
+   * @brief The defined memory locations, used by the compiled program
+   */
+  List<MemoryLocation> memoryLocations = new ArrayList<>();
+  
+  /**
+   * @brief The CPU to simulate the compiled program on
+   */
+  @JsonProperty(required = true)
+  CpuConfig cpuConfig;
+  
+  /**
+   * The entry point of the compiled program, a label or an address. Address 0 by default.
+   */
+  Object entryPoint = 0;
+  
+  /**
+   * The requested tick. If not specified, the simulation runs to the end.
+   */
+  Optional<Long> tick = Optional.empty();
+  
+  /**
+   * Cycle budget of the simulation. If not specified, the default budget is used.
+   */
+  Optional<Long> maxCycles = Optional.empty();
+  
+  /**
+   * Return only the statistics, registers and log of the simulation instead of the full state
+   */
+  boolean shortResponse = false;
+  
+  /**
+   * @brief Default constructor for deserialization
+   */
+  public CompileSimulateRequest()
+  {
+    
+  }
+  
+  public CompileSimulateRequest(String code,
+                                List<String> optimizeFlags,
+                                List<MemoryLocation> memoryLocations,
+                                CpuConfig cpuConfig,
+                                Object entryPoint,
+                                Optional<Long> tick,
+                                boolean shortResponse)
+  {
+    this.code            = code;
+    this.optimizeFlags   = optimizeFlags;
+    this.memoryLocations = memoryLocations;
+    this.cpuConfig       = cpuConfig;
+    this.entryPoint      = entryPoint;
+    this.tick            = tick;
+    this.shortResponse   = shortResponse;
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * @file CompileSimulateResponse.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Response for the /compileSimulate endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.compileSimulate;
+
+import com.gradle.superscalarsim.server.compile.CompileResponse;
+import com.gradle.superscalarsim.server.simulate.SimulateResponse;
+import com.gradle.superscalarsim.server.simulate.SimulateShortResponse;
+
+/**
+ * Response for the /compileSimulate endpoint
+ */
+public class CompileSimulateResponse
+{
+  /**
+   * Result of the compilation, the same as the response of /compile
+   */
+  public CompileResponse compile;
+  
+  /**
+   * Result of the simulation, the same as the response of /simulate.
+   * Null if the compilation failed or a short response was requested.
+   */
+  public SimulateResponse simulation;
+  
+  /**
+   * Short result of the simulation. Null if the compilation failed or a full response was requested.
+   */
+  public SimulateShortResponse summary;
+  
+  public CompileSimulateResponse(CompileResponse compile, SimulateResponse simulation, SimulateShortResponse summary)
+  {
+    this.compile    = compile;
+    this.simulation = simulation;
+    this.summary    = summary;
+  }
+}
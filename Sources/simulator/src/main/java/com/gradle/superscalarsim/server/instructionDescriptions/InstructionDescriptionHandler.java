@@ -32,6 +32,7 @@ import com.fasterxml.jackson.databind.ObjectWriter;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
 import com.gradle.superscalarsim.models.instruction.InstructionFunctionModel;
 import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
 import com.gradle.superscalarsim.server.IRequestResolver;
 
 import java.io.IOException;
@@ -43,6 +44,7 @@ import java.util.Map;
  * @class InstructionDescriptionHandler
  * @brief Handler class for instruction description requests.
  * Gets the instruction descriptions and returns them in a map.
+ * The descriptions only change between releases, the server serializes them once (see {@link #precompute()}).
  */
 public class InstructionDescriptionHandler implements IRequestResolver<InstructionDescriptionRequest, InstructionDescriptionResponse>
 {
@@ -57,15 +59,30 @@ public class InstructionDescriptionHandler implements IRequestResolver<Instructi
     return new InstructionDescriptionResponse(models);
   }
   
+  /**
+   * The request has no parameters, there is one response.
+   */
   @Override
-  public InstructionDescriptionRequest deserialize(InputStream json) throws IOException
+  public String cacheKey(InstructionDescriptionRequest request)
   {
-    return descriptionReqReader.readValue(json);
+    return "instructionDescription";
   }
   
   @Override
-  public void serialize(InstructionDescriptionResponse response, OutputStream stream) throws IOException
+  public Map<String, InstructionDescriptionResponse> precompute()
   {
-    descriptionRespWriter.writeValue(stream, response);
+    return Map.of(cacheKey(null), resolve(null));
+  }
+  
+  @Override
+  public InstructionDescriptionRequest deserialize(InputStream stream, WireFormat format) throws IOException
+  {
+    return descriptionReqReader.with(format.getFactory()).readValue(stream);
+  }
+  
+  @Override
+  public void serialize(InstructionDescriptionResponse response, OutputStream stream, WireFormat format) throws IOException
+  {
+    descriptionRespWriter.with(format.getFactory()).writeValue(stream, response);
   }
 }
@@ -33,6 +33,7 @@ import com.gradle.superscalarsim.code.CodeParser;
 import com.gradle.superscalarsim.factories.InputCodeModelFactory;
 import com.gradle.superscalarsim.loader.StaticDataProvider;
 import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
 import com.gradle.superscalarsim.server.IRequestResolver;
 import com.gradle.superscalarsim.server.ServerException;
 
@@ -80,14 +81,14 @@ public class ParseAsmHandler implements IRequestResolver<ParseAsmRequest, ParseA
   }
   
   @Override
-  public ParseAsmRequest deserialize(InputStream json) throws IOException
+  public ParseAsmRequest deserialize(InputStream stream, WireFormat format) throws IOException
   {
-    return parseAsmReader.readValue(json);
+    return parseAsmReader.with(format.getFactory()).readValue(stream);
   }
   
   @Override
-  public void serialize(ParseAsmResponse response, OutputStream stream) throws IOException
+  public void serialize(ParseAsmResponse response, OutputStream stream, WireFormat format) throws IOException
   {
-    parseAsmWriter.writeValue(stream, response);
+    parseAsmWriter.with(format.getFactory()).writeValue(stream, response);
   }
 }
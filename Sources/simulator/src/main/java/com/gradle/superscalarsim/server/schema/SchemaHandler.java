@@ -31,39 +31,93 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.EndpointName;
 import com.gradle.superscalarsim.server.IRequestResolver;
 import com.gradle.superscalarsim.server.ServerException;
 import com.gradle.superscalarsim.server.checkConfig.CheckConfigRequest;
 import com.gradle.superscalarsim.server.checkConfig.CheckConfigResponse;
 import com.gradle.superscalarsim.server.compile.CompileRequest;
 import com.gradle.superscalarsim.server.compile.CompileResponse;
+import com.gradle.superscalarsim.server.compileSimulate.CompileSimulateRequest;
+import com.gradle.superscalarsim.server.compileSimulate.CompileSimulateResponse;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionRequest;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionResponse;
 import com.gradle.superscalarsim.server.parseAsm.ParseAsmRequest;
 import com.gradle.superscalarsim.server.parseAsm.ParseAsmResponse;
 import com.gradle.superscalarsim.server.simulate.SimulateRequest;
 import com.gradle.superscalarsim.server.simulate.SimulateResponse;
+import com.gradle.superscalarsim.server.simulateStream.SimulateStreamEvent;
+import com.gradle.superscalarsim.server.simulateStream.SimulateStreamRequest;
+import com.gradle.superscalarsim.server.timeline.TimelineRequest;
+import com.gradle.superscalarsim.server.timeline.TimelineResponse;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
+/**
+ * @class SchemaHandler
+ * @brief Handler for /schema requests
+ * The schemas only change between releases, the server generates all of them at startup (see {@link #precompute()}).
+ */
 public class SchemaHandler implements IRequestResolver<SchemaRequest, JsonNode>
 {
   ObjectReader schemaReqReader = Serialization.getDeserializer().readerFor(SchemaRequest.class);
   ObjectWriter schemaRespWriter = Serialization.getSerializer().writerFor(JsonNode.class);
   
   @Override
-  public SchemaRequest deserialize(InputStream json) throws IOException
+  public SchemaRequest deserialize(InputStream stream, WireFormat format) throws IOException
+  {
+    return schemaReqReader.with(format.getFactory()).readValue(stream);
+  }
+  
+  @Override
+  public void serialize(JsonNode response, OutputStream stream, WireFormat format) throws IOException
+  {
+    schemaRespWriter.with(format.getFactory()).writeValue(stream, response);
+  }
+  
+  /**
+   * @return Key of the schema, null if the request is not valid
+   */
+  @Override
+  public String cacheKey(SchemaRequest request)
   {
-    return schemaReqReader.readValue(json);
+    if (request == null || request.endpoint == null || request.requestResponse == null)
+    {
+      return null;
+    }
+    return "schema-" + request.endpoint.getName() + "-" + request.requestResponse.name();
   }
   
+  /**
+   * @return Schemas of requests and responses of all endpoints
+   */
   @Override
-  public void serialize(JsonNode response, OutputStream stream) throws IOException
+  public Map<String, JsonNode> precompute()
   {
-    schemaRespWriter.writeValue(stream, response);
+    Map<String, JsonNode> schemas = new HashMap<>();
+    for (EndpointName endpoint : EndpointName.values())
+    {
+      for (SchemaRequest.RequestResponse requestResponse : SchemaRequest.RequestResponse.values())
+      {
+        SchemaRequest request = new SchemaRequest(endpoint, requestResponse);
+        try
+        {
+          schemas.put(cacheKey(request), resolve(request));
+        }
+        catch (ServerException e)
+        {
+          // Cannot happen, the request is complete
+          throw new IllegalStateException(e);
+        }
+      }
+    }
+    return schemas;
   }
   
   /**
@@ -96,11 +150,14 @@ public class SchemaHandler implements IRequestResolver<SchemaRequest, JsonNode>
     Class<?> handler = switch (request.endpoint)
     {
       case simulate -> isRequest ? SimulateRequest.class : SimulateResponse.class;
+      case simulateStream -> isRequest ? SimulateStreamRequest.class : SimulateStreamEvent.class;
       case parseAsm -> isRequest ? ParseAsmRequest.class : ParseAsmResponse.class;
       case compile -> isRequest ? CompileRequest.class : CompileResponse.class;
+      case compileSimulate -> isRequest ? CompileSimulateRequest.class : CompileSimulateResponse.class;
       case schema -> isRequest ? SchemaRequest.class : JsonNode.class;
       case checkConfig -> isRequest ? CheckConfigRequest.class : CheckConfigResponse.class;
       case instructionDescription -> isRequest ? InstructionDescriptionRequest.class : InstructionDescriptionResponse.class;
+      case timeline -> isRequest ? TimelineRequest.class : TimelineResponse.class;
     };
     
     // Get the schema for the handler
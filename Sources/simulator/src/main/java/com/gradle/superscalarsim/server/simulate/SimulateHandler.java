@@ -29,15 +29,28 @@ package com.gradle.superscalarsim.server.simulate;
 
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gradle.superscalarsim.cpu.BlockProfiler;
+import com.gradle.superscalarsim.cpu.CancellationToken;
 import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.DebugLog;
+import com.gradle.superscalarsim.cpu.ParsedProgram;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.jfr.SimulationEvent;
+import com.gradle.superscalarsim.metrics.Counter;
+import com.gradle.superscalarsim.metrics.Histogram;
+import com.gradle.superscalarsim.metrics.Metrics;
 import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
 import com.gradle.superscalarsim.server.IRequestResolver;
 import com.gradle.superscalarsim.server.ServerException;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
  * @brief Handler for /simulate requests
@@ -45,14 +58,98 @@ import java.io.OutputStream;
  * - For better performance, a state can be provided
  * - For backwards simulation, pass a tick lower than the current tick
  * - For getting initial state from a configuration, run with tick 0
+ * A simulation that exhausts its budget (cycles, time) or gets cancelled returns the partial state,
+ * the stopReason says why it stopped.
  */
 public class SimulateHandler implements IRequestResolver<SimulateRequest, SimulateResponse>
 {
   ObjectReader simReqReader = Serialization.getDeserializer().readerFor(SimulateRequest.class);
   ObjectWriter simRespWriter = Serialization.getSerializer().writerFor(SimulateResponse.class);
   
+  /**
+   * Metrics of the simulations, see {@link #recordSimulation}
+   */
+  static final Counter   simulatedCycles        = Metrics.counter("simulator_simulated_cycles_total",
+                                                                  "Cycles simulated by all requests");
+  static final Histogram cyclesPerRequest       = Metrics.histogram("simulator_simulation_cycles",
+                                                                    "Cycles simulated by a request", 1);
+  static final Histogram instructionsPerRequest = Metrics.histogram("simulator_simulation_instructions",
+                                                                    "Instructions committed by a simulation", 1);
+  static final Histogram cyclesPerSecond        = Metrics.histogram("simulator_simulation_cycles_per_second",
+                                                                    "Simulation speed of a request", 1);
+  
+  /**
+   * Wall-clock budget of a simulation in milliseconds, 0 for no limit
+   */
+  private final long timeoutMs;
+  
+  /**
+   * Profiler of the simulated blocks, null to simulate without profiling.
+   * Not thread-safe, so only for handlers that run one simulation at a time (the CLI).
+   */
+  private final BlockProfiler profiler;
+  
+  /**
+   * Cycle budget of a request that does not set one
+   */
+  private final long defaultMaxCycles;
+  
+  /**
+   * Receives the debug log messages dropped because of the log limit of the configuration, can be null.
+   * Writes wherever the owner decides, so only for the CLI, not for requests from the network.
+   */
+  private final Consumer<DebugLog.Entry> debugLogSpill;
+  
+  /**
+   * Handler without a time limit (used by the CLI)
+   */
+  public SimulateHandler()
+  {
+    this(0);
+  }
+  
+  /**
+   * @param timeoutMs Wall-clock budget of a simulation in milliseconds, 0 for no limit
+   */
+  public SimulateHandler(long timeoutMs)
+  {
+    this(timeoutMs, null);
+  }
+  
+  /**
+   * @param timeoutMs Wall-clock budget of a simulation in milliseconds, 0 for no limit
+   * @param profiler  Receives the time spent in the blocks of the simulations, can be null
+   */
+  public SimulateHandler(long timeoutMs, BlockProfiler profiler)
+  {
+    this(timeoutMs, profiler, SimulationBudget.DEFAULT_MAX_CYCLES, null);
+  }
+  
+  /**
+   * @param timeoutMs        Wall-clock budget of a simulation in milliseconds, 0 for no limit
+   * @param profiler         Receives the time spent in the blocks of the simulations, can be null
+   * @param defaultMaxCycles Cycle budget of a request that does not set one
+   * @param debugLogSpill    Receives the debug log messages dropped because of the log limit, can be null
+   */
+  public SimulateHandler(long timeoutMs,
+                         BlockProfiler profiler,
+                         long defaultMaxCycles,
+                         Consumer<DebugLog.Entry> debugLogSpill)
+  {
+    this.timeoutMs        = timeoutMs;
+    this.profiler         = profiler;
+    this.defaultMaxCycles = defaultMaxCycles;
+    this.debugLogSpill    = debugLogSpill;
+  }
+  
   @Override
   public SimulateResponse resolve(SimulateRequest request) throws ServerException
+  {
+    return resolve(request, null);
+  }
+  
+  @Override
+  public SimulateResponse resolve(SimulateRequest request, CancellationToken token) throws ServerException
   {
     if (request == null)
     {
@@ -66,7 +163,17 @@ public class SimulateHandler implements IRequestResolver<SimulateRequest, Simula
     
     if (request.tick.isPresent() && request.tick.get() < 0)
     {
-      throw new ServerException("tick", "Tick must be a non-negative number");
+      throw new ServerException("tick", "Tick must be a non-negative 64-bit integer");
+    }
+    
+    if (request.maxCycles.isPresent() && request.maxCycles.get() <= 0)
+    {
+      throw new ServerException("maxCycles", "Cycle budget must be a positive 64-bit integer");
+    }
+    
+    if (request.stopConditions == null || request.stopConditions.stream().anyMatch(Objects::isNull))
+    {
+      throw new ServerException("stopConditions", "Stop conditions must be a list of conditions");
     }
     
     // Check configuration, it may be used
@@ -77,45 +184,145 @@ public class SimulateHandler implements IRequestResolver<SimulateRequest, Simula
       throw new ServerException("config", errors.toString());
     }
     
-    // Run simulation
-    return runSimulation(request);
+    return simulate(request, token);
+  }
+  
+  /**
+   * @param request Valid request, the configuration is not checked again
+   * @param token   Cancellation of the simulation, can be null
+   *
+   * @return Response with the state and the number of steps simulated
+   * @throws ServerException if a stop condition refers to a missing label or register
+   * @brief Run the simulation within the budget of the request
+   */
+  public SimulateResponse simulate(SimulateRequest request, CancellationToken token) throws ServerException
+  {
+    return simulate(request, null, token);
+  }
+  
+  /**
+   * @param request Valid request, the configuration is not checked again
+   * @param program Program of the configuration, already parsed. Null to parse the code of the configuration.
+   * @param token   Cancellation of the simulation, can be null
+   *
+   * @return Response with the state and the number of steps simulated
+   * @throws ServerException if a stop condition refers to a missing label or register
+   * @brief Run the simulation of a parsed program within the budget of the request
+   */
+  public SimulateResponse simulate(SimulateRequest request,
+                                   ParsedProgram program,
+                                   CancellationToken token) throws ServerException
+  {
+    long maxCycles = request.maxCycles.orElse(defaultMaxCycles);
+    return runSimulation(request, program, new SimulationBudget(maxCycles, timeoutMs, token));
   }
   
   /**
    * @param request Request with the configuration and tick, optionally with the state
+   * @param program Parsed program of the configuration, null to parse it
+   * @param budget  Limits of the simulation
    *
    * @return Response with the state and the number of steps simulated
    * @brief Run the simulation
    */
-  private SimulateResponse runSimulation(SimulateRequest request)
+  private SimulateResponse runSimulation(SimulateRequest request,
+                                         ParsedProgram program,
+                                         SimulationBudget budget) throws ServerException
   {
     // If state is not provided, simulate from the beginning
-    Cpu cpu        = new Cpu(request.config);
-    int tickBefore = cpu.cpuState.tick;
+    SimulationEvent event = new SimulationEvent();
+    event.begin();
+    long start      = System.nanoTime();
+    Cpu  cpu        = new Cpu(request.config, null, program);
+    long tickBefore = cpu.cpuState.tick;
+    cpu.profiler = profiler;
+    cpu.cpuState.debugLog.setSpill(debugLogSpill);
+    try
+    {
+      cpu.setStopConditions(request.stopConditions, request.stopConditionsFromTick);
+    }
+    catch (IllegalArgumentException e)
+    {
+      throw new ServerException("stopConditions", e.getMessage());
+    }
     if (request.tick.isPresent())
     {
-      int goalTick = request.tick.get();
-      cpu.simulateState(goalTick);
+      cpu.simulateState(request.tick.get(), budget);
     }
     else
     {
       // Finish the simulation
-      cpu.execute(false);
+      cpu.execute(false, budget);
+    }
+    long actualSteps = cpu.cpuState.tick - tickBefore;
+    recordSimulation(cpu, actualSteps, System.nanoTime() - start);
+    event.finish(cpu, actualSteps);
+    return new SimulateResponse(cpu.cpuState, actualSteps, cpu.stopReason, cpu.firedCondition);
+  }
+  
+  /**
+   * @param cpu   The simulated CPU
+   * @param steps Number of cycles simulated by the request
+   * @param nanos Duration of the simulation, including the construction of the CPU
+   *
+   * @brief Record a finished simulation in the metrics
+   */
+  public static void recordSimulation(Cpu cpu, long steps, long nanos)
+  {
+    simulatedCycles.add(steps);
+    cyclesPerRequest.record(steps);
+    instructionsPerRequest.record(cpu.cpuState.statistics.committedInstructions);
+    if (nanos > 0)
+    {
+      cyclesPerSecond.record((long) (steps * 1e9 / nanos));
+    }
+  }
+  
+  /**
+   * The response carries the full state, so it takes about as much memory as the simulation itself.
+   */
+  @Override
+  public long estimateMemory(SimulateRequest request)
+  {
+    if (request == null || request.config == null)
+    {
+      return 0;
     }
-    int actualSteps = cpu.cpuState.tick - tickBefore;
-    return new SimulateResponse(cpu.cpuState, actualSteps, cpu.stopReason);
+    return 2 * request.config.estimateMemoryUsage();
+  }
+  
+  /**
+   * The simulation is deterministic, the response only depends on the request.
+   */
+  @Override
+  public String cacheKey(SimulateRequest request)
+  {
+    if (request == null || request.config == null || request.tick == null)
+    {
+      return null;
+    }
+    return "simulate-" + Serialization.canonicalHash(request);
+  }
+  
+  /**
+   * A simulation stopped by the clock or by a cancellation would give a different result next time.
+   */
+  @Override
+  public boolean isCacheable(SimulateResponse response)
+  {
+    return response.stopReason != StopReason.kTimeOut && response.stopReason != StopReason.kCancelled;
   }
   
   @Override
-  public SimulateRequest deserialize(InputStream json) throws IOException
+  public SimulateRequest deserialize(InputStream stream, WireFormat format) throws IOException
   {
-    return simReqReader.readValue(json);
+    return simReqReader.with(format.getFactory()).readValue(stream);
   }
   
   @Override
-  public void serialize(SimulateResponse response, OutputStream stream) throws IOException
+  public void serialize(SimulateResponse response, OutputStream stream, WireFormat format) throws IOException
   {
-    simRespWriter.writeValue(stream, response);
+    simRespWriter.with(format.getFactory()).writeValue(stream, response);
     
   }
 }
@@ -29,7 +29,9 @@ package com.gradle.superscalarsim.server.simulate;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.StopCondition;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -43,21 +45,53 @@ public class SimulateRequest
    * If not specified, the state of the last tick is returned (the end of the simulation).
    */
   @JsonProperty(required = true)
-  Optional<Integer> tick;
+  Optional<Long> tick;
   /**
    * The configuration to use for the simulation
    * Used for getting the initial state in case of a backwards simulation
    */
   @JsonProperty(required = true)
   SimulationConfig config;
+  /**
+   * Cycle budget of the simulation. The simulation stops with kMaxCycles when the tick exceeds it.
+   * If not specified, the default budget is used.
+   */
+  Optional<Long> maxCycles = Optional.empty();
+  /**
+   * Conditions that stop the simulation before the tick, checked after every cycle.
+   * The response says which one fired, so a client can run to an event in one request.
+   */
+  List<StopCondition> stopConditions = List.of();
+  /**
+   * The conditions fire only after this tick, so a client can continue from a state where one fired.
+   */
+  long stopConditionsFromTick = 0;
   
   public SimulateRequest()
   {
   }
   
-  public SimulateRequest(SimulationConfig config, Optional<Integer> tick)
+  public SimulateRequest(SimulationConfig config, Optional<Long> tick)
   {
     this.config = config;
     this.tick   = tick;
   }
+  
+  public SimulateRequest(SimulationConfig config, Optional<Long> tick, Optional<Long> maxCycles)
+  {
+    this.config    = config;
+    this.tick      = tick;
+    this.maxCycles = maxCycles;
+  }
+  
+  public SimulateRequest(SimulationConfig config,
+                         Optional<Long> tick,
+                         List<StopCondition> stopConditions,
+                         long stopConditionsFromTick)
+  {
+    this.config                 = config;
+    this.tick                   = tick;
+    this.stopConditions         = stopConditions;
+    this.stopConditionsFromTick = stopConditionsFromTick;
+  }
 }
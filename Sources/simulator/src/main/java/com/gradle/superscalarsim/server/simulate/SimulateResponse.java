@@ -38,7 +38,7 @@ public class SimulateResponse
   /**
    * Delta of the executed steps
    */
-  public int executedSteps;
+  public long executedSteps;
   /**
    * State of the CPU at the requested tick, or at the end of the simulation, whichever comes first
    */
@@ -49,11 +49,17 @@ public class SimulateResponse
    */
   public StopReason stopReason;
   
-  SimulateResponse(CpuState state, int executed_steps, StopReason stopReason)
+  /**
+   * Index of the stop condition of the request that stopped the simulation, -1 if none did
+   */
+  public int firedCondition;
+  
+  SimulateResponse(CpuState state, long executed_steps, StopReason stopReason, int firedCondition)
   {
-    this.executedSteps = executed_steps;
-    this.state         = state;
-    this.stopReason    = stopReason;
+    this.executedSteps  = executed_steps;
+    this.state          = state;
+    this.stopReason     = stopReason;
+    this.firedCondition = firedCondition;
   }
   
   /**
@@ -61,7 +67,7 @@ public class SimulateResponse
    */
   public SimulateShortResponse toShortResponse()
   {
-    return new SimulateShortResponse(state.debugLog, state.statistics, stopReason,
+    return new SimulateShortResponse(state.debugLog, state.statistics, stopReason, firedCondition,
                                      state.unifiedRegisterFileBlock.getArchitecturalRegisterValues());
   }
 }
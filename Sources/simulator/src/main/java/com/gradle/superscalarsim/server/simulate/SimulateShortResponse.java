@@ -55,6 +55,11 @@ public class SimulateShortResponse
    */
   public StopReason stopReason;
   
+  /**
+   * Index of the stop condition of the request that stopped the simulation, -1 if none did
+   */
+  public int firedCondition;
+  
   /**
    * Architectural register values at the end of the simulation. Keys are register names, values are register values (bit values).
    * The aliased registers are included twice, once for each name.
@@ -67,11 +72,13 @@ public class SimulateShortResponse
   public SimulateShortResponse(DebugLog debugLog,
                                SimulationStatistics statistics,
                                StopReason stopReason,
+                               int firedCondition,
                                Map<String, Long> registers)
   {
     this.debugLog       = debugLog;
     this.statistics     = statistics;
     this.stopReason     = stopReason;
+    this.firedCondition = firedCondition;
     this.registerValues = registers;
   }
 }
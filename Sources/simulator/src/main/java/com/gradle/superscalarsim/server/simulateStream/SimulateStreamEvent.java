@@ -0,0 +1,81 @@
+/**
+ * @file SimulateStreamEvent.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Event sent by the /simulateStream endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.simulateStream;
+
+import com.gradle.superscalarsim.cpu.DebugLog;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import com.gradle.superscalarsim.cpu.StopReason;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One event of the /simulateStream endpoint.
+ * Sent every n cycles while the simulation runs, and once more when it stops.
+ */
+public class SimulateStreamEvent
+{
+  /**
+   * Tick of the simulation at the time of the event
+   */
+  public long tick;
+  
+  /**
+   * Statistics of the simulation so far (cumulative)
+   */
+  public SimulationStatistics statistics;
+  
+  /**
+   * Log messages generated since the previous event
+   */
+  public List<DebugLog.Entry> debugLog;
+  
+  /**
+   * Architectural registers that changed since the previous event. Null if not requested.
+   * The final event carries all registers.
+   */
+  public Map<String, Long> registerValues;
+  
+  /**
+   * Reason for stopping the simulation. kNotStopped for progress events.
+   */
+  public StopReason stopReason;
+  
+  public SimulateStreamEvent(long tick,
+                             SimulationStatistics statistics,
+                             List<DebugLog.Entry> debugLog,
+                             Map<String, Long> registerValues,
+                             StopReason stopReason)
+  {
+    this.tick           = tick;
+    this.statistics     = statistics;
+    this.debugLog       = debugLog;
+    this.registerValues = registerValues;
+    this.stopReason     = stopReason;
+  }
+}
@@ -0,0 +1,338 @@
+/**
+ * @file SimulateStreamHandler.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Handler for the /simulateStream endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.simulateStream;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gradle.superscalarsim.app.MyLogger;
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.DebugLog;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.jfr.SimulationEvent;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.EndpointClass;
+import com.gradle.superscalarsim.server.EndpointMetrics;
+import com.gradle.superscalarsim.server.EndpointName;
+import com.gradle.superscalarsim.server.MyRequestHandler;
+import com.gradle.superscalarsim.server.ServerError;
+import com.gradle.superscalarsim.server.ServerException;
+import com.gradle.superscalarsim.server.WorkerLanes;
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * @brief Handler for /simulateStream requests
+ * @details Runs the simulation to the end on a worker thread and streams progress as Server-Sent Events
+ * (<code>text/event-stream</code>, JSON payloads). A <code>progress</code> event is sent every n cycles,
+ * a <code>done</code> event when the simulation stops, an <code>error</code> event if the request is invalid.
+ * <p>
+ * The events are written with blocking writes, so a client that does not read the stream stalls the simulation
+ * instead of letting events pile up in memory (backpressure).
+ * Closing the connection or a timeout before the first event cancels the simulation. The whole stream is limited by
+ * the wall-clock budget of the handler.
+ */
+public class SimulateStreamHandler implements HttpHandler
+{
+  static Logger logger = MyLogger.initializeLogger("SimulateStreamHandler", Level.INFO);
+  
+  ObjectReader streamReqReader = Serialization.getDeserializer().readerFor(SimulateStreamRequest.class);
+  ObjectWriter streamEventWriter = Serialization.getSerializer().writerFor(SimulateStreamEvent.class);
+  
+  /**
+   * Executors and admission control, the stream runs in the simulation class
+   */
+  WorkerLanes lanes;
+  
+  /**
+   * Latency and status codes of the streams
+   */
+  EndpointMetrics metrics = new EndpointMetrics(EndpointName.simulateStream);
+  
+  /**
+   * Wall-clock budget of a stream in milliseconds, 0 for no limit
+   */
+  long timeoutMs;
+  
+  /**
+   * @param lanes     Executors and admission control
+   * @param timeoutMs Wall-clock budget of a stream in milliseconds, 0 for no limit
+   */
+  public SimulateStreamHandler(WorkerLanes lanes, long timeoutMs)
+  {
+    this.lanes     = lanes;
+    this.timeoutMs = timeoutMs;
+  }
+  
+  public SimulateStreamHandler()
+  {
+    this(new WorkerLanes(), 0);
+  }
+  
+  @Override
+  public void handleRequest(HttpServerExchange exchange) throws IOException
+  {
+    MyRequestHandler.addOptions(exchange);
+    if (MyRequestHandler.handleVerb(exchange))
+    {
+      return;
+    }
+    
+    if (exchange.isInIoThread())
+    {
+      metrics.track(exchange);
+      if (!lanes.tryEnter(EndpointClass.kSimulation))
+      {
+        MyRequestHandler.sendBusy(exchange, EndpointClass.kSimulation, WireFormat.JSON);
+        return;
+      }
+      exchange.dispatch(lanes.getExecutor(EndpointClass.kSimulation), worker ->
+      {
+        try
+        {
+          handleRequest(worker);
+        }
+        finally
+        {
+          lanes.exit(EndpointClass.kSimulation);
+        }
+      });
+      return;
+    }
+    
+    if (exchange.isResponseStarted())
+    {
+      // Timed out while waiting for a thread
+      return;
+    }
+    
+    exchange.startBlocking();
+    WireFormat requestFormat = WireFormat.fromContentType(exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE));
+    SimulateStreamRequest request;
+    try
+    {
+      request = streamReqReader.with(requestFormat.getFactory()).readValue(exchange.getInputStream());
+      validate(request);
+    }
+    catch (ServerException e)
+    {
+      MyRequestHandler.sendError(exchange, e.getError(), WireFormat.JSON);
+      return;
+    }
+    catch (Exception e)
+    {
+      logger.severe("Cannot parse request: " + e.getMessage());
+      MyRequestHandler.sendError(exchange, new ServerError("root", "Cannot parse request", e.getMessage()),
+                                 WireFormat.JSON);
+      return;
+    }
+    
+    long memory = request.config.estimateMemoryUsage();
+    if (!lanes.tryReserveMemory(memory))
+    {
+      MyRequestHandler.sendBusy(exchange, EndpointClass.kSimulation, WireFormat.JSON);
+      return;
+    }
+    
+    // The token is cancelled by the timeout of the request or when the client closes the connection
+    CancellationToken token = MyRequestHandler.getCancellationToken(exchange);
+    exchange.getConnection().addCloseListener(connection -> token.cancel());
+    if (token.isCancelled())
+    {
+      // Timed out while parsing, the timeout has already answered
+      lanes.releaseMemory(memory);
+      return;
+    }
+    
+    exchange.setStatusCode(200);
+    exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "text/event-stream");
+    exchange.getResponseHeaders().put(Headers.CACHE_CONTROL, "no-cache");
+    OutputStream out = exchange.getOutputStream();
+    try
+    {
+      stream(request, (name, event) ->
+      {
+        if (token.isCancelled())
+        {
+          // The exchange may have been finished by the timeout
+          throw new IOException("Request cancelled");
+        }
+        out.write(("event: " + name + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+        streamEventWriter.writeValue(out, event);
+        out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+        out.flush();
+      }, token);
+    }
+    catch (IOException e)
+    {
+      logger.info("Stream closed by the client: " + e.getMessage());
+      return;
+    }
+    catch (Exception e)
+    {
+      logger.severe("Internal server error: " + e.getMessage());
+      e.printStackTrace();
+    }
+    finally
+    {
+      lanes.releaseMemory(memory);
+    }
+    exchange.endExchange();
+  }
+  
+  /**
+   * @throws ServerException If the request is not valid
+   */
+  public void validate(SimulateStreamRequest request) throws ServerException
+  {
+    if (request == null)
+    {
+      throw new ServerException("root", "Missing request body");
+    }
+    
+    if (request.config == null)
+    {
+      throw new ServerException("config", "Missing config field");
+    }
+    
+    if (request.interval <= 0)
+    {
+      throw new ServerException("interval", "Interval must be a positive number");
+    }
+    
+    if (request.maxCycles == null || request.maxCycles.isPresent() && request.maxCycles.get() <= 0)
+    {
+      throw new ServerException("maxCycles", "Cycle budget must be a positive 64-bit integer");
+    }
+    
+    SimulationConfig.ValidationResult errors = request.config.validate();
+    if (!errors.valid)
+    {
+      throw new ServerException("config", errors.toString());
+    }
+  }
+  
+  /**
+   * @param request Valid request
+   * @param sink    Receiver of the events
+   * @param token   If cancelled, the simulation stops without the final event
+   *
+   * @throws IOException If the sink fails to send an event. The simulation is abandoned.
+   * @brief Run the simulation, sending progress events to the sink
+   */
+  public void stream(SimulateStreamRequest request, EventSink sink, CancellationToken token) throws IOException
+  {
+    SimulationEvent event = new SimulationEvent();
+    event.begin();
+    long              start          = System.nanoTime();
+    Cpu               cpu            = new Cpu(request.config);
+    SimulationBudget  budget         = new SimulationBudget(
+            request.maxCycles.orElse((long) SimulationBudget.DEFAULT_MAX_CYCLES), timeoutMs, token);
+    long              sentLogEntries = 0;
+    Map<String, Long> lastRegisters  = new HashMap<>();
+    while (true)
+    {
+      long nextTick = (cpu.cpuState.tick / request.interval + 1) * request.interval;
+      cpu.simulateState(nextTick, budget);
+      if (cpu.stopReason == StopReason.kCancelled)
+      {
+        logger.info("Simulation cancelled at tick " + cpu.cpuState.tick);
+        return;
+      }
+      if (cpu.stopReason != StopReason.kNotStopped)
+      {
+        break;
+      }
+      // Messages dropped by a log limit before they were sent are skipped
+      List<DebugLog.Entry> newEntries = cpu.cpuState.debugLog.getEntriesSince(sentLogEntries);
+      sentLogEntries = cpu.cpuState.debugLog.getTotalEntries();
+      Map<String, Long> registers = null;
+      if (request.registerDeltas)
+      {
+        registers = registerDelta(cpu, lastRegisters);
+      }
+      sink.send("progress", new SimulateStreamEvent(cpu.cpuState.tick, cpu.cpuState.statistics, newEntries, registers,
+                                                    StopReason.kNotStopped));
+    }
+    SimulateHandler.recordSimulation(cpu, cpu.cpuState.tick, System.nanoTime() - start);
+    event.finish(cpu, cpu.cpuState.tick);
+    sink.send("done", new SimulateStreamEvent(cpu.cpuState.tick, cpu.cpuState.statistics,
+                                              cpu.cpuState.debugLog.getEntriesSince(sentLogEntries),
+                                              cpu.cpuState.unifiedRegisterFileBlock.getArchitecturalRegisterValues(),
+                                              cpu.stopReason));
+  }
+  
+  /**
+   * @param lastRegisters Values sent so far. Updated with the new values.
+   *
+   * @return Registers with a value different from the last sent one
+   */
+  private static Map<String, Long> registerDelta(Cpu cpu, Map<String, Long> lastRegisters)
+  {
+    Map<String, Long> delta = new HashMap<>();
+    for (Map.Entry<String, Long> entry : cpu.cpuState.unifiedRegisterFileBlock.getArchitecturalRegisterValues()
+            .entrySet())
+    {
+      Long last = lastRegisters.put(entry.getKey(), entry.getValue());
+      if (!entry.getValue().equals(last))
+      {
+        delta.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return delta;
+  }
+  
+  /**
+   * @brief Receiver of the stream events
+   */
+  @FunctionalInterface
+  public interface EventSink
+  {
+    /**
+     * @param name  Name of the event (progress, done)
+     * @param event The event
+     *
+     * @throws IOException If the event cannot be delivered
+     */
+    void send(String name, SimulateStreamEvent event) throws IOException;
+  }
+}
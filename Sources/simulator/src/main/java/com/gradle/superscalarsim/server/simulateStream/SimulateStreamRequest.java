@@ -0,0 +1,82 @@
+/**
+ * @file SimulateStreamRequest.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Request for the /simulateStream endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.simulateStream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+
+import java.util.Optional;
+
+/**
+ * Parameters for the /simulateStream endpoint request
+ */
+public class SimulateStreamRequest
+{
+  /**
+   * The configuration to simulate. The simulation runs from tick 0 to the end.
+   */
+  @JsonProperty(required = true)
+  SimulationConfig config;
+  
+  /**
+   * Number of cycles between two progress events. Must be positive.
+   */
+  @JsonProperty(required = false)
+  int interval = 1000;
+  
+  /**
+   * If true, the progress events carry the architectural registers that changed since the previous event.
+   */
+  @JsonProperty(required = false)
+  boolean registerDeltas = false;
+  
+  /**
+   * Cycle budget of the simulation. If not specified, the default budget is used.
+   */
+  @JsonProperty(required = false)
+  Optional<Long> maxCycles = Optional.empty();
+  
+  public SimulateStreamRequest()
+  {
+  }
+  
+  public SimulateStreamRequest(SimulationConfig config, int interval, boolean registerDeltas)
+  {
+    this.config         = config;
+    this.interval       = interval;
+    this.registerDeltas = registerDeltas;
+  }
+  
+  public SimulateStreamRequest(SimulationConfig config, int interval, boolean registerDeltas, Optional<Long> maxCycles)
+  {
+    this.config         = config;
+    this.interval       = interval;
+    this.registerDeltas = registerDeltas;
+    this.maxCycles      = maxCycles;
+  }
+}
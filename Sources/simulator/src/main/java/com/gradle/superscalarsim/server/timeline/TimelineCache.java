@@ -0,0 +1,196 @@
+/**
+ * @file TimelineCache.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Cache of the /timeline recordings
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.timeline;
+
+import com.gradle.superscalarsim.metrics.Counter;
+import com.gradle.superscalarsim.metrics.Metrics;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @brief Recordings of simulations, shared by the /timeline requests
+ * @details A recording costs a whole simulation, a seek in it a few microseconds, so the recordings of the recently
+ * used configurations are kept in memory (least recently used first out, up to a total size).
+ * Concurrent requests for the same key wait for the one recording in flight instead of starting their own.
+ * Recordings cut short by the clock are not stored.
+ */
+public class TimelineCache
+{
+  /**
+   * Limit of the total size of the stored recordings in bytes
+   */
+  private final long maxBytes;
+  
+  /**
+   * Stored recordings in the access order
+   */
+  private final LinkedHashMap<String, TimelineRecording> recordings = new LinkedHashMap<>(16, 0.75f, true);
+  
+  /**
+   * Recordings in progress by key
+   */
+  private final ConcurrentHashMap<String, CompletableFuture<TimelineRecording>> inFlight = new ConcurrentHashMap<>();
+  
+  private final Counter hits   = new Counter();
+  private final Counter misses = new Counter();
+  
+  /**
+   * Size of the stored recordings, guarded by {@link #recordings}
+   */
+  private long size;
+  
+  /**
+   * @param maxBytes Limit of the total size of the stored recordings in bytes
+   */
+  public TimelineCache(long maxBytes)
+  {
+    this.maxBytes = maxBytes;
+  }
+  
+  /**
+   * @param key      Key of the simulation
+   * @param recorder Records the simulation on a miss
+   *
+   * @return The stored recording, the recording in flight or a new one
+   */
+  public TimelineRecording get(String key, Supplier<TimelineRecording> recorder)
+  {
+    TimelineRecording cached = load(key);
+    if (cached != null)
+    {
+      return cached;
+    }
+    
+    CompletableFuture<TimelineRecording> own     = new CompletableFuture<>();
+    CompletableFuture<TimelineRecording> running = inFlight.putIfAbsent(key, own);
+    if (running != null)
+    {
+      // Wait for the same recording started by another request
+      hits.increment();
+      try
+      {
+        return running.join();
+      }
+      catch (CompletionException e)
+      {
+        if (e.getCause() instanceof RuntimeException cause)
+        {
+          throw cause;
+        }
+        throw e;
+      }
+    }
+    
+    try
+    {
+      // The previous recording could have finished between the lookup and the registration
+      TimelineRecording recording = load(key);
+      if (recording == null)
+      {
+        misses.increment();
+        recording = recorder.get();
+        if (recording.isDeterministic())
+        {
+          save(key, recording);
+        }
+      }
+      own.complete(recording);
+      return recording;
+    }
+    catch (RuntimeException e)
+    {
+      own.completeExceptionally(e);
+      throw e;
+    }
+    finally
+    {
+      inFlight.remove(key, own);
+    }
+  }
+  
+  /**
+   * @brief Export the hits, misses and size (as the "timeline" cache)
+   */
+  public void registerMetrics()
+  {
+    String requests = "simulator_cache_requests_total";
+    String help     = "Lookups in the cache by the tier that answered them";
+    Metrics.counter(requests, help, hits::get, "cache", "timeline", "result", "hit_memory");
+    Metrics.counter(requests, help, misses::get, "cache", "timeline", "result", "miss");
+    Metrics.gauge("simulator_cache_size_bytes", "Size of the stored entries", () ->
+    {
+      synchronized (recordings)
+      {
+        return size;
+      }
+    }, "cache", "timeline", "tier", "memory");
+  }
+  
+  private TimelineRecording load(String key)
+  {
+    synchronized (recordings)
+    {
+      TimelineRecording recording = recordings.get(key);
+      if (recording != null)
+      {
+        hits.increment();
+      }
+      return recording;
+    }
+  }
+  
+  private void save(String key, TimelineRecording recording)
+  {
+    long bytes = recording.timeline.estimateMemory();
+    if (bytes > maxBytes)
+    {
+      return;
+    }
+    synchronized (recordings)
+    {
+      TimelineRecording previous = recordings.put(key, recording);
+      if (previous != null)
+      {
+        size -= previous.timeline.estimateMemory();
+      }
+      size += bytes;
+      Iterator<Map.Entry<String, TimelineRecording>> eldest = recordings.entrySet().iterator();
+      while (size > maxBytes)
+      {
+        size -= eldest.next().getValue().timeline.estimateMemory();
+        eldest.remove();
+      }
+    }
+  }
+}
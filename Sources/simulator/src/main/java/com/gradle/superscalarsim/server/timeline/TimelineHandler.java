@@ -0,0 +1,183 @@
+/**
+ * @file TimelineHandler.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Handler of the /timeline endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.timeline;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.enums.InstructionTypeEnum;
+import com.gradle.superscalarsim.pipetrace.PipelineTimeline;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.IRequestResolver;
+import com.gradle.superscalarsim.server.ServerException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @brief Handler for /timeline requests
+ * Gets a configuration and a tick and returns the contents of the ROB, issue windows and function units at that tick.
+ * The first request for a configuration simulates it to the end with a pipeline tracer, the following requests
+ * reconstruct the contents from the recorded trace (see {@link PipelineTimeline}), without simulating.
+ * The responses are not put into the response cache, a seek is cheaper than a lookup.
+ */
+public class TimelineHandler implements IRequestResolver<TimelineRequest, TimelineResponse>
+{
+  ObjectReader timelineReqReader = Serialization.getDeserializer().readerFor(TimelineRequest.class);
+  ObjectWriter timelineRespWriter = Serialization.getSerializer().writerFor(TimelineResponse.class);
+  
+  private final TimelineCache cache;
+  
+  /**
+   * Wall-clock budget of a recording in milliseconds, 0 for no limit
+   */
+  private final long timeoutMs;
+  
+  /**
+   * @param cache     Recordings shared by the requests
+   * @param timeoutMs Wall-clock budget of a recording in milliseconds, 0 for no limit
+   */
+  public TimelineHandler(TimelineCache cache, long timeoutMs)
+  {
+    this.cache     = cache;
+    this.timeoutMs = timeoutMs;
+  }
+  
+  /**
+   * The recording is shared by all requests for the configuration, so it is not bound to the cancellation of the
+   * request that started it. It only stops at the wall-clock budget.
+   */
+  @Override
+  public TimelineResponse resolve(TimelineRequest request) throws ServerException
+  {
+    if (request == null)
+    {
+      throw new ServerException("root", "Missing request body");
+    }
+    
+    if (request.config == null)
+    {
+      throw new ServerException("config", "Missing config field");
+    }
+    
+    if (request.tick < 0)
+    {
+      throw new ServerException("tick", "Tick must be a non-negative 64-bit integer");
+    }
+    
+    if (request.maxCycles.isPresent() && request.maxCycles.get() <= 0)
+    {
+      throw new ServerException("maxCycles", "Cycle budget must be a positive 64-bit integer");
+    }
+    
+    SimulationConfig.ValidationResult errors = request.config.validate();
+    if (!errors.valid)
+    {
+      throw new ServerException("config", errors.toString());
+    }
+    
+    long maxCycles = request.maxCycles.orElse((long) SimulationBudget.DEFAULT_MAX_CYCLES);
+    String key = "timeline-" + Serialization.canonicalHash(List.of(request.config, maxCycles));
+    TimelineRecording recording = cache.get(key, () -> TimelineRecording.record(request.config,
+                                                                                 new SimulationBudget(maxCycles,
+                                                                                                      timeoutMs,
+                                                                                                      null)));
+    return seek(recording, request.tick);
+  }
+  
+  /**
+   * @param recording The recorded simulation
+   * @param tick      Tick to seek to, ticks after the end give the end
+   *
+   * @return Contents of the pipeline at the tick
+   */
+  public static TimelineResponse seek(TimelineRecording recording, long tick)
+  {
+    TimelineResponse response = new TimelineResponse();
+    response.tick          = Math.min(tick, recording.endTick);
+    response.endTick       = recording.endTick;
+    response.stopReason    = recording.stopReason;
+    response.reorderBuffer = recording.timeline.stateAt(response.tick);
+    response.issueWindows  = new EnumMap<>(InstructionTypeEnum.class);
+    for (InstructionTypeEnum type : InstructionTypeEnum.values())
+    {
+      response.issueWindows.put(type, new ArrayList<>());
+    }
+    
+    PipelineTimeline.Entry[] executed = new PipelineTimeline.Entry[recording.unitNames.size()];
+    for (PipelineTimeline.Entry entry : response.reorderBuffer)
+    {
+      if (entry.isInIssueWindow())
+      {
+        response.issueWindows.get(InstructionTypeEnum.values()[entry.unit()]).add(entry);
+      }
+      else if (entry.isInFunctionUnit())
+      {
+        executed[entry.unit()] = entry;
+      }
+    }
+    response.functionUnits = new ArrayList<>(executed.length);
+    for (int unit = 0; unit < executed.length; unit++)
+    {
+      response.functionUnits.add(new TimelineResponse.FunctionUnit(recording.unitNames.get(unit), executed[unit]));
+    }
+    return response;
+  }
+  
+  /**
+   * The recording is a whole simulation, it takes about as much memory as the simulation itself.
+   */
+  @Override
+  public long estimateMemory(TimelineRequest request)
+  {
+    if (request == null || request.config == null)
+    {
+      return 0;
+    }
+    return 2 * request.config.estimateMemoryUsage();
+  }
+  
+  @Override
+  public TimelineRequest deserialize(InputStream stream, WireFormat format) throws IOException
+  {
+    return timelineReqReader.with(format.getFactory()).readValue(stream);
+  }
+  
+  @Override
+  public void serialize(TimelineResponse response, OutputStream stream, WireFormat format) throws IOException
+  {
+    timelineRespWriter.with(format.getFactory()).writeValue(stream, response);
+  }
+}
@@ -0,0 +1,100 @@
+/**
+ * @file TimelineRecording.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Recorded simulation of the /timeline endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.timeline;
+
+import com.gradle.superscalarsim.blocks.base.AbstractFunctionUnitBlock;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.SimulationBudget;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.pipetrace.PipelineTimeline;
+import com.gradle.superscalarsim.pipetrace.PipelineTrace;
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+
+import java.util.List;
+
+/**
+ * @brief Pipeline trace of a whole simulation, indexed for seeking
+ */
+public class TimelineRecording
+{
+  /**
+   * The indexed trace
+   */
+  public final PipelineTimeline timeline;
+  
+  /**
+   * Names of the function units, indexed by the unit of the events
+   */
+  public final List<String> unitNames;
+  
+  /**
+   * Tick the simulation stopped at
+   */
+  public final long endTick;
+  
+  public final StopReason stopReason;
+  
+  public TimelineRecording(PipelineTimeline timeline, List<String> unitNames, long endTick, StopReason stopReason)
+  {
+    this.timeline   = timeline;
+    this.unitNames  = unitNames;
+    this.endTick    = endTick;
+    this.stopReason = stopReason;
+  }
+  
+  /**
+   * @param config Valid configuration
+   * @param budget Limits of the simulation
+   *
+   * @return Recording of the simulation from the start until it stops
+   */
+  public static TimelineRecording record(SimulationConfig config, SimulationBudget budget)
+  {
+    long          start = System.nanoTime();
+    Cpu           cpu   = new Cpu(config);
+    PipelineTrace trace = new PipelineTrace(
+            cpu.cpuState.instructionMemoryBlock.getCode().stream().map(InputCodeModel::toString).toList());
+    cpu.cpuState.setPipelineTracer(trace);
+    cpu.execute(false, budget);
+    cpu.cpuState.setPipelineTracer(null);
+    SimulateHandler.recordSimulation(cpu, cpu.cpuState.tick, System.nanoTime() - start);
+    
+    List<String> unitNames = cpu.cpuState.getFunctionUnits().stream().map(AbstractFunctionUnitBlock::getName).toList();
+    return new TimelineRecording(new PipelineTimeline(trace), unitNames, cpu.cpuState.tick, cpu.stopReason);
+  }
+  
+  /**
+   * @return False if the simulation was stopped by the clock or a cancellation, another run would get further
+   */
+  public boolean isDeterministic()
+  {
+    return stopReason != StopReason.kTimeOut && stopReason != StopReason.kCancelled;
+  }
+}
@@ -0,0 +1,64 @@
+/**
+ * @file TimelineRequest.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Request for the /timeline endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.timeline;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+
+import java.util.Optional;
+
+/**
+ * Parameters for the /timeline endpoint request
+ */
+public class TimelineRequest
+{
+  /**
+   * The configuration of the simulation. It is recorded once, later requests with the same configuration only seek.
+   */
+  @JsonProperty(required = true)
+  SimulationConfig config;
+  /**
+   * The tick to get the contents of the pipeline at. Ticks after the end of the simulation give the end.
+   */
+  @JsonProperty(required = true)
+  long tick;
+  /**
+   * Cycle budget of the recorded simulation. If not specified, the default budget is used.
+   */
+  Optional<Long> maxCycles = Optional.empty();
+  
+  public TimelineRequest()
+  {
+  }
+  
+  public TimelineRequest(SimulationConfig config, long tick)
+  {
+    this.config = config;
+    this.tick   = tick;
+  }
+}
@@ -0,0 +1,91 @@
+/**
+ * @file TimelineResponse.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Response of the /timeline endpoint
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.server.timeline;
+
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.enums.InstructionTypeEnum;
+import com.gradle.superscalarsim.pipetrace.PipelineTimeline;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response for the /timeline endpoint.
+ * The instructions carry their id, address, text and the last stage they reached.
+ */
+public class TimelineResponse
+{
+  /**
+   * The tick of the contents, the requested tick or the end of the simulation
+   */
+  public long tick;
+  
+  /**
+   * Tick the simulation stopped at, the last tick a client can seek to
+   */
+  public long endTick;
+  
+  /**
+   * Reason for stopping the recorded simulation
+   */
+  public StopReason stopReason;
+  
+  /**
+   * Instructions in the ROB, oldest first
+   */
+  public List<PipelineTimeline.Entry> reorderBuffer;
+  
+  /**
+   * Instructions waiting in the issue windows, by the instruction type of the window
+   */
+  public Map<InstructionTypeEnum, List<PipelineTimeline.Entry>> issueWindows;
+  
+  /**
+   * All function units, in the order of the simulation
+   */
+  public List<FunctionUnit> functionUnits;
+  
+  /**
+   * @brief Function unit and the instruction it executes
+   */
+  public static class FunctionUnit
+  {
+    public String name;
+    
+    /**
+     * Executed instruction, null if the unit is empty
+     */
+    public PipelineTimeline.Entry instruction;
+    
+    public FunctionUnit(String name, PipelineTimeline.Entry instruction)
+    {
+      this.name        = name;
+      this.instruction = instruction;
+    }
+  }
+}
@@ -0,0 +1,330 @@
+/**
+ * @file FunctionalExecutor.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Functional execution of loop periods
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.steadystate;
+
+import com.gradle.superscalarsim.blocks.branch.GlobalHistoryRegister;
+import com.gradle.superscalarsim.code.CodeBranchInterpreter;
+import com.gradle.superscalarsim.code.Expression;
+import com.gradle.superscalarsim.cpu.CpuState;
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.memory.MemoryAccess;
+import com.gradle.superscalarsim.models.register.RegisterDataContainer;
+import com.gradle.superscalarsim.models.register.RegisterModel;
+import com.gradle.superscalarsim.models.util.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @brief Executes instructions on the architectural state, without timing
+ * @details Used to fast-forward loops. The CPU must be drained: the architectural registers are read and written
+ * directly, loads and stores go through {@link com.gradle.superscalarsim.blocks.loadstore.Cache#functionalAccess}.
+ * Every change goes to an undo journal, so a period that leaves the steady state can be reverted.
+ * The branches train the predictor only once their period is accepted.
+ */
+public class FunctionalExecutor
+{
+  private final CpuState cpuState;
+  
+  /**
+   * One model per instruction of the code, created on first use. The interpreters only read them.
+   */
+  private final SimCodeModel[] models;
+  
+  /**
+   * Actions reverting the changes of the current period, run in reverse order
+   */
+  private final List<Runnable> undoLog = new ArrayList<>();
+  
+  /**
+   * Branches of the current period, in program order
+   */
+  private final List<BranchOutcome> branches = new ArrayList<>();
+  
+  private long hits;
+  
+  private long misses;
+  
+  /**
+   * ID given to the history register entries of the branches, must stay below the IDs of the fetched instructions
+   */
+  private long branchId;
+  
+  /**
+   * @param cpuState CPU to execute on
+   */
+  public FunctionalExecutor(CpuState cpuState)
+  {
+    this.cpuState = cpuState;
+    this.models   = new SimCodeModel[cpuState.instructionMemoryBlock.getCode().size()];
+  }
+  
+  /**
+   * @param pc       PC of the first instruction of the period
+   * @param expected Number of executions of each instruction (by its index in the code) in the period
+   * @param length   Number of instructions in the period
+   *
+   * @return PC after the period, or -1 if the execution left the path of the period (an instruction ran more often
+   * than expected, the PC left the code, an instruction failed or has a debug print). The period is not reverted.
+   */
+  public int runPeriod(int pc, long[] expected, long length)
+  {
+    undoLog.clear();
+    branches.clear();
+    hits   = 0;
+    misses = 0;
+    long[] executed = new long[expected.length];
+    for (long i = 0; i < length; i++)
+    {
+      int index = pc / 4;
+      if (pc < 0 || index >= expected.length || executed[index] == expected[index])
+      {
+        return -1;
+      }
+      executed[index]++;
+      pc = execute(pc);
+      if (pc < 0)
+      {
+        return -1;
+      }
+    }
+    return pc;
+  }
+  
+  /**
+   * @brief Reverts the changes of the current period
+   */
+  public void revert()
+  {
+    for (int i = undoLog.size() - 1; i >= 0; i--)
+    {
+      undoLog.get(i).run();
+    }
+    undoLog.clear();
+    branches.clear();
+  }
+  
+  /**
+   * @param firstBranchId ID of the first history register entry, higher than the ID of the last committed branch
+   *
+   * @brief Trains the predictor with the branches of the period, as if they were committed. Accepts the period.
+   */
+  public void trainPredictor(long firstBranchId)
+  {
+    branchId = Math.max(branchId, firstBranchId);
+    GlobalHistoryRegister globalHistoryRegister = cpuState.gShareUnit.getGlobalHistoryRegister();
+    for (BranchOutcome branch : branches)
+    {
+      cpuState.gShareUnit.sendFeedback(branch.pc, branch.taken);
+      cpuState.branchTargetBuffer.setEntry(branch.pc, branch.conditional, branch.target);
+      if (branch.conditional)
+      {
+        globalHistoryRegister.shiftValue(branch.taken, branchId);
+        globalHistoryRegister.commit(branchId);
+        branchId++;
+      }
+    }
+    undoLog.clear();
+    branches.clear();
+  }
+  
+  /**
+   * @return Cache hits of the current period
+   */
+  public long getHits()
+  {
+    return hits;
+  }
+  
+  /**
+   * @return Cache misses of the current period
+   */
+  public long getMisses()
+  {
+    return misses;
+  }
+  
+  /**
+   * @return PC of the next instruction, -1 if the instruction cannot be executed functionally
+   */
+  private int execute(int pc)
+  {
+    SimCodeModel model = getModel(pc);
+    if (model.getDebugInfo() != null)
+    {
+      // Debug prints are not replayed
+      return -1;
+    }
+    return switch (model.getInstructionTypeEnum())
+    {
+      case kIntArithmetic, kFloatArithmetic -> executeArithmetic(model);
+      case kLoadstore -> executeLoadStore(model);
+      case kJumpbranch -> executeBranch(model);
+    };
+  }
+  
+  private int executeArithmetic(SimCodeModel model)
+  {
+    // Copies, so the expression does not write to the registers
+    List<Expression.Variable> variables = new ArrayList<>();
+    for (Expression.Variable variable : model.getVariables())
+    {
+      variables.add(new Expression.Variable(variable.tag, variable.type, new RegisterDataContainer(variable.value),
+                                            variable.isConstant));
+    }
+    Result<Expression.Variable> result = Expression.interpret(model.instructionFunctionModel().interpretableAs(),
+                                                              variables);
+    if (result.isException())
+    {
+      return -1;
+    }
+    Expression.Variable rd = variables.stream().filter(variable -> variable.tag.equals("rd")).findFirst()
+            .orElse(null);
+    if (rd != null)
+    {
+      writeRegister(model.getArgumentByName("rd"), rd.value.getBits(), model.instructionFunctionModel()
+              .getOutputType());
+    }
+    return model.getSavedPc() + 4;
+  }
+  
+  private int executeLoadStore(SimCodeModel model)
+  {
+    Result<MemoryAccess> accessResult = cpuState.loadStoreInterpreter.interpretInstruction(model);
+    if (accessResult.isException())
+    {
+      return -1;
+    }
+    MemoryAccess access = accessResult.value();
+    byte[]       data   = new byte[access.getSize()];
+    if (access.isStore())
+    {
+      for (int i = 0; i < data.length; i++)
+      {
+        data[i] = (byte) (access.getData() >>> (i * 8));
+      }
+    }
+    
+    if (cpuState.cache != null)
+    {
+      if (cpuState.cache.functionalAccess(access.getAddress(), data, access.isStore(), undoLog))
+      {
+        hits++;
+      }
+      else
+      {
+        misses++;
+      }
+    }
+    else if (access.isStore())
+    {
+      byte[] previous = cpuState.simulatedMemory.getFromMemory(access.getAddress(), data.length);
+      undoLog.add(() -> cpuState.simulatedMemory.insertIntoMemory(access.getAddress(), previous));
+      cpuState.simulatedMemory.insertIntoMemory(access.getAddress(), data);
+    }
+    else
+    {
+      data = cpuState.simulatedMemory.getFromMemory(access.getAddress(), data.length);
+    }
+    
+    if (!access.isStore())
+    {
+      long value = 0;
+      for (int i = 0; i < data.length; i++)
+      {
+        value |= (data[i] & 0xFFL) << (i * 8);
+      }
+      int bits = data.length * 8;
+      if (access.isSigned() && bits < 64)
+      {
+        // Sign extend
+        value = value << (64 - bits) >> (64 - bits);
+      }
+      writeRegister(model.getArgumentByName("rd"), value, model.instructionFunctionModel().getOutputType());
+    }
+    return model.getSavedPc() + 4;
+  }
+  
+  private int executeBranch(SimCodeModel model)
+  {
+    Result<CodeBranchInterpreter.BranchResult> result = cpuState.branchInterpreter.interpretInstruction(model);
+    if (result.isException())
+    {
+      return -1;
+    }
+    CodeBranchInterpreter.BranchResult jump = result.value();
+    int                                pc   = model.getSavedPc();
+    InputCodeArgument                  rd   = model.getArgumentByName("rd");
+    if (rd != null)
+    {
+      writeRegister(rd, pc + 4, DataTypeEnum.kInt);
+    }
+    branches.add(new BranchOutcome(pc, jump.jumpTaken(), jump.target(), model.isConditionalBranch()));
+    return jump.jumpTaken() ? jump.target() : pc + 4;
+  }
+  
+  /**
+   * @brief Writes an architectural register, the previous value goes to the journal
+   */
+  private void writeRegister(InputCodeArgument argument, long bits, DataTypeEnum type)
+  {
+    RegisterModel register = argument.getRegisterValue();
+    if (register.isConstant())
+    {
+      return;
+    }
+    long         previousBits = register.getValueContainer().getBits();
+    DataTypeEnum previousType = register.getValueContainer().getCurrentType();
+    undoLog.add(() -> register.setValue(previousBits, previousType));
+    register.setValue(bits, type);
+  }
+  
+  private SimCodeModel getModel(int pc)
+  {
+    int index = pc / 4;
+    if (models[index] == null)
+    {
+      InputCodeModel instruction = cpuState.instructionMemoryBlock.getInstructionAt(pc);
+      models[index] = new SimCodeModel(instruction, -1, -1);
+    }
+    return models[index];
+  }
+  
+  /**
+   * @param pc          PC of the branch
+   * @param taken       True if the branch was taken
+   * @param target      Target of the branch, regardless of whether it was taken
+   * @param conditional True for a conditional branch
+   */
+  private record BranchOutcome(int pc, boolean taken, int target, boolean conditional)
+  {
+  }
+}
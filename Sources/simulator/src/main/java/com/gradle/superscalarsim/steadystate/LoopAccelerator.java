@@ -0,0 +1,447 @@
+/**
+ * @file LoopAccelerator.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Loop steady-state detection and extrapolation
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.steadystate;
+
+import com.gradle.superscalarsim.blocks.base.AbstractFunctionUnitBlock;
+import com.gradle.superscalarsim.blocks.base.IssueWindowBlock;
+import com.gradle.superscalarsim.cpu.CpuState;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.models.util.Triplet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * @brief Opt-in accelerator of loops in a steady state
+ * @details At every commit of a loop-back branch (a taken backward conditional branch, correctly predicted) the
+ * accelerator takes a fingerprint of the microarchitectural state: the occupancy of the ROB, the issue windows,
+ * the functional units and the decode buffer, the history register, the predictor and BTB entries of the branches
+ * committed in the iteration and the state of the cache groups it touched (without the tags). A loop is in a steady
+ * state when the fingerprint repeats after a period of iterations twice in a row and both periods changed all
+ * statistics counters by the same amount.
+ * <p>
+ * Then the younger instructions are flushed and fetch is stalled until the CPU drains. The following periods run
+ * functionally on the architectural state, each adding the per-period delta to the statistics and the clock. A period
+ * is reverted and the cycle-accurate simulation resumes at its start when its control flow differs (usually the exit
+ * of the loop), when its cache hits and misses differ from the first fast-forwarded period, or when the next period
+ * would pass the cycle limit of the run. The drain and the refill of the pipeline are simulated and counted (the clock
+ * never goes back, the IDs of the instructions depend on it), so an extrapolation costs about as much accuracy as a
+ * branch misprediction.
+ * <p>
+ * The use of the extrapolation is reported in {@link SimulationStatistics#loopExtrapolation}.
+ * Loops with debug prints are not fast-forwarded. The random replacement policy is not supported, its state cannot be
+ * restored after a reverted period.
+ */
+public class LoopAccelerator
+{
+  /**
+   * Longest detected period, in iterations
+   */
+  public static final int MAX_PERIOD = 16;
+  
+  /**
+   * Cycles to wait for the CPU to drain before giving up
+   */
+  public static final int MAX_DRAIN_CYCLES = 1000;
+  
+  private final CpuState cpuState;
+  
+  private final FunctionalExecutor executor;
+  
+  private final SimulationStatistics.LoopExtrapolation report;
+  
+  private final List<IssueWindowBlock> issueWindows;
+  
+  private final List<AbstractFunctionUnitBlock> functionUnits;
+  
+  /**
+   * Loop-back boundaries of the tracked loop, the newest last
+   */
+  private final ArrayDeque<Boundary> history = new ArrayDeque<>();
+  
+  /**
+   * Cache groups touched since the last boundary
+   */
+  private final BitSet touchedGroups = new BitSet();
+  
+  /**
+   * Hash of the line offsets of the accesses since the last boundary. The iterations of a period start at the same
+   * offsets, so the period covers whole cache lines.
+   */
+  private long accessPattern;
+  
+  /**
+   * Branches (by index of the instruction) committed since the last boundary
+   */
+  private final BitSet committedBranches = new BitSet();
+  
+  /**
+   * PC of the loop-back branch of the tracked loop
+   */
+  private int loopPc = -1;
+  
+  /**
+   * Fast-forward stops before passing this tick
+   */
+  private long tickLimit = Long.MAX_VALUE;
+  
+  /**
+   * Boundaries to skip before the next detection, grows after fast-forwards that did not extrapolate anything
+   */
+  private int holdOff;
+  
+  private int backoff = 1;
+  
+  /**
+   * Counter changes of one period of the steady state, null if the CPU is not draining
+   */
+  private long[] steadyDelta;
+  
+  /**
+   * Target of the loop-back branch, the first instruction of a period
+   */
+  private int resumePc;
+  
+  private long drainStart;
+  
+  private long lastBranchId;
+  
+  /**
+   * @param cpuState CPU to accelerate, its blocks must be created
+   */
+  public LoopAccelerator(CpuState cpuState)
+  {
+    this.cpuState      = cpuState;
+    this.executor      = new FunctionalExecutor(cpuState);
+    this.report        = new SimulationStatistics.LoopExtrapolation();
+    this.issueWindows  = List.of(cpuState.aluIssueWindowBlock, cpuState.fpIssueWindowBlock,
+                                 cpuState.branchIssueWindowBlock, cpuState.loadStoreIssueWindowBlock);
+    this.functionUnits = new ArrayList<>();
+    functionUnits.addAll(cpuState.arithmeticFunctionUnitBlocks);
+    functionUnits.addAll(cpuState.fpFunctionUnitBlocks);
+    functionUnits.addAll(cpuState.loadStoreFunctionUnits);
+    functionUnits.addAll(cpuState.memoryAccessUnits);
+    functionUnits.addAll(cpuState.branchFunctionUnitBlocks);
+    cpuState.statistics.loopExtrapolation = report;
+  }
+  
+  /**
+   * @param tickLimit Tick the fast-forward must not pass (the cycle budget or the target tick of the run)
+   */
+  public void setTickLimit(long tickLimit)
+  {
+    this.tickLimit = tickLimit;
+  }
+  
+  /**
+   * @param address Address of a committed load or store
+   */
+  public void onMemoryAccess(long address)
+  {
+    if (cpuState.cache != null)
+    {
+      Triplet<Long, Integer, Integer> split = cpuState.cache.splitAddress(address);
+      touchedGroups.set(split.getSecond());
+      accessPattern = mix(accessPattern, split.getThird());
+    }
+  }
+  
+  /**
+   * Called by the ROB after the commit of a branch.
+   *
+   * @param branch    The committed branch, still at the head of the ROB
+   * @param predicted True if the next instruction in the ROB is the correct one
+   *
+   * @return True if the ROB should flush the younger instructions and stall fetch at the target of the branch, so the
+   * loop can be fast-forwarded once the CPU drains
+   */
+  public boolean onBranchCommit(SimCodeModel branch, boolean predicted)
+  {
+    int pc = branch.getSavedPc();
+    committedBranches.set(pc / 4);
+    boolean loopBack = branch.isConditionalBranch() && branch.isBranchLogicResult() && branch.getBranchTarget() <= pc;
+    if (!loopBack || steadyDelta != null)
+    {
+      return false;
+    }
+    if (pc != loopPc || !predicted)
+    {
+      // A new loop, or a misprediction that disturbs the pipeline
+      history.clear();
+      loopPc = pc;
+    }
+    
+    Boundary boundary = new Boundary(fingerprint(), cpuState.statistics.getCounters());
+    accessPattern = 0;
+    touchedGroups.clear();
+    committedBranches.clear();
+    history.addLast(boundary);
+    if (history.size() > 2 * MAX_PERIOD + 1)
+    {
+      history.removeFirst();
+    }
+    if (!predicted || holdOff > 0)
+    {
+      holdOff = Math.max(0, holdOff - 1);
+      return false;
+    }
+    
+    long[] delta = findPeriod();
+    if (delta == null)
+    {
+      return false;
+    }
+    steadyDelta  = delta;
+    resumePc     = branch.getBranchTarget();
+    drainStart   = cpuState.tick;
+    lastBranchId = branch.getIntegerId();
+    return true;
+  }
+  
+  /**
+   * Called after every step of the CPU. Keeps fetch stalled while the CPU drains, then fast-forwards.
+   */
+  public void afterStep()
+  {
+    if (steadyDelta == null)
+    {
+      return;
+    }
+    if (isDrained())
+    {
+      fastForward();
+    }
+    else if (cpuState.tick - drainStart > MAX_DRAIN_CYCLES)
+    {
+      // Give up, fetch resumes at the target of the branch
+      reset();
+    }
+    else
+    {
+      cpuState.instructionFetchBlock.setStallFlag(true);
+    }
+  }
+  
+  /**
+   * @return Counter changes of the period, if the last boundaries repeat with a period, null otherwise
+   */
+  private long[] findPeriod()
+  {
+    Boundary[] boundaries = history.toArray(new Boundary[0]);
+    int        last       = boundaries.length - 1;
+    for (int period = 1; 2 * period <= last; period++)
+    {
+      Boundary current  = boundaries[last];
+      Boundary previous = boundaries[last - period];
+      Boundary first    = boundaries[last - 2 * period];
+      if (current.fingerprint != previous.fingerprint || previous.fingerprint != first.fingerprint)
+      {
+        continue;
+      }
+      long[] delta = difference(current.counters, previous.counters);
+      if (delta[SimulationStatistics.CLOCK_CYCLES_COUNTER] > 0 && Arrays.equals(delta, difference(previous.counters,
+                                                                                                   first.counters)))
+      {
+        return delta;
+      }
+    }
+    return null;
+  }
+  
+  /**
+   * @brief Runs periods functionally, then extrapolates the statistics and resumes the simulation
+   */
+  private void fastForward()
+  {
+    SimulationStatistics statistics = cpuState.statistics;
+    long[]               base       = statistics.getCounters();
+    long                 cycles     = steadyDelta[SimulationStatistics.CLOCK_CYCLES_COUNTER];
+    long                 length     = steadyDelta[SimulationStatistics.COMMITTED_INSTRUCTIONS_COUNTER];
+    long[]               expected   = new long[cpuState.instructionMemoryBlock.getCode().size()];
+    for (int i = 0; i < expected.length; i++)
+    {
+      expected[i] = steadyDelta[statistics.getCommittedCountIndex(i)];
+    }
+    
+    long periods       = 0;
+    long referenceHits = -1;
+    long referenceMiss = -1;
+    while (cpuState.tick + (periods + 1) * cycles <= tickLimit)
+    {
+      if (executor.runPeriod(resumePc, expected, length) != resumePc)
+      {
+        executor.revert();
+        report.controlFlowBreaks++;
+        break;
+      }
+      if (referenceHits == -1)
+      {
+        referenceHits = executor.getHits();
+        referenceMiss = executor.getMisses();
+      }
+      else if (executor.getHits() != referenceHits || executor.getMisses() != referenceMiss)
+      {
+        executor.revert();
+        report.memoryPatternBreaks++;
+        break;
+      }
+      executor.trainPredictor(lastBranchId + 1);
+      periods++;
+    }
+    
+    long[] counters = new long[base.length];
+    for (int i = 0; i < counters.length; i++)
+    {
+      counters[i] = base[i] + periods * steadyDelta[i];
+    }
+    statistics.setCounters(counters);
+    // The tick does not have to match the clock cycle counter (e.g. a run resumed at a late tick)
+    cpuState.tick += periods * cycles;
+    if (periods > 0)
+    {
+      report.fastForwards++;
+      report.periods += periods;
+      report.cycles += periods * cycles;
+      report.instructions += periods * length;
+      backoff = 1;
+    }
+    else
+    {
+      // Nothing gained, wait longer before the next attempt
+      holdOff = backoff;
+      backoff = Math.min(backoff * 2, 1024);
+    }
+    reset();
+  }
+  
+  /**
+   * @brief Forgets the tracked loop, fetch continues from the start of a period
+   */
+  private void reset()
+  {
+    cpuState.instructionFetchBlock.setPc(resumePc);
+    steadyDelta = null;
+    history.clear();
+    accessPattern = 0;
+    touchedGroups.clear();
+    committedBranches.clear();
+  }
+  
+  /**
+   * @return True if no instruction or memory transaction is in flight
+   */
+  private boolean isDrained()
+  {
+    if (cpuState.reorderBufferBlock.getReorderQueueSize() != 0 || !cpuState.decodeAndDispatchBlock.getCodeBuffer()
+            .isEmpty() || cpuState.loadBufferBlock.getQueueSize() != 0 || cpuState.storeBufferBlock.getQueueSize() != 0)
+    {
+      return false;
+    }
+    if ((cpuState.cache != null && !cpuState.cache.isIdle()) || !cpuState.simulatedMemory.isIdle())
+    {
+      return false;
+    }
+    return issueWindows.stream().allMatch(window -> window.getIssuedInstructions().isEmpty())
+            && functionUnits.stream().allMatch(AbstractFunctionUnitBlock::isFunctionUnitEmpty);
+  }
+  
+  /**
+   * @return Hash of the state relevant to the timing of the next iteration
+   */
+  private long fingerprint()
+  {
+    long hash = cpuState.instructionFetchBlock.getPc();
+    for (SimCodeModel item : cpuState.reorderBufferBlock.reorderQueue)
+    {
+      hash = mix(hash, item.getSavedPc() * 4L + (item.isBusy() ? 2 : 0) + (item.isReadyToBeCommitted() ? 1 : 0));
+    }
+    hash = mix(hash, -1);
+    for (SimCodeModel item : cpuState.decodeAndDispatchBlock.getCodeBuffer())
+    {
+      hash = mix(hash, item.getSavedPc());
+    }
+    for (IssueWindowBlock window : issueWindows)
+    {
+      hash = mix(hash, -1);
+      for (SimCodeModel item : window.getIssuedInstructions())
+      {
+        hash = mix(hash, item.getSavedPc());
+      }
+    }
+    for (AbstractFunctionUnitBlock unit : functionUnits)
+    {
+      SimCodeModel item = unit.getSimCodeModel();
+      hash = mix(hash, item == null ? -1 : item.getSavedPc());
+      hash = mix(hash, unit.getDelay());
+    }
+    
+    hash = mix(hash, cpuState.gShareUnit.getGlobalHistoryRegister().getRegisterValue());
+    hash = mix(hash, cpuState.gShareUnit.getGlobalHistoryRegister().getArchitecturalState());
+    for (int i = committedBranches.nextSetBit(0); i >= 0; i = committedBranches.nextSetBit(i + 1))
+    {
+      int pc = i * 4;
+      hash = mix(hash, pc);
+      hash = mix(hash, cpuState.gShareUnit.peekPredictorState(pc));
+      hash = mix(hash, cpuState.branchTargetBuffer.getEntryTarget(pc));
+    }
+    // Not the indexes of the groups, a loop walking the memory touches other groups every period
+    hash = mix(hash, accessPattern);
+    for (int i = touchedGroups.nextSetBit(0); i >= 0; i = touchedGroups.nextSetBit(i + 1))
+    {
+      hash = mix(hash, cpuState.cache.getGroupSignature(i));
+    }
+    return hash;
+  }
+  
+  private static long mix(long hash, long value)
+  {
+    return (Long.rotateLeft(hash, 7) ^ value) * 0x9E3779B97F4A7C15L;
+  }
+  
+  private static long[] difference(long[] newer, long[] older)
+  {
+    long[] delta = new long[newer.length];
+    for (int i = 0; i < delta.length; i++)
+    {
+      delta[i] = newer[i] - older[i];
+    }
+    return delta;
+  }
+  
+  /**
+   * @param fingerprint Hash of the microarchitectural state at the commit of the loop-back branch
+   * @param counters    Statistics counters at that moment
+   */
+  private record Boundary(long fingerprint, long[] counters)
+  {
+  }
+}
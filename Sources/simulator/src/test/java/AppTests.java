@@ -60,7 +60,8 @@ public class AppTests
   @Test
   public void testStartServer() throws InterruptedException
   {
-    int MAX_RETRIES       = 20;
+    // The server precomputes the static responses (about a second) before it listens
+    int MAX_RETRIES       = 100;
     int RETRY_INTERVAL_MS = 50;
     
     Thread serverThread = new Thread(() ->
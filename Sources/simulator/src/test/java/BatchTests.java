@@ -0,0 +1,80 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gradle.superscalarsim.serialization.Serialization;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import picocli.CommandLine;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * The tests are designed to work with CWD set to the root of the simulator
+ */
+public class BatchTests
+{
+  CommandLine cmd;
+  BatchApp batchApp;
+  
+  StringWriter out;
+  StringWriter err;
+  
+  @Before
+  public void setUp()
+  {
+    batchApp = new BatchApp();
+    cmd      = new CommandLine(batchApp);
+    
+    out = new StringWriter();
+    err = new StringWriter();
+    cmd.setOut(new PrintWriter(out));
+    cmd.setErr(new PrintWriter(err));
+  }
+  
+  @Test
+  public void testCsvCrossProduct()
+  {
+    int exitCode = cmd.execute("--programs", "examples/asmPrograms/basicLoop.r5", "--programs",
+                               "examples/asmPrograms/basicRawAdd.r5", "--cpu", "examples/cpuConfigurations/*.json",
+                               "--columns", "clockCycles,cache.hits", "--threads", "2");
+    Assert.assertEquals(0, exitCode);
+    
+    List<String> lines = out.toString().lines().toList();
+    Assert.assertEquals("program,cpu,memory,stopReason,timeMs,error,clockCycles,cache.hits", lines.get(0));
+    // 2 programs on 3 configurations, and the header
+    Assert.assertEquals(7, lines.size());
+    // The raw add example does not parse
+    Assert.assertEquals(3, batchApp.failedRuns);
+    String loopOnDefault = "examples/asmPrograms/basicLoop.r5,examples/cpuConfigurations/default.json,,kEndOfCode,";
+    Assert.assertTrue(lines.stream().anyMatch(line -> line.startsWith(loopOnDefault)));
+  }
+  
+  @Test
+  public void testNdjsonWithMemory() throws Exception
+  {
+    int exitCode = cmd.execute("--programs", "examples/asmPrograms/externMemory.r5", "--memory",
+                               "examples/memory/constant.json", "--cpu", "examples/cpuConfigurations/default.json",
+                               "--format", "ndjson", "--columns", "clockCycles,fuStats.FX.busyCycles");
+    Assert.assertEquals(0, exitCode);
+    
+    List<String> lines = out.toString().lines().toList();
+    Assert.assertEquals(1, lines.size());
+    JsonNode line = Serialization.getDeserializer().readTree(lines.get(0));
+    Assert.assertEquals("examples/memory/constant.json", line.get("memory").asText());
+    Assert.assertEquals("kEndOfCode", line.get("stopReason").asText());
+    Assert.assertTrue(line.get("error").isNull());
+    Assert.assertTrue(line.get("clockCycles").asLong() > 0);
+    Assert.assertTrue(line.get("fuStats.FX.busyCycles").isNumber());
+  }
+  
+  @Test
+  public void testUnknownColumnFails()
+  {
+    int exitCode = cmd.execute("--programs", "examples/asmPrograms/basicLoop.r5", "--cpu",
+                               "examples/cpuConfigurations/default.json", "--columns", "clockCycles,noSuchStatistic");
+    Assert.assertEquals(2, exitCode);
+    Assert.assertTrue(err.toString().contains("noSuchStatistic"));
+    Assert.assertEquals("", out.toString());
+  }
+}
@@ -0,0 +1,114 @@
+import com.gradle.superscalarsim.bench.BenchmarkReport;
+import com.gradle.superscalarsim.bench.BenchmarkResult;
+import com.gradle.superscalarsim.serialization.Serialization;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import picocli.CommandLine;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The tests are designed to work with CWD set to the root of the simulator
+ */
+public class BenchTests
+{
+  CommandLine cmd;
+  BenchApp benchApp;
+  
+  StringWriter out;
+  StringWriter err;
+  
+  @Before
+  public void setUp()
+  {
+    benchApp = new BenchApp();
+    cmd      = new CommandLine(benchApp);
+    
+    out = new StringWriter();
+    err = new StringWriter();
+    cmd.setOut(new PrintWriter(out));
+    cmd.setErr(new PrintWriter(err));
+  }
+  
+  @Test
+  public void testReportOfProgram() throws Exception
+  {
+    int exitCode = cmd.execute("--programs", "examples/asmPrograms/basicLoop.r5", "--cpu",
+                               "examples/cpuConfigurations/default.json", "--warmup-ms", "0", "--runs", "2");
+    Assert.assertEquals(0, exitCode);
+    
+    BenchmarkReport report = Serialization.getDeserializer().readValue(out.toString(), BenchmarkReport.class);
+    Assert.assertEquals(1, report.results.size());
+    BenchmarkResult result = report.results.get(0);
+    Assert.assertEquals("default", result.cpu);
+    Assert.assertEquals(2, result.runs);
+    Assert.assertTrue(result.cycles > 0);
+    Assert.assertTrue(result.cyclesPerSecond > 0);
+    Assert.assertTrue(result.allocatedBytesPerCycle > 0);
+    Assert.assertNull(result.error);
+  }
+  
+  @Test
+  public void testInvalidProgramFails()
+  {
+    int exitCode = cmd.execute("--programs", "examples/asmPrograms/basicRawAdd.r5", "--cpu",
+                               "examples/cpuConfigurations/default.json", "--warmup-ms", "0", "--runs", "1");
+    Assert.assertEquals(1, exitCode);
+    Assert.assertNotNull(benchApp.report.results.get(0).error);
+  }
+  
+  @Test
+  public void testRegressionAgainstBaseline() throws Exception
+  {
+    // A baseline 100 times faster than anything the simulator can do
+    BenchmarkResult fast = new BenchmarkResult("examples/asmPrograms/basicLoop.r5", "default");
+    fast.cyclesPerSecond = 1e12;
+    BenchmarkReport baseline = new BenchmarkReport(0, 1);
+    baseline.results.add(fast);
+    Path baselineFile = Files.createTempFile("baseline", ".json");
+    Serialization.getSerializer().writeValue(baselineFile.toFile(), baseline);
+    
+    int exitCode = cmd.execute("--programs", "examples/asmPrograms/basicLoop.r5", "--cpu",
+                               "examples/cpuConfigurations/default.json", "--warmup-ms", "0", "--runs", "1",
+                               "--baseline", baselineFile.toString());
+    Files.delete(baselineFile);
+    
+    Assert.assertEquals(BenchApp.REGRESSION_EXIT_CODE, exitCode);
+    Assert.assertEquals(1, benchApp.report.comparisons.size());
+    Assert.assertTrue(benchApp.report.comparisons.get(0).regression);
+    Assert.assertTrue(err.toString().contains("REGRESSION"));
+  }
+  
+  @Test
+  public void testCompareWithinThreshold()
+  {
+    BenchmarkResult base = new BenchmarkResult("p.r5", "cpu");
+    base.cycles                 = 100;
+    base.cyclesPerSecond        = 1000;
+    base.allocatedBytesPerCycle = 100;
+    BenchmarkResult current = new BenchmarkResult("p.r5", "cpu");
+    current.cycles                 = 100;
+    current.cyclesPerSecond        = 950;
+    current.allocatedBytesPerCycle = 105;
+    BenchmarkResult added = new BenchmarkResult("q.r5", "cpu");
+    
+    BenchmarkReport baseline = new BenchmarkReport(0, 1);
+    baseline.results.add(base);
+    BenchmarkReport report = new BenchmarkReport(0, 1);
+    report.results.add(current);
+    report.results.add(added);
+    
+    // 5 % slower and 5 % more allocation
+    Assert.assertFalse(report.compare(baseline, 10));
+    Assert.assertEquals(1, report.comparisons.size());
+    Assert.assertEquals(-5, report.comparisons.get(0).cyclesPerSecondChange, 1e-9);
+    Assert.assertEquals(5, report.comparisons.get(0).allocationChange, 1e-9);
+    Assert.assertFalse(report.comparisons.get(0).cyclesDiffer);
+    
+    Assert.assertTrue(report.compare(baseline, 4));
+  }
+}
@@ -0,0 +1,101 @@
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.gradle.superscalarsim.dse.SweepPoint;
+import com.gradle.superscalarsim.dse.SweepResult;
+import com.gradle.superscalarsim.dse.SweepSpec;
+import com.gradle.superscalarsim.models.FunctionalUnitDescription;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import picocli.CommandLine;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * The tests are designed to work with CWD set to the root of the simulator
+ */
+public class SweepTests
+{
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  CommandLine cmd;
+  SweepApp sweepApp;
+  
+  StringWriter out;
+  StringWriter err;
+  
+  @Before
+  public void setUp()
+  {
+    sweepApp = new SweepApp();
+    cmd      = new CommandLine(sweepApp);
+    
+    out = new StringWriter();
+    err = new StringWriter();
+    cmd.setOut(new PrintWriter(out));
+    cmd.setErr(new PrintWriter(err));
+  }
+  
+  @Test
+  public void testMemoizedSweep() throws Exception
+  {
+    Path memo = folder.getRoot().toPath().resolve("memo.json");
+    String[] args = {"--program", "examples/asmPrograms/writeToArray.r5", "--memory", "examples/memory/ptr.json",
+                     "--param", "robSize=8,64", "--param", "fetchWidth=1,3", "--memo", memo.toString()};
+    Assert.assertEquals(0, cmd.execute(args));
+    Assert.assertEquals(4, sweepApp.results.size());
+    Assert.assertTrue(sweepApp.results.stream().allMatch(result -> result.status == SweepResult.Status.kSimulated));
+    Assert.assertTrue(sweepApp.results.stream().anyMatch(result -> result.paretoOptimal));
+    // The cheapest point is always on the front
+    Assert.assertTrue(sweepApp.results.get(0).paretoOptimal);
+    double ipc = sweepApp.results.get(3).ipc;
+    
+    SweepApp again = new SweepApp();
+    new CommandLine(again).setOut(new PrintWriter(new StringWriter())).execute(args);
+    Assert.assertTrue(again.results.stream().allMatch(result -> result.status == SweepResult.Status.kMemoized));
+    Assert.assertEquals(ipc, again.results.get(3).ipc, 0);
+  }
+  
+  @Test
+  public void testWarmupPrunesDominatedPoints()
+  {
+    int exitCode = cmd.execute("--program", "examples/asmPrograms/writeToArray.r5", "--memory",
+                               "examples/memory/ptr.json", "--param", "fetchWidth=1,3", "--param", "lbSize=64,96",
+                               "--warmup-cycles", "40", "--pareto-only");
+    Assert.assertEquals(0, exitCode);
+    // A wider fetch costs as much as the larger load buffer and is much faster
+    SweepResult narrowFetchLargeBuffer = sweepApp.results.get(1);
+    SweepResult wideFetch              = sweepApp.results.get(2);
+    Assert.assertEquals(narrowFetchLargeBuffer.cost, wideFetch.cost, 0);
+    Assert.assertEquals(SweepResult.Status.kPruned, narrowFetchLargeBuffer.status);
+    Assert.assertEquals(SweepResult.Status.kSimulated, wideFetch.status);
+    Assert.assertTrue(wideFetch.paretoOptimal);
+    // The larger buffer does not help the wide fetch either
+    Assert.assertFalse(sweepApp.results.get(3).paretoOptimal);
+    Assert.assertFalse(out.toString().contains("kPruned"));
+  }
+  
+  @Test
+  public void testUnitCountParameter()
+  {
+    SweepSpec spec = new SweepSpec();
+    spec.parameters.put("fUnits.FX", List.of(IntNode.valueOf(1), IntNode.valueOf(3)));
+    List<SweepPoint> points = spec.expand();
+    Assert.assertEquals(2, points.size());
+    
+    List<FunctionalUnitDescription> units = points.get(1).config.fUnits;
+    Assert.assertEquals(7, units.size());
+    Assert.assertEquals(FunctionalUnitDescription.Type.FX, units.get(2).fuType);
+    Assert.assertEquals(2, units.get(2).id);
+    Assert.assertEquals(6, units.get(6).id);
+    Assert.assertNotEquals(points.get(0).getConfigHash(), points.get(1).getConfigHash());
+    
+    spec.parameters.put("noSuchField", List.of(IntNode.valueOf(1)));
+    Assert.assertThrows(IllegalArgumentException.class, spec::expand);
+  }
+}
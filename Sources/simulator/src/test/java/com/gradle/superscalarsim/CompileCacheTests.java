@@ -0,0 +1,148 @@
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.compiler.AsmParser;
+import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
+import com.gradle.superscalarsim.server.compile.CompileCache;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CompileCacheTests
+{
+  private static final String asm = """
+          \t.text
+          \t.section\t.text.main,"ax",@progbits
+          \t.align\t2
+          \t.globl\tmain
+          \t.type\tmain, @function
+          main:
+          \tli\ta0,0
+          \tret
+          """;
+  
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  /**
+   * Equal compilations call the compiler once, a different flag is a different compilation
+   */
+  @Test
+  public void testHit()
+  {
+    AtomicInteger calls = new AtomicInteger();
+    CompileCache cache = new CompileCache(new ResponseCache(1024 * 1024), (code, flags) ->
+    {
+      calls.incrementAndGet();
+      return GccCaller.CompileResult.success(asm);
+    });
+    
+    CompileCache.Compilation first  = cache.compile("int main() { return 0; }", List.of("O2"));
+    CompileCache.Compilation second = cache.compile("int main() { return 0; }", List.of("O2"));
+    Assert.assertEquals(1, calls.get());
+    Assert.assertTrue(second.result.success);
+    Assert.assertEquals(first.program.program, second.program.program);
+    Assert.assertEquals(first.program.asmToC, second.program.asmToC);
+    
+    cache.compile("int main() { return 0; }", List.of("O3"));
+    Assert.assertEquals(2, calls.get());
+  }
+  
+  /**
+   * Failures to run the compiler are not cached, errors in the code are
+   */
+  @Test
+  public void testFailures()
+  {
+    AtomicInteger calls = new AtomicInteger();
+    CompileCache cache = new CompileCache(new ResponseCache(1024 * 1024), (code, flags) ->
+    {
+      calls.incrementAndGet();
+      if (code.equals("broken"))
+      {
+        return GccCaller.CompileResult.failure("GCC returned non-zero exit value: 1", List.of("error: expected ';'"));
+      }
+      return GccCaller.CompileResult.failure("Error starting GCC", List.of());
+    });
+    
+    cache.compile("int main() { return 0; }", List.of());
+    cache.compile("int main() { return 0; }", List.of());
+    Assert.assertEquals(2, calls.get());
+    
+    CompileCache.Compilation broken = cache.compile("broken", List.of());
+    cache.compile("broken", List.of());
+    Assert.assertEquals(3, calls.get());
+    Assert.assertFalse(broken.result.success);
+    Assert.assertNull(broken.program);
+  }
+  
+  /**
+   * Concurrent equal requests share one compilation
+   */
+  @Test
+  public void testCoalescing() throws Exception
+  {
+    AtomicInteger  calls   = new AtomicInteger();
+    CountDownLatch release = new CountDownLatch(1);
+    CompileCache cache = new CompileCache(new ResponseCache(1024 * 1024), (code, flags) ->
+    {
+      calls.incrementAndGet();
+      try
+      {
+        release.await();
+      }
+      catch (InterruptedException e)
+      {
+        throw new RuntimeException(e);
+      }
+      return GccCaller.CompileResult.success(asm);
+    });
+    
+    ExecutorService                        executor = Executors.newFixedThreadPool(8);
+    List<Future<CompileCache.Compilation>> results  = new ArrayList<>();
+    for (int i = 0; i < 8; i++)
+    {
+      results.add(executor.submit(() -> cache.compile("int main() { return 0; }", List.of("O2"))));
+    }
+    // Let the requests pile up on the first compilation
+    Thread.sleep(200);
+    release.countDown();
+    for (Future<CompileCache.Compilation> result : results)
+    {
+      Assert.assertTrue(result.get(10, TimeUnit.SECONDS).result.success);
+    }
+    executor.shutdown();
+    Assert.assertEquals(1, calls.get());
+  }
+  
+  /**
+   * The disk tier survives a restart
+   */
+  @Test
+  public void testPersistence() throws IOException
+  {
+    AtomicInteger calls = new AtomicInteger();
+    CompileCache.Compiler compiler = (code, flags) ->
+    {
+      calls.incrementAndGet();
+      return GccCaller.CompileResult.success(asm);
+    };
+    
+    new CompileCache(new ResponseCache(1024 * 1024, folder.getRoot().toPath(), 1024 * 1024), compiler).compile(
+            "int main() { return 0; }", List.of());
+    CompileCache.Compilation restored = new CompileCache(
+            new ResponseCache(1024 * 1024, folder.getRoot().toPath(), 1024 * 1024), compiler).compile(
+            "int main() { return 0; }", List.of());
+    Assert.assertEquals(1, calls.get());
+    Assert.assertTrue(restored.result.success);
+    Assert.assertFalse(restored.program.program.isEmpty());
+    Assert.assertEquals(AsmParser.parse(asm).program, restored.program.program);
+  }
+}
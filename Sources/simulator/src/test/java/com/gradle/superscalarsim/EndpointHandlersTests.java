@@ -1,17 +1,31 @@
 package com.gradle.superscalarsim;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.gradle.superscalarsim.compiler.GccCaller;
+import com.gradle.superscalarsim.cpu.CancellationToken;
+import com.gradle.superscalarsim.cpu.CpuConfig;
 import com.gradle.superscalarsim.cpu.MemoryLocation;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.StopCondition;
+import com.gradle.superscalarsim.cpu.StopReason;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.pipetrace.PipelineTimeline;
+import com.gradle.superscalarsim.pipetrace.PipelineTrace;
+import com.gradle.superscalarsim.serialization.WireFormat;
 import com.gradle.superscalarsim.server.EndpointName;
 import com.gradle.superscalarsim.server.ServerError;
 import com.gradle.superscalarsim.server.ServerException;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
 import com.gradle.superscalarsim.server.checkConfig.CheckConfigHandler;
 import com.gradle.superscalarsim.server.checkConfig.CheckConfigRequest;
 import com.gradle.superscalarsim.server.checkConfig.CheckConfigResponse;
+import com.gradle.superscalarsim.server.compile.CompileCache;
 import com.gradle.superscalarsim.server.compile.CompileHandler;
 import com.gradle.superscalarsim.server.compile.CompileRequest;
 import com.gradle.superscalarsim.server.compile.CompileResponse;
+import com.gradle.superscalarsim.server.compileSimulate.CompileSimulateHandler;
+import com.gradle.superscalarsim.server.compileSimulate.CompileSimulateRequest;
+import com.gradle.superscalarsim.server.compileSimulate.CompileSimulateResponse;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionHandler;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionRequest;
 import com.gradle.superscalarsim.server.instructionDescriptions.InstructionDescriptionResponse;
@@ -23,12 +37,25 @@ import com.gradle.superscalarsim.server.schema.SchemaRequest;
 import com.gradle.superscalarsim.server.simulate.SimulateHandler;
 import com.gradle.superscalarsim.server.simulate.SimulateRequest;
 import com.gradle.superscalarsim.server.simulate.SimulateResponse;
+import com.gradle.superscalarsim.server.simulateStream.SimulateStreamEvent;
+import com.gradle.superscalarsim.server.simulateStream.SimulateStreamHandler;
+import com.gradle.superscalarsim.server.simulateStream.SimulateStreamRequest;
+import com.gradle.superscalarsim.server.timeline.TimelineCache;
+import com.gradle.superscalarsim.server.timeline.TimelineHandler;
+import com.gradle.superscalarsim.server.timeline.TimelineRecording;
+import com.gradle.superscalarsim.server.timeline.TimelineRequest;
+import com.gradle.superscalarsim.server.timeline.TimelineResponse;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static com.gradle.superscalarsim.enums.DataTypeEnum.kInt;
 
@@ -46,7 +73,7 @@ public class EndpointHandlersTests
     SimulateHandler  handler = new SimulateHandler();
     SimulationConfig config  = new SimulationConfig();
     config.code = "nop";
-    SimulateRequest request = new SimulateRequest(config, Optional.of(1));
+    SimulateRequest request = new SimulateRequest(config, Optional.of(1L));
     
     SimulateResponse response = handler.resolve(request);
     
@@ -263,4 +290,403 @@ public class EndpointHandlersTests
     
     Assert.assertNotNull(response);
   }
+  
+  /**
+   * The precomputed schemas cover every endpoint and are found by the key of the request
+   */
+  @Test
+  public void testSchemaPrecompute() throws ServerException
+  {
+    SchemaHandler         handler = new SchemaHandler();
+    Map<String, JsonNode> schemas = handler.precompute();
+    SchemaRequest         request = new SchemaRequest(EndpointName.compile, SchemaRequest.RequestResponse.response);
+    
+    Assert.assertEquals(EndpointName.values().length * 2, schemas.size());
+    Assert.assertEquals(handler.resolve(request), schemas.get(handler.cacheKey(request)));
+  }
+  
+  /**
+   * The /simulateStream endpoint sends a progress event every interval and a final event
+   */
+  @Test
+  public void testSimulateStreamEvents() throws IOException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            addi x3, x0, 50
+            loop:
+            subi x3, x3, 1
+            bne x3, x0, loop
+            """;
+    SimulateStreamHandler     handler = new SimulateStreamHandler();
+    List<String>              names   = new ArrayList<>();
+    List<SimulateStreamEvent> events  = new ArrayList<>();
+    
+    handler.stream(new SimulateStreamRequest(config, 10, true), (name, event) ->
+    {
+      names.add(name);
+      events.add(event);
+    }, new CancellationToken());
+    
+    SimulateStreamEvent last = events.get(events.size() - 1);
+    Assert.assertEquals("done", names.get(names.size() - 1));
+    Assert.assertNotEquals(StopReason.kNotStopped, last.stopReason);
+    Assert.assertEquals(0L, (long) last.registerValues.get("x3"));
+    for (int i = 0; i < events.size() - 1; i++)
+    {
+      Assert.assertEquals("progress", names.get(i));
+      Assert.assertEquals(10 * (i + 1), events.get(i).tick);
+      Assert.assertNotNull(events.get(i).registerValues);
+    }
+    Assert.assertTrue(events.size() > 2);
+  }
+  
+  /**
+   * Exhausted cycle budget returns the partial state
+   */
+  @Test
+  public void testSimulateCycleBudget() throws ServerException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            loop:
+            jal x0, loop
+            """;
+    SimulateRequest request = new SimulateRequest(config, Optional.empty(), Optional.of(500L));
+    
+    SimulateResponse response = new SimulateHandler().resolve(request);
+    
+    Assert.assertEquals(StopReason.kMaxCycles, response.stopReason);
+    Assert.assertEquals(501, response.state.tick);
+  }
+  
+  /**
+   * Tick and cycle budget past the range of an int are accepted
+   */
+  @Test
+  public void testSimulateLongTick() throws IOException, ServerException
+  {
+    String json = """
+            {"tick": 5000000000, "maxCycles": 4000000000, "config": {"code": "addi x1, x0, 5"}}
+            """;
+    SimulateHandler handler = new SimulateHandler();
+    SimulateRequest request = handler.deserialize(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                                                  WireFormat.JSON);
+    
+    SimulateResponse response = handler.resolve(request);
+    
+    Assert.assertEquals(StopReason.kEndOfCode, response.stopReason);
+  }
+  
+  /**
+   * A stop condition ends the simulation in one request and the response says which one fired
+   */
+  @Test
+  public void testSimulateStopCondition() throws ServerException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            addi x10, x0, 100
+            loop:
+            addi x10, x10, -1
+            bne x10, x0, loop
+            """;
+    SimulateRequest request = new SimulateRequest(config, Optional.empty(), List.of(
+            new StopCondition(StopCondition.Type.kCommits, 0, 10_000), new StopCondition("a0", "==", 90)), 0);
+    
+    SimulateResponse response = new SimulateHandler().resolve(request);
+    
+    Assert.assertEquals(StopReason.kStopCondition, response.stopReason);
+    Assert.assertEquals(1, response.firedCondition);
+    Assert.assertEquals(1, response.toShortResponse().firedCondition);
+    Assert.assertEquals(90L, (long) response.state.unifiedRegisterFileBlock.getArchitecturalRegisterValues()
+            .get("x10"));
+  }
+  
+  /**
+   * A stop condition with a missing label is a bad request
+   */
+  @Test
+  public void testSimulateStopConditionUnknownLabel()
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = "nop";
+    StopCondition condition = new StopCondition(StopCondition.Type.kLabel, 0, 1);
+    condition.label = "missing";
+    SimulateRequest request = new SimulateRequest(config, Optional.empty(), List.of(condition), 0);
+    
+    ServerException exception = Assert.assertThrows(ServerException.class,
+                                                    () -> new SimulateHandler().resolve(request));
+    Assert.assertEquals("stopConditions", exception.getError().field());
+  }
+  
+  /**
+   * Exhausted wall-clock budget returns the partial state
+   */
+  @Test
+  public void testSimulateTimeBudget() throws ServerException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            loop:
+            jal x0, loop
+            """;
+    SimulateRequest request = new SimulateRequest(config, Optional.empty(), Optional.of(Long.MAX_VALUE));
+    
+    SimulateResponse response = new SimulateHandler(50).resolve(request);
+    
+    Assert.assertEquals(StopReason.kTimeOut, response.stopReason);
+    Assert.assertNotNull(response.state);
+  }
+  
+  /**
+   * Cancelled request stops the simulation
+   */
+  @Test
+  public void testSimulateCancelled() throws ServerException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            loop:
+            jal x0, loop
+            """;
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    
+    SimulateResponse response = new SimulateHandler().resolve(new SimulateRequest(config, Optional.empty()), token);
+    
+    Assert.assertEquals(StopReason.kCancelled, response.stopReason);
+    Assert.assertEquals(0, response.state.tick);
+  }
+  
+  /**
+   * Cancelled stream stops the simulation without the final event
+   */
+  @Test
+  public void testSimulateStreamCancel() throws IOException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            loop:
+            jal x0, loop
+            """;
+    SimulateStreamHandler     handler = new SimulateStreamHandler();
+    List<SimulateStreamEvent> events  = new ArrayList<>();
+    CancellationToken         token   = new CancellationToken();
+    
+    handler.stream(new SimulateStreamRequest(config, 5, false), (name, event) ->
+    {
+      events.add(event);
+      if (events.size() == 3)
+      {
+        token.cancel();
+      }
+    }, token);
+    
+    Assert.assertEquals(3, events.size());
+    Assert.assertNull(events.get(2).registerValues);
+    Assert.assertEquals(StopReason.kNotStopped, events.get(2).stopReason);
+  }
+  
+  /**
+   * The cycle budget of the request ends the stream with the final event
+   */
+  @Test
+  public void testSimulateStreamCycleBudget() throws IOException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            loop:
+            jal x0, loop
+            """;
+    List<String>              names  = new ArrayList<>();
+    List<SimulateStreamEvent> events = new ArrayList<>();
+    
+    new SimulateStreamHandler().stream(new SimulateStreamRequest(config, 100, false, Optional.of(250L)),
+                                       (name, event) ->
+                                       {
+                                         names.add(name);
+                                         events.add(event);
+                                       }, new CancellationToken());
+    
+    Assert.assertEquals(List.of("progress", "progress", "done"), names);
+    Assert.assertEquals(StopReason.kMaxCycles, events.get(2).stopReason);
+  }
+  
+  /**
+   * Invalid interval is rejected
+   */
+  @Test(expected = ServerException.class)
+  public void testSimulateStreamInvalidInterval() throws ServerException
+  {
+    new SimulateStreamHandler().validate(new SimulateStreamRequest(new SimulationConfig(), 0, false));
+  }
+  
+  /**
+   * Handler for /compileSimulate with a fake compiler, the tests do not need GCC
+   */
+  private static CompileSimulateHandler compileSimulateHandler(CompileCache.Compiler compiler)
+  {
+    return new CompileSimulateHandler(new CompileHandler(new CompileCache(new ResponseCache(1024 * 1024), compiler)),
+                                      new SimulateHandler());
+  }
+  
+  /**
+   * The compiled program is simulated in the same request
+   */
+  @Test
+  public void testCompileSimulate() throws ServerException
+  {
+    String asm = """
+            \t.text
+            \t.section\t.text.main,"ax",@progbits
+            \t.align\t2
+            \t.globl\tmain
+            \t.type\tmain, @function
+            main:
+            \tli\ta0,5
+            \tret
+            """;
+    CompileSimulateHandler handler = compileSimulateHandler((code, flags) -> GccCaller.CompileResult.success(asm));
+    CompileSimulateRequest request = new CompileSimulateRequest("int main() { return 5; }", List.of("O2"),
+                                                                new ArrayList<>(), CpuConfig.getDefaultConfiguration(),
+                                                                "main", Optional.empty(), true);
+    
+    CompileSimulateResponse response = handler.resolve(request);
+    
+    Assert.assertEquals("success", response.compile.status);
+    Assert.assertNull(response.simulation);
+    Assert.assertEquals(StopReason.kCallStackHalt, response.summary.stopReason);
+    Assert.assertEquals(5L, (long) response.summary.registerValues.get("x10"));
+  }
+  
+  /**
+   * A failed compilation returns only the compile result
+   */
+  @Test
+  public void testCompileSimulateCompileError() throws ServerException
+  {
+    CompileSimulateHandler handler = compileSimulateHandler(
+            (code, flags) -> GccCaller.CompileResult.failure("GCC returned non-zero exit value: 1",
+                                                             List.of("error: expected ';'")));
+    CompileSimulateRequest request = new CompileSimulateRequest("int main() { return 5 }", List.of(),
+                                                                new ArrayList<>(), CpuConfig.getDefaultConfiguration(),
+                                                                0, Optional.empty(), false);
+    
+    CompileSimulateResponse response = handler.resolve(request);
+    
+    Assert.assertEquals("c", response.compile.status);
+    Assert.assertNull(response.simulation);
+    Assert.assertNull(response.summary);
+    Assert.assertTrue(handler.isCacheable(response));
+  }
+  
+  /**
+   * The CPU configuration is required
+   */
+  @Test(expected = ServerException.class)
+  public void testCompileSimulateMissingConfig() throws ServerException
+  {
+    compileSimulateHandler((code, flags) -> GccCaller.CompileResult.success("")).resolve(
+            new CompileSimulateRequest("int main() { return 5; }", List.of(), new ArrayList<>(), null, 0,
+                                       Optional.empty(), false));
+  }
+  
+  /**
+   * The /timeline endpoint reconstructs the ROB of the tick, ticks after the end give the end
+   */
+  @Test
+  public void testTimeline() throws ServerException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            addi x10, x0, 20
+            loop:
+            addi x10, x10, -1
+            bne x10, x0, loop
+            """;
+    TimelineHandler handler = new TimelineHandler(new TimelineCache(1 << 20), 0);
+    
+    TimelineResponse timeline = handler.resolve(new TimelineRequest(config, 30));
+    SimulateResponse simulate = new SimulateHandler().resolve(new SimulateRequest(config, Optional.of(30L)));
+    
+    Assert.assertEquals(30, timeline.tick);
+    Assert.assertEquals(simulate.state.reorderBufferBlock.getReorderQueue().map(SimCodeModel::getIntegerId).toList(),
+                        timeline.reorderBuffer.stream().map(PipelineTimeline.Entry::id).toList());
+    Assert.assertEquals(simulate.state.getFunctionUnits().size(), timeline.functionUnits.size());
+    
+    TimelineResponse end = handler.resolve(new TimelineRequest(config, 1_000_000));
+    Assert.assertEquals(StopReason.kEndOfCode, end.stopReason);
+    Assert.assertEquals(end.endTick, end.tick);
+    Assert.assertTrue(end.reorderBuffer.isEmpty());
+  }
+  
+  /**
+   * The recording is shared, so a cancelled request does not cut it short for the others
+   */
+  @Test
+  public void testTimelineIgnoresCancellation() throws ServerException
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = """
+            addi x10, x0, 20
+            loop:
+            addi x10, x10, -1
+            bne x10, x0, loop
+            """;
+    TimelineHandler   handler = new TimelineHandler(new TimelineCache(1 << 20), 0);
+    CancellationToken token   = new CancellationToken();
+    token.cancel();
+    
+    TimelineResponse cancelled = handler.resolve(new TimelineRequest(config, 1_000_000), token);
+    
+    Assert.assertEquals(StopReason.kEndOfCode, cancelled.stopReason);
+  }
+  
+  /**
+   * A configuration is recorded once, a recording cut short by the clock is not kept
+   */
+  @Test
+  public void testTimelineCacheRecordsOnce()
+  {
+    TimelineCache     cache      = new TimelineCache(1 << 20);
+    int[]             recordings = new int[1];
+    PipelineTimeline  empty      = new PipelineTimeline(new PipelineTrace(List.of()));
+    TimelineRecording done       = new TimelineRecording(empty, List.of(), 0, StopReason.kEndOfCode);
+    TimelineRecording timedOut   = new TimelineRecording(empty, List.of(), 0, StopReason.kTimeOut);
+    
+    Supplier<TimelineRecording> recordDone = () ->
+    {
+      recordings[0]++;
+      return done;
+    };
+    Supplier<TimelineRecording> recordTimedOut = () ->
+    {
+      recordings[0]++;
+      return timedOut;
+    };
+    
+    cache.get("a", recordDone);
+    Assert.assertSame(done, cache.get("a", recordDone));
+    Assert.assertEquals(1, recordings[0]);
+    
+    cache.get("b", recordTimedOut);
+    cache.get("b", recordTimedOut);
+    Assert.assertEquals(3, recordings[0]);
+  }
+  
+  /**
+   * A negative tick is a bad request
+   */
+  @Test
+  public void testTimelineNegativeTick()
+  {
+    SimulationConfig config = new SimulationConfig();
+    config.code = "nop";
+    
+    ServerException exception = Assert.assertThrows(ServerException.class,
+                                                    () -> new TimelineHandler(new TimelineCache(1 << 20), 0).resolve(
+                                                            new TimelineRequest(config, -1)));
+    Assert.assertEquals("tick", exception.getError().field());
+  }
 }
@@ -0,0 +1,114 @@
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.jfr.CacheMissEvent;
+import com.gradle.superscalarsim.jfr.Sampler;
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import com.gradle.superscalarsim.server.simulate.SimulateRequest;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+public class JfrEventsTests
+{
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  /**
+   * A simulation request records the validation, the construction of the CPU and the run
+   */
+  @Test
+  public void testSimulationEvents() throws Exception
+  {
+    SimulationConfig config = SimulationConfig.getDefaultConfiguration();
+    config.code = "addi x1, x0, 5\naddi x2, x1, 1";
+    
+    Path file = folder.getRoot().toPath().resolve("recording.jfr");
+    try (Recording recording = new Recording())
+    {
+      recording.enable("superscalarsim.Validation");
+      recording.enable("superscalarsim.CpuInit");
+      recording.enable("superscalarsim.Simulation");
+      recording.start();
+      new SimulateHandler().resolve(new SimulateRequest(config, Optional.empty()));
+      recording.stop();
+      recording.dump(file);
+    }
+    
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    RecordedEvent validation = find(events, "superscalarsim.Validation");
+    Assert.assertTrue(validation.getBoolean("valid"));
+    Assert.assertTrue(validation.getBoolean("codeParsed"));
+    Assert.assertEquals(2, find(events, "superscalarsim.CpuInit").getInt("instructions"));
+    RecordedEvent simulation = find(events, "superscalarsim.Simulation");
+    Assert.assertTrue(simulation.getLong("cycles") > 0);
+    Assert.assertEquals(2, simulation.getLong("instructions"));
+    Assert.assertEquals(find(events, "superscalarsim.CpuInit").getString("configHash"),
+                        simulation.getString("configHash"));
+  }
+  
+  /**
+   * Misses are sampled only while the event is enabled in a running recording
+   */
+  @Test
+  public void testCacheMissEvents() throws Exception
+  {
+    // Not recording, the sampler does not advance
+    for (int i = 0; i < 1000; i++)
+    {
+      CacheMissEvent.emit(i * 4L, false, i);
+    }
+    
+    Path file = folder.getRoot().toPath().resolve("misses.jfr");
+    try (Recording recording = new Recording())
+    {
+      recording.enable("superscalarsim.CacheMiss");
+      recording.start();
+      for (int i = 0; i < 128; i++)
+      {
+        CacheMissEvent.emit(i * 4L, true, i);
+      }
+      recording.stop();
+      recording.dump(file);
+    }
+    
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Assert.assertEquals(2, events.stream()
+            .filter(event -> event.getEventType().getName().equals("superscalarsim.CacheMiss")).count());
+    RecordedEvent miss = find(events, "superscalarsim.CacheMiss");
+    Assert.assertTrue(miss.getBoolean("store"));
+    Assert.assertEquals(64, miss.getInt("sampleRate"));
+  }
+  
+  /**
+   * Every n-th occurrence is sampled
+   */
+  @Test
+  public void testSampler()
+  {
+    Sampler sampler = new Sampler(4);
+    int     sampled = 0;
+    for (int i = 0; i < 40; i++)
+    {
+      if (sampler.next())
+      {
+        sampled++;
+      }
+    }
+    Assert.assertEquals(10, sampled);
+  }
+  
+  private static RecordedEvent find(List<RecordedEvent> events, String name)
+  {
+    return events.stream().filter(event -> event.getEventType().getName().equals(name)).findFirst()
+            .orElseThrow(() -> new AssertionError("No event " + name));
+  }
+}
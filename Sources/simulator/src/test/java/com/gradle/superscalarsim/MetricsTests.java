@@ -0,0 +1,110 @@
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.metrics.Counter;
+import com.gradle.superscalarsim.metrics.Histogram;
+import com.gradle.superscalarsim.metrics.Metrics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsTests
+{
+  /**
+   * Quantiles are within the precision of the buckets (1/32 of the value)
+   */
+  @Test
+  public void testHistogramQuantiles()
+  {
+    Histogram histogram = new Histogram(1);
+    for (long i = 1; i <= 100_000; i++)
+    {
+      histogram.record(i);
+    }
+    Assert.assertEquals(100_000, histogram.getCount());
+    Assert.assertEquals(100_000L * 100_001 / 2, histogram.getSum(), 0);
+    Assert.assertEquals(100_000, histogram.getMax(), 0);
+    Assert.assertEquals(50_000, histogram.getQuantile(0.5), 50_000 / 32.0);
+    Assert.assertEquals(99_000, histogram.getQuantile(0.99), 99_000 / 32.0);
+    Assert.assertEquals(100_000, histogram.getQuantile(1), 0);
+    Assert.assertEquals(1, histogram.getQuantile(0), 0);
+  }
+  
+  /**
+   * Small values are exact, huge values fit, the unit scales the output
+   */
+  @Test
+  public void testHistogramRange()
+  {
+    Histogram histogram = new Histogram(1e-9);
+    Assert.assertEquals(0, histogram.getQuantile(0.5), 0);
+    histogram.record(7);
+    Assert.assertEquals(7e-9, histogram.getQuantile(0.5), 1e-15);
+    histogram.record(Long.MAX_VALUE);
+    histogram.record(-5);
+    Assert.assertEquals(3, histogram.getCount());
+    Assert.assertEquals(Long.MAX_VALUE * 1e-9, histogram.getQuantile(1), 1e3);
+    Assert.assertEquals(Long.MAX_VALUE * 1e-9, histogram.getQuantile(0.9), Long.MAX_VALUE * 1e-9 / 32);
+  }
+  
+  /**
+   * Concurrent increments are not lost
+   */
+  @Test
+  public void testConcurrentCounter() throws InterruptedException
+  {
+    Counter         counter  = new Counter();
+    Histogram       latency  = new Histogram(1);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int t = 0; t < 8; t++)
+    {
+      executor.submit(() ->
+                      {
+                        for (int i = 0; i < 10_000; i++)
+                        {
+                          counter.increment();
+                          latency.record(i);
+                        }
+                      });
+    }
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    Assert.assertEquals(80_000, counter.get());
+    Assert.assertEquals(80_000, latency.getCount());
+  }
+  
+  /**
+   * The registry returns the same metric for the same labels and writes the Prometheus text format
+   */
+  @Test
+  public void testScrape()
+  {
+    Counter ok = Metrics.counter("test_scrape_total", "Test counter", "status", "200");
+    Assert.assertSame(ok, Metrics.counter("test_scrape_total", "Test counter", "status", "200"));
+    ok.add(3);
+    Metrics.counter("test_scrape_total", "Test counter", "status", "4\"04").increment();
+    Metrics.histogram("test_scrape_seconds", "Test histogram", 1e-3).record(16);
+    Metrics.gauge("test_scrape_gauge", "Test gauge", () -> 1.5);
+    
+    String scrape = Metrics.scrape();
+    Assert.assertTrue(scrape.contains("# HELP test_scrape_total Test counter\n# TYPE test_scrape_total counter\n"));
+    Assert.assertTrue(scrape.contains("test_scrape_total{status=\"200\"} 3\n"));
+    Assert.assertTrue(scrape.contains("test_scrape_total{status=\"4\\\"04\"} 1\n"));
+    Assert.assertTrue(scrape.contains("# TYPE test_scrape_seconds summary\n"));
+    Assert.assertTrue(scrape.contains("test_scrape_seconds{quantile=\"0.5\"} 0.016\n"));
+    Assert.assertTrue(scrape.contains("test_scrape_seconds_count 1\n"));
+    Assert.assertTrue(scrape.contains("test_scrape_gauge 1.5\n"));
+  }
+  
+  /**
+   * A name keeps its type
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypeConflict()
+  {
+    Metrics.counter("test_conflict", "Counter");
+    Metrics.histogram("test_conflict", "Histogram", 1);
+  }
+}
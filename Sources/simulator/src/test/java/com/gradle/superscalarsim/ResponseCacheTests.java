@@ -0,0 +1,134 @@
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.cache.ResponseCache;
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import com.gradle.superscalarsim.server.simulate.SimulateRequest;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public class ResponseCacheTests
+{
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  private static String gunzip(byte[] bytes) throws IOException
+  {
+    return new String(new GZIPInputStream(new ByteArrayInputStream(bytes)).readAllBytes(), StandardCharsets.UTF_8);
+  }
+  
+  /**
+   * The hash does not depend on the order of map entries
+   */
+  @Test
+  public void testCanonicalHash()
+  {
+    Map<String, Integer> a = new LinkedHashMap<>();
+    a.put("a", 1);
+    a.put("b", 2);
+    Map<String, Integer> b = new LinkedHashMap<>();
+    b.put("b", 2);
+    b.put("a", 1);
+    
+    Assert.assertEquals(Serialization.canonicalHash(a), Serialization.canonicalHash(b));
+    Assert.assertNotEquals(Serialization.canonicalHash(a), Serialization.canonicalHash(Map.of("a", 1)));
+  }
+  
+  /**
+   * Equal requests share a key, any change of the request changes it
+   */
+  @Test
+  public void testSimulateCacheKey()
+  {
+    SimulateHandler  handler = new SimulateHandler();
+    SimulationConfig config  = SimulationConfig.getDefaultConfiguration();
+    config.code = "addi x1, x0, 1";
+    SimulationConfig same = SimulationConfig.getDefaultConfiguration();
+    same.code = "addi x1, x0, 1";
+    
+    String key = handler.cacheKey(new SimulateRequest(config, Optional.of(5L)));
+    Assert.assertEquals(key, handler.cacheKey(new SimulateRequest(same, Optional.of(5L))));
+    Assert.assertNotEquals(key, handler.cacheKey(new SimulateRequest(same, Optional.of(6L))));
+    same.cpuConfig.robSize++;
+    Assert.assertNotEquals(key, handler.cacheKey(new SimulateRequest(same, Optional.of(5L))));
+  }
+  
+  /**
+   * Least recently used entries are evicted from memory
+   */
+  @Test
+  public void testMemoryEviction() throws IOException
+  {
+    byte[]        response  = "x".repeat(1000).getBytes();
+    int           entrySize = new ResponseCache(1 << 20).put("probe", WireFormat.JSON, response).length;
+    ResponseCache cache     = new ResponseCache(2L * entrySize);
+    
+    cache.put("a", WireFormat.JSON, response);
+    cache.put("b", WireFormat.JSON, response);
+    cache.get("a", WireFormat.JSON);
+    cache.put("c", WireFormat.JSON, response);
+    
+    Assert.assertNotNull(cache.get("a", WireFormat.JSON));
+    Assert.assertNull(cache.get("b", WireFormat.JSON));
+    Assert.assertNotNull(cache.get("c", WireFormat.JSON));
+    Assert.assertNull(cache.get("a", WireFormat.CBOR));
+    Assert.assertEquals(new String(response), gunzip(cache.get("a", WireFormat.JSON)));
+  }
+  
+  /**
+   * Entries survive a restart on disk, the disk tier is bounded
+   */
+  @Test
+  public void testDiskTier() throws IOException
+  {
+    Path          dir   = folder.newFolder("cache").toPath();
+    ResponseCache cache = new ResponseCache(0, dir, 1 << 20);
+    cache.put("a", WireFormat.JSON, "response a".getBytes());
+    
+    ResponseCache restarted = new ResponseCache(0, dir, 1 << 20);
+    Assert.assertEquals("response a", gunzip(restarted.get("a", WireFormat.JSON)));
+    
+    // Random data does not compress
+    byte[] big = new byte[4000];
+    new Random(1).nextBytes(big);
+    new ResponseCache(0, dir, 2000).put("b", WireFormat.JSON, big);
+    long total;
+    try (Stream<Path> files = Files.list(dir))
+    {
+      total = files.mapToLong(file -> file.toFile().length()).sum();
+    }
+    Assert.assertTrue(total <= 2000);
+  }
+  
+  @Test
+  public void testDiskTierKeyedByBuild() throws IOException
+  {
+    Assert.assertNotNull(ResponseCache.buildId());
+    Path dir = folder.newFolder("cache").toPath();
+    new ResponseCache(0, dir, 1 << 20, "build1").put("a", WireFormat.JSON, "response a".getBytes());
+    Assert.assertNotNull(new ResponseCache(0, dir, 1 << 20, "build1").get("a", WireFormat.JSON));
+    Assert.assertNull(new ResponseCache(0, dir, 1 << 20, "build2").get("a", WireFormat.JSON));
+    
+    // Without a known build nothing is read or written
+    ResponseCache unknown = new ResponseCache(0, dir, 1 << 20, null);
+    Assert.assertNull(unknown.get("a", WireFormat.JSON));
+    unknown.put("b", WireFormat.JSON, "response b".getBytes());
+    try (Stream<Path> files = Files.list(dir))
+    {
+      Assert.assertEquals(1, files.count());
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package com.gradle.superscalarsim;
+
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.server.EndpointClass;
+import com.gradle.superscalarsim.server.EndpointName;
+import com.gradle.superscalarsim.server.WorkerLanes;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WorkerLanesTests
+{
+  /**
+   * A saturated class does not block the other classes
+   */
+  @Test
+  public void testClassesAreIndependent()
+  {
+    WorkerLanes lanes    = new WorkerLanes(1000);
+    int         admitted = 0;
+    while (lanes.tryEnter(EndpointClass.kSimulation))
+    {
+      admitted++;
+    }
+    
+    Assert.assertTrue(admitted > 0);
+    Assert.assertTrue(lanes.tryEnter(EndpointClass.kInteractive));
+    Assert.assertTrue(lanes.tryEnter(EndpointClass.kCompile));
+    
+    lanes.exit(EndpointClass.kSimulation);
+    Assert.assertTrue(lanes.tryEnter(EndpointClass.kSimulation));
+    lanes.shutdown();
+  }
+  
+  /**
+   * Requests over the memory budget are rejected, unless the server is idle
+   */
+  @Test
+  public void testMemoryBudget()
+  {
+    WorkerLanes lanes = new WorkerLanes(1000);
+    
+    Assert.assertTrue(lanes.tryReserveMemory(600));
+    Assert.assertTrue(lanes.tryReserveMemory(400));
+    Assert.assertFalse(lanes.tryReserveMemory(1));
+    lanes.releaseMemory(600);
+    Assert.assertFalse(lanes.tryReserveMemory(601));
+    Assert.assertTrue(lanes.tryReserveMemory(600));
+    lanes.releaseMemory(600);
+    lanes.releaseMemory(400);
+    
+    // Too big for the budget, but nothing else is running
+    Assert.assertTrue(lanes.tryReserveMemory(5000));
+    Assert.assertFalse(lanes.tryReserveMemory(1));
+    lanes.shutdown();
+  }
+  
+  /**
+   * Bigger programs and caches need more memory
+   */
+  @Test
+  public void testMemoryEstimate()
+  {
+    SimulationConfig small = SimulationConfig.getDefaultConfiguration();
+    small.code = "addi x1, x0, 1\n";
+    SimulationConfig big = SimulationConfig.getDefaultConfiguration();
+    big.code = "addi x1, x0, 1\n".repeat(1000);
+    
+    Assert.assertTrue(big.estimateMemoryUsage() > small.estimateMemoryUsage());
+    
+    small.cpuConfig.useCache   = true;
+    small.cpuConfig.cacheLines = 1024;
+    long withCache = small.estimateMemoryUsage();
+    small.cpuConfig.useCache = false;
+    Assert.assertTrue(withCache > small.estimateMemoryUsage());
+  }
+  
+  /**
+   * Editor requests do not share the executor with simulations
+   */
+  @Test
+  public void testEndpointClasses()
+  {
+    Assert.assertEquals(EndpointClass.kInteractive, EndpointName.parseAsm.getEndpointClass());
+    Assert.assertEquals(EndpointClass.kInteractive, EndpointName.checkConfig.getEndpointClass());
+    Assert.assertEquals(EndpointClass.kInteractive, EndpointName.instructionDescription.getEndpointClass());
+    Assert.assertEquals(EndpointClass.kCompile, EndpointName.compile.getEndpointClass());
+    Assert.assertEquals(EndpointClass.kSimulation, EndpointName.simulate.getEndpointClass());
+    Assert.assertEquals(EndpointClass.kSimulation, EndpointName.simulateStream.getEndpointClass());
+  }
+}
@@ -0,0 +1,522 @@
+/**
+ * @file MachineCodeEncoder.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Encoder of parsed assembly to RISC-V machine code
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.code;
+
+import com.gradle.superscalarsim.cpu.MemoryLocation;
+import com.gradle.superscalarsim.cpu.ParsedProgram;
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.models.instruction.InputCodeArgument;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The inverse of {@link MachineCodeLoader}, for programs that exist only as assembly. Pseudo instructions become the
+ * base instructions an assembler would emit. li and la may take two instructions (lui, addi), so the code after them
+ * moves; branch offsets and labels are updated.
+ * Only the tests and the benchmarks need it, the simulator itself never writes machine code.
+ *
+ * @brief Encodes parsed assembly to RISC-V machine code and ELF32 files
+ */
+public class MachineCodeEncoder
+{
+  /**
+   * Encoding of each instruction with all register and immediate fields zero, found by the decoder of
+   * {@link MachineCodeLoader#instructionName(int)}, so the two can not disagree
+   */
+  private static final Map<String, Integer> templates = findTemplates();
+  
+  /**
+   * Labels of the parsed code
+   */
+  private final Map<String, Symbol> symbolTable;
+  
+  /**
+   * Index of the first word of each instruction, the last item is the number of words
+   */
+  private final int[] starts;
+  
+  /**
+   * Encoded instructions
+   */
+  private final int[] words;
+  
+  /**
+   * @param instructions Parsed instructions with filled immediate values
+   * @param symbolTable  Symbols of the parsed code, with assigned data addresses
+   *
+   * @throws IllegalArgumentException If an instruction has no encoding or an immediate does not fit
+   */
+  public MachineCodeEncoder(List<InputCodeModel> instructions, Map<String, Symbol> symbolTable)
+  {
+    this.symbolTable = symbolTable;
+    this.starts      = new int[instructions.size() + 1];
+    for (int i = 0; i < instructions.size(); i++)
+    {
+      starts[i + 1] = starts[i] + size(instructions.get(i));
+    }
+    this.words = new int[starts[instructions.size()]];
+    for (int i = 0; i < instructions.size(); i++)
+    {
+      encode(instructions.get(i), i);
+    }
+  }
+  
+  /**
+   * @param code            Assembly code
+   * @param memoryLocations Memory locations defined outside the code
+   * @param callStackSize   Size of the stack, the data is placed after it like in the simulation
+   *
+   * @return ELF32 file of the program
+   * @throws IllegalArgumentException If the code does not parse or can not be encoded
+   * @brief Assembles a program
+   */
+  public static byte[] assemble(String code, List<MemoryLocation> memoryLocations, int callStackSize)
+  {
+    StaticDataProvider provider = new StaticDataProvider();
+    CodeParser parser = new CodeParser(provider.getInstructionFunctionModels(),
+                                       provider.getRegisterFile().getRegisterMap(true),
+                                       new InputCodeModelFactory(), memoryLocations);
+    parser.parseCode(code, false);
+    ParsedProgram program;
+    try
+    {
+      program = ParsedProgram.fromParser(parser, callStackSize);
+    }
+    catch (IllegalStateException e)
+    {
+      throw new IllegalArgumentException(e.getMessage());
+    }
+    
+    MachineCodeEncoder encoder = new MachineCodeEncoder(program.getInstructions(), program.getSymbolTable());
+    return toElf(encoder.getWords(), encoder.getLabels(), dataSegments(program.getSymbolTable()));
+  }
+  
+  /**
+   * @return All data of the symbols in one segment, empty if there is no data
+   */
+  private static List<MachineCodeLoader.Segment> dataSegments(Map<String, Symbol> symbolTable)
+  {
+    long start = Long.MAX_VALUE;
+    long end   = 0;
+    for (Symbol symbol : symbolTable.values())
+    {
+      if (symbol.getMemoryLocation() != null)
+      {
+        start = Math.min(start, symbol.getAddress());
+        end   = Math.max(end, symbol.getAddress() + symbol.getMemoryLocation().getByteSize());
+      }
+    }
+    if (end <= start)
+    {
+      return List.of();
+    }
+    byte[] data = new byte[(int) (end - start)];
+    for (Symbol symbol : symbolTable.values())
+    {
+      if (symbol.getMemoryLocation() != null)
+      {
+        byte[] bytes = symbol.getMemoryLocation().getBytes();
+        System.arraycopy(bytes, 0, data, (int) (symbol.getAddress() - start), bytes.length);
+      }
+    }
+    return List.of(new MachineCodeLoader.Segment(start, data));
+  }
+  
+  /**
+   * @return Number of words of the instruction
+   */
+  private int size(InputCodeModel instruction)
+  {
+    return switch (instruction.getInstructionName())
+    {
+      case "la", "lla" -> 2;
+      case "li" -> isCodeLabel(instruction.getArgumentByName("imm")) || !fitsImmediate(
+              immediate(instruction.getArgumentByName("imm")), 12) ? 2 : 1;
+      default -> 1;
+    };
+  }
+  
+  /**
+   * @return True if the argument is a label of the code, its address changes by the encoding
+   */
+  private boolean isCodeLabel(InputCodeArgument argument)
+  {
+    Symbol symbol = symbolTable.get(argument.getValue());
+    return symbol != null && symbol.getMemoryLocation() == null;
+  }
+  
+  /**
+   * @return Address of the code after the encoding, for an address before
+   */
+  private int relocate(long address)
+  {
+    if (address < 0 || address % 4 != 0 || address / 4 >= starts.length)
+    {
+      throw new IllegalArgumentException("Address " + address + " is not in the code");
+    }
+    return starts[(int) (address / 4)] * 4;
+  }
+  
+  /**
+   * @param instruction Instruction to encode
+   * @param index       Index of the instruction in the parsed code
+   */
+  private void encode(InputCodeModel instruction, int index)
+  {
+    int    at   = starts[index];
+    String name = instruction.getInstructionName();
+    int    rd   = register(instruction, "rd");
+    int    rs1  = register(instruction, "rs1");
+    int    rs2  = register(instruction, "rs2");
+    int    imm  = 0;
+    if (instruction.getArgumentByName("imm") != null)
+    {
+      InputCodeArgument argument = instruction.getArgumentByName("imm");
+      imm = immediate(argument);
+      boolean isRelative = instruction.instructionFunctionModel().getArgumentByName("imm").isOffset();
+      if (isRelative && !name.equals("jalr"))
+      {
+        imm = relocate(instruction.getPc() + (long) imm) - at * 4;
+      }
+      else if (isCodeLabel(argument))
+      {
+        imm = relocate(imm);
+      }
+    }
+    
+    switch (name)
+    {
+      case "nop" -> emit(at, "addi", 0, 0, 0, 0, 0);
+      case "mv" -> emit(at, "addi", rd, rs1, 0, 0, 0);
+      case "not" -> emit(at, "xori", rd, rs1, 0, 0, -1);
+      case "neg" -> emit(at, "sub", rd, 0, rs1, 0, 0);
+      case "inc" -> emit(at, "addi", rd, rs1, 0, 0, 1);
+      case "dec" -> emit(at, "addi", rd, rs1, 0, 0, -1);
+      case "subi" -> emit(at, "addi", rd, rs1, 0, 0, -imm);
+      case "seqz" -> emit(at, "sltiu", rd, rs1, 0, 0, 1);
+      case "snez" -> emit(at, "sltu", rd, 0, rs1, 0, 0);
+      case "sltz" -> emit(at, "slt", rd, rs1, 0, 0, 0);
+      case "sgtz" -> emit(at, "slt", rd, 0, rs1, 0, 0);
+      case "beqz" -> emit(at, "beq", 0, rs1, 0, 0, imm);
+      case "bnez" -> emit(at, "bne", 0, rs1, 0, 0, imm);
+      case "blez" -> emit(at, "bge", 0, 0, rs1, 0, imm);
+      case "bgez" -> emit(at, "bge", 0, rs1, 0, 0, imm);
+      case "bltz" -> emit(at, "blt", 0, rs1, 0, 0, imm);
+      case "bgtz" -> emit(at, "blt", 0, 0, rs1, 0, imm);
+      case "bgt" -> emit(at, "blt", 0, rs2, rs1, 0, imm);
+      case "ble" -> emit(at, "bge", 0, rs2, rs1, 0, imm);
+      case "bgtu" -> emit(at, "bltu", 0, rs2, rs1, 0, imm);
+      case "bleu" -> emit(at, "bgeu", 0, rs2, rs1, 0, imm);
+      case "j", "tail" -> emit(at, "jal", 0, 0, 0, 0, imm);
+      case "call" -> emit(at, "jal", 1, 0, 0, 0, imm);
+      case "jr" -> emit(at, "jalr", 0, rs1, 0, 0, 0);
+      case "ret" -> emit(at, "jalr", 0, 1, 0, 0, 0);
+      case "fmv.s" -> emit(at, "fsgnj.s", rd, rs1, rs1, 0, 0);
+      case "fneg.s" -> emit(at, "fsgnjn.s", rd, rs1, rs1, 0, 0);
+      case "fabs.s" -> emit(at, "fsgnjx.s", rd, rs1, rs1, 0, 0);
+      // The integer source of fmv.w.x is named rs2, but encoded in the rs1 field
+      case "fmv.w.x" -> emit(at, name, rd, rs2, 0, 0, 0);
+      case "li", "la", "lla" ->
+      {
+        if (starts[index + 1] - at == 1)
+        {
+          emit(at, "addi", rd, 0, 0, 0, imm);
+        }
+        else
+        {
+          int upper = (imm + 0x800) >>> 12;
+          emit(at, "lui", rd, 0, 0, 0, upper);
+          emit(at + 1, "addi", rd, rd, 0, 0, imm - (upper << 12));
+        }
+      }
+      default -> emit(at, name, rd, rs1, rs2, register(instruction, "rs3"), imm);
+    }
+  }
+  
+  /**
+   * @return Number of the register argument, 0 if the instruction does not have it
+   */
+  private static int register(InputCodeModel instruction, String name)
+  {
+    InputCodeArgument argument = instruction.getArgumentByName(name);
+    if (argument == null || argument.getRegisterValue() == null)
+    {
+      return 0;
+    }
+    // x0-x31 and f0-f31, aliases point to the same models
+    return Integer.parseInt(argument.getRegisterValue().getName().substring(1));
+  }
+  
+  /**
+   * @return Value of the immediate argument, truncated to 32 bits
+   */
+  private static int immediate(InputCodeArgument argument)
+  {
+    return (int) (long) argument.getConstantValue().getValue(DataTypeEnum.kLong);
+  }
+  
+  /**
+   * @return True if the value fits a signed immediate of the given width
+   */
+  private static boolean fitsImmediate(long value, int bits)
+  {
+    return value >= -(1L << (bits - 1)) && value < (1L << (bits - 1));
+  }
+  
+  /**
+   * @param at   Index of the word
+   * @param name Base instruction
+   */
+  private void emit(int at, String name, int rd, int rs1, int rs2, int rs3, int imm)
+  {
+    Integer template = templates.get(name);
+    if (template == null)
+    {
+      throw new IllegalArgumentException("Instruction " + name + " has no encoding");
+    }
+    int word = template | rd << 7 | rs1 << 15 | rs2 << 20;
+    word |= switch (template & 0x7F)
+    {
+      case 0x37, 0x17 ->
+      {
+        check(name, imm >= -(1 << 19) && imm < (1 << 20));
+        yield imm << 12;
+      }
+      case 0x6F ->
+      {
+        check(name, fitsImmediate(imm, 21) && imm % 2 == 0);
+        yield (imm >>> 20 & 0x1) << 31 | (imm >>> 1 & 0x3FF) << 21 | (imm >>> 11 & 0x1) << 20 | (imm >>> 12 & 0xFF) << 12;
+      }
+      case 0x63 ->
+      {
+        check(name, fitsImmediate(imm, 13) && imm % 2 == 0);
+        yield (imm >>> 12 & 0x1) << 31 | (imm >>> 5 & 0x3F) << 25 | (imm >>> 1 & 0xF) << 8 | (imm >>> 11 & 0x1) << 7;
+      }
+      case 0x23, 0x27 ->
+      {
+        check(name, fitsImmediate(imm, 12));
+        yield (imm >>> 5 & 0x7F) << 25 | (imm & 0x1F) << 7;
+      }
+      case 0x43, 0x47, 0x4B, 0x4F -> rs3 << 27;
+      case 0x13, 0x03, 0x07, 0x67 ->
+      {
+        boolean isShift = name.equals("slli") || name.equals("srli") || name.equals("srai");
+        check(name, isShift ? imm >= 0 && imm < 32 : fitsImmediate(imm, 12));
+        yield (imm & 0xFFF) << 20;
+      }
+      default -> 0;
+    };
+    words[at] = word;
+  }
+  
+  /**
+   * @throws IllegalArgumentException If the immediate does not fit
+   */
+  private static void check(String name, boolean fits)
+  {
+    if (!fits)
+    {
+      throw new IllegalArgumentException("Immediate of " + name + " is out of range");
+    }
+  }
+  
+  /**
+   * @return Encodings with zero register and immediate fields, the first one the decoder accepts for each name
+   */
+  private static Map<String, Integer> findTemplates()
+  {
+    Map<String, Integer> templates = new HashMap<>();
+    for (int opcode = 0x03; opcode < 0x80; opcode += 4)
+    {
+      for (int funct7 = 0; funct7 < 0x80; funct7++)
+      {
+        for (int funct3 = 0; funct3 < 8; funct3++)
+        {
+          // rs2 selects the conversions
+          for (int rs2 = 0; rs2 < 3; rs2++)
+          {
+            int    word = opcode | funct3 << 12 | rs2 << 20 | funct7 << 25;
+            String name = MachineCodeLoader.instructionName(word);
+            if (name != null)
+            {
+              templates.putIfAbsent(name, word);
+            }
+          }
+        }
+      }
+    }
+    return templates;
+  }
+  
+  /**
+   * @param words  Instructions, placed at address 0
+   * @param labels Addresses of the labels of the code
+   * @param data   Initial content of the data memory
+   *
+   * @return ELF32 executable with a .text section, a .data section per segment and a symbol table
+   */
+  public static byte[] toElf(int[] words, Map<String, Long> labels, List<MachineCodeLoader.Segment> data)
+  {
+    // Sections: null, .text, .data..., .symtab, .strtab, .shstrtab
+    int    sectionCount = 5 + data.size();
+    int    symtabIndex  = 2 + data.size();
+    byte[] text         = new byte[words.length * 4];
+    ByteBuffer.wrap(text).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(words);
+    
+    ByteArrayOutputStream strings = new ByteArrayOutputStream();
+    strings.write(0);
+    ByteBuffer symbols = ByteBuffer.allocate(16 * (labels.size() + 1)).order(ByteOrder.LITTLE_ENDIAN);
+    symbols.position(16);
+    for (Map.Entry<String, Long> label : labels.entrySet())
+    {
+      symbols.putInt(strings.size()).putInt((int) (long) label.getValue()).putInt(0);
+      // Global, no type, defined in .text
+      symbols.put((byte) 0x10).put((byte) 0).putShort((short) 1);
+      strings.writeBytes((label.getKey() + "\0").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    List<String> names = new ArrayList<>(List.of("", ".text"));
+    data.forEach(segment -> names.add(".data"));
+    names.addAll(List.of(".symtab", ".strtab", ".shstrtab"));
+    ByteArrayOutputStream sectionNames = new ByteArrayOutputStream();
+    int[]                 nameOffsets  = new int[sectionCount];
+    for (int i = 0; i < sectionCount; i++)
+    {
+      nameOffsets[i] = sectionNames.size();
+      sectionNames.writeBytes((names.get(i) + "\0").getBytes(StandardCharsets.UTF_8));
+    }
+    
+    List<byte[]> contents = new ArrayList<>();
+    contents.add(new byte[0]);
+    contents.add(text);
+    data.forEach(segment -> contents.add(segment.data()));
+    contents.add(symbols.array());
+    contents.add(strings.toByteArray());
+    contents.add(sectionNames.toByteArray());
+    
+    // Header, program headers, contents aligned to 4, section headers
+    int   programHeaders = 1 + data.size();
+    int   offset         = 52 + 32 * programHeaders;
+    int[] offsets        = new int[sectionCount];
+    for (int i = 1; i < sectionCount; i++)
+    {
+      offsets[i] = offset;
+      offset     = (offset + contents.get(i).length + 3) & ~3;
+    }
+    ByteBuffer elf = ByteBuffer.allocate(offset + 40 * sectionCount).order(ByteOrder.LITTLE_ENDIAN);
+    elf.putInt(MachineCodeLoader.ELF_MAGIC).put((byte) 1).put((byte) 1).put((byte) 1);
+    elf.position(16);
+    elf.putShort((short) 2).putShort((short) MachineCodeLoader.EM_RISCV).putInt(1).putInt(0).putInt(52)
+            .putInt(offset).putInt(0).putShort((short) 52).putShort((short) 32).putShort((short) programHeaders)
+            .putShort((short) 40).putShort((short) sectionCount).putShort((short) (sectionCount - 1));
+    
+    // Loadable segments: code (read, execute) and data (read, write)
+    elf.putInt(1).putInt(offsets[1]).putInt(0).putInt(0).putInt(text.length).putInt(text.length).putInt(5)
+            .putInt(4);
+    for (int i = 0; i < data.size(); i++)
+    {
+      MachineCodeLoader.Segment segment = data.get(i);
+      elf.putInt(1).putInt(offsets[2 + i]).putInt((int) segment.address()).putInt((int) segment.address())
+              .putInt(segment.data().length).putInt(segment.data().length).putInt(6).putInt(4);
+    }
+    for (int i = 1; i < sectionCount; i++)
+    {
+      elf.put(offsets[i], contents.get(i));
+    }
+    
+    elf.position(offset + 40);
+    // type, flags, address, link, info, alignment, entry size
+    sectionHeader(elf, nameOffsets[1], 1, 6, 0, offsets[1], text.length, 0, 0, 4, 0);
+    for (int i = 0; i < data.size(); i++)
+    {
+      MachineCodeLoader.Segment segment = data.get(i);
+      sectionHeader(elf, nameOffsets[2 + i], 1, 3, segment.address(), offsets[2 + i], segment.data().length, 0, 0,
+                    4, 0);
+    }
+    sectionHeader(elf, nameOffsets[symtabIndex], MachineCodeLoader.SHT_SYMTAB, 0, 0, offsets[symtabIndex],
+                  contents.get(symtabIndex).length, symtabIndex + 1, 1, 4, 16);
+    sectionHeader(elf, nameOffsets[symtabIndex + 1], 3, 0, 0, offsets[symtabIndex + 1],
+                  contents.get(symtabIndex + 1).length, 0, 0, 1, 0);
+    sectionHeader(elf, nameOffsets[symtabIndex + 2], 3, 0, 0, offsets[symtabIndex + 2],
+                  contents.get(symtabIndex + 2).length, 0, 0, 1, 0);
+    return elf.array();
+  }
+  
+  /**
+   * Writes a section header at the position of the buffer
+   */
+  private static void sectionHeader(ByteBuffer elf,
+                                    int name,
+                                    int type,
+                                    int flags,
+                                    long address,
+                                    int offset,
+                                    int size,
+                                    int link,
+                                    int info,
+                                    int alignment,
+                                    int entrySize)
+  {
+    elf.putInt(name).putInt(type).putInt(flags).putInt((int) address).putInt(offset).putInt(size).putInt(link)
+            .putInt(info).putInt(alignment).putInt(entrySize);
+  }
+  
+  /**
+   * @return Encoded instructions
+   */
+  public int[] getWords()
+  {
+    return words;
+  }
+  
+  /**
+   * @return Addresses of the labels of the code after the encoding
+   */
+  public Map<String, Long> getLabels()
+  {
+    Map<String, Long> labels = new LinkedHashMap<>();
+    symbolTable.forEach((name, symbol) -> {
+      if (symbol.getMemoryLocation() == null && symbol.getValue() != null)
+      {
+        labels.put(name, (long) relocate(symbol.getAddress()));
+      }
+    });
+    return labels;
+  }
+}
@@ -0,0 +1,148 @@
+package com.gradle.superscalarsim.code;
+
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.ExecuteUtil;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class MachineCodeLoaderTest
+{
+  private MachineCodeLoader loader;
+  
+  @Before
+  public void setUp()
+  {
+    this.loader = new MachineCodeLoader(new StaticDataProvider());
+  }
+  
+  private static byte[] flat(int... words)
+  {
+    ByteBuffer buffer = ByteBuffer.allocate(words.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asIntBuffer().put(words);
+    return buffer.array();
+  }
+  
+  @Test
+  public void load_flatBinary()
+  {
+    // Encodings from the GNU assembler
+    loader.load(flat(0x00150513, 0x00112623, 0xfee79ee3, 0x123457b7, 0x00b57553, 0xf00507d3, 0x00008067));
+    
+    List<String> instructions = loader.getInstructions().stream().map(InputCodeModel::toString).toList();
+    Assert.assertEquals(List.of("addi x10 x10 1", "sw x1 12 x2", "bne x15 x14 -4", "lui x15 74565", "fadd.s f10 f10 f11",
+                                "fmv.w.x f15 x10", "jalr x0 x1 0"), instructions);
+    Assert.assertEquals(8, loader.getInstructions().get(2).getPc());
+    Assert.assertTrue(loader.getSymbolTable().isEmpty());
+    Assert.assertTrue(loader.getSegments().isEmpty());
+  }
+  
+  @Test
+  public void load_unsupportedInstructions()
+  {
+    // ecall
+    Assert.assertThrows(IllegalArgumentException.class, () -> loader.load(flat(0x00000073)));
+    // Compressed c.li a0, 1 followed by c.nop
+    Assert.assertThrows(IllegalArgumentException.class, () -> loader.load(flat(0x00014505)));
+    // fadd.d
+    Assert.assertThrows(IllegalArgumentException.class, () -> loader.load(flat(0x02b57553)));
+    Assert.assertThrows(IllegalArgumentException.class, () -> loader.load(new byte[]{0x13, 0, 0}));
+  }
+  
+  @Test
+  public void encoder_inverseOfLoader()
+  {
+    int[] words = {0x00150513, 0x00112623, 0xfee79ee3, 0x123457b7, 0xf00507d3, 0x00008067, 0x4095d593, 0x02b50533,
+                   0x0005a507, 0x00a5a027, 0x18b50543, 0xc0050553, 0xe0051553, 0xff9ff06f};
+    loader.load(flat(words));
+    
+    MachineCodeEncoder encoder = new MachineCodeEncoder(loader.getInstructions(), Map.of());
+    Assert.assertArrayEquals(words, encoder.getWords());
+  }
+  
+  @Test
+  public void load_elfWithDataAndLabels()
+  {
+    String code = """
+            main:
+                la a0, arr
+                lw a1, 4(a0)
+                li a2, 100000
+                add a1, a1, a2
+            store:
+                sw a1, 0(a0)
+            arr:
+                .word 1, 2, 3
+            """;
+    byte[] elf = MachineCodeEncoder.assemble(code, new ArrayList<>(), 512);
+    loader.load(elf);
+    
+    // la and li become lui and addi
+    Assert.assertEquals(7, loader.getInstructions().size());
+    Assert.assertEquals(0, loader.getSymbolTable().get("main").getAddress());
+    Assert.assertEquals(24, loader.getSymbolTable().get("store").getAddress());
+    Assert.assertEquals(1, loader.getSegments().size());
+    Assert.assertEquals(128 + 512, loader.getSegments().get(0).address());
+    Assert.assertEquals(12, loader.getSegments().get(0).data().length);
+    
+    SimulationConfig config = SimulationConfig.getDefaultConfiguration();
+    config.binary     = elf;
+    config.entryPoint = "main";
+    Assert.assertTrue(config.validate().valid);
+    Cpu cpu = new Cpu(config);
+    cpu.execute(false);
+    Assert.assertEquals(100002, ExecuteUtil.getRegisterValue(cpu, "x11"));
+    Assert.assertEquals((byte) (100002 & 0xFF), cpu.cpuState.memoryModel.getData(128 + 512, 4)[0]);
+  }
+  
+  @Test
+  public void simulation_sameAsParsedCode() throws IOException
+  {
+    String code = new String(
+            MachineCodeLoaderTest.class.getResourceAsStream("/assembler/functionPointers.r5").readAllBytes());
+    SimulationConfig parsed = SimulationConfig.getDefaultConfiguration();
+    parsed.code       = code;
+    parsed.entryPoint = "main";
+    SimulationConfig loaded = SimulationConfig.getDefaultConfiguration();
+    loaded.binary     = MachineCodeEncoder.assemble(code, new ArrayList<>(), loaded.cpuConfig.callStackSize);
+    loaded.entryPoint = "main";
+    
+    Cpu parsedCpu = new Cpu(parsed);
+    parsedCpu.execute(false);
+    Cpu loadedCpu = new Cpu(loaded);
+    loadedCpu.execute(false);
+    
+    // The function pointers are called through the addresses of the moved code
+    Assert.assertEquals(parsedCpu.stopReason, loadedCpu.stopReason);
+    Assert.assertEquals(ExecuteUtil.getRegisterValue(parsedCpu, "x10"), ExecuteUtil.getRegisterValue(loadedCpu, "x10"));
+    Assert.assertEquals(ExecuteUtil.getRegisterValue(parsedCpu, "x2"), ExecuteUtil.getRegisterValue(loadedCpu, "x2"));
+  }
+  
+  @Test
+  public void validate_reportsBadBinaries()
+  {
+    SimulationConfig config = SimulationConfig.getDefaultConfiguration();
+    config.binary = flat(0x00000073);
+    SimulationConfig.ValidationResult result = config.validate();
+    Assert.assertFalse(result.valid);
+    Assert.assertEquals("binary", result.messages.get(0).field());
+    
+    // Data linked into the stack
+    byte[] elf = MachineCodeEncoder.toElf(new int[]{0x00150513}, Map.of("main", 0L),
+                                          List.of(new MachineCodeLoader.Segment(256, new byte[4])));
+    config.binary = elf;
+    result        = config.validate();
+    Assert.assertFalse(result.valid);
+    Assert.assertTrue(result.messages.get(0).message().contains("overlaps the stack"));
+  }
+}
@@ -0,0 +1,61 @@
+/**
+ * @file BlockProfilerTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests of the block profiler
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockProfilerTests
+{
+  /**
+   * The profiled step simulates the same as the normal one and counts every block call
+   */
+  @Test
+  public void testProfiledStepMatches()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code = ExecuteUtil.getLoopProgram(5);
+    Cpu plain = new Cpu(cfg);
+    plain.execute(false);
+    
+    Cpu profiled = new Cpu(cfg);
+    profiled.profiler = new BlockProfiler();
+    profiled.execute(false);
+    
+    BlockProfiler profiler = profiled.profiler;
+    Assert.assertEquals(plain.cpuState.tick, profiled.cpuState.tick);
+    Assert.assertEquals(plain.cpuState.statistics.getCommittedInstructions(),
+                        profiled.cpuState.statistics.getCommittedInstructions());
+    Assert.assertEquals(profiled.cpuState.tick, profiler.getSteps());
+    Assert.assertEquals(profiler.getSteps(), profiler.getCalls(BlockProfiler.Stage.kReorderBuffer));
+    Assert.assertEquals(profiler.getSteps() * profiled.cpuState.arithmeticFunctionUnitBlocks.size(),
+                        profiler.getCalls(BlockProfiler.Stage.kArithmetic));
+    Assert.assertTrue(profiler.getTotalNanos() > 0);
+    Assert.assertTrue(profiler.report().contains("ReorderBufferBlock.simulate"));
+  }
+}
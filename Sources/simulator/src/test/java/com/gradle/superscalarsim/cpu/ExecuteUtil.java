@@ -27,6 +27,8 @@
 
 package com.gradle.superscalarsim.cpu;
 
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+
 public class ExecuteUtil
 {
   
@@ -35,6 +37,29 @@ public class ExecuteUtil
           add x2, x3, x4
           add x1, x2, x3""";
   
+  /**
+   * Sums the array, storing the partial sums into it
+   */
+  static final String sumArrayProgram = """
+          arr:
+          .word 1, 2, 3, 4, 5, 6, 7, 8, 9, 10
+          out:
+          .zero 4
+          main:
+              la x1, arr
+              addi x2, x0, 10
+              addi x3, x0, 0
+          body:
+              lw x4, 0(x1)
+              add x3, x3, x4
+              sw x3, 0(x1)
+              addi x1, x1, 4
+              addi x2, x2, -1
+              bne x2, x0, body
+              la x5, out
+              sw x3, 0(x5)
+          """;
+  
   /**
    * @param loopCount How many times to loop
    *
@@ -45,4 +70,34 @@ public class ExecuteUtil
   {
     return "addi x3, x0, " + loopCount + "\n" + "loop:\n" + "beq x3, x0, loopEnd\n" + "subi x3, x3, 1\n" + "jal x0, loop\n" + "loopEnd:";
   }
+  
+  /**
+   * @return Configuration running the sum array program from main
+   */
+  static SimulationConfig getSumArrayConfig()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code       = sumArrayProgram;
+    cfg.entryPoint = "main";
+    return cfg;
+  }
+  
+  /**
+   * @return CPU with the sum array program
+   */
+  static Cpu getSumArrayCpu()
+  {
+    return new Cpu(getSumArrayConfig());
+  }
+  
+  /**
+   * @param cpu  The CPU
+   * @param name Name or alias of the register
+   *
+   * @return Value of the register as a 64-bit integer
+   */
+  public static long getRegisterValue(Cpu cpu, String name)
+  {
+    return (long) cpu.cpuState.unifiedRegisterFileBlock.getRegister(name).getValue(DataTypeEnum.kLong);
+  }
 }
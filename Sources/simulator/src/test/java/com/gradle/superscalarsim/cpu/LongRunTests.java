@@ -0,0 +1,140 @@
+/**
+ * @file LongRunTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Long simulation runs
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.enums.DataTypeEnum;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs far longer than the default budget must not fill the heap, and counters must not overflow past 2^31 cycles.
+ */
+public class LongRunTests
+{
+  /**
+   * Endless loop with a branch, memory accesses and a debug print every iteration
+   */
+  static final String endlessLoop = """
+          loop:
+              addi x5, x5, 1 #DEBUG"i = ${x5}"
+              sw x5, 0(sp)
+              lw x6, 0(sp)
+              andi x7, x5, 3
+              beq x7, x0, skip
+              addi x8, x8, 1
+          skip:
+              j loop
+          """;
+  
+  private static long usedHeapAfterGc()
+  {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++)
+    {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+  
+  @Test
+  public void test_heapStaysFlat()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code          = endlessLoop;
+    cfg.debugLogLimit = 100;
+    Cpu cpu = new Cpu(cfg);
+    SimulationBudget budget = new SimulationBudget(Long.MAX_VALUE, 0, null);
+    
+    cpu.simulateState(50_000, budget);
+    long heapBefore = usedHeapAfterGc();
+    cpu.simulateState(400_000, budget);
+    long heapAfter = usedHeapAfterGc();
+    
+    Assert.assertEquals(StopReason.kNotStopped, cpu.stopReason);
+    Assert.assertEquals(400_000, cpu.cpuState.tick);
+    // 8 times longer run, the state must not grow with it (allowing for GC noise)
+    Assert.assertTrue("Heap grew by " + (heapAfter - heapBefore) + " B", heapAfter - heapBefore < 2 * 1024 * 1024);
+    
+    DebugLog log = cpu.cpuState.debugLog;
+    Assert.assertEquals(100, log.getEntries().size());
+    Assert.assertEquals(log.getTotalEntries() - 100, log.getDroppedEntries());
+    Assert.assertTrue(log.getDroppedEntries() > 10_000);
+  }
+  
+  @Test
+  public void test_debugLogSpill()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code          = endlessLoop;
+    cfg.debugLogLimit = 2;
+    Cpu                  cpu     = new Cpu(cfg);
+    List<DebugLog.Entry> spilled = new ArrayList<>();
+    cpu.cpuState.debugLog.setSpill(spilled::add);
+    
+    cpu.simulateState(200);
+    
+    DebugLog log = cpu.cpuState.debugLog;
+    Assert.assertEquals(log.getDroppedEntries(), spilled.size());
+    Assert.assertEquals("i = 1", spilled.get(0).getMessage());
+    // The kept ones follow the spilled ones
+    String lastSpilled = spilled.get(spilled.size() - 1).getMessage();
+    int    lastIndex   = Integer.parseInt(lastSpilled.substring(4));
+    Assert.assertEquals("i = " + (lastIndex + 1), log.getEntries().get(0).getMessage());
+    Assert.assertEquals(log.getEntries(), log.getEntriesSince(log.getDroppedEntries()));
+    Assert.assertEquals(log.getEntries().subList(1, 2), log.getEntriesSince(log.getTotalEntries() - 1));
+  }
+  
+  @Test
+  public void test_tickPastIntRange()
+  {
+    // The instruction IDs are derived from the tick, they must keep their order past 2^31
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code = """
+                li x6, 20
+            loop:
+                addi x5, x5, 1
+                sw x5, 0(sp)
+                lw x7, 0(sp)
+                add x8, x8, x7
+                blt x5, x6, loop
+            """;
+    Cpu cpu = new Cpu(cfg);
+    cpu.cpuState.tick = Integer.MAX_VALUE - 10;
+    
+    cpu.execute(false, new SimulationBudget(Long.MAX_VALUE, 0, null));
+    
+    Assert.assertEquals(StopReason.kEndOfCode, cpu.stopReason);
+    Assert.assertTrue(cpu.cpuState.tick > Integer.MAX_VALUE);
+    Assert.assertEquals(20, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x5").getValue(DataTypeEnum.kInt));
+    Assert.assertEquals(210, cpu.cpuState.unifiedRegisterFileBlock.getRegister("x8").getValue(DataTypeEnum.kInt));
+    Assert.assertEquals(1 + 20 * 5, cpu.cpuState.statistics.committedInstructions);
+  }
+}
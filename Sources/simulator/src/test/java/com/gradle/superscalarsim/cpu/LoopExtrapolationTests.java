@@ -0,0 +1,129 @@
+/**
+ * @file LoopExtrapolationTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Loop steady-state extrapolation
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * A run with the extrapolation must reach the same architectural state as the cycle-accurate run, with close timing.
+ */
+public class LoopExtrapolationTests
+{
+  /**
+   * Stores and sums 2000 words, a store every iteration walks through the cache
+   */
+  static final String storeAndSum = """
+          arr:
+          .zero 8000
+          main:
+              la x1, arr
+              addi x2, x0, 2000
+              addi x3, x0, 0
+          loop:
+              sw x2, 0(x1)
+              lw x4, 0(x1)
+              add x3, x3, x4
+              addi x1, x1, 4
+              addi x2, x2, -1
+              bne x2, x0, loop
+              addi x5, x3, 1
+          """;
+  
+  private static Cpu run(String code, boolean extrapolate)
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code             = code;
+    cfg.entryPoint       = "main";
+    cfg.extrapolateLoops = extrapolate;
+    Cpu cpu = new Cpu(cfg);
+    cpu.execute(false, new SimulationBudget(10_000_000, 0, null));
+    return cpu;
+  }
+  
+  @Test
+  public void test_sameResultAsCycleAccurateRun()
+  {
+    Cpu exact        = run(storeAndSum, false);
+    Cpu extrapolated = run(storeAndSum, true);
+    
+    Assert.assertEquals(StopReason.kEndOfCode, extrapolated.stopReason);
+    // The loads read the stored values, through the cache
+    Assert.assertEquals(2000L * 2001 / 2, ExecuteUtil.getRegisterValue(extrapolated, "x3"));
+    Assert.assertEquals(ExecuteUtil.getRegisterValue(exact, "x5"), ExecuteUtil.getRegisterValue(extrapolated, "x5"));
+    Assert.assertEquals(ExecuteUtil.getRegisterValue(exact, "x1"), ExecuteUtil.getRegisterValue(extrapolated, "x1"));
+    
+    SimulationStatistics exactStats        = exact.cpuState.statistics;
+    SimulationStatistics extrapolatedStats = extrapolated.cpuState.statistics;
+    Assert.assertNull(exactStats.loopExtrapolation);
+    Assert.assertEquals(exactStats.committedInstructions, extrapolatedStats.committedInstructions);
+    Assert.assertEquals(exactStats.clockCycles, extrapolatedStats.clockCycles, exactStats.clockCycles * 0.05);
+    Assert.assertEquals(exactStats.cache.getWriteAccesses(), extrapolatedStats.cache.getWriteAccesses());
+    // Speculative loads around the drains may differ
+    Assert.assertEquals(exactStats.cache.getMisses(), extrapolatedStats.cache.getMisses(), 2);
+    
+    SimulationStatistics.LoopExtrapolation report = extrapolatedStats.loopExtrapolation;
+    Assert.assertTrue(report.fastForwards > 0);
+    Assert.assertTrue(report.instructions > exactStats.committedInstructions / 2);
+    // The exit of the loop leaves the path of the period
+    Assert.assertTrue(report.controlFlowBreaks > 0);
+  }
+  
+  @Test
+  public void test_cycleBudgetIsRespected()
+  {
+    SimulationConfig cfg = SimulationConfig.getDefaultConfiguration();
+    cfg.code             = storeAndSum;
+    cfg.entryPoint       = "main";
+    cfg.extrapolateLoops = true;
+    Cpu cpu = new Cpu(cfg);
+    cpu.execute(false, new SimulationBudget(3000, 0, null));
+    
+    Assert.assertEquals(StopReason.kMaxCycles, cpu.stopReason);
+    Assert.assertTrue(cpu.cpuState.tick <= 3001);
+  }
+  
+  @Test
+  public void test_fastForwardAdvancesTheTick()
+  {
+    // The tick does not start at the clock cycle counter, a fast-forward moves it by the skipped cycles
+    long             start = Integer.MAX_VALUE - 10;
+    SimulationConfig cfg   = SimulationConfig.getDefaultConfiguration();
+    cfg.code             = storeAndSum;
+    cfg.entryPoint       = "main";
+    cfg.extrapolateLoops = true;
+    Cpu cpu = new Cpu(cfg);
+    cpu.cpuState.tick = start;
+    cpu.execute(false, new SimulationBudget(start + 3000, 0, null));
+    
+    Assert.assertEquals(StopReason.kMaxCycles, cpu.stopReason);
+    Assert.assertTrue(cpu.cpuState.statistics.loopExtrapolation.fastForwards > 0);
+    Assert.assertEquals(start + cpu.cpuState.statistics.clockCycles, cpu.cpuState.tick);
+    Assert.assertTrue(cpu.cpuState.tick <= start + 3001);
+  }
+}
@@ -0,0 +1,102 @@
+/**
+ * @file ParsedProgramTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Loading of parsed programs into CPUs
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.code.CodeParser;
+import com.gradle.superscalarsim.factories.InputCodeModelFactory;
+import com.gradle.superscalarsim.loader.StaticDataProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+public class ParsedProgramTests
+{
+  private static void assertSameRun(Cpu expected, Cpu actual)
+  {
+    Assert.assertEquals(expected.cpuState.tick, actual.cpuState.tick);
+    for (String name : new String[]{"x1", "x3", "x5"})
+    {
+      Assert.assertEquals(ExecuteUtil.getRegisterValue(expected, name), ExecuteUtil.getRegisterValue(actual, name));
+    }
+  }
+  
+  @Test
+  public void sharedProgram_runsLikeParsedCode()
+  {
+    Cpu parsed = new Cpu(ExecuteUtil.getSumArrayConfig());
+    parsed.execute(false);
+    
+    StaticDataProvider provider = new StaticDataProvider();
+    ParsedProgram      program  = ParsedProgram.parse(ExecuteUtil.getSumArrayConfig(), provider);
+    Cpu                first    = new Cpu(ExecuteUtil.getSumArrayConfig(), provider, program);
+    first.execute(false);
+    Cpu second = new Cpu(ExecuteUtil.getSumArrayConfig(), provider, program);
+    second.execute(false);
+    
+    assertSameRun(parsed, first);
+    assertSameRun(parsed, second);
+    // The CPUs have their own registers
+    Assert.assertNotSame(first.cpuState.instructionMemoryBlock.getCode().get(0),
+                         second.cpuState.instructionMemoryBlock.getCode().get(0));
+    
+    // A backward step keeps the program
+    second.stepBack();
+    Assert.assertEquals(parsed.cpuState.tick - 1, second.cpuState.tick);
+  }
+  
+  @Test
+  public void parserWithFilledValues_isLaidOutAgain()
+  {
+    // The check of a compiled program fills the values before the data has addresses
+    StaticDataProvider provider = new StaticDataProvider();
+    CodeParser         parser   = new CodeParser(provider.getInstructionFunctionModels(),
+                                                 provider.getRegisterFile().getRegisterMap(true),
+                                                 new InputCodeModelFactory(),
+                                                 new ArrayList<>());
+    parser.parseCode(ExecuteUtil.sumArrayProgram);
+    SimulationConfig config  = ExecuteUtil.getSumArrayConfig();
+    ParsedProgram    program = ParsedProgram.fromParser(parser, config.cpuConfig.callStackSize);
+    Cpu              cpu     = new Cpu(config, provider, program);
+    cpu.execute(false);
+    
+    Cpu parsed = new Cpu(ExecuteUtil.getSumArrayConfig());
+    parsed.execute(false);
+    assertSameRun(parsed, cpu);
+    Assert.assertEquals(55, ExecuteUtil.getRegisterValue(cpu, "x3"));
+  }
+  
+  @Test
+  public void otherCallStackSize_isRejected()
+  {
+    SimulationConfig config  = ExecuteUtil.getSumArrayConfig();
+    ParsedProgram    program = ParsedProgram.parse(config, new StaticDataProvider());
+    config.cpuConfig.callStackSize *= 2;
+    Assert.assertThrows(IllegalArgumentException.class, () -> new Cpu(config, null, program));
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * @file PipelineTimelineTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Pipeline timeline reconstruction
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.blocks.base.AbstractFunctionUnitBlock;
+import com.gradle.superscalarsim.blocks.base.IssueWindowBlock;
+import com.gradle.superscalarsim.enums.InstructionTypeEnum;
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.models.instruction.SimCodeModel;
+import com.gradle.superscalarsim.pipetrace.PipelineTimeline;
+import com.gradle.superscalarsim.pipetrace.PipelineTrace;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class PipelineTimelineTests
+{
+  private static PipelineTrace record(Cpu cpu)
+  {
+    PipelineTrace trace = new PipelineTrace(
+            cpu.cpuState.instructionMemoryBlock.getCode().stream().map(InputCodeModel::toString).toList());
+    cpu.cpuState.setPipelineTracer(trace);
+    cpu.execute(false);
+    return trace;
+  }
+  
+  private static List<Long> ids(List<SimCodeModel> codeModels)
+  {
+    return codeModels.stream().map(SimCodeModel::getIntegerId).sorted().toList();
+  }
+  
+  private static List<Long> window(List<PipelineTimeline.Entry> rob, InstructionTypeEnum type)
+  {
+    return rob.stream().filter(entry -> entry.isInIssueWindow() && entry.unit() == type.ordinal())
+            .map(PipelineTimeline.Entry::id).sorted().toList();
+  }
+  
+  /**
+   * The reconstructed state of every tick matches the state of a step-by-step simulation
+   */
+  private static void assertMatchesSimulation(int interval)
+  {
+    Cpu              recorded = ExecuteUtil.getSumArrayCpu();
+    PipelineTimeline timeline = new PipelineTimeline(record(recorded), interval);
+    
+    Cpu      cpu   = ExecuteUtil.getSumArrayCpu();
+    CpuState state = cpu.cpuState;
+    for (long tick = 0; tick <= recorded.cpuState.tick; tick++)
+    {
+      List<PipelineTimeline.Entry> rob = timeline.stateAt(tick);
+      Assert.assertEquals(state.reorderBufferBlock.getReorderQueue().map(SimCodeModel::getIntegerId).toList(),
+                          rob.stream().map(PipelineTimeline.Entry::id).toList());
+      Map<InstructionTypeEnum, IssueWindowBlock> windows = Map.of(InstructionTypeEnum.kIntArithmetic,
+                                                                  state.aluIssueWindowBlock,
+                                                                  InstructionTypeEnum.kFloatArithmetic,
+                                                                  state.fpIssueWindowBlock,
+                                                                  InstructionTypeEnum.kLoadstore,
+                                                                  state.loadStoreIssueWindowBlock,
+                                                                  InstructionTypeEnum.kJumpbranch,
+                                                                  state.branchIssueWindowBlock);
+      windows.forEach((type, window) -> Assert.assertEquals(ids(window.getIssuedInstructions()), window(rob, type)));
+      List<AbstractFunctionUnitBlock> units = state.getFunctionUnits();
+      for (int unit = 0; unit < units.size(); unit++)
+      {
+        int          finalUnit = unit;
+        SimCodeModel executed  = units.get(unit).getSimCodeModel();
+        List<Long> reconstructed = rob.stream().filter(e -> e.isInFunctionUnit() && e.unit() == finalUnit)
+                .map(PipelineTimeline.Entry::id).toList();
+        Assert.assertEquals("Unit " + units.get(unit).getName() + " at tick " + tick,
+                            executed == null ? List.of() : List.of(executed.getIntegerId()), reconstructed);
+      }
+      if (tick < recorded.cpuState.tick)
+      {
+        state.step();
+      }
+    }
+  }
+  
+  @Test
+  public void test_everyTickMatchesTheSimulation()
+  {
+    assertMatchesSimulation(PipelineTimeline.DEFAULT_KEYFRAME_INTERVAL);
+    assertMatchesSimulation(4);
+  }
+  
+  @Test
+  public void test_ticksAfterTheEndGiveTheFinalState()
+  {
+    Cpu              cpu      = ExecuteUtil.getSumArrayCpu();
+    PipelineTimeline timeline = new PipelineTimeline(record(cpu), 8);
+    
+    Assert.assertTrue(timeline.stateAt(0).isEmpty());
+    Assert.assertTrue(timeline.stateAt(cpu.cpuState.tick).isEmpty());
+    Assert.assertTrue(timeline.stateAt(cpu.cpuState.tick + 1000).isEmpty());
+    Assert.assertThrows(IllegalArgumentException.class, () -> timeline.stateAt(-1));
+  }
+}
@@ -0,0 +1,201 @@
+/**
+ * @file PipelineTraceTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Pipeline event trace
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.models.instruction.InputCodeModel;
+import com.gradle.superscalarsim.pipetrace.KonataExporter;
+import com.gradle.superscalarsim.pipetrace.PipelineStage;
+import com.gradle.superscalarsim.pipetrace.PipelineTrace;
+import com.gradle.superscalarsim.pipetrace.PipelineTraceWriter;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class PipelineTraceTests
+{
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  
+  private static List<String> listing(Cpu cpu)
+  {
+    return cpu.cpuState.instructionMemoryBlock.getCode().stream().map(InputCodeModel::toString).toList();
+  }
+  
+  private static PipelineTrace record(Cpu cpu)
+  {
+    PipelineTrace trace = new PipelineTrace(listing(cpu));
+    cpu.cpuState.setPipelineTracer(trace);
+    cpu.execute(false);
+    return trace;
+  }
+  
+  @Test
+  public void test_everyCommittedInstructionPassesThePipelineInOrder()
+  {
+    Cpu           cpu   = ExecuteUtil.getSumArrayCpu();
+    PipelineTrace trace = record(cpu);
+    
+    Map<Long, PipelineStage> lastStage = new HashMap<>();
+    int                      commits   = 0;
+    int                      squashes  = 0;
+    for (int i = 0; i < trace.size(); i++)
+    {
+      if (i > 0)
+      {
+        Assert.assertTrue(trace.getCycle(i) >= trace.getCycle(i - 1));
+      }
+      PipelineStage stage = trace.getStage(i);
+      PipelineStage last  = lastStage.put(trace.getId(i), stage);
+      switch (stage)
+      {
+        case kFetch -> Assert.assertNull(last);
+        case kCommit ->
+        {
+          Assert.assertEquals(PipelineStage.kComplete, last);
+          commits++;
+        }
+        case kSquash -> squashes++;
+        default ->
+        {
+          Assert.assertNotNull(last);
+          Assert.assertTrue(last.ordinal() <= stage.ordinal());
+        }
+      }
+    }
+    
+    SimulationStatistics statistics = cpu.cpuState.statistics;
+    Assert.assertEquals(statistics.committedInstructions, commits);
+    Assert.assertEquals(statistics.flushedInstructions, squashes);
+    Assert.assertTrue(squashes > 0);
+  }
+  
+  @Test
+  public void test_committedBranchPassesEveryStage()
+  {
+    Cpu           cpu     = ExecuteUtil.getSumArrayCpu();
+    PipelineTrace trace   = record(cpu);
+    List<String>  listing = trace.getListing();
+    
+    Map<Long, List<PipelineStage>> branches = new HashMap<>();
+    for (int i = 0; i < trace.size(); i++)
+    {
+      if (listing.get(trace.getPc(i) / 4).startsWith("bne"))
+      {
+        branches.computeIfAbsent(trace.getId(i), id -> new ArrayList<>()).add(trace.getStage(i));
+      }
+    }
+    
+    List<PipelineStage> expected = List.of(PipelineStage.kFetch, PipelineStage.kDecode, PipelineStage.kDispatch,
+                                           PipelineStage.kExecute, PipelineStage.kComplete, PipelineStage.kCommit);
+    int committed = 0;
+    for (List<PipelineStage> stages : branches.values())
+    {
+      if (stages.contains(PipelineStage.kCommit))
+      {
+        Assert.assertEquals(expected, stages);
+        committed++;
+      }
+    }
+    Assert.assertEquals(10, committed);
+  }
+  
+  @Test
+  public void test_fileRoundTripAcrossChunks() throws Exception
+  {
+    Cpu           cpu      = ExecuteUtil.getSumArrayCpu();
+    PipelineTrace recorded = record(cpu);
+    
+    // Small chunks, so the writer maps many of them
+    Path file = folder.newFile("trace.bin").toPath();
+    try (PipelineTraceWriter writer = new PipelineTraceWriter(file, listing(cpu), 7))
+    {
+      for (int i = 0; i < recorded.size(); i++)
+      {
+        writer.write(recorded.getId(i), recorded.getPc(i), recorded.getStage(i), recorded.getUnit(i),
+                     recorded.getCycle(i));
+      }
+    }
+    
+    PipelineTrace read = PipelineTrace.read(file);
+    Assert.assertEquals(recorded.size(), read.size());
+    Assert.assertEquals(recorded.getListing(), read.getListing());
+    for (int i = 0; i < recorded.size(); i++)
+    {
+      Assert.assertEquals(recorded.getId(i), read.getId(i));
+      Assert.assertEquals(recorded.getPc(i), read.getPc(i));
+      Assert.assertEquals(recorded.getStage(i), read.getStage(i));
+      Assert.assertEquals(recorded.getUnit(i), read.getUnit(i));
+      Assert.assertEquals(recorded.getCycle(i), read.getCycle(i));
+    }
+    // Truncated after the last record
+    long records = (long) recorded.size() * PipelineTraceWriter.RECORD_SIZE;
+    Assert.assertTrue(Files.size(file) > records);
+    Assert.assertTrue(Files.size(file) < records + 1000);
+  }
+  
+  @Test
+  public void test_konataLogRetiresEveryRow() throws Exception
+  {
+    Cpu           cpu   = ExecuteUtil.getSumArrayCpu();
+    PipelineTrace trace = record(cpu);
+    StringWriter  log   = new StringWriter();
+    KonataExporter.export(trace, log);
+    
+    String[] lines = log.toString().split("\n");
+    Assert.assertEquals("Kanata\t0004", lines[0]);
+    int rows    = 0;
+    int retired = 0;
+    int flushed = 0;
+    for (String line : lines)
+    {
+      String[] fields = line.split("\t");
+      switch (fields[0])
+      {
+        case "I" -> rows++;
+        case "R" ->
+        {
+          retired += fields[3].equals("0") ? 1 : 0;
+          flushed += fields[3].equals("1") ? 1 : 0;
+        }
+        case "C" -> Assert.assertTrue(Long.parseLong(fields[1]) > 0);
+      }
+    }
+    Assert.assertEquals(cpu.cpuState.statistics.committedInstructions, retired);
+    Assert.assertEquals(rows, retired + flushed);
+    Assert.assertTrue(log.toString().contains("lw x4 0 x1"));
+  }
+}
@@ -172,9 +172,9 @@ public class StatisticsTests
     // Assert
     Assert.assertNull(cpu.cpuState.statistics.instructionStats.get(0).getCacheMisses());
     Assert.assertNull(cpu.cpuState.statistics.instructionStats.get(1).getCacheMisses());
-    Assert.assertEquals(1, (int) cpu.cpuState.statistics.instructionStats.get(2).getCacheMisses());
-    Assert.assertEquals(1, (int) cpu.cpuState.statistics.instructionStats.get(3).getCacheMisses());
-    Assert.assertEquals(0, (int) cpu.cpuState.statistics.instructionStats.get(4).getCacheMisses());
+    Assert.assertEquals(1, (long) cpu.cpuState.statistics.instructionStats.get(2).getCacheMisses());
+    Assert.assertEquals(1, (long) cpu.cpuState.statistics.instructionStats.get(3).getCacheMisses());
+    Assert.assertEquals(0, (long) cpu.cpuState.statistics.instructionStats.get(4).getCacheMisses());
   }
   
   @Test
@@ -193,6 +193,6 @@ public class StatisticsTests
     // 2 lines are loaded
     Assert.assertEquals(2 * 16, cpu.cpuState.statistics.mainMemoryLoadedBytes);
     // 1 cache miss
-    Assert.assertEquals(1, (int) cpu.cpuState.statistics.instructionStats.get(3).getCacheMisses());
+    Assert.assertEquals(1, (long) cpu.cpuState.statistics.instructionStats.get(3).getCacheMisses());
   }
 }
@@ -0,0 +1,127 @@
+/**
+ * @file StopConditionTests.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Stop conditions of a run
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.cpu;
+
+import com.gradle.superscalarsim.cachetrace.MemoryTrace;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class StopConditionTests
+{
+  @Test
+  public void test_labelReachedNTimes()
+  {
+    Cpu           cpu       = ExecuteUtil.getSumArrayCpu();
+    StopCondition condition = new StopCondition(StopCondition.Type.kLabel, 0, 4);
+    condition.label = "body";
+    cpu.setStopConditions(List.of(condition), 0);
+    cpu.execute(false);
+    
+    Assert.assertEquals(StopReason.kStopCondition, cpu.stopReason);
+    Assert.assertEquals(0, cpu.firedCondition);
+    // The 4th load committed, its iteration may be partly committed in the same cycle
+    Assert.assertEquals(4, cpu.cpuState.statistics.instructionStats.get(3).committedCount);
+    Assert.assertTrue(ExecuteUtil.getRegisterValue(cpu, "x3") >= 1 + 2 + 3);
+  }
+  
+  @Test
+  public void test_registerBecomesTrue()
+  {
+    Cpu cpu = ExecuteUtil.getSumArrayCpu();
+    cpu.setStopConditions(List.of(new StopCondition("x2", "<=", 5)), 0);
+    cpu.execute(false);
+    
+    Assert.assertEquals(StopReason.kStopCondition, cpu.stopReason);
+    Assert.assertEquals(5, ExecuteUtil.getRegisterValue(cpu, "x2"));
+    
+    // Continue from the fired state, the predicate stays true and does not fire again
+    cpu.setStopConditions(List.of(new StopCondition("x2", "<=", 5)), cpu.cpuState.tick);
+    cpu.execute(false);
+    Assert.assertEquals(StopReason.kEndOfCode, cpu.stopReason);
+    Assert.assertEquals(-1, cpu.firedCondition);
+  }
+  
+  @Test
+  public void test_memoryWriteToLabel()
+  {
+    Cpu           cpu       = ExecuteUtil.getSumArrayCpu();
+    MemoryTrace   trace     = new MemoryTrace();
+    StopCondition condition = new StopCondition(StopCondition.Type.kMemoryWrite, 0, 1);
+    condition.label = "out";
+    cpu.cpuState.reorderBufferBlock.setMemoryAccessListener(trace);
+    cpu.setStopConditions(List.of(new StopCondition(StopCondition.Type.kCommits, 0, 1000), condition), 0);
+    cpu.execute(false);
+    
+    Assert.assertEquals(StopReason.kStopCondition, cpu.stopReason);
+    Assert.assertEquals(1, cpu.firedCondition);
+    Assert.assertEquals(55, ExecuteUtil.getRegisterValue(cpu, "x3"));
+    // The trace listener still got every access
+    Assert.assertEquals(21, trace.size());
+  }
+  
+  @Test
+  public void test_pcAndBackwardSimulation()
+  {
+    Cpu cpu  = ExecuteUtil.getSumArrayCpu();
+    int body = (int) cpu.cpuState.instructionMemoryBlock.getLabels().get("body").getAddress();
+    cpu.setStopConditions(List.of(new StopCondition(StopCondition.Type.kPc, body + 20, 2)), 0);
+    cpu.execute(false);
+    long tick = cpu.cpuState.tick;
+    Assert.assertEquals(StopReason.kStopCondition, cpu.stopReason);
+    
+    // A backward simulation watches the new state
+    cpu.simulateState(1);
+    cpu.simulateState(Long.MAX_VALUE);
+    Assert.assertEquals(StopReason.kStopCondition, cpu.stopReason);
+    Assert.assertEquals(tick, cpu.cpuState.tick);
+  }
+  
+  @Test
+  public void test_flushAndCacheMiss()
+  {
+    Cpu cpu = ExecuteUtil.getSumArrayCpu();
+    cpu.setStopConditions(List.of(new StopCondition(StopCondition.Type.kCacheMiss)), 0);
+    cpu.execute(false);
+    Assert.assertEquals(StopReason.kStopCondition, cpu.stopReason);
+    Assert.assertEquals(1, cpu.cpuState.statistics.cache.getMisses());
+    
+    cpu = ExecuteUtil.getSumArrayCpu();
+    cpu.setStopConditions(List.of(new StopCondition(StopCondition.Type.kFlush)), 0);
+    cpu.execute(false);
+    Assert.assertEquals(StopReason.kStopCondition, cpu.stopReason);
+    Assert.assertEquals(1, cpu.cpuState.statistics.robFlushes);
+  }
+  
+  @Test(expected = IllegalArgumentException.class)
+  public void test_unknownRegister()
+  {
+    ExecuteUtil.getSumArrayCpu().setStopConditions(List.of(new StopCondition("x99", "==", 0)), 0);
+  }
+}
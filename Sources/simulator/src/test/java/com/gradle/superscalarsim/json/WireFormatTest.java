@@ -0,0 +1,112 @@
+/**
+ * @file WireFormatTest.java
+ * @author Michal Majer
+ * Faculty of Information Technology
+ * Brno University of Technology
+ * xmajer21@stud.fit.vutbr.cz
+ * @brief Tests for the binary wire formats and content negotiation
+ * @date 18 Oct      2026 10:00 (created)
+ * @section Licence
+ * This file is part of the Superscalar simulator app
+ * <p>
+ * Copyright (C) 2023 Michal Majer
+ * <p>
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.gradle.superscalarsim.json;
+
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.serialization.Serialization;
+import com.gradle.superscalarsim.serialization.WireFormat;
+import com.gradle.superscalarsim.server.ServerException;
+import com.gradle.superscalarsim.server.simulate.SimulateHandler;
+import com.gradle.superscalarsim.server.simulate.SimulateRequest;
+import com.gradle.superscalarsim.server.simulate.SimulateResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+
+public class WireFormatTest
+{
+  @Test
+  public void contentType_selectsRequestFormat()
+  {
+    Assert.assertEquals(WireFormat.JSON, WireFormat.fromContentType(null));
+    Assert.assertEquals(WireFormat.JSON, WireFormat.fromContentType("application/json; charset=utf-8"));
+    Assert.assertEquals(WireFormat.JSON, WireFormat.fromContentType("text/plain"));
+    Assert.assertEquals(WireFormat.CBOR, WireFormat.fromContentType("application/cbor"));
+    Assert.assertEquals(WireFormat.SMILE, WireFormat.fromContentType("application/x-jackson-smile"));
+  }
+  
+  @Test
+  public void accept_prefersListedBinaryFormat()
+  {
+    Assert.assertEquals(WireFormat.JSON, WireFormat.fromAccept(null));
+    Assert.assertEquals(WireFormat.JSON, WireFormat.fromAccept("*/*"));
+    Assert.assertEquals(WireFormat.CBOR, WireFormat.fromAccept("application/cbor, application/json;q=0.5"));
+    Assert.assertEquals(WireFormat.SMILE, WireFormat.fromAccept("text/json;q=0.1, application/x-jackson-smile"));
+  }
+  
+  @Test
+  public void simulateRequest_roundTripsThroughBinaryFormats() throws IOException, ServerException
+  {
+    SimulateHandler  handler = new SimulateHandler();
+    SimulationConfig config  = SimulationConfig.getDefaultConfiguration();
+    config.code = """
+            addi x1, x0, 5
+            addi x2, x1, 3
+            """;
+    SimulateRequest request = new SimulateRequest(config, Optional.of(7L));
+    
+    for (WireFormat format : WireFormat.values())
+    {
+      ByteArrayOutputStream requestBytes = new ByteArrayOutputStream();
+      Serialization.getSerializer(format).writeValue(requestBytes, request);
+      SimulateRequest decoded = handler.deserialize(new ByteArrayInputStream(requestBytes.toByteArray()), format);
+      
+      SimulateResponse response = handler.resolve(decoded);
+      Assert.assertEquals(7, response.executedSteps);
+      
+      ByteArrayOutputStream responseBytes = new ByteArrayOutputStream();
+      handler.serialize(response, responseBytes, format);
+      Assert.assertTrue(responseBytes.size() > 0);
+    }
+  }
+  
+  @Test
+  public void simulateResponse_binaryIsSmallerThanJson() throws IOException, ServerException
+  {
+    SimulateHandler  handler = new SimulateHandler();
+    SimulationConfig config  = SimulationConfig.getDefaultConfiguration();
+    config.code = """
+            addi x3, x0, 10
+            loop:
+            subi x3, x3, 1
+            bne x3, x0, loop
+            """;
+    SimulateResponse response = handler.resolve(new SimulateRequest(config, Optional.of(20L)));
+    
+    ByteArrayOutputStream json  = new ByteArrayOutputStream();
+    ByteArrayOutputStream smile = new ByteArrayOutputStream();
+    handler.serialize(response, json, WireFormat.JSON);
+    handler.serialize(response, smile, WireFormat.SMILE);
+    
+    Assert.assertTrue(smile.size() < json.size());
+  }
+}
@@ -0,0 +1,118 @@
+package com.gradle.superscalarsim.memory;
+
+import com.gradle.superscalarsim.cachetrace.CacheTraceConfig;
+import com.gradle.superscalarsim.cachetrace.CacheTraceReplayer;
+import com.gradle.superscalarsim.cachetrace.CacheTraceResult;
+import com.gradle.superscalarsim.cachetrace.MemoryTrace;
+import com.gradle.superscalarsim.cachetrace.MemoryTraceWriter;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+public class CacheTraceTests
+{
+  @Test
+  public void replayMatchesSimulation()
+  {
+    SimulationConfig config = SimulationConfig.getDefaultConfiguration();
+    config.code = """
+            arr:
+            .zero 256
+            other:
+            .zero 256
+            main:
+              la x1, other
+              lw x3, 0(x1)
+              lw x4, 128(x1)
+              lh x5, 250(x1)
+              la x1, arr
+              addi x2, x0, 64
+            store:
+              sw x2, 0(x1)
+              addi x1, x1, 4
+              addi x2, x2, -1
+              bne x2, x0, store""";
+    config.entryPoint = "main";
+    Cpu         cpu   = new Cpu(config);
+    MemoryTrace trace = new MemoryTrace();
+    cpu.cpuState.reorderBufferBlock.setMemoryAccessListener(trace);
+    cpu.execute(false);
+    
+    // No loads on a wrong path (the loop exits to the end of the code) or reading the stored data, so the simulation
+    // accessed the cache exactly with the committed accesses
+    Assert.assertEquals(67, trace.size());
+    Assert.assertEquals(64, trace.getStoreCount());
+    
+    CacheTraceResult result = CacheTraceReplayer.replay(trace, CacheTraceConfig.fromCpuConfig("default",
+                                                                                               config.cpuConfig));
+    SimulationStatistics simulated = cpu.cpuState.statistics;
+    Assert.assertNull(result.error);
+    Assert.assertEquals(simulated.cache.getReadAccesses(), result.cache.getReadAccesses());
+    Assert.assertEquals(simulated.cache.getWriteAccesses(), result.cache.getWriteAccesses());
+    Assert.assertEquals(simulated.cache.getHits(), result.cache.getHits());
+    Assert.assertEquals(simulated.cache.getMisses(), result.cache.getMisses());
+    Assert.assertEquals(simulated.cache.getWritebacks(), result.cache.getWritebacks());
+    Assert.assertEquals(simulated.mainMemoryLoadedBytes, result.mainMemoryLoadedBytes);
+  }
+  
+  @Test
+  public void traceFileRoundTrip() throws Exception
+  {
+    ByteArrayOutputStream bytes  = new ByteArrayOutputStream();
+    MemoryTraceWriter     writer = new MemoryTraceWriter(bytes);
+    writer.write(0x1000, 4, false);
+    writer.write(0x1004, 4, true);
+    writer.write(0x10, 1, false);
+    writer.write(0xFFFF_FFF8L, 8, true);
+    writer.write(0x1006, 2, false);
+    writer.close();
+    // Header, then the sequential access takes one byte and the far jumps six
+    Assert.assertEquals(5 + 3 + 1 + 3 + 6 + 6, bytes.size());
+    
+    MemoryTrace trace = MemoryTrace.read(new ByteArrayInputStream(bytes.toByteArray()));
+    Assert.assertEquals(5, trace.size());
+    Assert.assertEquals(0x1004, trace.getAddress(1));
+    Assert.assertTrue(trace.isStore(1));
+    Assert.assertEquals(1, trace.getSize(2));
+    Assert.assertEquals(0xFFFF_FFF8L, trace.getAddress(3));
+    Assert.assertEquals(8, trace.getSize(3));
+    Assert.assertEquals(0x1006, trace.getAddress(4));
+    Assert.assertFalse(trace.isStore(4));
+  }
+  
+  @Test
+  public void writeBackAndWriteThroughTraffic() throws Exception
+  {
+    // 2 lines of 16 bytes, direct mapped: 0x0 and 0x20 share a line
+    MemoryTrace trace = new MemoryTrace();
+    trace.onCommittedAccess(0x0, 4, true);
+    trace.onCommittedAccess(0x20, 4, false);
+    trace.onCommittedAccess(0x0, 4, false);
+    // Spans two lines
+    trace.onCommittedAccess(0x1C, 8, false);
+    
+    List<CacheTraceResult> results = new CacheTraceReplayer(2).replayAll(trace, List.of(
+            new CacheTraceConfig("wb", 2, 16, 1, "LRU", "write-back"),
+            new CacheTraceConfig("wt", 2, 16, 1, "LRU", "write-through"),
+            new CacheTraceConfig("invalid", 3, 16, 1, "LRU", "write-back")));
+    
+    CacheTraceResult writeBack = results.get(0);
+    Assert.assertEquals(4, writeBack.cache.getMisses());
+    Assert.assertEquals(0, writeBack.cache.getHits());
+    Assert.assertEquals(1, writeBack.cache.getWritebacks());
+    Assert.assertEquals(16, writeBack.mainMemoryStoredBytes);
+    Assert.assertEquals(5 * 16, writeBack.mainMemoryLoadedBytes);
+    
+    CacheTraceResult writeThrough = results.get(1);
+    Assert.assertEquals(0, writeThrough.cache.getWritebacks());
+    Assert.assertEquals(4, writeThrough.mainMemoryStoredBytes);
+    
+    Assert.assertNotNull(results.get(2).error);
+  }
+}
@@ -0,0 +1,93 @@
+package com.gradle.superscalarsim.predictor;
+
+import com.gradle.superscalarsim.blocks.branch.BitPredictor;
+import com.gradle.superscalarsim.branchtrace.BranchTrace;
+import com.gradle.superscalarsim.branchtrace.BranchTraceConfig;
+import com.gradle.superscalarsim.branchtrace.BranchTraceReplayer;
+import com.gradle.superscalarsim.branchtrace.BranchTraceResult;
+import com.gradle.superscalarsim.branchtrace.BranchTraceWriter;
+import com.gradle.superscalarsim.cpu.Cpu;
+import com.gradle.superscalarsim.cpu.SimulationConfig;
+import com.gradle.superscalarsim.cpu.SimulationStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+public class BranchTraceTests
+{
+  @Test
+  public void replayMatchesSimulation()
+  {
+    SimulationConfig config = SimulationConfig.getDefaultConfiguration();
+    config.code = """
+            addi x3, x0, 5
+            loop:
+            beq x3, x0, loopEnd
+            subi x3, x3, 1
+            jal x0, loop
+            loopEnd:""";
+    Cpu         cpu   = new Cpu(config);
+    BranchTrace trace = new BranchTrace();
+    cpu.cpuState.reorderBufferBlock.setBranchOutcomeListener(trace);
+    cpu.execute(false);
+    
+    Assert.assertEquals(11, trace.size());
+    BranchTraceResult result = BranchTraceReplayer.replay(trace, BranchTraceConfig.fromCpuConfig("default",
+                                                                                                 config.cpuConfig));
+    SimulationStatistics simulated = cpu.cpuState.statistics;
+    Assert.assertNull(result.error);
+    Assert.assertEquals(simulated.getConditionalBranches(), result.conditionalBranches);
+    Assert.assertEquals(simulated.getTakenBranches(), result.takenBranches);
+    Assert.assertEquals(simulated.getCorrectlyPredictedBranches(), result.correctlyPredictedBranches);
+  }
+  
+  @Test
+  public void traceFileRoundTrip() throws Exception
+  {
+    ByteArrayOutputStream bytes  = new ByteArrayOutputStream();
+    BranchTraceWriter     writer = new BranchTraceWriter(bytes);
+    writer.write(8, true, 0, true);
+    writer.write(16, true, 4, false);
+    writer.write(0x7FFF_FFF0, false, 0x7FFF_FFF4, true);
+    writer.close();
+    
+    BranchTrace trace = BranchTrace.read(new ByteArrayInputStream(bytes.toByteArray()));
+    Assert.assertEquals(3, trace.size());
+    Assert.assertEquals(16, trace.getPc(1));
+    Assert.assertEquals(4, trace.getTarget(1));
+    Assert.assertTrue(trace.isTaken(1));
+    Assert.assertFalse(trace.isConditional(1));
+    Assert.assertEquals(0x7FFF_FFF0, trace.getPc(2));
+    Assert.assertEquals(0x7FFF_FFF4, trace.getTarget(2));
+    Assert.assertFalse(trace.isTaken(2));
+    Assert.assertTrue(trace.isConditional(2));
+  }
+  
+  @Test
+  public void predictorsLearnTheLoop() throws Exception
+  {
+    // A loop branch taken 9 times, then not taken, repeated 10 times
+    BranchTrace trace = new BranchTrace();
+    for (int i = 0; i < 100; i++)
+    {
+      trace.onCommittedBranch(40, i % 10 != 9, 8, true);
+    }
+    
+    List<BranchTraceResult> results = new BranchTraceReplayer(2).replayAll(trace, List.of(
+            new BranchTraceConfig("zero", 16, 16, BitPredictor.PredictorType.ZERO_BIT_PREDICTOR, 1, false),
+            new BranchTraceConfig("one", 16, 16, BitPredictor.PredictorType.ONE_BIT_PREDICTOR, 1, false),
+            new BranchTraceConfig("two", 16, 16, BitPredictor.PredictorType.TWO_BIT_PREDICTOR, 3, false),
+            new BranchTraceConfig("invalid", 16, 16, BitPredictor.PredictorType.ONE_BIT_PREDICTOR, 3, false)));
+    
+    // The first branch misses the BTB, so it is predicted not taken
+    Assert.assertEquals(99, results.get(0).btbHits);
+    Assert.assertEquals(89, results.get(0).correctlyPredictedBranches);
+    // The 1-bit predictor also mispredicts the first iteration after each exit
+    Assert.assertEquals(80, results.get(1).correctlyPredictedBranches);
+    Assert.assertEquals(89, results.get(2).correctlyPredictedBranches);
+    Assert.assertNotNull(results.get(3).error);
+  }
+}
@@ -1,7 +1,9 @@
 package com.gradle.superscalarsim.predictor;
 
 import com.gradle.superscalarsim.blocks.branch.BitPredictor;
+import com.gradle.superscalarsim.blocks.branch.GShareUnit;
 import com.gradle.superscalarsim.blocks.branch.GlobalHistoryRegister;
+import com.gradle.superscalarsim.blocks.branch.PatternHistoryTable;
 import com.gradle.superscalarsim.cpu.Cpu;
 import com.gradle.superscalarsim.cpu.SimulationConfig;
 import org.junit.Assert;
@@ -135,7 +137,7 @@ public class GHRTests
     int branchPc = 8;
     
     cpu.step();
-    BitPredictor predictor = cpu.cpuState.gShareUnit.getPredictor(branchPc);
+    int predictor = cpu.cpuState.gShareUnit.getPredictorIndex(branchPc);
     
     while (cpu.cpuState.statistics.committedInstructions < 3)
     {
@@ -143,9 +145,54 @@ public class GHRTests
     }
     
     // BNE committed, new history, new predictor
-    BitPredictor predictor2 = cpu.cpuState.gShareUnit.getPredictor(branchPc);
+    int predictor2 = cpu.cpuState.gShareUnit.getPredictorIndex(branchPc);
     Assert.assertNotEquals(predictor, predictor2);
   }
   
+  @Test
+  public void testGHRWrapsAndGrows()
+  {
+    GlobalHistoryRegister ghr = new GlobalHistoryRegister(8, 2);
+    // Shift and commit more branches than the capacity
+    for (int i = 0; i < 100; i++)
+    {
+      ghr.shiftValue(i % 2 == 0, i);
+      ghr.commit(i);
+    }
+    Assert.assertEquals(0b10101010, ghr.getArchitecturalState());
+    
+    // More branches in flight than the capacity
+    for (int i = 100; i < 110; i++)
+    {
+      ghr.shiftValue(true, i);
+    }
+    Assert.assertEquals(0b11111111, ghr.getRegisterValue());
+    ghr.commit(101);
+    Assert.assertEquals(0b10101011, ghr.getArchitecturalState());
+    ghr.flush(102);
+    Assert.assertEquals(0b01010111, ghr.getRegisterValue());
+    ghr.fixPrediction(false, 102);
+    Assert.assertEquals(0b01010110, ghr.getRegisterValue());
+    ghr.flush(0);
+    Assert.assertEquals(0b10101011, ghr.getRegisterValue());
+  }
+  
+  @Test
+  public void testLongHistory()
+  {
+    GlobalHistoryRegister ghr = new GlobalHistoryRegister(40);
+    for (int i = 0; i < 40; i++)
+    {
+      ghr.shiftValue(true, i);
+    }
+    Assert.assertEquals((1L << 40) - 1, ghr.getRegisterValue());
+    ghr.shiftValue(false, 40);
+    Assert.assertEquals((1L << 40) - 2, ghr.getRegisterValue());
+    
+    GShareUnit gShareUnit = new GShareUnit(1024, true, ghr, new PatternHistoryTable(1024, new BitPredictor(
+            BitPredictor.PredictorType.TWO_BIT_PREDICTOR, BitPredictor.WEAKLY_TAKEN)));
+    Assert.assertTrue(gShareUnit.getPredictorIndex(8) >= 0);
+  }
+  
   // TODO: more tests, once the details of GHR are consulted
 }
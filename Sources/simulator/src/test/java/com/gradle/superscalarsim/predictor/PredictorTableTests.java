@@ -0,0 +1,82 @@
+package com.gradle.superscalarsim.predictor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gradle.superscalarsim.blocks.branch.BitPredictor;
+import com.gradle.superscalarsim.blocks.branch.BranchTargetBuffer;
+import com.gradle.superscalarsim.blocks.branch.PatternHistoryTable;
+import com.gradle.superscalarsim.serialization.Serialization;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PredictorTableTests
+{
+  @Test
+  public void patternHistoryTable_saturatesAndWraps()
+  {
+    PatternHistoryTable pht = new PatternHistoryTable(4, new BitPredictor(
+            BitPredictor.PredictorType.TWO_BIT_PREDICTOR, BitPredictor.WEAKLY_NOT_TAKEN));
+    Assert.assertFalse(pht.getPrediction(1));
+    pht.sendFeedback(1, true);
+    pht.sendFeedback(5, true);
+    pht.sendFeedback(1, true);
+    Assert.assertEquals(BitPredictor.STRONGLY_TAKEN, pht.getState(5));
+    Assert.assertTrue(pht.getPrediction(1));
+    pht.sendFeedback(2, false);
+    pht.sendFeedback(2, false);
+    Assert.assertEquals(BitPredictor.STRONGLY_NOT_TAKEN, pht.getState(2));
+    Assert.assertEquals(BitPredictor.WEAKLY_NOT_TAKEN, pht.getState(3));
+  }
+  
+  @Test
+  public void patternHistoryTable_showsAccessedPredictors() throws Exception
+  {
+    PatternHistoryTable pht = new PatternHistoryTable(16, new BitPredictor(
+            BitPredictor.PredictorType.ONE_BIT_PREDICTOR, BitPredictor.NOT_TAKEN));
+    pht.sendFeedback(9, true);
+    pht.getPrediction(3);
+    
+    JsonNode json = Serialization.getSerializer().valueToTree(pht);
+    Assert.assertEquals(2, json.get("predictorMap").size());
+    Assert.assertEquals(1, json.get("predictorMap").get("9").get("state").asInt());
+    Assert.assertEquals(1, json.get("predictorMap").get("9").get("bitWidth").asInt());
+    Assert.assertEquals(0, json.get("predictorMap").get("3").get("state").asInt());
+    Assert.assertFalse(json.has("states"));
+  }
+  
+  @Test
+  public void patternHistoryTable_peekDoesNotShowPredictor() throws Exception
+  {
+    PatternHistoryTable pht = new PatternHistoryTable(16, new BitPredictor(
+            BitPredictor.PredictorType.TWO_BIT_PREDICTOR, BitPredictor.WEAKLY_NOT_TAKEN));
+    pht.sendFeedback(9, true);
+    Assert.assertEquals(BitPredictor.WEAKLY_TAKEN, pht.peekState(9));
+    Assert.assertEquals(BitPredictor.WEAKLY_NOT_TAKEN, pht.peekState(3));
+    
+    JsonNode json = Serialization.getSerializer().valueToTree(pht);
+    Assert.assertEquals(1, json.get("predictorMap").size());
+    Assert.assertTrue(json.get("predictorMap").has("9"));
+  }
+  
+  @Test
+  public void branchTargetBuffer_comparesTags() throws Exception
+  {
+    BranchTargetBuffer btb = new BranchTargetBuffer(8);
+    Assert.assertEquals(-1, btb.getEntryTarget(0));
+    Assert.assertFalse(btb.isEntryUnconditional(0));
+    
+    btb.setEntry(4, false, 40);
+    Assert.assertEquals(40, btb.getEntryTarget(4));
+    Assert.assertTrue(btb.isEntryUnconditional(4));
+    // Same index, other tag
+    Assert.assertEquals(-1, btb.getEntryTarget(12));
+    btb.setEntry(12, true, 0);
+    Assert.assertEquals(-1, btb.getEntryTarget(4));
+    Assert.assertFalse(btb.isEntryUnconditional(12));
+    
+    JsonNode buffer = Serialization.getSerializer().valueToTree(btb).get("buffer");
+    Assert.assertEquals(1, buffer.size());
+    Assert.assertEquals(12, buffer.get("4").get("pcTag").asInt());
+    Assert.assertTrue(buffer.get("4").get("isConditional").asBoolean());
+    Assert.assertEquals(0, buffer.get("4").get("target").asInt());
+  }
+}
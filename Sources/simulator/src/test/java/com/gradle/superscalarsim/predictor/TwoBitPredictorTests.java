@@ -70,7 +70,7 @@ public class TwoBitPredictorTests
       cpu.step();
       
       SimulationStatistics.InstructionStats beq = cpu.cpuState.statistics.instructionStats.get(1);
-      switch (beq.committedCount)
+      switch ((int) beq.committedCount)
       {
         case 0:
           break;
@@ -108,7 +108,7 @@ public class TwoBitPredictorTests
       cpu.step();
       
       SimulationStatistics.InstructionStats beq = cpu.cpuState.statistics.instructionStats.get(1);
-      switch (beq.committedCount)
+      switch ((int) beq.committedCount)
       {
         case 0:
           break;